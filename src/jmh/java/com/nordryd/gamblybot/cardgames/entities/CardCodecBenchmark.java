@@ -0,0 +1,109 @@
+package com.nordryd.gamblybot.cardgames.entities;
+
+import java.util.concurrent.TimeUnit;
+
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * Compares {@link CardCodec} against reading and writing cards through their {@link Rank} and {@link Suit} enums and
+ * {@link String} operations. Every benchmark goes through all 52 cards, so results are per 52 cards. Run with
+ * {@code gradle jmh -Pjmh.includes=CardCodecBenchmark}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardCodecBenchmark
+{
+    private static final String RANK_CHARS = "23456789TJQKA";
+
+    private final String[] codes = new String[Card.CARD_COUNT];
+    private final String hand = "AS KD 7H 2C TD";
+    private final byte[] bytes = new byte[Card.CARD_COUNT * CardCodec.CODE_LENGTH];
+
+    public CardCodecBenchmark() {
+        for (int cardId = 0; cardId < Card.CARD_COUNT; cardId++) {
+            codes[cardId] = CardCodec.format(cardId);
+        }
+    }
+
+    @Benchmark
+    public int parse() {
+        int ids = 0;
+        for (final String code : codes) {
+            ids += CardCodec.parse(code).getId();
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public int parseWithEnums() {
+        int ids = 0;
+        for (final String code : codes) {
+            ids += parseWithEnums(code).getId();
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public CardSet parseAll() {
+        return CardCodec.parseAll(hand);
+    }
+
+    @Benchmark
+    public int format() {
+        int length = 0;
+        for (int cardId = 0; cardId < Card.CARD_COUNT; cardId++) {
+            length += CardCodec.format(cardId).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int formatWithEnums() {
+        int length = 0;
+        for (int cardId = 0; cardId < Card.CARD_COUNT; cardId++) {
+            final Card card = Card.fromId(cardId);
+            length += (RANK_CHARS.charAt(card.getRank().ordinal()) + card.getSuit().name().substring(0, 1)).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        for (int cardId = 0, offset = 0; cardId < Card.CARD_COUNT; cardId++) {
+            offset = CardCodec.encode(cardId, bytes, offset);
+        }
+        return bytes;
+    }
+
+    private static Card parseWithEnums(final String code) {
+        final String rankText = code.substring(0, 1).toUpperCase(), suitText = code.substring(1).toUpperCase();
+        for (final Rank rank : Rank.values()) {
+            if (rankText.equals(String.valueOf(RANK_CHARS.charAt(rank.ordinal())))) {
+                for (final Suit suit : Suit.values()) {
+                    if (suit.name().startsWith(suitText)) {
+                        return Card.get(rank).of(suit);
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("\"" + code + "\" is not a card!");
+    }
+}
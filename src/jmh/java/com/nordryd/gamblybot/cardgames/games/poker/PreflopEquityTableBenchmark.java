@@ -0,0 +1,93 @@
+package com.nordryd.gamblybot.cardgames.games.poker;
+
+import static com.nordryd.gamblybot.cardgames.games.poker.PreflopHandClasses.CLASS_COUNT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * Measures what {@link PreflopEquityTable} costs at startup, against reading the same file onto the heap, and what a
+ * lookup costs once it is loaded. The table is generated with few trials before the run, as its values do not affect
+ * either cost. Run with {@code gradle jmh -Pjmh.includes=PreflopEquityTableBenchmark}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreflopEquityTableBenchmark
+{
+    private static final int MAX_OPPONENTS = 9, TRIALS = 100, HEADS_UP_TRIALS = 10, LOOKUPS = 1024;
+
+    private Path file;
+    private PreflopEquityTable table;
+    private final int[] handClasses = new int[LOOKUPS], opponents = new int[LOOKUPS];
+    private int lookup;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("preflop-equity", ".bin");
+        PreflopEquityGenerator.generate(file, MAX_OPPONENTS, TRIALS, HEADS_UP_TRIALS, 1L);
+        table = PreflopEquityTable.load(file);
+
+        final SplittableRandom rng = new SplittableRandom(1L);
+        for (int index = 0; index < LOOKUPS; index++) {
+            handClasses[index] = rng.nextInt(CLASS_COUNT);
+            opponents[index] = rng.nextInt(1, MAX_OPPONENTS + 1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public PreflopEquityTable load() throws IOException {
+        return PreflopEquityTable.load(file);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public float[] loadOntoHeap() throws IOException {
+        final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(PreflopEquityTable.BYTE_ORDER);
+        bytes.position(PreflopEquityTable.HEADER_BYTES);
+        final float[] equities = new float[bytes.remaining() / Float.BYTES];
+        bytes.asFloatBuffer().get(equities);
+        return equities;
+    }
+
+    @Benchmark
+    public float equity() {
+        final int index = lookup++ & (LOOKUPS - 1);
+        return table.equity(handClasses[index], opponents[index]);
+    }
+
+    @Benchmark
+    public float headsUp() {
+        final int index = lookup++ & (LOOKUPS - 1);
+        return table.headsUp(handClasses[index], handClasses[(index + 1) & (LOOKUPS - 1)]);
+    }
+}
@@ -0,0 +1,91 @@
+package com.nordryd.gamblybot.rendering;
+
+import static java.lang.String.format;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackHand;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * Compares {@link MessageRenderer} against rendering a full seven-player table by concatenating each card's
+ * {@code "Rank of Suit"} text, formatted on every call as {@link Card#toString()} used to. Run with
+ * {@code gradle jmh -Pjmh.includes=MessageRendererBenchmark}, adding {@code -prof gc} to the JMH arguments to see the
+ * bytes allocated per message.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageRendererBenchmark
+{
+    private static final int PLAYERS = 7, WAGER = 10;
+
+    private final MessageRenderer renderer = new MessageRenderer();
+    private BlackjackGame game;
+
+    @Setup
+    public void setUp() {
+        game = new BlackjackGame(new Deck(new Random(1)));
+        for (int player = 0; player < PLAYERS; player++) {
+            game.addPlayer(WAGER);
+        }
+    }
+
+    @Benchmark
+    public String renderTable() {
+        return renderer.renderTable(game);
+    }
+
+    @Benchmark
+    public String renderTableWithToString() {
+        final Card upCard = game.getDealer().getHands().get(0).getCards().get(0);
+        String message = "Dealer: " + name(upCard) + " (hidden)\n";
+        final List<BlackjackPlayer> players = game.getPlayers();
+        for (int seat = 0; seat < players.size(); seat++) {
+            for (final BlackjackHand hand : players.get(seat).getHands()) {
+                message += "Player " + (seat + 1) + ": ";
+                for (final Card card : hand.getCards()) {
+                    message += name(card) + ", ";
+                }
+                message += "(" + hand.getValue() + ", " + hand.getState() + ")\n";
+            }
+        }
+        return message;
+    }
+
+    @Benchmark
+    public String renderCard() {
+        return renderer.renderCard(game.getDealer().getHands().get(0).getCards().get(0));
+    }
+
+    @Benchmark
+    public String renderCardWithToString() {
+        return name(game.getDealer().getHands().get(0).getCards().get(0));
+    }
+
+    private static String name(final Card card) {
+        return format("%s of %s", card.getRank(), card.getSuit());
+    }
+}
@@ -1,8 +1,38 @@
 package com.nordryd.gamblybot;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
 import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 
+import com.nordryd.gamblybot.cardgames.engine.TableEngine;
 import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.entities.DeckPool;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackHintCache;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackIdleTableStore;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRuleSet;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRules;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackTableSnapshotter;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackTurnTimer;
+import com.nordryd.gamblybot.cardgames.games.poker.PreflopEquityTable;
+import com.nordryd.gamblybot.commands.CommandAdmissionController;
+import com.nordryd.gamblybot.commands.RateLimit;
+import com.nordryd.gamblybot.leaderboard.LeaderboardService;
+import com.nordryd.gamblybot.messaging.ChatTransport;
+import com.nordryd.gamblybot.messaging.LoopbackChatTransport;
+import com.nordryd.gamblybot.messaging.OutboundDispatcher;
+import com.nordryd.gamblybot.timing.HashedWheelTimer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -37,14 +67,147 @@ public class GamblyBot
     @ComponentScan
     public static class Config
     {
+        // the load test drives the engine with the same limits as the bot
+        static final RateLimit USER_COMMAND_LIMIT = new RateLimit(5, 2), CHANNEL_COMMAND_LIMIT = new RateLimit(20, 10);
+        static final int COMMAND_QUEUE_SHED_THRESHOLD = 1000;
+        static final int TABLE_MAILBOX_CAPACITY = 256;
+        private static final int BUCKET_EVICTION_SECONDS = 60;
+        private static final int TURN_TIMEOUT_SECONDS = 30;
+        private static final int SNAPSHOT_PERIOD_SECONDS = 5;
+        private static final int CALCULATOR_CACHE_ENTRIES = 1 << 20;
+        private static final int DECK_POOL_MIN_SIZE = 16, DECK_POOL_MAX_SIZE = 4096;
+        private static final int OUTBOUND_WINDOW_MILLIS = 250;
+
         @Bean
         public Random rng() {
             return new Random();
         }
 
+        @Bean
+        public DeckPool deckPool() {
+            final DeckPool pool = new DeckPool(rng(), DECK_POOL_MIN_SIZE, DECK_POOL_MAX_SIZE);
+            pool.start();
+            return pool;
+        }
+
         @Bean
         public Deck deck() {
-            return new Deck(rng());
+            return new Deck(deckPool());
+        }
+
+        @Bean
+        public ThreadPoolExecutor commandExecutor() {
+            final int threads = Runtime.getRuntime().availableProcessors();
+            return new ThreadPoolExecutor(threads, threads, 0L, MILLISECONDS, new LinkedBlockingQueue<>());
+        }
+
+        @Bean
+        public TableEngine tableEngine() {
+            final TableEngine engine = new TableEngine(commandExecutor(), TABLE_MAILBOX_CAPACITY);
+            engine.addListener(blackjackTurnTimer());
+            return engine;
+        }
+
+        @Bean
+        public CommandAdmissionController commandAdmissionController() {
+            final CommandAdmissionController controller = new CommandAdmissionController(USER_COMMAND_LIMIT,
+                    CHANNEL_COMMAND_LIMIT, () -> commandExecutor().getQueue().size(), COMMAND_QUEUE_SHED_THRESHOLD,
+                    System::nanoTime);
+            // otherwise every user and channel that ever sent a command keeps its bucket forever
+            Executors.newSingleThreadScheduledExecutor(task -> {
+                final Thread thread = new Thread(task, "command-admission-eviction");
+                thread.setDaemon(true);
+                return thread;
+            }).scheduleWithFixedDelay(controller::evictIdle, BUCKET_EVICTION_SECONDS, BUCKET_EVICTION_SECONDS, SECONDS);
+            return controller;
+        }
+
+        @Bean
+        public HashedWheelTimer turnTimer() {
+            return new HashedWheelTimer(100, MILLISECONDS, 512);
+        }
+
+        @Bean
+        public BlackjackTurnTimer blackjackTurnTimer() {
+            return new BlackjackTurnTimer(turnTimer(), TURN_TIMEOUT_SECONDS, SECONDS);
+        }
+
+        @Bean
+        public BlackjackCalculator blackjackCalculator(final BlackjackRuleSet blackjackRuleSet) {
+            return new BlackjackCalculator(CALCULATOR_CACHE_ENTRIES, blackjackRuleSet);
+        }
+
+        @Bean
+        public BlackjackHintCache blackjackHintCache(final BlackjackCalculator blackjackCalculator) {
+            // the bot deals every game from a single deck
+            return new BlackjackHintCache(blackjackCalculator, 1);
+        }
+
+        @Bean
+        public BlackjackRuleSet blackjackRuleSet(
+                @Value("${gamblybot.blackjack.dealer-hits-soft-17:false}") final boolean dealerHitsSoft17,
+                @Value("${gamblybot.blackjack.double-after-split:true}") final boolean doubleAfterSplit,
+                @Value("${gamblybot.blackjack.resplit-aces:false}") final boolean resplitAces,
+                @Value("${gamblybot.blackjack.surrender:LATE}") final BlackjackRuleSet.Surrender surrender,
+                @Value("${gamblybot.blackjack.blackjack-payout:THREE_TO_TWO}")
+                final BlackjackRuleSet.BlackjackPayout blackjackPayout) {
+            return BlackjackRuleSet.builder().dealerHitsSoft17(dealerHitsSoft17).doubleAfterSplit(doubleAfterSplit)
+                    .resplitAces(resplitAces).surrender(surrender).blackjackPayout(blackjackPayout).build();
+        }
+
+        @Bean
+        public BlackjackRules blackjackRules(final BlackjackRuleSet blackjackRuleSet) {
+            return new BlackjackRules(() -> new Deck(deckPool()), blackjackRuleSet);
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        public BlackjackTableSnapshotter blackjackTableSnapshotter(
+                @Value("${gamblybot.blackjack.snapshot-file:build/blackjack-tables.snapshot}") final String file,
+                final BlackjackRules blackjackRules) throws IOException {
+            final Path snapshotFile = Paths.get(file).toAbsolutePath();
+            Files.createDirectories(snapshotFile.getParent());
+            final BlackjackTableSnapshotter snapshotter = new BlackjackTableSnapshotter(
+                    () -> tableEngine().getTables(BlackjackGame.class), snapshotFile);
+
+            // restored before the first snapshot, which would otherwise replace the last one with no tables at all
+            snapshotter.restore(rng())
+                    .forEach((channelId, game) -> tableEngine().open(channelId, blackjackRules, game));
+            snapshotter.start(SNAPSHOT_PERIOD_SECONDS, SECONDS);
+            return snapshotter;
+        }
+
+        @Bean
+        public BlackjackIdleTableStore blackjackIdleTableStore() {
+            return new BlackjackIdleTableStore(rng());
+        }
+
+        @Bean
+        public PreflopEquityTable preflopEquityTable(
+                @Value("${gamblybot.poker.preflop-equity-file:build/generated/preflop-equity.bin}") final String file)
+                throws IOException {
+            // gradle generatePreflopTables writes the file into build/generated, and bootRun generates it first; a
+            // deployment ships the file alongside the jar and points gamblybot.poker.preflop-equity-file at it
+            return PreflopEquityTable.load(Paths.get(file));
+        }
+
+        @Bean
+        public LeaderboardService leaderboardService(final BlackjackRuleSet blackjackRuleSet) {
+            return new LeaderboardService(Clock.systemUTC(), blackjackRuleSet);
+        }
+
+        @Bean
+        public ChatTransport chatTransport() {
+            return new LoopbackChatTransport();
+        }
+
+        @Bean
+        public OutboundDispatcher outboundDispatcher() {
+            return new OutboundDispatcher(chatTransport(), new RateLimit(5, 1), new RateLimit(50, 50),
+                    OUTBOUND_WINDOW_MILLIS, MILLISECONDS, Executors.newSingleThreadScheduledExecutor(task -> {
+                        final Thread thread = new Thread(task, "outbound-dispatcher");
+                        thread.setDaemon(true);
+                        return thread;
+                    }), System::nanoTime);
         }
     }
 }
@@ -0,0 +1,32 @@
+package com.nordryd.gamblybot.cardgames.engine;
+
+/**
+ * <p>
+ * The rules of a card game, as plugged into the {@link TableEngine}. The engine only ever calls a table's rules from
+ * that table's own thread of execution, one call at a time, so rules and the games they manage need not be thread
+ * safe.
+ * </p>
+ *
+ * @param <G> the type of game the rules manage.
+ * @param <M> the type of move players make.
+ * @author Nordryd
+ */
+public interface GameRules<G, M>
+{
+    /**
+     * @return a new game, for a newly opened table.
+     */
+    G newGame();
+
+    /**
+     * Applies a player's move to a game.
+     *
+     * @param game the game.
+     * @param seat the seat of the player making the move.
+     * @param move the move.
+     * @return {@code true} if the move finished a round, which is then ready to be settled.
+     * @throws IllegalArgumentException if the move is not valid.
+     * @throws IllegalStateException if the move cannot be made right now.
+     */
+    boolean apply(G game, int seat, M move);
+}
@@ -0,0 +1,107 @@
+package com.nordryd.gamblybot.cardgames.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>
+ * A bounded, lock-free queue that any number of threads may add to, but only one thread at a time may take from. It is
+ * a ring buffer: producers claim a slot by advancing the producer index, then fill it, and the consumer empties slots
+ * in order, so neither side ever takes a lock and nothing is allocated per message.
+ * </p>
+ *
+ * @param <T> the type of message.
+ * @author Nordryd
+ */
+class Mailbox<T>
+{
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong producerIndex;
+    private final AtomicLong consumerIndex;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the most messages the mailbox holds at once, rounded up to a power of two.
+     * @throws IllegalArgumentException if capacity &le; 0, or is more than 2<sup>30</sup>.
+     */
+    Mailbox(final int capacity) {
+        if ((capacity <= 0) || (capacity > (1 << 30))) {
+            throw new IllegalArgumentException("A mailbox's capacity must be between 1 and 2^30!");
+        }
+
+        final int slotCount = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.mask = slotCount - 1;
+        this.producerIndex = new AtomicLong();
+        this.consumerIndex = new AtomicLong();
+    }
+
+    /**
+     * Adds a message. Safe to call from any thread.
+     *
+     * @param message the message.
+     * @return {@code true} if the message was added, or {@code false} if the mailbox is full.
+     */
+    boolean offer(final T message) {
+        long index;
+        do {
+            index = producerIndex.get();
+            if ((index - consumerIndex.get()) > mask) {
+                return false;
+            }
+        }
+        while (!producerIndex.compareAndSet(index, index + 1));
+        slots.lazySet((int) index & mask, message);
+        return true;
+    }
+
+    /**
+     * Takes the oldest message. Must only be called by one thread at a time.
+     *
+     * @return the oldest message, or {@code null} if the mailbox is empty.
+     */
+    T poll() {
+        final long index = consumerIndex.get();
+        final int slot = (int) index & mask;
+        T message = slots.get(slot);
+        if (message == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+
+            // a producer has claimed the slot but not filled it yet, which it is just about to
+            do {
+                Thread.yield();
+                message = slots.get(slot);
+            }
+            while (message == null);
+        }
+
+        slots.lazySet(slot, null);
+        consumerIndex.lazySet(index + 1);
+        return message;
+    }
+
+    /**
+     * @return roughly how many messages are waiting.
+     */
+    int size() {
+        return (int) Math.max(0L, producerIndex.get() - consumerIndex.get());
+    }
+
+    /**
+     * @return {@code true} if no messages are waiting.
+     */
+    boolean isEmpty() {
+        return producerIndex.get() == consumerIndex.get();
+    }
+
+    /**
+     * @return the most messages the mailbox holds at once.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+}
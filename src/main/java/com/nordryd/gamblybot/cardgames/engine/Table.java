@@ -0,0 +1,204 @@
+package com.nordryd.gamblybot.cardgames.engine;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import com.nordryd.gamblybot.jfr.SlowCommandEvent;
+
+/**
+ * <p>
+ * A table in a {@link TableEngine}: a game, its {@link GameRules rules}, and a queue of work for it. Work is run on
+ * the engine's shared executor, but never more than one piece at a time for the same table, in the order it was
+ * submitted, so each table is a single-writer state machine with no locks around its game.
+ * </p>
+ * <p>
+ * Work waits in a bounded {@link Mailbox}. Once a table has as much work waiting as its mailbox holds, anything more
+ * is turned away with a {@link RejectedExecutionException} rather than queued, so one flooded table cannot take up
+ * unbounded memory or starve the others. Callers can watch {@link #getQueuedCount()} to slow down before that.
+ * </p>
+ *
+ * @param <G> the type of game played at the table.
+ * @param <M> the type of move players make.
+ * @author Nordryd
+ */
+public class Table<G, M>
+{
+    private static final int BATCH_SIZE = 64;
+
+    private final String id;
+    private final G game;
+    private final GameRules<G, M> rules;
+    private final Executor executor;
+    private final List<TableListener> listeners;
+    private final Mailbox<Runnable> mailbox;
+    private final AtomicBoolean scheduled;
+    private final AtomicBoolean closeHeard;
+
+    private volatile boolean closed;
+
+    Table(final String id, final GameRules<G, M> rules, final G game, final Executor executor,
+            final List<TableListener> listeners, final int mailboxCapacity) {
+        this.id = id;
+        this.game = game;
+        this.rules = rules;
+        this.executor = executor;
+        this.listeners = listeners;
+        this.mailbox = new Mailbox<>(mailboxCapacity);
+        this.scheduled = new AtomicBoolean();
+        this.closeHeard = new AtomicBoolean();
+        this.closed = false;
+    }
+
+    /**
+     * Makes a move at the table.
+     *
+     * @param seat the seat of the player making the move.
+     * @param move the move.
+     * @return a {@link CompletableFuture} that completes with {@code true} if the move finished a round, or
+     * exceptionally with whatever the rules rejected the move with, with an {@link IllegalStateException} if the
+     * table is closed, or with a {@link RejectedExecutionException} if the table has too much work waiting.
+     */
+    public CompletableFuture<Boolean> dispatch(final int seat, final M move) {
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        if (closed) {
+            result.completeExceptionally(new IllegalStateException("Table " + id + " is closed!"));
+            return result;
+        }
+
+        final long submittedAt = System.nanoTime();
+        submit(result, () -> {
+            final long queuedNanos = System.nanoTime() - submittedAt;
+            final SlowCommandEvent event = SlowCommandEvent.start();
+            final boolean roundOver;
+            try {
+                roundOver = rules.apply(game, seat, move);
+            }
+            catch (final RuntimeException exception) {
+                event.finish(id, seat, move, queuedNanos, true);
+                listeners.forEach(listener -> listener.onMove(this, seat, move, queuedNanos, exception));
+                result.completeExceptionally(exception);
+                return;
+            }
+
+            event.finish(id, seat, move, queuedNanos, false);
+            listeners.forEach(listener -> listener.onMove(this, seat, move, queuedNanos, null));
+            if (roundOver) {
+                listeners.forEach(listener -> listener.onRoundOver(this));
+            }
+            result.complete(roundOver);
+        });
+        return result;
+    }
+
+    /**
+     * Reads from the table's game, in turn with the moves made at it.
+     *
+     * @param query what to read.
+     * @param <R> the type of what is read.
+     * @return a {@link CompletableFuture} that completes with what was read, or exceptionally with a
+     * {@link RejectedExecutionException} if the table has too much work waiting.
+     */
+    public <R> CompletableFuture<R> read(final Function<? super G, ? extends R> query) {
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        submit(result, () -> result.complete(query.apply(game)));
+        return result;
+    }
+
+    /**
+     * @return the table's ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the table's game. This is only safe to use from the table's own thread of execution, such as from a
+     * {@link TableListener}.
+     */
+    public G getGame() {
+        return game;
+    }
+
+    /**
+     * @return roughly how much work is waiting to run at the table.
+     */
+    public int getQueuedCount() {
+        return mailbox.size();
+    }
+
+    /**
+     * @return the most work that can wait to run at the table at once.
+     */
+    public int getMailboxCapacity() {
+        return mailbox.capacity();
+    }
+
+    /**
+     * @return {@code true} if the table has been closed.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        // listeners hear about the close once the work already waiting has run, even if the mailbox is full
+        closed = true;
+        schedule();
+    }
+
+    void opened() {
+        submit(new CompletableFuture<>(), () -> listeners.forEach(listener -> listener.onOpened(this)));
+    }
+
+    private void submit(final CompletableFuture<?> result, final Runnable work) {
+        final boolean added = mailbox.offer(() -> {
+            try {
+                work.run();
+            }
+            catch (final RuntimeException exception) {
+                result.completeExceptionally(exception);
+            }
+        });
+
+        if (!added) {
+            result.completeExceptionally(new RejectedExecutionException("Table " + id + " is full!"));
+            return;
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        for (int ran = 0; ran < BATCH_SIZE; ran++) {
+            final Runnable work = mailbox.poll();
+            if (work == null) {
+                break;
+            }
+            work.run();
+        }
+
+        // let other tables have a turn before running any more of this one's work
+        if (!mailbox.isEmpty()) {
+            executor.execute(this::drain);
+            return;
+        }
+
+        if (closed && closeHeard.compareAndSet(false, true)) {
+            listeners.forEach(listener -> listener.onClosed(this));
+        }
+
+        scheduled.set(false);
+        if ((!mailbox.isEmpty() || (closed && !closeHeard.get())) && scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.nordryd.gamblybot.cardgames.engine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import com.nordryd.gamblybot.jfr.TableCreatedEvent;
+import com.nordryd.gamblybot.jfr.TableEvictedEvent;
+
+/**
+ * <p>
+ * Runs every table of every game on one shared {@link Executor}. Each {@link Table} runs its own work one piece at a
+ * time, so games never need locking, while the executor's threads are shared between however many tables there are.
+ * Anything that applies to every game, such as metrics or persistence, is a {@link TableListener} added once here.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class TableEngine
+{
+    /**
+     * How much work can wait at each table by default.
+     */
+    public static final int DEFAULT_MAILBOX_CAPACITY = 4096;
+
+    private final Executor executor;
+    private final int mailboxCapacity;
+    private final ConcurrentMap<String, Table<?, ?>> tables;
+    private final List<TableListener> listeners;
+
+    /**
+     * Constructor.
+     *
+     * @param executor the {@link Executor} every table runs on.
+     */
+    public TableEngine(final Executor executor) {
+        this(executor, DEFAULT_MAILBOX_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executor the {@link Executor} every table runs on.
+     * @param mailboxCapacity how much work can wait at each table before more is rejected, rounded up to a power of
+     * two.
+     * @throws IllegalArgumentException if mailboxCapacity &le; 0
+     */
+    public TableEngine(final Executor executor, final int mailboxCapacity) {
+        if (mailboxCapacity <= 0) {
+            throw new IllegalArgumentException("A table's mailbox capacity must be positive!");
+        }
+
+        this.executor = executor;
+        this.mailboxCapacity = mailboxCapacity;
+        this.tables = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Opens a new table.
+     *
+     * @param tableId the table's ID, such as the channel it is played in.
+     * @param rules the {@link GameRules} of the game played at the table.
+     * @param <G> the type of game played at the table.
+     * @param <M> the type of move players make.
+     * @return the new {@link Table}.
+     * @throws IllegalStateException if a table with that ID is already open.
+     */
+    public <G, M> Table<G, M> open(final String tableId, final GameRules<G, M> rules) {
+        return open(tableId, rules, rules.newGame());
+    }
+
+    /**
+     * Opens a table with a game that is already under way, such as one restored after a restart.
+     *
+     * @param tableId the table's ID, such as the channel it is played in.
+     * @param rules the {@link GameRules} of the game played at the table.
+     * @param game the game, which from now on is only used by the table.
+     * @param <G> the type of game played at the table.
+     * @param <M> the type of move players make.
+     * @return the new {@link Table}.
+     * @throws IllegalStateException if a table with that ID is already open.
+     */
+    public <G, M> Table<G, M> open(final String tableId, final GameRules<G, M> rules, final G game) {
+        final Table<G, M> table = new Table<>(tableId, rules, game, executor, listeners, mailboxCapacity);
+        if (tables.putIfAbsent(tableId, table) != null) {
+            throw new IllegalStateException("Table " + tableId + " is already open!");
+        }
+        TableCreatedEvent.emit(tableId, tables.size());
+        table.opened();
+        return table;
+    }
+
+    /**
+     * @param tableId a table's ID.
+     * @return the open {@link Table} with that ID, or {@code null} if there is none.
+     */
+    public Table<?, ?> get(final String tableId) {
+        return tables.get(tableId);
+    }
+
+    /**
+     * @param gameType the type of game.
+     * @param <G> the type of game.
+     * @return the open {@link Table tables} playing that type of game, keyed by ID.
+     */
+    @SuppressWarnings("unchecked")
+    public <G> Map<String, Table<G, ?>> getTables(final Class<G> gameType) {
+        final Map<String, Table<G, ?>> matching = new HashMap<>();
+        tables.forEach((tableId, table) -> {
+            if (gameType.isInstance(table.getGame())) {
+                matching.put(tableId, (Table<G, ?>) table);
+            }
+        });
+        return matching;
+    }
+
+    /**
+     * Closes a table. Work already submitted to it still runs.
+     *
+     * @param tableId the table's ID.
+     * @return {@code true} if the table was open.
+     */
+    public boolean close(final String tableId) {
+        final Table<?, ?> table = tables.remove(tableId);
+        if (table == null) {
+            return false;
+        }
+        table.close();
+        TableEvictedEvent.emit(tableId, tables.size());
+        return true;
+    }
+
+    /**
+     * @param listener a {@link TableListener} to tell about everything that happens at every table.
+     */
+    public void addListener(final TableListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return how many tables are open.
+     */
+    public int getTableCount() {
+        return tables.size();
+    }
+}
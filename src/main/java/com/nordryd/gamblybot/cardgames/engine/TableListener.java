@@ -0,0 +1,38 @@
+package com.nordryd.gamblybot.cardgames.engine;
+
+/**
+ * <p>
+ * Hears about everything that happens at every table in a {@link TableEngine}, such as for settling rounds, keeping
+ * metrics or persisting tables. Listeners are called on the table's own thread of execution, so they may safely read
+ * the table's {@link Table#getGame() game}, but should hand off anything slow.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public interface TableListener
+{
+    /**
+     * @param table the {@link Table} that was opened.
+     */
+    default void onOpened(final Table<?, ?> table) {}
+
+    /**
+     * @param table the {@link Table} the move was made at.
+     * @param seat the seat that made the move.
+     * @param move the move.
+     * @param queuedNanos how long the move waited before it was applied.
+     * @param failure what the move was rejected with, or {@code null} if it was applied.
+     */
+    default void onMove(final Table<?, ?> table, final int seat, final Object move, final long queuedNanos,
+            final RuntimeException failure) {}
+
+    /**
+     * @param table the {@link Table} whose round finished.
+     */
+    default void onRoundOver(final Table<?, ?> table) {}
+
+    /**
+     * @param table the {@link Table} that was closed.
+     */
+    default void onClosed(final Table<?, ?> table) {}
+}
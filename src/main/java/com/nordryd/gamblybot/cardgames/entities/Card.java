@@ -1,34 +1,73 @@
 package com.nordryd.gamblybot.cardgames.entities;
 
 import static java.lang.String.format;
-import static java.util.Objects.hash;
 
 import java.util.Random;
 
 /**
  * <p>
- * Represents a playing card in a standard 52-card deck.
+ * Represents a playing card in a standard 52-card deck. There is exactly one instance of each card, so cards can be
+ * compared by identity and mapped to a compact {@link #getId() ID}.
  * </p>
  *
  * @author Nordryd
  */
 public class Card
 {
+    /**
+     * The number of distinct cards, and one more than the largest {@link #getId() card ID}.
+     */
+    public static final int CARD_COUNT = 52;
+
     private static final Random RNG = new Random();
+    private static final Rank[] RANKS = Rank.values();
+    private static final Suit[] SUITS = Suit.values();
+    private static final Card[] CARDS_BY_ID = new Card[CARD_COUNT];
+    private static final Builder[] BUILDERS = new Builder[RANKS.length];
+    private static final BattleResult[] BATTLES_ACES_HIGH = new BattleResult[CARD_COUNT * CARD_COUNT];
+    private static final BattleResult[] BATTLES_ACES_LOW = new BattleResult[CARD_COUNT * CARD_COUNT];
+
     private final Rank rank;
     private final Suit suit;
+    private final int id;
+    private final String name;
 
     private Card(final Rank rank, final Suit suit) {
         this.rank = rank;
         this.suit = suit;
+        this.id = (suit.ordinal() * RANKS.length) + rank.ordinal();
+        this.name = format("%s of %s", rank, suit);
     }
 
     /**
      * @return a random {@link Card}.
      */
     public static Card draw() {
-        return get(Rank.values()[RNG.nextInt(Rank.values().length)])
-                .of(Suit.values()[RNG.nextInt(Suit.values().length)]);
+        return CARDS_BY_ID[RNG.nextInt(CARD_COUNT)];
+    }
+
+    /**
+     * Gets a card by its {@link #getId() ID}.
+     *
+     * @param id the card ID, from 0 (inclusive) to {@link #CARD_COUNT} (exclusive).
+     * @return the {@link Card} with the given ID.
+     * @throws IllegalArgumentException if the ID is out of range.
+     */
+    public static Card fromId(final int id) {
+        if ((id < 0) || (id >= CARD_COUNT)) {
+            throw new IllegalArgumentException("A card's ID must be between 0 and " + (CARD_COUNT - 1));
+        }
+        return CARDS_BY_ID[id];
+    }
+
+    /**
+     * Card IDs are grouped by {@link Suit}, so the 13 cards of a suit occupy a contiguous range ordered by
+     * {@link Rank}.
+     *
+     * @return this {@link Card card's} ID, from 0 (inclusive) to {@link #CARD_COUNT} (exclusive).
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -53,6 +92,20 @@ public class Card
      * @return how the battle resolved {@link BattleResult (win, lose, or tie)}.
      */
     public BattleResult battle(final Card opponent, final boolean isAceHigh) {
+        return (isAceHigh ? BATTLES_ACES_HIGH : BATTLES_ACES_LOW)[(id * CARD_COUNT) + opponent.id];
+    }
+
+    /**
+     * Pits the current {@link Card} against another in glorious combat. <b>Aces will be treated as <i>HIGH</i></b>.
+     *
+     * @param opponent the opposing {@link Card} to battle.
+     * @return how the battle resolved {@link BattleResult (win, lose, or tie)}.
+     */
+    public BattleResult battle(final Card opponent) {
+        return battle(opponent, true);
+    }
+
+    private BattleResult resolveBattle(final Card opponent, final boolean isAceHigh) {
         if (this.equals(opponent)) {
             return BattleResult.TIE;
         }
@@ -72,19 +125,9 @@ public class Card
                 rankWins ? BattleResult.WIN : BattleResult.LOSE;
     }
 
-    /**
-     * Pits the current {@link Card} against another in glorious combat. <b>Aces will be treated as <i>HIGH</i></b>.
-     *
-     * @param opponent the opposing {@link Card} to battle.
-     * @return how the battle resolved {@link BattleResult (win, lose, or tie)}.
-     */
-    public BattleResult battle(final Card opponent) {
-        return battle(opponent, true);
-    }
-
     @Override
     public String toString() {
-        return format("%s of %s", rank, suit);
+        return name;
     }
 
     @Override
@@ -96,12 +139,12 @@ public class Card
             return false;
         }
         final Card card = (Card) other;
-        return (rank == card.rank) && (suit == card.suit);
+        return id == card.id;
     }
 
     @Override
     public int hashCode() {
-        return hash(rank, suit);
+        return id;
     }
 
     /**
@@ -113,7 +156,7 @@ public class Card
         if (rank == null) {
             throw new IllegalArgumentException("A card's rank cannot be null");
         }
-        return new Builder(rank);
+        return BUILDERS[rank.ordinal()];
     }
 
     /**
@@ -218,7 +261,26 @@ public class Card
             if (suit == null) {
                 throw new IllegalArgumentException("A card's suit cannot be null");
             }
-            return new Card(rank, suit);
+            return CARDS_BY_ID[(suit.ordinal() * RANKS.length) + rank.ordinal()];
+        }
+    }
+
+    static {
+        for (final Rank rank : RANKS) {
+            BUILDERS[rank.ordinal()] = new Builder(rank);
+            for (final Suit suit : SUITS) {
+                final Card card = new Card(rank, suit);
+                CARDS_BY_ID[card.id] = card;
+            }
+        }
+
+        // every possible battle is resolved up front, so a battle is a single array lookup
+        for (final Card attacking : CARDS_BY_ID) {
+            for (final Card defending : CARDS_BY_ID) {
+                final int index = (attacking.id * CARD_COUNT) + defending.id;
+                BATTLES_ACES_HIGH[index] = attacking.resolveBattle(defending, true);
+                BATTLES_ACES_LOW[index] = attacking.resolveBattle(defending, false);
+            }
         }
     }
 }
@@ -0,0 +1,176 @@
+package com.nordryd.gamblybot.cardgames.entities;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Reads and writes cards as two-character codes: a rank out of {@code 23456789TJQKA} followed by a suit out of
+ * {@code CDHS}, such as {@code "AS"}, {@code "TD"} or {@code "7H"}. Codes are read in either case.
+ * </p>
+ * <p>
+ * Both directions go through tables indexed by character or {@link Card#getId() card ID}, so reading a code is two
+ * array lookups, and writing one returns a string made once up front or copies two bytes. Nothing is allocated.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public final class CardCodec
+{
+    /**
+     * How many characters a card's code takes.
+     */
+    public static final int CODE_LENGTH = 2;
+
+    private static final String RANK_CHARS = "23456789TJQKA", SUIT_CHARS = "CDHS";
+    private static final int RANKS = RANK_CHARS.length(), ASCII = 128;
+    private static final String[] CODES = new String[Card.CARD_COUNT];
+    private static final byte[] CODE_BYTES = new byte[Card.CARD_COUNT * CODE_LENGTH];
+    private static final byte[] RANK_BY_CHAR = new byte[ASCII], SUIT_BY_CHAR = new byte[ASCII];
+
+    static {
+        Arrays.fill(RANK_BY_CHAR, (byte) -1);
+        Arrays.fill(SUIT_BY_CHAR, (byte) -1);
+        for (int rank = 0; rank < RANKS; rank++) {
+            RANK_BY_CHAR[RANK_CHARS.charAt(rank)] = (byte) rank;
+            RANK_BY_CHAR[Character.toLowerCase(RANK_CHARS.charAt(rank))] = (byte) rank;
+        }
+        for (int suit = 0; suit < SUIT_CHARS.length(); suit++) {
+            SUIT_BY_CHAR[SUIT_CHARS.charAt(suit)] = (byte) suit;
+            SUIT_BY_CHAR[Character.toLowerCase(SUIT_CHARS.charAt(suit))] = (byte) suit;
+        }
+
+        for (int cardId = 0; cardId < Card.CARD_COUNT; cardId++) {
+            final char rank = RANK_CHARS.charAt(cardId % RANKS), suit = SUIT_CHARS.charAt(cardId / RANKS);
+            CODES[cardId] = new String(new char[] { rank, suit });
+            CODE_BYTES[cardId * CODE_LENGTH] = (byte) rank;
+            CODE_BYTES[(cardId * CODE_LENGTH) + 1] = (byte) suit;
+        }
+    }
+
+    private CardCodec() {}
+
+    /**
+     * @param card a {@link Card}.
+     * @return the card's code.
+     */
+    public static String format(final Card card) {
+        return CODES[card.getId()];
+    }
+
+    /**
+     * @param cardId a {@link Card#getId() card ID}.
+     * @return the code of the card with that ID.
+     * @throws ArrayIndexOutOfBoundsException if the ID is out of range.
+     */
+    public static String format(final int cardId) {
+        return CODES[cardId];
+    }
+
+    /**
+     * @param cards a {@link CardSet}.
+     * @param output where to append the code of every card in the set, lowest ID first, separated by spaces.
+     * @return the output.
+     */
+    public static StringBuilder append(final CardSet cards, final StringBuilder output) {
+        final int start = output.length();
+        for (int cardId = cards.nextId(0); cardId >= 0; cardId = cards.nextId(cardId + 1)) {
+            if (output.length() > start) {
+                output.append(' ');
+            }
+            output.append(CODES[cardId]);
+        }
+        return output;
+    }
+
+    /**
+     * Writes a card's code as two ASCII bytes.
+     *
+     * @param cardId a {@link Card#getId() card ID}.
+     * @param output where to write the code.
+     * @param offset where in the output to write it.
+     * @return the offset just past the code.
+     * @throws ArrayIndexOutOfBoundsException if the ID is out of range, or the code does not fit in the output.
+     */
+    public static int encode(final int cardId, final byte[] output, final int offset) {
+        System.arraycopy(CODE_BYTES, cardId * CODE_LENGTH, output, offset, CODE_LENGTH);
+        return offset + CODE_LENGTH;
+    }
+
+    /**
+     * Reads a card's code from two ASCII bytes.
+     *
+     * @param input where to read the code from.
+     * @param offset where in the input the code starts.
+     * @return the {@link Card#getId() ID} of the card, or -1 if the bytes are not a card's code.
+     */
+    public static int decode(final byte[] input, final int offset) {
+        return idOf(input[offset], input[offset + 1]);
+    }
+
+    /**
+     * Reads a card's code out of some text.
+     *
+     * @param text the text to read the code from.
+     * @param offset where in the text the code starts.
+     * @return the {@link Card#getId() ID} of the card, or -1 if the characters there are not a card's code.
+     */
+    public static int parseId(final CharSequence text, final int offset) {
+        if ((offset < 0) || ((offset + CODE_LENGTH) > text.length())) {
+            return -1;
+        }
+        return idOf(text.charAt(offset), text.charAt(offset + 1));
+    }
+
+    /**
+     * @param code a card's code.
+     * @return the {@link Card} with that code.
+     * @throws IllegalArgumentException if the text is not a card's code.
+     */
+    public static Card parse(final CharSequence code) {
+        final int cardId = (code.length() == CODE_LENGTH) ? parseId(code, 0) : -1;
+        if (cardId < 0) {
+            throw new IllegalArgumentException("\"" + code + "\" is not a card!");
+        }
+        return Card.fromId(cardId);
+    }
+
+    /**
+     * Reads any number of card codes, separated by spaces or commas, such as {@code "AS KD 7h"}.
+     *
+     * @param text the codes to read.
+     * @return the {@link CardSet} of the cards read.
+     * @throws IllegalArgumentException if the text holds anything other than card codes, or the same card twice.
+     */
+    public static CardSet parseAll(final CharSequence text) {
+        long bits = 0L;
+        int position = 0;
+        while (position < text.length()) {
+            final char next = text.charAt(position);
+            if ((next == ' ') || (next == ',')) {
+                position++;
+                continue;
+            }
+
+            final int cardId = parseId(text, position), end = position + CODE_LENGTH;
+            if ((cardId < 0) || ((end < text.length()) && (text.charAt(end) != ' ') && (text.charAt(end) != ','))) {
+                throw new IllegalArgumentException("\"" + text + "\" is not a card at position " + position + "!");
+            }
+
+            if ((bits & (1L << cardId)) != 0L) {
+                throw new IllegalArgumentException("\"" + text + "\" has the same card twice!");
+            }
+            bits |= 1L << cardId;
+            position += CODE_LENGTH;
+        }
+        return CardSet.fromBits(bits);
+    }
+
+    private static int idOf(final int rankChar, final int suitChar) {
+        if ((rankChar < 0) || (rankChar >= ASCII) || (suitChar < 0) || (suitChar >= ASCII)) {
+            return -1;
+        }
+
+        final int rank = RANK_BY_CHAR[rankChar], suit = SUIT_BY_CHAR[suitChar];
+        return ((rank | suit) < 0) ? -1 : ((suit * RANKS) + rank);
+    }
+}
@@ -0,0 +1,306 @@
+package com.nordryd.gamblybot.cardgames.entities;
+
+import static java.lang.Long.bitCount;
+import static java.lang.Long.numberOfTrailingZeros;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+
+/**
+ * <p>
+ * An immutable set of {@link Card Cards}, held as a single {@code long} with bit {@link Card#getId()} set for each card
+ * in the set. Adding, removing and checking for a card are single bitwise operations, and since card IDs are grouped
+ * by {@link Suit}, each suit is a contiguous 13-bit mask of {@link Rank Ranks}.
+ * </p>
+ * <p>
+ * The cards can be walked without allocating, in the same way as {@link java.util.BitSet}:
+ * </p>
+ *
+ * <pre>
+ * for (int id = set.nextId(0); id &gt;= 0; id = set.nextId(id + 1)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author Nordryd
+ */
+public final class CardSet
+{
+    /**
+     * How many bits each {@link Suit} takes up: one for each {@link Rank}.
+     */
+    public static final int RANKS_PER_SUIT = 13;
+
+    private static final long ALL_BITS = (1L << Card.CARD_COUNT) - 1;
+    private static final int RANK_MASK = (1 << RANKS_PER_SUIT) - 1;
+    private static final long LOWEST_RANK_OF_EACH_SUIT =
+            1L | (1L << RANKS_PER_SUIT) | (1L << (2 * RANKS_PER_SUIT)) | (1L << (3 * RANKS_PER_SUIT));
+
+    /**
+     * The set with no cards.
+     */
+    public static final CardSet EMPTY = new CardSet(0L);
+
+    /**
+     * The set of all {@value Card#CARD_COUNT} cards.
+     */
+    public static final CardSet ALL = new CardSet(ALL_BITS);
+
+    private final long bits;
+
+    private CardSet(final long bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * @param bits a bitmask with bit {@link Card#getId()} set for each card, as returned by {@link #getBits()}.
+     * @return the {@link CardSet} with those cards.
+     * @throws IllegalArgumentException if a bit above the highest card ID is set.
+     */
+    public static CardSet fromBits(final long bits) {
+        if ((bits & ~ALL_BITS) != 0L) {
+            throw new IllegalArgumentException("A card set can only have bits 0 to " + (Card.CARD_COUNT - 1) + " set!");
+        }
+        return (bits == 0L) ? EMPTY : (bits == ALL_BITS) ? ALL : new CardSet(bits);
+    }
+
+    /**
+     * @param cards the cards to put in the set.
+     * @return the {@link CardSet} with those cards. Duplicates are only held once.
+     */
+    public static CardSet of(final Card... cards) {
+        long bits = 0L;
+        for (final Card card : cards) {
+            bits |= bitOf(card);
+        }
+        return fromBits(bits);
+    }
+
+    /**
+     * @param cards the cards to put in the set.
+     * @return the {@link CardSet} with those cards. Duplicates are only held once.
+     */
+    public static CardSet of(final Collection<Card> cards) {
+        long bits = 0L;
+        for (final Card card : cards) {
+            bits |= bitOf(card);
+        }
+        return fromBits(bits);
+    }
+
+    /**
+     * @param ranks the ranks to put in the set.
+     * @return the {@link CardSet} with every suit of each of the ranks.
+     */
+    public static CardSet ofRanks(final Rank... ranks) {
+        long bits = 0L;
+        for (final Rank rank : ranks) {
+            bits |= LOWEST_RANK_OF_EACH_SUIT << rank.ordinal();
+        }
+        return fromBits(bits);
+    }
+
+    /**
+     * @param card a {@link Card}.
+     * @return the card's bit: {@code 1L << card.getId()}.
+     */
+    public static long bitOf(final Card card) {
+        return 1L << card.getId();
+    }
+
+    /**
+     * @return the bitmask of the set, with bit {@link Card#getId()} set for each card in it.
+     */
+    public long getBits() {
+        return bits;
+    }
+
+    /**
+     * @param card a {@link Card}.
+     * @return {@code true} if the card is in the set.
+     */
+    public boolean contains(final Card card) {
+        return (bits & bitOf(card)) != 0L;
+    }
+
+    /**
+     * @param other another {@link CardSet}.
+     * @return {@code true} if every card of the other set is in this one.
+     */
+    public boolean containsAll(final CardSet other) {
+        return (bits & other.bits) == other.bits;
+    }
+
+    /**
+     * @param card a {@link Card}.
+     * @return this set, along with the card.
+     */
+    public CardSet with(final Card card) {
+        return fromBits(bits | bitOf(card));
+    }
+
+    /**
+     * @param card a {@link Card}.
+     * @return this set, without the card.
+     */
+    public CardSet without(final Card card) {
+        return fromBits(bits & ~bitOf(card));
+    }
+
+    /**
+     * @param other another {@link CardSet}.
+     * @return the cards in either set.
+     */
+    public CardSet union(final CardSet other) {
+        return fromBits(bits | other.bits);
+    }
+
+    /**
+     * @param other another {@link CardSet}.
+     * @return the cards in both sets.
+     */
+    public CardSet intersection(final CardSet other) {
+        return fromBits(bits & other.bits);
+    }
+
+    /**
+     * @param other another {@link CardSet}.
+     * @return the cards in this set that are not in the other.
+     */
+    public CardSet minus(final CardSet other) {
+        return fromBits(bits & ~other.bits);
+    }
+
+    /**
+     * @return how many cards are in the set.
+     */
+    public int size() {
+        return bitCount(bits);
+    }
+
+    /**
+     * @return {@code true} if the set has no cards.
+     */
+    public boolean isEmpty() {
+        return bits == 0L;
+    }
+
+    /**
+     * @param suit a {@link Suit}.
+     * @return the ranks of the suit held in the set, with bit {@link Rank#ordinal()} set for each.
+     */
+    public int ranksOf(final Suit suit) {
+        return (int) (bits >>> (suit.ordinal() * RANKS_PER_SUIT)) & RANK_MASK;
+    }
+
+    /**
+     * @return the ranks held in the set in any suit, with bit {@link Rank#ordinal()} set for each.
+     */
+    public int ranks() {
+        final long folded = bits | (bits >>> RANKS_PER_SUIT) | (bits >>> (2 * RANKS_PER_SUIT)) |
+                (bits >>> (3 * RANKS_PER_SUIT));
+        return (int) folded & RANK_MASK;
+    }
+
+    /**
+     * @param suit a {@link Suit}.
+     * @return how many cards of the suit are in the set.
+     */
+    public int countOf(final Suit suit) {
+        return Integer.bitCount(ranksOf(suit));
+    }
+
+    /**
+     * @param rank a {@link Rank}.
+     * @return how many cards of the rank are in the set.
+     */
+    public int countOf(final Rank rank) {
+        return bitCount(bits & (LOWEST_RANK_OF_EACH_SUIT << rank.ordinal()));
+    }
+
+    /**
+     * @param fromId the card ID to start looking from, inclusive.
+     * @return the lowest {@link Card#getId() card ID} in the set that is at least fromId, or -1 if there is none.
+     */
+    public int nextId(final int fromId) {
+        if (fromId >= Card.CARD_COUNT) {
+            return -1;
+        }
+
+        final long remaining = bits & (-1L << Math.max(fromId, 0));
+        return (remaining == 0L) ? -1 : numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * Picks a card by its position in the set, counting in order of {@link Card#getId() card ID}.
+     *
+     * @param index the card's position, from 0 (inclusive) to {@link #size()} (exclusive).
+     * @return the {@link Card#getId() ID} of the card at that position.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int idAt(final int index) {
+        return idAt(bits, index);
+    }
+
+    /**
+     * @param bits a bitmask with bit {@link Card#getId()} set for each card, as returned by {@link #getBits()}.
+     * @param index the card's position, from 0 (inclusive) to the number of set bits (exclusive).
+     * @return the {@link Card#getId() ID} of the card at that position.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @see #idAt(int)
+     */
+    public static int idAt(final long bits, final int index) {
+        if ((index < 0) || (index >= bitCount(bits))) {
+            throw new IndexOutOfBoundsException("No card at position " + index + " of " + bitCount(bits) + "!");
+        }
+
+        // skip whole bytes while the card lies beyond them, then clear the lowest bits of the byte it lies in
+        long remaining = bits;
+        int skipped = 0, toSkip = index;
+        for (int count = bitCount(remaining & 0xFFL); count <= toSkip; count = bitCount(remaining & 0xFFL)) {
+            toSkip -= count;
+            remaining >>>= Byte.SIZE;
+            skipped += Byte.SIZE;
+        }
+        for (; toSkip > 0; toSkip--) {
+            remaining &= remaining - 1;
+        }
+        return skipped + numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * @return the cards in the set, in order of {@link Card#getId() card ID}.
+     */
+    public List<Card> toList() {
+        final List<Card> cards = new ArrayList<>(size());
+        for (int id = nextId(0); id >= 0; id = nextId(id + 1)) {
+            cards.add(Card.fromId(id));
+        }
+        return cards;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if ((other == null) || (getClass() != other.getClass())) {
+            return false;
+        }
+        return bits == ((CardSet) other).bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+        return CardCodec.append(this, new StringBuilder().append('[')).append(']').toString();
+    }
+}
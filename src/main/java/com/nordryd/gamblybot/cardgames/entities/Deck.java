@@ -1,32 +1,34 @@
 package com.nordryd.gamblybot.cardgames.entities;
 
-import static com.nordryd.gamblybot.cardgames.entities.Card.Rank;
-import static com.nordryd.gamblybot.cardgames.entities.Card.Suit;
-import static java.util.Arrays.asList;
+import static java.lang.Long.bitCount;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.IntStream.range;
-import static org.springframework.util.CollectionUtils.isEmpty;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.nordryd.gamblybot.jfr.DeckReshuffleEvent;
 
 /**
  * <p>
  * Represents a standard deck from which to draw {@link Card Cards}. This will mimic a standard deck of 52 cards to
  * reduce the randomness of drawing cards, and make it feel more realistic.
  * </p>
+ * <p>
+ * The cards still in the deck are a {@link CardSet} bitmask, so drawing a random card picks the n-th set bit and
+ * clears it, without shifting anything.
+ * </p>
  *
  * @author Nordryd
  */
 public class Deck
 {
-    private static final List<Card> ALL_POSSIBLE_CARDS;
-
-    private final List<Card> cards;
     private final Random rng;
+    private final DeckPool pool;
+
+    private long remaining;
+    private int[] order;
+    private int size;
 
     /**
      * Constructor.
@@ -34,22 +36,72 @@ public class Deck
      * @param rng a {@link Random random number generator}.
      */
     public Deck(final Random rng) {
-        this.cards = new ArrayList<>();
+        this(rng, null);
+    }
+
+    /**
+     * Constructor for a deck that deals pre-shuffled orders from a {@link DeckPool}, so running out of cards only
+     * swaps in the next order.
+     *
+     * @param pool the {@link DeckPool} to take orders from.
+     */
+    public Deck(final DeckPool pool) {
+        this(null, pool);
+    }
+
+    private Deck(final Random rng, final DeckPool pool) {
         this.rng = rng;
+        this.pool = pool;
         reset();
     }
 
+    /**
+     * Restores a deck part of the way through.
+     *
+     * @param rng a {@link Random random number generator}.
+     * @param remainingCardIds the {@link Card#getId() IDs} of the cards still in the deck, as returned by
+     * {@link #getRemainingCardIds()}.
+     * @return the restored {@link Deck}.
+     * @throws IllegalArgumentException if no cards remain, or a card is listed twice.
+     */
+    public static Deck restore(final Random rng, final int[] remainingCardIds) {
+        if (remainingCardIds.length == 0) {
+            throw new IllegalArgumentException("A restored deck must have at least one card remaining!");
+        }
+
+        long remaining = 0L;
+        for (final int cardId : remainingCardIds) {
+            remaining |= CardSet.bitOf(Card.fromId(cardId));
+        }
+
+        if (bitCount(remaining) != remainingCardIds.length) {
+            throw new IllegalArgumentException("A restored deck cannot hold the same card twice!");
+        }
+
+        final Deck deck = new Deck(rng);
+        deck.remaining = remaining;
+        return deck;
+    }
+
     /**
      * @return a random {@link Card}.
      */
     public Card draw() {
-        final int cardToDraw = rng.nextInt(cards.size());
-        final Card drawn = cards.get(cardToDraw);
-        cards.remove(cardToDraw);
-        if (isEmpty(cards)) {
+        final int drawnId;
+        if (pool == null) {
+            drawnId = CardSet.idAt(remaining, rng.nextInt(bitCount(remaining)));
+        }
+        else {
+            // pooled orders are already shuffled, so the top card is as random as any
+            drawnId = order[--size];
+        }
+
+        remaining &= ~(1L << drawnId);
+        if (remaining == 0L) {
             reset();
+            DeckReshuffleEvent.emit(pool != null);
         }
-        return drawn;
+        return Card.fromId(drawnId);
     }
 
     /**
@@ -71,67 +123,47 @@ public class Deck
         return range(0, amount).mapToObj(drawCount -> draw()).collect(toList());
     }
 
-    private void reset() {
-        cards.clear();
-        cards.addAll(ALL_POSSIBLE_CARDS);
+    /**
+     * @return the {@link CardSet} of cards still in the deck.
+     */
+    public CardSet getRemaining() {
+        return CardSet.fromBits(remaining);
+    }
+
+    /**
+     * @return how many cards are still in the deck.
+     */
+    public int getRemainingCount() {
+        return bitCount(remaining);
     }
 
-    static {
-        //@formatter:off
-        ALL_POSSIBLE_CARDS = asList(
-                Card.get(Rank.TWO).of(Suit.CLUBS),
-                Card.get(Rank.THREE).of(Suit.CLUBS),
-                Card.get(Rank.FOUR).of(Suit.CLUBS),
-                Card.get(Rank.FIVE).of(Suit.CLUBS),
-                Card.get(Rank.SIX).of(Suit.CLUBS),
-                Card.get(Rank.SEVEN).of(Suit.CLUBS),
-                Card.get(Rank.EIGHT).of(Suit.CLUBS),
-                Card.get(Rank.NINE).of(Suit.CLUBS),
-                Card.get(Rank.TEN).of(Suit.CLUBS),
-                Card.get(Rank.JACK).of(Suit.CLUBS),
-                Card.get(Rank.QUEEN).of(Suit.CLUBS),
-                Card.get(Rank.KING).of(Suit.CLUBS),
-                Card.get(Rank.ACE).of(Suit.CLUBS),
-                Card.get(Rank.TWO).of(Suit.HEARTS),
-                Card.get(Rank.THREE).of(Suit.HEARTS),
-                Card.get(Rank.FOUR).of(Suit.HEARTS),
-                Card.get(Rank.FIVE).of(Suit.HEARTS),
-                Card.get(Rank.SIX).of(Suit.HEARTS),
-                Card.get(Rank.SEVEN).of(Suit.HEARTS),
-                Card.get(Rank.EIGHT).of(Suit.HEARTS),
-                Card.get(Rank.NINE).of(Suit.HEARTS),
-                Card.get(Rank.TEN).of(Suit.HEARTS),
-                Card.get(Rank.JACK).of(Suit.HEARTS),
-                Card.get(Rank.QUEEN).of(Suit.HEARTS),
-                Card.get(Rank.KING).of(Suit.HEARTS),
-                Card.get(Rank.ACE).of(Suit.HEARTS),
-                Card.get(Rank.TWO).of(Suit.DIAMONDS),
-                Card.get(Rank.THREE).of(Suit.DIAMONDS),
-                Card.get(Rank.FOUR).of(Suit.DIAMONDS),
-                Card.get(Rank.FIVE).of(Suit.DIAMONDS),
-                Card.get(Rank.SIX).of(Suit.DIAMONDS),
-                Card.get(Rank.SEVEN).of(Suit.DIAMONDS),
-                Card.get(Rank.EIGHT).of(Suit.DIAMONDS),
-                Card.get(Rank.NINE).of(Suit.DIAMONDS),
-                Card.get(Rank.TEN).of(Suit.DIAMONDS),
-                Card.get(Rank.JACK).of(Suit.DIAMONDS),
-                Card.get(Rank.QUEEN).of(Suit.DIAMONDS),
-                Card.get(Rank.KING).of(Suit.DIAMONDS),
-                Card.get(Rank.ACE).of(Suit.DIAMONDS),
-                Card.get(Rank.TWO).of(Suit.SPADES),
-                Card.get(Rank.THREE).of(Suit.SPADES),
-                Card.get(Rank.FOUR).of(Suit.SPADES),
-                Card.get(Rank.FIVE).of(Suit.SPADES),
-                Card.get(Rank.SIX).of(Suit.SPADES),
-                Card.get(Rank.SEVEN).of(Suit.SPADES),
-                Card.get(Rank.EIGHT).of(Suit.SPADES),
-                Card.get(Rank.NINE).of(Suit.SPADES),
-                Card.get(Rank.TEN).of(Suit.SPADES),
-                Card.get(Rank.JACK).of(Suit.SPADES),
-                Card.get(Rank.QUEEN).of(Suit.SPADES),
-                Card.get(Rank.KING).of(Suit.SPADES),
-                Card.get(Rank.ACE).of(Suit.SPADES)
-        );
-        //@formatter:on
+    /**
+     * @return the {@link Card#getId() IDs} of the cards still in the deck, lowest first.
+     */
+    public int[] getRemainingCardIds() {
+        final int[] cardIds = new int[bitCount(remaining)];
+        long cards = remaining;
+        for (int card = 0; card < cardIds.length; card++) {
+            cardIds[card] = Long.numberOfTrailingZeros(cards);
+            cards &= cards - 1;
+        }
+        return cardIds;
+    }
+
+    /**
+     * Returns every {@link Card} to the deck.
+     */
+    public void reset() {
+        if (pool == null) {
+            remaining = CardSet.ALL.getBits();
+            return;
+        }
+
+        order = pool.take();
+        size = order.length;
+        remaining = 0L;
+        for (final int cardId : order) {
+            remaining |= 1L << cardId;
+        }
     }
 }
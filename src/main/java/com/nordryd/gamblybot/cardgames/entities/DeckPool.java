@@ -0,0 +1,158 @@
+package com.nordryd.gamblybot.cardgames.entities;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * A bounded pool of pre-shuffled deck orders, kept filled by a background thread, so a {@link Deck} that runs out of
+ * cards can swap in a new order instead of shuffling on the thread that drew the last card. Each order is the
+ * {@link Card#getId() IDs} of all 52 cards.
+ * </p>
+ * <p>
+ * The pool adapts to how often decks run out: once a second it estimates the rate orders are taken at, and keeps
+ * enough of them on hand to cover {@link #COVERAGE_SECONDS} seconds of that rate, between its minimum and maximum
+ * size. If the pool is ever empty, the order is shuffled on the spot, and counted as a {@link #getMissCount() miss}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class DeckPool
+{
+    /**
+     * How many seconds of reshuffles the pool tries to keep on hand.
+     */
+    public static final int COVERAGE_SECONDS = 2;
+
+    private static final long ADAPT_INTERVAL_NANOS = SECONDS.toNanos(1);
+    private static final double RATE_SMOOTHING = 0.5;
+
+    private final BlockingQueue<int[]> orders;
+    private final Random rng;
+    private final int minSize, maxSize;
+    private final AtomicLong taken, misses;
+    private final Thread filler;
+
+    private volatile int targetSize;
+    private volatile boolean running;
+
+    /**
+     * Constructor.
+     *
+     * @param rng a {@link Random random number generator}.
+     * @param minSize the fewest orders the pool keeps on hand.
+     * @param maxSize the most orders the pool keeps on hand.
+     * @throws IllegalArgumentException if minSize &lt; 1 or maxSize &lt; minSize
+     */
+    public DeckPool(final Random rng, final int minSize, final int maxSize) {
+        if (minSize < 1) {
+            throw new IllegalArgumentException("A deck pool must keep at least one deck on hand!");
+        }
+
+        if (maxSize < minSize) {
+            throw new IllegalArgumentException("A deck pool's maximum size cannot be less than its minimum size!");
+        }
+
+        this.orders = new ArrayBlockingQueue<>(maxSize);
+        this.rng = rng;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.taken = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.targetSize = minSize;
+        this.running = true;
+        this.filler = new Thread(this::fill, "deck-pool-filler");
+        this.filler.setDaemon(true);
+    }
+
+    /**
+     * Starts the background thread that keeps the pool filled.
+     */
+    public void start() {
+        filler.start();
+    }
+
+    /**
+     * Stops the background thread. Orders can still be taken afterwards, but are shuffled on the spot.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(filler);
+    }
+
+    /**
+     * Takes a pre-shuffled order out of the pool, or shuffles one on the spot if the pool is empty.
+     *
+     * @return the {@link Card#getId() IDs} of all 52 cards, in the order they are to be drawn. The caller owns the
+     * array.
+     */
+    public int[] take() {
+        taken.incrementAndGet();
+        final int[] order = orders.poll();
+        if (orders.size() < targetSize) {
+            LockSupport.unpark(filler);
+        }
+
+        if (order == null) {
+            misses.incrementAndGet();
+            return shuffle();
+        }
+        return order;
+    }
+
+    /**
+     * @return how many orders are on hand.
+     */
+    public int getSize() {
+        return orders.size();
+    }
+
+    /**
+     * @return how many orders the pool is currently trying to keep on hand.
+     */
+    public int getTargetSize() {
+        return targetSize;
+    }
+
+    /**
+     * @return how many orders had to be shuffled on the spot because the pool was empty.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private void fill() {
+        long lastAdapted = System.nanoTime(), lastTaken = 0L;
+        double rate = 0.0;
+        while (running) {
+            final long now = System.nanoTime();
+            if ((now - lastAdapted) >= ADAPT_INTERVAL_NANOS) {
+                final long totalTaken = taken.get();
+                final double observed = (totalTaken - lastTaken) / ((now - lastAdapted) / 1e9);
+                rate = (RATE_SMOOTHING * observed) + ((1.0 - RATE_SMOOTHING) * rate);
+                targetSize = (int) Math.max(minSize, Math.min(maxSize, Math.ceil(rate * COVERAGE_SECONDS)));
+                lastAdapted = now;
+                lastTaken = totalTaken;
+            }
+
+            if ((orders.size() >= targetSize) || !orders.offer(shuffle())) {
+                LockSupport.parkNanos(this, ADAPT_INTERVAL_NANOS);
+            }
+        }
+    }
+
+    private int[] shuffle() {
+        final int[] order = new int[Card.CARD_COUNT];
+        for (int card = 0; card < order.length; card++) {
+            final int swap = rng.nextInt(card + 1);
+            order[card] = order[swap];
+            order[swap] = card;
+        }
+        return order;
+    }
+}
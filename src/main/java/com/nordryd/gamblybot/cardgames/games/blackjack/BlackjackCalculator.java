@@ -0,0 +1,474 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+
+/**
+ * <p>
+ * Computes the exact expected value of each action a player can take in a {@link BlackjackGame}, given exactly which
+ * cards are left in the shoe. The shoe is a count of cards per value (ace, two through nine, and ten-valued cards),
+ * and every subproblem is memoized against that composition, so answers are shared across queries for as long as
+ * they stay in the calculator's bounded caches.
+ * </p>
+ * <p>
+ * The calculator plays by a table's {@link BlackjackRuleSet house rules}: whether the dealer hits a soft 17, what a
+ * blackjack pays, whether a split hand may double down, and whether surrender is offered. The dealer checks for
+ * blackjack, so every expected value is conditioned on the dealer not having one. Splitting assumes one split per
+ * hand, with split aces receiving one card each, and treats both split hands as drawing from the same shoe.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackCalculator
+{
+    /**
+     * How many distinct card values a shoe holds: ace, two through nine, and ten-valued cards.
+     */
+    public static final int VALUES = 10;
+
+    private static final int ACE = 0, TEN = 9, BLACKJACK_VALUE = 21, DEALER_STANDS_ON = 17, SOFT_BONUS = 10;
+    private static final int BUSTED = BLACKJACK_VALUE - DEALER_STANDS_ON + 1;
+
+    private static final int COUNT_BITS = 6, TEN_COUNT_BITS = 8;
+    private static final int MAX_COUNT = (1 << COUNT_BITS) - 1, MAX_TEN_COUNT = (1 << TEN_COUNT_BITS) - 1;
+
+    private final Map<Key, double[]> dealerOutcomes;
+    private final Map<Key, Double> hitValues;
+    private final BlackjackRuleSet ruleSet;
+    private final boolean dealerHitsSoft17;
+    private final boolean doubleAfterSplit;
+    private final double blackjackPayout;
+    private final double surrenderPayout;
+
+    /**
+     * Constructor for a calculator that plays by the {@link BlackjackRuleSet#DEFAULT default} house rules.
+     *
+     * @param maxCacheEntries how many subproblems each of the calculator's caches may hold before the least recently
+     * used are forgotten.
+     */
+    public BlackjackCalculator(final int maxCacheEntries) {
+        this(maxCacheEntries, BlackjackRuleSet.DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxCacheEntries how many subproblems each of the calculator's caches may hold before the least recently
+     * used are forgotten.
+     * @param ruleSet the {@link BlackjackRuleSet house rules} to play by.
+     */
+    public BlackjackCalculator(final int maxCacheEntries, final BlackjackRuleSet ruleSet) {
+        if (maxCacheEntries < 1) {
+            throw new IllegalArgumentException("A calculator's cache must hold at least one entry!");
+        }
+        this.dealerOutcomes = boundedCache(maxCacheEntries);
+        this.hitValues = boundedCache(maxCacheEntries);
+        this.ruleSet = ruleSet;
+        this.dealerHitsSoft17 = ruleSet.isDealerHitsSoft17();
+        this.doubleAfterSplit = ruleSet.isDoubleAfterSplit();
+        this.blackjackPayout = ruleSet.getPayout(BlackjackGame.Outcome.BLACKJACK);
+        this.surrenderPayout = BlackjackRuleSet.Surrender.NONE.equals(ruleSet.getSurrender()) ? Double.NaN :
+                ruleSet.getSurrenderPayout();
+    }
+
+    /**
+     * @param decks how many 52-card decks are shuffled together.
+     * @return the composition of a full shoe.
+     */
+    public static int[] shoe(final int decks) {
+        final int[] shoe = new int[VALUES];
+        for (int value = ACE; value < TEN; value++) {
+            shoe[value] = 4 * decks;
+        }
+        shoe[TEN] = 16 * decks;
+        return shoe;
+    }
+
+    /**
+     * @param cards the cards to count.
+     * @return the composition of a shoe holding exactly those cards.
+     */
+    public static int[] shoeOf(final List<Card> cards) {
+        final int[] shoe = new int[VALUES];
+        cards.forEach(card -> shoe[valueOf(card)]++);
+        return shoe;
+    }
+
+    /**
+     * The composition of the cards a player has not seen: the rest of the deck, along with the dealer's hole card.
+     *
+     * @param game the {@link BlackjackGame}.
+     * @return the composition of a shoe holding the unseen cards.
+     */
+    public static int[] unseenShoeOf(final BlackjackGame game) {
+        final int[] shoe = new int[VALUES];
+        for (final int id : game.getDeck().getRemainingCardIds()) {
+            shoe[valueOf(Card.fromId(id))]++;
+        }
+
+        final List<Card> dealerCards = game.getDealer().getHands().get(0).getCards();
+        for (int card = 1; card < dealerCards.size(); card++) {
+            shoe[valueOf(dealerCards.get(card))]++;
+        }
+        return shoe;
+    }
+
+    /**
+     * Works out the expected value of every action available to a hand.
+     *
+     * @param shoe the composition of the cards the hand and the dealer will draw from.
+     * @param playerCards the cards in the player's hand.
+     * @param dealerUpcard the dealer's face-up card.
+     * @return the {@link Expectation} of each action, in units of the hand's wager.
+     * @throws IllegalArgumentException if the shoe is too large to analyze, or the hand has fewer than two cards.
+     */
+    public Expectation analyze(final int[] shoe, final List<Card> playerCards, final Card dealerUpcard) {
+        if (playerCards.size() < 2) {
+            throw new IllegalArgumentException("A hand must have at least two cards to be analyzed!");
+        }
+
+        int hard = 0;
+        boolean hasAce = false;
+        for (final Card card : playerCards) {
+            final int value = valueOf(card);
+            hard += value + 1;
+            hasAce |= (value == ACE);
+        }
+
+        final boolean initial = (playerCards.size() == 2);
+        final boolean pair = initial && (valueOf(playerCards.get(0)) == valueOf(playerCards.get(1)));
+        final boolean soft = hasAce && ((hard + SOFT_BONUS) <= BLACKJACK_VALUE);
+        return analyze(shoe, soft ? (hard + SOFT_BONUS) : hard, soft, pair, initial, dealerUpcard);
+    }
+
+    /**
+     * Works out the expected value of every action available to a hand, knowing only its value rather than its cards.
+     *
+     * @param shoe the composition of the cards the hand and the dealer will draw from.
+     * @param handValue the hand's value.
+     * @param soft {@code true} if an ace in the hand is being counted as 11.
+     * @param pair {@code true} if the hand is two cards of equal value.
+     * @param initial {@code true} if the hand is its two initial cards, so it may still double down or surrender.
+     * @param dealerUpcard the dealer's face-up card.
+     * @return the {@link Expectation} of each action, in units of the hand's wager.
+     * @throws IllegalArgumentException if the shoe is too large to analyze.
+     */
+    public Expectation analyze(final int[] shoe, final int handValue, final boolean soft, final boolean pair,
+            final boolean initial, final Card dealerUpcard) {
+        return analyze(shoe, handValue, soft, pair, initial, false, dealerUpcard);
+    }
+
+    /**
+     * Works out the expected value of every action available to a hand, knowing only its value rather than its cards,
+     * and whether it came from splitting a pair. A split hand is never a blackjack and never surrenders, and only
+     * doubles down or splits again as far as the house rules allow.
+     *
+     * @param shoe the composition of the cards the hand and the dealer will draw from.
+     * @param handValue the hand's value.
+     * @param soft {@code true} if an ace in the hand is being counted as 11.
+     * @param pair {@code true} if the hand is two cards of equal value.
+     * @param initial {@code true} if the hand is its two initial cards, so it may still double down or surrender.
+     * @param split {@code true} if the hand came from splitting a pair.
+     * @param dealerUpcard the dealer's face-up card.
+     * @return the {@link Expectation} of each action, in units of the hand's wager.
+     * @throws IllegalArgumentException if the shoe is too large to analyze.
+     */
+    public Expectation analyze(final int[] shoe, final int handValue, final boolean soft, final boolean pair,
+            final boolean initial, final boolean split, final Card dealerUpcard) {
+        if (initial && !split && (handValue == BLACKJACK_VALUE) && soft) {
+            return new Expectation(blackjackPayout, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        final int[] counts = shoe.clone();
+        final long key = keyOf(counts);
+        final int upcard = valueOf(dealerUpcard);
+        final int hard = soft ? (handValue - SOFT_BONUS) : handValue;
+        final int pairValue = soft ? ACE : ((handValue / 2) - 1);
+
+        final double stay = stayValue(counts, key, handValue, upcard);
+        final double hit = hitValue(counts, key, hard, soft, upcard);
+        final boolean canDoubleDown = initial && (!split || doubleAfterSplit);
+        final boolean canSplit = initial && pair && (!split || (pairValue != ACE) || ruleSet.isResplitAces());
+        final double doubleDown = canDoubleDown ? doubleValue(counts, key, hard, soft, upcard) : Double.NaN;
+        final double splitting = canSplit ? splitValue(counts, key, pairValue, upcard) : Double.NaN;
+        return new Expectation(stay, hit, doubleDown, splitting, (initial && !split) ? surrenderPayout : Double.NaN);
+    }
+
+    /**
+     * @return how many subproblems are currently cached.
+     */
+    public int getCachedCount() {
+        return dealerOutcomes.size() + hitValues.size();
+    }
+
+    /**
+     * @return the {@link BlackjackRuleSet house rules} the calculator plays by.
+     */
+    public BlackjackRuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    private double stayValue(final int[] shoe, final long key, final int value, final int upcard) {
+        if (value > BLACKJACK_VALUE) {
+            return -1.0;
+        }
+
+        final double[] outcomes = dealerOutcomes(shoe, key, upcard);
+        double expectation = outcomes[BUSTED];
+        for (int dealerValue = DEALER_STANDS_ON; dealerValue <= BLACKJACK_VALUE; dealerValue++) {
+            final double chance = outcomes[dealerValue - DEALER_STANDS_ON];
+            expectation += (value > dealerValue) ? chance : ((value < dealerValue) ? -chance : 0.0);
+        }
+        return expectation;
+    }
+
+    private double hitValue(final int[] shoe, final long key, final int hard, final boolean hasAce,
+            final int upcard) {
+        final Key cacheKey = new Key(key, (hard << 5) | (hasAce ? 16 : 0) | upcard);
+        final Double cached = hitValues.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        final int remaining = sizeOf(shoe);
+        double expectation = 0.0;
+        for (int value = ACE; value < VALUES; value++) {
+            if (shoe[value] == 0) {
+                continue;
+            }
+
+            final double chance = (double) shoe[value] / remaining;
+            final int nextHard = hard + value + 1;
+            if (nextHard > BLACKJACK_VALUE) {
+                expectation -= chance;
+                continue;
+            }
+
+            final boolean nextHasAce = hasAce || (value == ACE);
+            shoe[value]--;
+            final long nextKey = key - unitOf(value);
+            final double stay = stayValue(shoe, nextKey, best(nextHard, nextHasAce), upcard);
+            expectation += chance * ((best(nextHard, nextHasAce) == BLACKJACK_VALUE) ? stay :
+                    Math.max(stay, hitValue(shoe, nextKey, nextHard, nextHasAce, upcard)));
+            shoe[value]++;
+        }
+
+        hitValues.put(cacheKey, expectation);
+        return expectation;
+    }
+
+    private double doubleValue(final int[] shoe, final long key, final int hard, final boolean hasAce,
+            final int upcard) {
+        final int remaining = sizeOf(shoe);
+        double expectation = 0.0;
+        for (int value = ACE; value < VALUES; value++) {
+            if (shoe[value] > 0) {
+                final double chance = (double) shoe[value] / remaining;
+                shoe[value]--;
+                expectation += chance *
+                        stayValue(shoe, key - unitOf(value), best(hard + value + 1, hasAce || (value == ACE)), upcard);
+                shoe[value]++;
+            }
+        }
+        return 2.0 * expectation;
+    }
+
+    private double splitValue(final int[] shoe, final long key, final int pair, final int upcard) {
+        final int remaining = sizeOf(shoe);
+        final boolean aces = (pair == ACE);
+        double expectation = 0.0;
+        for (int value = ACE; value < VALUES; value++) {
+            if (shoe[value] == 0) {
+                continue;
+            }
+
+            final double chance = (double) shoe[value] / remaining;
+            final int hard = pair + value + 2;
+            final boolean hasAce = aces || (value == ACE);
+            shoe[value]--;
+            final long nextKey = key - unitOf(value);
+            final double stay = stayValue(shoe, nextKey, best(hard, hasAce), upcard);
+            final double hit = aces ? stay : hitValue(shoe, nextKey, hard, hasAce, upcard);
+            final double doubleDown = (aces || !doubleAfterSplit) ? stay :
+                    doubleValue(shoe, nextKey, hard, hasAce, upcard);
+            expectation += chance * Math.max(stay, Math.max(hit, doubleDown));
+            shoe[value]++;
+        }
+        return 2.0 * expectation;
+    }
+
+    /**
+     * @return the chance of the dealer finishing on each of 17 to 21, followed by the chance of busting.
+     */
+    private double[] dealerOutcomes(final int[] shoe, final long key, final int upcard) {
+        final Key cacheKey = new Key(key, upcard);
+        final double[] cached = dealerOutcomes.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        // the dealer has already checked for blackjack, so the hole card cannot complete one
+        final int excluded = (upcard == ACE) ? TEN : ((upcard == TEN) ? ACE : -1);
+        final int remaining = sizeOf(shoe) - ((excluded < 0) ? 0 : shoe[excluded]);
+        final double[] outcomes = new double[BUSTED + 1];
+        for (int value = ACE; value < VALUES; value++) {
+            if ((value != excluded) && (shoe[value] > 0)) {
+                final double chance = (double) shoe[value] / remaining;
+                shoe[value]--;
+                drawDealer(shoe, upcard + value + 2, (upcard == ACE) || (value == ACE), chance, outcomes);
+                shoe[value]++;
+            }
+        }
+
+        dealerOutcomes.put(cacheKey, outcomes);
+        return outcomes;
+    }
+
+    private void drawDealer(final int[] shoe, final int hard, final boolean hasAce, final double chance,
+            final double[] outcomes) {
+        final int value = best(hard, hasAce);
+        if (value > BLACKJACK_VALUE) {
+            outcomes[BUSTED] += chance;
+            return;
+        }
+
+        final boolean soft17 = (value == DEALER_STANDS_ON) && (value != hard);
+        if ((value >= DEALER_STANDS_ON) && !(soft17 && dealerHitsSoft17)) {
+            outcomes[value - DEALER_STANDS_ON] += chance;
+            return;
+        }
+
+        final int remaining = sizeOf(shoe);
+        for (int next = ACE; next < VALUES; next++) {
+            if (shoe[next] > 0) {
+                final double nextChance = (chance * shoe[next]) / remaining;
+                shoe[next]--;
+                drawDealer(shoe, hard + next + 1, hasAce || (next == ACE), nextChance, outcomes);
+                shoe[next]++;
+            }
+        }
+    }
+
+    private static int best(final int hard, final boolean hasAce) {
+        return (hasAce && ((hard + SOFT_BONUS) <= BLACKJACK_VALUE)) ? (hard + SOFT_BONUS) : hard;
+    }
+
+    private static int valueOf(final Card card) {
+        final Rank rank = card.getRank();
+        return Rank.ACE.equals(rank) ? ACE : Math.min(rank.getStrength(), 10) - 1;
+    }
+
+    private static int sizeOf(final int[] shoe) {
+        int size = 0;
+        for (final int count : shoe) {
+            size += count;
+        }
+        return size;
+    }
+
+    private static long unitOf(final int value) {
+        return 1L << (value * COUNT_BITS);
+    }
+
+    private static long keyOf(final int[] shoe) {
+        long key = 0L;
+        for (int value = ACE; value < VALUES; value++) {
+            final int max = (value == TEN) ? MAX_TEN_COUNT : MAX_COUNT;
+            if ((shoe[value] < 0) || (shoe[value] > max)) {
+                throw new IllegalArgumentException("A shoe can only hold between 0 and " + max + " of each value!");
+            }
+            key |= ((long) shoe[value]) << (value * COUNT_BITS);
+        }
+        return key;
+    }
+
+    private static <V> Map<Key, V> boundedCache(final int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<Key, V>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * A shoe composition, along with whatever else identifies a subproblem.
+     */
+    private static final class Key
+    {
+        private final long shoe;
+        private final int state;
+
+        private Key(final long shoe, final int state) {
+            this.shoe = shoe;
+            this.state = state;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) other;
+            return (shoe == key.shoe) && (state == key.state);
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(shoe) * 31) + state;
+        }
+    }
+
+    /**
+     * The actions a player can take with a hand.
+     */
+    public enum Action
+    {
+        STAY,
+        HIT,
+        DOUBLE_DOWN,
+        SPLIT,
+        SURRENDER
+    }
+
+    /**
+     * The expected value of each action available to a hand, in units of its wager. Actions that are not available
+     * are {@link Double#NaN}.
+     */
+    public static final class Expectation
+    {
+        private final double[] values;
+
+        private Expectation(final double stay, final double hit, final double doubleDown, final double split,
+                final double surrender) {
+            this.values = new double[] {stay, hit, doubleDown, split, surrender};
+        }
+
+        /**
+         * @param action an {@link Action}.
+         * @return the action's expected value, or {@link Double#NaN} if the action is not available.
+         */
+        public double of(final Action action) {
+            return values[action.ordinal()];
+        }
+
+        /**
+         * @return the available {@link Action} with the highest expected value.
+         */
+        public Action best() {
+            Action best = Action.STAY;
+            for (final Action action : Action.values()) {
+                if (values[action.ordinal()] > values[best.ordinal()]) {
+                    best = action;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.nordryd.gamblybot.cardgames.games.blackjack;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.jfr.RoundDealtEvent;
+import com.nordryd.gamblybot.jfr.RoundSettledEvent;
 
 /**
  * <p>
@@ -14,20 +17,173 @@ import com.nordryd.gamblybot.cardgames.entities.Deck;
  */
 public class BlackjackGame
 {
+    private static final String NAME = "Blackjack";
+    private static final AtomicInteger ROUNDS = new AtomicInteger();
+
     private final Deck deck;
+    private final BlackjackRuleSet ruleSet;
     private final BlackjackPlayer dealer;
     private final List<BlackjackPlayer> players;
+    private final int round;
 
     public BlackjackGame(final Deck deck) {
+        this(deck, BlackjackRuleSet.DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param deck the {@link Deck} to deal from.
+     * @param ruleSet the {@link BlackjackRuleSet house rules} of the table.
+     */
+    public BlackjackGame(final Deck deck, final BlackjackRuleSet ruleSet) {
         this.deck = deck;
+        this.ruleSet = ruleSet;
         this.dealer = new BlackjackPlayer(deck,0);
         this.players = new ArrayList<>();
+        this.round = ROUNDS.incrementAndGet();
+        RoundDealtEvent.emit(NAME, round, deck.getRemainingCount());
+    }
+
+    /**
+     * Constructor for restoring a game.
+     */
+    BlackjackGame(final Deck deck, final BlackjackRuleSet ruleSet, final BlackjackPlayer dealer,
+            final List<BlackjackPlayer> players) {
+        this.deck = deck;
+        this.ruleSet = ruleSet;
+        this.dealer = dealer;
+        this.players = new ArrayList<>(players);
+        this.round = ROUNDS.incrementAndGet();
+    }
+
+    /**
+     * Decides how a player's hand fares against the dealer's. A natural blackjack beats any other 21, and a busted
+     * hand always loses, even if the dealer busts too.
+     *
+     * @param hand the player's {@link BlackjackHand}.
+     * @param dealerHand the dealer's {@link BlackjackHand}.
+     * @return the {@link Outcome} of the hand.
+     */
+    public static Outcome settle(final BlackjackHand hand, final BlackjackHand dealerHand) {
+        final BlackjackHand.State state = hand.getState(), dealerState = dealerHand.getState();
+        if (BlackjackHand.State.BUSTED.equals(state)) {
+            return Outcome.LOSE;
+        }
+
+        if (BlackjackHand.State.BLACKJACK.equals(state)) {
+            return BlackjackHand.State.BLACKJACK.equals(dealerState) ? Outcome.PUSH : Outcome.BLACKJACK;
+        }
+
+        if (BlackjackHand.State.BLACKJACK.equals(dealerState)) {
+            return Outcome.LOSE;
+        }
+
+        if (BlackjackHand.State.BUSTED.equals(dealerState) || (hand.getValue() > dealerHand.getValue())) {
+            return Outcome.WIN;
+        }
+
+        return (hand.getValue() == dealerHand.getValue()) ? Outcome.PUSH : Outcome.LOSE;
+    }
+
+    /**
+     * Works out what a player won or lost in a finished round, by the table's {@link BlackjackRuleSet house rules}:
+     * each hand is paid for its {@link Outcome} on its wager, doubled if it doubled down, and a surrendered player
+     * loses half their wager.
+     *
+     * @param player the {@link BlackjackPlayer}.
+     * @return the chips the player won, or lost if negative.
+     */
+    public long getWinnings(final BlackjackPlayer player) {
+        if (BlackjackPlayer.State.SURRENDERED.equals(player.getState())) {
+            return ruleSet.getSurrenderWinnings(player.getWager());
+        }
+
+        final BlackjackHand dealerHand = dealer.getHands().get(0);
+        long winnings = 0L;
+        for (final BlackjackHand hand : player.getHands()) {
+            final int wager = hand.isDoubled() ? (player.getWager() * 2) : player.getWager();
+            winnings += ruleSet.getWinnings(wager, settle(hand, dealerHand));
+        }
+        return winnings;
+    }
+
+    /**
+     * Seats a new player at the table.
+     *
+     * @param wager the player's initial wager.
+     * @return the new {@link BlackjackPlayer}.
+     */
+    public BlackjackPlayer addPlayer(final int wager) {
+        final BlackjackPlayer player = new BlackjackPlayer(deck, wager);
+        players.add(player);
+        return player;
+    }
+
+    /**
+     * @return the first player who has not finished their turn, or {@code null} if every player has.
+     */
+    public BlackjackPlayer getCurrentPlayer() {
+        for (final BlackjackPlayer player : players) {
+            if (BlackjackPlayer.State.WAITING.equals(player.getState()) ||
+                    BlackjackPlayer.State.PLAYING.equals(player.getState())) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Plays the dealer's hand: the dealer hits until reaching at least 17, or a hard 17 if the
+     * {@link BlackjackRuleSet} has the dealer hit a soft 17, then stays.
+     */
+    public void playDealer() {
+        final BlackjackHand hand = dealer.getHands().get(0);
+        while (BlackjackHand.State.PLAYING.equals(hand.getState()) && ruleSet.dealerHits(hand)) {
+            hand.hit();
+        }
+        hand.stay();
+        RoundSettledEvent.emit(NAME, round, players.size(), hand.getValue(),
+                BlackjackHand.State.BUSTED.equals(hand.getState()));
     }
 
     public Deck getDeck() {
         return deck;
     }
+
+    /**
+     * @return the {@link BlackjackRuleSet house rules} of the table.
+     */
+    public BlackjackRuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    /**
+     * @return the dealer.
+     */
+    public BlackjackPlayer getDealer() {
+        return dealer;
+    }
+
+    /**
+     * @return the players seated at the table, in seating order.
+     */
+    public List<BlackjackPlayer> getPlayers() {
+        return players;
+    }
+
+    /**
+     * How a player's hand fared against the dealer's.
+     */
+    public enum Outcome
+    {
+        /**
+         * The hand was a natural blackjack and the dealer's was not.
+         */
+        BLACKJACK,
+        WIN,
+        PUSH,
+        LOSE;
+    }
     // dealer (BlackjackDealer extends BlackjackPlayer ?)
-    // List<Player>
-    // the hierarchy of hands should be calculated here, such as BLACKJACK beats 21 (a natural 21 beats a 21 from hits)
 }
@@ -0,0 +1,205 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.CardSet;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+
+/**
+ * <p>
+ * Reads and writes a compact binary snapshot of a {@link BlackjackGame} in progress: the table's
+ * {@link BlackjackRuleSet house rules}, the cards left in the deck, and every hand, state and wager at the table.
+ * Cards are written as single-byte {@link Card#getId() IDs}, so a full seven-player table fits in a couple of hundred
+ * bytes.
+ * </p>
+ * <p>
+ * The deck's {@link Random} cannot be captured, so a restored deck draws its remaining cards with a fresh random
+ * number generator. The remaining cards themselves, and so the odds of every future draw, are unchanged.
+ * </p>
+ * <p>
+ * Games can also be {@link #pack(BlackjackGame) packed} into an even smaller form for keeping in memory, which leaves
+ * out the header and holds the deck as a {@link CardSet} bitmask.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public final class BlackjackGameSnapshots
+{
+    private static final int MAGIC = 0x47424A53;
+    private static final int VERSION = 2, VERSION_WITHOUT_RULES = 1;
+    private static final int PACKED_SIZE_HINT = 64, DOUBLED_BIT = 0x80;
+    private static final BlackjackHand.State[] HAND_STATES = BlackjackHand.State.values();
+    private static final BlackjackPlayer.State[] PLAYER_STATES = BlackjackPlayer.State.values();
+
+    private BlackjackGameSnapshots() {}
+
+    /**
+     * Writes a snapshot of a game.
+     *
+     * @param game the {@link BlackjackGame} to write.
+     * @param output where to write the snapshot.
+     * @throws IOException if the snapshot could not be written.
+     */
+    public static void write(final BlackjackGame game, final DataOutput output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeByte(game.getRuleSet().toBits());
+        writeCardIds(game.getDeck().getRemainingCardIds(), output);
+        writePlayers(game, output);
+    }
+
+    /**
+     * Reads a snapshot of a game. Games in snapshots written before tables had house rules are restored with the
+     * {@link BlackjackRuleSet#DEFAULT default} rules.
+     *
+     * @param input where to read the snapshot from.
+     * @param rng the {@link Random random number generator} for the restored game's {@link Deck}.
+     * @return the restored {@link BlackjackGame}.
+     * @throws IOException if the snapshot could not be read, or is not a snapshot this version can read.
+     */
+    public static BlackjackGame read(final DataInput input, final Random rng) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a blackjack game snapshot");
+        }
+
+        final int version = input.readUnsignedByte();
+        if ((version != VERSION) && (version != VERSION_WITHOUT_RULES)) {
+            throw new IOException("Unsupported blackjack game snapshot version " + version);
+        }
+
+        final BlackjackRuleSet ruleSet = (version == VERSION) ? readRuleSet(input) : BlackjackRuleSet.DEFAULT;
+        return readPlayers(Deck.restore(rng, readCardIds(input)), ruleSet, input);
+    }
+
+    /**
+     * Packs a game into as few bytes as possible, for keeping in memory rather than writing out.
+     *
+     * @param game the {@link BlackjackGame} to pack.
+     * @return the packed game.
+     */
+    static byte[] pack(final BlackjackGame game) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(PACKED_SIZE_HINT);
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(game.getRuleSet().toBits());
+            output.writeLong(game.getDeck().getRemaining().getBits());
+            writePlayers(game, output);
+        }
+        catch (final IOException exception) {
+            // a byte array never fails to write
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Unpacks a game {@link #pack(BlackjackGame) packed} earlier.
+     *
+     * @param packed the packed game.
+     * @param rng the {@link Random random number generator} for the unpacked game's {@link Deck}.
+     * @return the unpacked {@link BlackjackGame}.
+     */
+    static BlackjackGame unpack(final byte[] packed, final Random rng) {
+        try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(packed))) {
+            final BlackjackRuleSet ruleSet = BlackjackRuleSet.fromBits(input.readUnsignedByte());
+            final CardSet remaining = CardSet.fromBits(input.readLong());
+            final int[] remainingCardIds = new int[remaining.size()];
+            for (int card = 0, id = remaining.nextId(0); id >= 0; card++, id = remaining.nextId(id + 1)) {
+                remainingCardIds[card] = id;
+            }
+            return readPlayers(Deck.restore(rng, remainingCardIds), ruleSet, input);
+        }
+        catch (final IOException exception) {
+            // only packed games are ever unpacked, so a byte array that runs short is a bug
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static void writePlayers(final BlackjackGame game, final DataOutput output) throws IOException {
+        writePlayer(game.getDealer(), output);
+        output.writeShort(game.getPlayers().size());
+        for (final BlackjackPlayer player : game.getPlayers()) {
+            writePlayer(player, output);
+        }
+    }
+
+    private static BlackjackRuleSet readRuleSet(final DataInput input) throws IOException {
+        final int bits = input.readUnsignedByte();
+        try {
+            return BlackjackRuleSet.fromBits(bits);
+        }
+        catch (final IllegalArgumentException exception) {
+            throw new IOException("Not a blackjack game snapshot", exception);
+        }
+    }
+
+    private static BlackjackGame readPlayers(final Deck deck, final BlackjackRuleSet ruleSet, final DataInput input)
+            throws IOException {
+        final BlackjackPlayer dealer = readPlayer(deck, input);
+        final int playerCount = input.readUnsignedShort();
+        final List<BlackjackPlayer> players = new ArrayList<>(playerCount);
+        for (int player = 0; player < playerCount; player++) {
+            players.add(readPlayer(deck, input));
+        }
+        return new BlackjackGame(deck, ruleSet, dealer, players);
+    }
+
+    private static void writePlayer(final BlackjackPlayer player, final DataOutput output) throws IOException {
+        output.writeByte(player.getState().ordinal());
+        output.writeInt(player.getWager());
+        output.writeByte(player.getHands().size());
+        for (final BlackjackHand hand : player.getHands()) {
+            // a hand's state fits in the low bits, leaving the top one for whether it doubled down
+            output.writeByte(hand.getState().ordinal() | (hand.isDoubled() ? DOUBLED_BIT : 0));
+            final List<Card> cards = hand.getCards();
+            output.writeByte(cards.size());
+            for (final Card card : cards) {
+                output.writeByte(card.getId());
+            }
+        }
+    }
+
+    private static BlackjackPlayer readPlayer(final Deck deck, final DataInput input) throws IOException {
+        final BlackjackPlayer.State state = PLAYER_STATES[input.readUnsignedByte()];
+        final int wager = input.readInt();
+        final int handCount = input.readUnsignedByte();
+        final List<BlackjackHand> hands = new ArrayList<>(handCount);
+        for (int hand = 0; hand < handCount; hand++) {
+            final int handBits = input.readUnsignedByte();
+            final BlackjackHand.State handState = HAND_STATES[handBits & ~DOUBLED_BIT];
+            final int cardCount = input.readUnsignedByte();
+            final List<Card> cards = new ArrayList<>(cardCount);
+            for (int card = 0; card < cardCount; card++) {
+                cards.add(Card.fromId(input.readUnsignedByte()));
+            }
+            // a player only ever holds more than one hand by splitting
+            hands.add(new BlackjackHand(deck, cards, handState, handCount > 1, (handBits & DOUBLED_BIT) != 0));
+        }
+        return new BlackjackPlayer(hands, state, wager);
+    }
+
+    private static void writeCardIds(final int[] cardIds, final DataOutput output) throws IOException {
+        output.writeByte(cardIds.length);
+        for (final int cardId : cardIds) {
+            output.writeByte(cardId);
+        }
+    }
+
+    private static int[] readCardIds(final DataInput input) throws IOException {
+        final int[] cardIds = new int[input.readUnsignedByte()];
+        for (int card = 0; card < cardIds.length; card++) {
+            cardIds[card] = input.readUnsignedByte();
+        }
+        return cardIds;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.List;
 
 import com.nordryd.gamblybot.cardgames.entities.Card;
 import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.CardSet;
 import com.nordryd.gamblybot.cardgames.entities.Deck;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -19,16 +20,18 @@ import org.springframework.beans.factory.annotation.Autowired;
  */
 public class BlackjackHand
 {
-    private static final List<Rank> HAS_STRENGTH_OF_10 = asList(Rank.TEN, Rank.JACK, Rank.QUEEN, Rank.KING);
+    private static final CardSet HAS_STRENGTH_OF_10 = CardSet.ofRanks(Rank.TEN, Rank.JACK, Rank.QUEEN, Rank.KING);
     private static final int INITIAL_HAND_SIZE = 2, BLACKJACK_VALUE = 21, STRENGTH_OF_10 = 10, ACE_HIGH = 11, ACE_LOW = 1;
 
     private final List<Card> cards;
     private final Deck deck;
+    private final boolean split;
 
     private State state;
+    private boolean doubled;
+    private int hardValue;
     private int value;
     private int aces;
-    private boolean acesAreHigh;
 
     /**
      * Constructor.
@@ -37,16 +40,50 @@ public class BlackjackHand
      */
     @Autowired
     public BlackjackHand(final Deck deck) {
-        this(deck, deck.draw());
+        this(deck, deck.draw(), false);
     }
 
-    private BlackjackHand(final Deck deck, final Card initialCard) {
+    /**
+     * Constructor for restoring a hand. The cards are counted again to recover the hand's value, but the hand keeps
+     * the given state, since a hand that was stayed cannot be told apart from one still being played by its cards.
+     */
+    BlackjackHand(final Deck deck, final List<Card> cards, final State state) {
+        this(deck, cards, state, false);
+    }
+
+    /**
+     * Constructor for restoring a hand that may have come from a split.
+     */
+    BlackjackHand(final Deck deck, final List<Card> cards, final State state, final boolean split) {
+        this(deck, cards, state, split, false);
+    }
+
+    /**
+     * Constructor for restoring a hand that may have come from a split, and may have been doubled down.
+     */
+    BlackjackHand(final Deck deck, final List<Card> cards, final State state, final boolean split,
+            final boolean doubled) {
+        this.cards = new ArrayList<>(cards.size());
+        this.deck = deck;
+        this.split = split;
+        this.doubled = doubled;
+        this.state = State.PLAYING;
+        this.hardValue = 0;
+        this.value = 0;
+        this.aces = 0;
+        cards.forEach(this::updateHandValue);
+        this.state = state;
+    }
+
+    private BlackjackHand(final Deck deck, final Card initialCard, final boolean split) {
         this.cards = new ArrayList<>();
         this.deck = deck;
+        this.split = split;
+        this.doubled = false;
         this.state = State.PLAYING;
+        this.hardValue = 0;
         this.value = 0;
         this.aces = 0;
-        this.acesAreHigh = true;
         updateHandValue(initialCard);
         hit();
     }
@@ -70,21 +107,37 @@ public class BlackjackHand
     }
 
     /**
-     * Splits the current hand.
+     * Doubles down: the hand's wager is doubled, it is hit exactly once, and then it stays unless it busted.
      *
-     * @return two new hands with the duplicate card as the initial card of both.
-     * @throws IllegalStateException if both initial cards are not equal in value.
+     * @throws IllegalStateException if the hand is not being played, or has already been hit.
+     */
+    public void doubleDown() {
+        if (!State.PLAYING.equals(state) || (cards.size() != INITIAL_HAND_SIZE)) {
+            throw new IllegalStateException("Only a hand still on its two initial cards can double down!");
+        }
+        doubled = true;
+        hit();
+        stay();
+    }
+
+    /**
+     * Splits the current hand. A two-card 21 on either new hand is not a natural, so it stays on 21 rather than
+     * becoming a {@link State#BLACKJACK blackjack}.
+     *
+     * @return two new hands, each starting from one of the two initial cards.
+     * @throws IllegalStateException if the hand has been hit, or both initial cards are not equal in value.
      */
     public List<BlackjackHand> split() {
+        if (cards.size() != INITIAL_HAND_SIZE) {
+            throw new IllegalStateException("split() was called on a hand that has already been hit!");
+        }
+
         if (!canSplit()) {
             throw new IllegalStateException("split() was called on a hand that cannot be split!\n" +
                     "Both initially dealt cards must be equal in value in order to split.\n" + "The cards were:\n" +
                     cards.get(0) + ", " + cards.get(1));
         }
-        final Card initialCard = cards.get(0), otherInitialCard = cards.get(1);
-        return asList(new BlackjackHand(deck, initialCard), new BlackjackHand(deck,
-                !initialCard.equals(otherInitialCard) && HAS_STRENGTH_OF_10.contains(initialCard.getRank()) &&
-                        HAS_STRENGTH_OF_10.contains(otherInitialCard.getRank()) ? otherInitialCard : initialCard));
+        return asList(new BlackjackHand(deck, cards.get(0), true), new BlackjackHand(deck, cards.get(1), true));
     }
 
     /**
@@ -101,6 +154,34 @@ public class BlackjackHand
         return value;
     }
 
+    /**
+     * @return {@code true} if an ace in the hand is being counted as 11.
+     */
+    public boolean isSoft() {
+        return value != hardValue;
+    }
+
+    /**
+     * @return {@code true} if the hand came from splitting a pair.
+     */
+    public boolean isSplit() {
+        return split;
+    }
+
+    /**
+     * @return {@code true} if the hand has doubled down, so it is played for twice the wager.
+     */
+    public boolean isDoubled() {
+        return doubled;
+    }
+
+    /**
+     * @return {@code true} if the hand is its two initial cards, and they are equal in value.
+     */
+    public boolean isPair() {
+        return (cards.size() == INITIAL_HAND_SIZE) && canSplit();
+    }
+
     /**
      * @return the hand's current {@link BlackjackHand.State state}.
      */
@@ -113,34 +194,31 @@ public class BlackjackHand
         final Rank cardRank = card.getRank();
         if (Rank.ACE.equals(cardRank)) {
             aces++;
-            value += acesAreHigh ? ACE_HIGH : ACE_LOW;
+            hardValue += ACE_LOW;
         }
         else {
-            value += HAS_STRENGTH_OF_10.contains(cardRank) ? STRENGTH_OF_10 : cardRank.getStrength();
+            hardValue += HAS_STRENGTH_OF_10.contains(card) ? STRENGTH_OF_10 : cardRank.getStrength();
         }
 
+        // at most one ace can ever count as high without busting
+        final int softValue = hardValue + (ACE_HIGH - ACE_LOW);
+        value = ((aces > 0) && (softValue <= BLACKJACK_VALUE)) ? softValue : hardValue;
         updateHandState();
     }
 
     private void updateHandState() {
         if (value == BLACKJACK_VALUE) {
-            state = (cards.size() == INITIAL_HAND_SIZE) ? State.BLACKJACK : State.STAYING;
+            state = ((cards.size() == INITIAL_HAND_SIZE) && !split) ? State.BLACKJACK : State.STAYING;
         }
         else if (value > BLACKJACK_VALUE) {
-            if (acesAreHigh && (aces > 0)) {
-                value = value - (aces * (ACE_HIGH - ACE_LOW));
-                updateHandState();
-            }
-            else {
-                state = State.BUSTED;
-            }
+            state = State.BUSTED;
         }
     }
 
     private boolean canSplit() {
-        final Rank cardRank1st = cards.get(0).getRank(), cardRank2nd = cards.get(1).getRank();
-        return cardRank1st.equals(cardRank2nd) ||
-                (HAS_STRENGTH_OF_10.contains(cardRank1st) && HAS_STRENGTH_OF_10.contains(cardRank2nd));
+        final Card card1st = cards.get(0), card2nd = cards.get(1);
+        return card1st.getRank().equals(card2nd.getRank()) ||
+                (HAS_STRENGTH_OF_10.contains(card1st) && HAS_STRENGTH_OF_10.contains(card2nd));
     }
 
     /**
@@ -0,0 +1,160 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Action;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Expectation;
+
+/**
+ * <p>
+ * Answers "what should I do with this hand?" from a cache of the best {@link Action} for every combination of hand
+ * value, softness, whether the hand is a pair, whether it is still its two initial cards, whether it came from a split,
+ * the dealer's upcard, and the Hi-Lo true count rounded to a bucket between {@value #MIN_TRUE_COUNT} and
+ * {@value #MAX_TRUE_COUNT}. A hint is only ever an action the calculator's {@link BlackjackRuleSet house rules} allow
+ * for the hand.
+ * </p>
+ * <p>
+ * Those combinations pack into a 17-bit key, so the cache is a fixed-size array that can be read without locking.
+ * An empty entry is filled on first use by the {@link BlackjackCalculator}, under the calculator's house rules,
+ * against a shoe skewed to the bucket's count. Two threads may fill the same entry at once, but they always work out
+ * the same answer.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackHintCache
+{
+    /**
+     * The lowest true count with its own bucket; lower counts share it.
+     */
+    public static final int MIN_TRUE_COUNT = -5;
+
+    /**
+     * The highest true count with its own bucket; higher counts share it.
+     */
+    public static final int MAX_TRUE_COUNT = 5;
+
+    private static final int KEYS = 1 << 17;
+    private static final int ACE = 0, TWO = 1, SIX = 5, TEN = 9;
+
+    private final BlackjackCalculator calculator;
+    private final int decks;
+    private final AtomicReferenceArray<Action> hints;
+
+    /**
+     * Constructor.
+     *
+     * @param calculator the {@link BlackjackCalculator} to work out hints with.
+     * @param decks how many decks the shoe being played holds.
+     */
+    public BlackjackHintCache(final BlackjackCalculator calculator, final int decks) {
+        this.calculator = calculator;
+        this.decks = decks;
+        this.hints = new AtomicReferenceArray<>(KEYS);
+    }
+
+    /**
+     * @param hand the player's {@link BlackjackHand}.
+     * @param dealerUpcard the dealer's face-up card.
+     * @return the best {@link Action} for the hand, for a shoe with a neutral count.
+     * @throws IllegalStateException if the hand is not being played.
+     */
+    public Action hint(final BlackjackHand hand, final Card dealerUpcard) {
+        return hint(hand, dealerUpcard, 0.0);
+    }
+
+    /**
+     * @param hand the player's {@link BlackjackHand}.
+     * @param dealerUpcard the dealer's face-up card.
+     * @param trueCount the Hi-Lo running count divided by the decks left in the shoe.
+     * @return the best {@link Action} for the hand.
+     * @throws IllegalStateException if the hand is not being played.
+     */
+    public Action hint(final BlackjackHand hand, final Card dealerUpcard, final double trueCount) {
+        if (!BlackjackHand.State.PLAYING.equals(hand.getState())) {
+            throw new IllegalStateException("Cannot give a hint for a hand that is not being played!");
+        }
+
+        final boolean initial = (hand.getCards().size() == 2);
+        final int bucket = (int) Math.max(MIN_TRUE_COUNT, Math.min(MAX_TRUE_COUNT, Math.round(trueCount)));
+        final int upcard = valueOf(dealerUpcard);
+        final int key = hand.getValue() | (hand.isSoft() ? (1 << 5) : 0) | (hand.isPair() ? (1 << 6) : 0) |
+                (initial ? (1 << 7) : 0) | (upcard << 8) | ((bucket - MIN_TRUE_COUNT) << 12) |
+                (hand.isSplit() ? (1 << 16) : 0);
+
+        Action hint = hints.get(key);
+        if (hint == null) {
+            hint = best(calculator.analyze(shoeFor(bucket, upcard), hand.getValue(), hand.isSoft(), hand.isPair(),
+                    initial, hand.isSplit(), dealerUpcard), hand);
+            hints.set(key, hint);
+        }
+        return hint;
+    }
+
+    /**
+     * @return how many hints are cached.
+     */
+    public int getCachedCount() {
+        int cached = 0;
+        for (int key = 0; key < KEYS; key++) {
+            cached += (hints.get(key) == null) ? 0 : 1;
+        }
+        return cached;
+    }
+
+    /**
+     * @return the action with the highest expected value out of those the house rules allow for the hand.
+     */
+    private Action best(final Expectation expectation, final BlackjackHand hand) {
+        final BlackjackRuleSet ruleSet = calculator.getRuleSet();
+        Action best = Action.STAY;
+        for (final Action action : Action.values()) {
+            final boolean allowed;
+            switch (action) {
+                case DOUBLE_DOWN:
+                    allowed = ruleSet.canDoubleDown(hand, hand.isSplit());
+                    break;
+                case SPLIT:
+                    allowed = ruleSet.canSplit(hand, hand.isSplit());
+                    break;
+                case SURRENDER:
+                    // only a player's lone opening hand can surrender, and the dealer is known not to have blackjack
+                    allowed = !hand.isSplit() && !BlackjackRuleSet.Surrender.NONE.equals(ruleSet.getSurrender());
+                    break;
+                default:
+                    allowed = true;
+                    break;
+            }
+
+            if (allowed && (expectation.of(action) > expectation.of(best))) {
+                best = action;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return a shoe whose Hi-Lo running count matches the true count, less the dealer's upcard.
+     */
+    private int[] shoeFor(final int trueCount, final int upcard) {
+        final int[] shoe = BlackjackCalculator.shoe(decks);
+        shoe[upcard]--;
+
+        // a positive count means low cards (two to six) have left the shoe, and a negative one high cards
+        final int runningCount = trueCount * decks;
+        for (int removed = 0; removed < Math.abs(runningCount); removed++) {
+            if (runningCount > 0) {
+                shoe[TWO + (removed % (SIX - TWO + 1))]--;
+            }
+            else {
+                shoe[((removed % 5) == 4) ? ACE : TEN]--;
+            }
+        }
+        return shoe;
+    }
+
+    private static int valueOf(final Card card) {
+        return Card.Rank.ACE.equals(card.getRank()) ? ACE : (Math.min(card.getRank().getStrength(), 10) - 1);
+    }
+}
@@ -0,0 +1,104 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Holds tables nobody is playing at as {@link BlackjackGameSnapshots#pack(BlackjackGame) packed} byte arrays rather
+ * than as {@link BlackjackGame} objects. A packed table is its deck as a single bitmask, plus a few bytes for each
+ * player and card at the table. Counting its map entry and ID, an abandoned one-player table retains about 150 bytes of
+ * heap rather than the 700 or so of its live game, and a hundred thousand of them fit in about 15 megabytes.
+ * </p>
+ * <p>
+ * A table is {@link #park(String, BlackjackGame) parked} once it goes idle, and {@link #inflate(String) inflated} back
+ * into a {@link BlackjackGame} when someone plays at it again. Like a {@link BlackjackGameSnapshots snapshot}, an
+ * inflated table's deck draws its remaining cards with a fresh random number generator.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackIdleTableStore
+{
+    private final Random rng;
+    private final ConcurrentMap<String, byte[]> tables;
+    private final AtomicLong packedBytes;
+
+    /**
+     * Constructor.
+     *
+     * @param rng the {@link Random random number generator} for every inflated table's deck.
+     */
+    public BlackjackIdleTableStore(final Random rng) {
+        this.rng = rng;
+        this.tables = new ConcurrentHashMap<>();
+        this.packedBytes = new AtomicLong();
+    }
+
+    /**
+     * Parks an idle table, replacing any table already parked under the same ID. The game must not be played
+     * afterwards; {@link #inflate(String) inflate} it again instead.
+     *
+     * @param tableId the table's ID.
+     * @param game the table's {@link BlackjackGame}.
+     */
+    public void park(final String tableId, final BlackjackGame game) {
+        final byte[] packed = BlackjackGameSnapshots.pack(game);
+        final byte[] replaced = tables.put(tableId, packed);
+        packedBytes.addAndGet(packed.length - ((replaced == null) ? 0 : replaced.length));
+    }
+
+    /**
+     * Takes a parked table out of the store.
+     *
+     * @param tableId the table's ID.
+     * @return the table's {@link BlackjackGame}, ready to play, or {@code null} if no table with that ID is parked.
+     */
+    public BlackjackGame inflate(final String tableId) {
+        final byte[] packed = tables.remove(tableId);
+        if (packed == null) {
+            return null;
+        }
+        packedBytes.addAndGet(-packed.length);
+        return BlackjackGameSnapshots.unpack(packed, rng);
+    }
+
+    /**
+     * Throws away a parked table.
+     *
+     * @param tableId the table's ID.
+     * @return {@code true} if a table with that ID was parked.
+     */
+    public boolean remove(final String tableId) {
+        final byte[] packed = tables.remove(tableId);
+        if (packed == null) {
+            return false;
+        }
+        packedBytes.addAndGet(-packed.length);
+        return true;
+    }
+
+    /**
+     * @param tableId a table's ID.
+     * @return {@code true} if a table with that ID is parked.
+     */
+    public boolean contains(final String tableId) {
+        return tables.containsKey(tableId);
+    }
+
+    /**
+     * @return how many tables are parked.
+     */
+    public int getTableCount() {
+        return tables.size();
+    }
+
+    /**
+     * @return how many bytes the parked tables take when packed, not counting the store's own bookkeeping.
+     */
+    public long getPackedBytes() {
+        return packedBytes.get();
+    }
+}
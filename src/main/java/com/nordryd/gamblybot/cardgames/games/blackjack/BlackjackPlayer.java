@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.jfr.SplitEvent;
 
 /**
  * <p>
@@ -25,16 +26,127 @@ public class BlackjackPlayer
         this.wager = initialWager;
     }
 
+    /**
+     * Constructor for restoring a player.
+     */
+    BlackjackPlayer(final List<BlackjackHand> hands, final State state, final int wager) {
+        this.hands = new ArrayList<>(hands);
+        this.state = state;
+        this.wager = wager;
+    }
+
+    /**
+     * Starts the player's turn.
+     */
     public void play() {
+        if (State.WAITING.equals(state)) {
+            state = State.PLAYING;
+        }
+    }
+
+    /**
+     * Sets the player's wager for the round.
+     *
+     * @param amount the new wager.
+     * @throws IllegalArgumentException if amount &le; 0
+     * @throws IllegalStateException if the player's turn has already started.
+     */
+    public void bet(final int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("A wager must be positive!");
+        }
 
+        if (!State.WAITING.equals(state)) {
+            throw new IllegalStateException("Cannot change a wager once the player's turn has started!");
+        }
+        wager = amount;
     }
 
-    public void doubleDown() {
+    /**
+     * Hits the first hand that is still being played. The player's turn ends once no hands are left to play.
+     */
+    public void hit() {
+        final int hand = currentHand();
+        if (hand >= 0) {
+            hands.get(hand).hit();
+            if (currentHand() < 0) {
+                state = State.FINISHED;
+            }
+        }
+    }
+
+    /**
+     * Splits the first hand that is still being played into two.
+     *
+     * @throws IllegalStateException if the hand cannot be split.
+     */
+    public void split() {
+        final int hand = currentHand();
+        if (hand >= 0) {
+            final List<BlackjackHand> split = hands.get(hand).split();
+            hands.set(hand, split.get(0));
+            hands.add(hand + 1, split.get(1));
+            SplitEvent.emit(split.get(0).getCards().get(0).getRank().name(), hands.size());
+        }
+    }
 
+    /**
+     * Stays every hand that is still being played, and ends the player's turn.
+     */
+    public void stay() {
+        if (State.PLAYING.equals(state)) {
+            hands.forEach(BlackjackHand::stay);
+            state = State.FINISHED;
+        }
     }
 
+    /**
+     * Doubles down on the first hand that is still being played. The player's turn ends once no hands are left to
+     * play.
+     *
+     * @throws IllegalStateException if the hand has already been hit.
+     */
+    public void doubleDown() {
+        final int hand = currentHand();
+        if (hand >= 0) {
+            hands.get(hand).doubleDown();
+            if (currentHand() < 0) {
+                state = State.FINISHED;
+            }
+        }
+    }
+
+    /**
+     * Surrenders the player's hand, giving up half the wager, and ends the player's turn.
+     *
+     * @throws IllegalStateException if the player has split, or has hit or finished their hand.
+     */
     public void surrender() {
+        if (State.PLAYING.equals(state)) {
+            final BlackjackHand hand = hands.get(0);
+            if ((hands.size() != 1) || !BlackjackHand.State.PLAYING.equals(hand.getState()) ||
+                    (hand.getCards().size() != 2)) {
+                throw new IllegalStateException("Only a player's two opening cards can be surrendered!");
+            }
+            hand.stay();
+            state = State.SURRENDERED;
+        }
+    }
 
+    /**
+     * @return the player's {@link BlackjackHand hands}.
+     */
+    public List<BlackjackHand> getHands() {
+        return hands;
+    }
+
+    /**
+     * @return the first {@link BlackjackHand} that is still being played, or {@code null} if the player is not
+     * playing any.
+     */
+    public BlackjackHand getCurrentHand() {
+        final int hand = currentHand();
+        return (hand < 0) ? null : hands.get(hand);
     }
 
     public int getWager() {
@@ -45,6 +157,17 @@ public class BlackjackPlayer
         return state;
     }
 
+    private int currentHand() {
+        if (State.PLAYING.equals(state)) {
+            for (int hand = 0; hand < hands.size(); hand++) {
+                if (BlackjackHand.State.PLAYING.equals(hands.get(hand).getState())) {
+                    return hand;
+                }
+            }
+        }
+        return -1;
+    }
+
     public enum State
     {
         WAITING,
@@ -56,6 +179,4 @@ public class BlackjackPlayer
     // wager
     // List<Hand> recursively go through each hands, split hands here (save the card type, remove the current hand, add two hands)
     // do insurance here
-    // double down here. handle the wager, and then hit, then immediately stay if you dont bust
-    // surrenders here. for each hand, return the correct wager, and discard the hand
 }
@@ -0,0 +1,375 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+
+/**
+ * <p>
+ * The house rules of a blackjack table: whether the dealer hits a soft 17, whether a split hand may double down,
+ * whether aces may be split again, what kind of surrender is offered, and what a blackjack pays.
+ * </p>
+ * <p>
+ * A rule set is compiled into small lookup tables when it is built, so the games that follow it look up what to do
+ * by hand value, rank or outcome rather than testing each rule every time. Rule sets are immutable and can be shared
+ * between any number of tables.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public final class BlackjackRuleSet
+{
+    /**
+     * The rules a table follows unless told otherwise: the dealer stands on soft 17, split hands may double down,
+     * aces may not be split again, late surrender is offered, and blackjack pays 3:2.
+     */
+    public static final BlackjackRuleSet DEFAULT = builder().build();
+
+    private static final int VALUES = 32, SOFT = VALUES, DEALER_STANDS_ON = 17, INITIAL_HAND_SIZE = 2;
+    private static final int DEALER_HITS_SOFT_17_BIT = 1, DOUBLE_AFTER_SPLIT_BIT = 2, RESPLIT_ACES_BIT = 4;
+    private static final int SURRENDER_SHIFT = 3, BLACKJACK_PAYOUT_SHIFT = 5, FIELD_MASK = 3;
+    private static final double SURRENDER_PAYOUT = -0.5;
+    private static final Surrender[] SURRENDERS = Surrender.values();
+    private static final BlackjackPayout[] BLACKJACK_PAYOUTS = BlackjackPayout.values();
+
+    private final boolean dealerHitsSoft17;
+    private final boolean doubleAfterSplit;
+    private final boolean resplitAces;
+    private final Surrender surrender;
+    private final BlackjackPayout blackjackPayout;
+
+    private final boolean[] dealerHits;
+    private final boolean[] doubleDownAllowed;
+    private final boolean[] splitAllowed;
+    private final boolean[] surrenderAllowed;
+    private final double[] payouts;
+    private final int[] winningsNumerators;
+    private final int[] winningsDenominators;
+
+    private BlackjackRuleSet(final boolean dealerHitsSoft17, final boolean doubleAfterSplit,
+            final boolean resplitAces, final Surrender surrender, final BlackjackPayout blackjackPayout) {
+        this.dealerHitsSoft17 = dealerHitsSoft17;
+        this.doubleAfterSplit = doubleAfterSplit;
+        this.resplitAces = resplitAces;
+        this.surrender = surrender;
+        this.blackjackPayout = blackjackPayout;
+
+        // indexed by the dealer's hand value, plus SOFT if the hand is soft
+        this.dealerHits = new boolean[VALUES * 2];
+        for (int value = 0; value < VALUES; value++) {
+            dealerHits[value] = value < DEALER_STANDS_ON;
+            dealerHits[SOFT + value] = (value < DEALER_STANDS_ON) || (dealerHitsSoft17 && (value == DEALER_STANDS_ON));
+        }
+
+        // indexed by 1 if the hand came from a split, 0 if not
+        this.doubleDownAllowed = new boolean[] { true, doubleAfterSplit };
+
+        // indexed by the rank of the pair, times 2, plus 1 if the player has split already
+        final Rank[] ranks = Rank.values();
+        this.splitAllowed = new boolean[ranks.length * 2];
+        for (final Rank rank : ranks) {
+            splitAllowed[rank.ordinal() * 2] = true;
+            splitAllowed[(rank.ordinal() * 2) + 1] = !Rank.ACE.equals(rank) || resplitAces;
+        }
+
+        // indexed by the kind of surrender, times 2, plus 1 if the dealer has blackjack
+        this.surrenderAllowed = new boolean[Surrender.values().length * 2];
+        surrenderAllowed[Surrender.LATE.ordinal() * 2] = true;
+        surrenderAllowed[Surrender.EARLY.ordinal() * 2] = true;
+        surrenderAllowed[(Surrender.EARLY.ordinal() * 2) + 1] = true;
+
+        final BlackjackGame.Outcome[] outcomes = BlackjackGame.Outcome.values();
+        this.payouts = new double[outcomes.length];
+        payouts[BlackjackGame.Outcome.BLACKJACK.ordinal()] = blackjackPayout.getPayout();
+        payouts[BlackjackGame.Outcome.WIN.ordinal()] = 1.0;
+        payouts[BlackjackGame.Outcome.LOSE.ordinal()] = -1.0;
+
+        // the same payouts as exact fractions, so chips are paid without rounding errors
+        this.winningsNumerators = new int[outcomes.length];
+        this.winningsDenominators = new int[outcomes.length];
+        Arrays.fill(winningsDenominators, 1);
+        winningsNumerators[BlackjackGame.Outcome.BLACKJACK.ordinal()] = blackjackPayout.numerator;
+        winningsDenominators[BlackjackGame.Outcome.BLACKJACK.ordinal()] = blackjackPayout.denominator;
+        winningsNumerators[BlackjackGame.Outcome.WIN.ordinal()] = 1;
+        winningsNumerators[BlackjackGame.Outcome.LOSE.ordinal()] = -1;
+    }
+
+    /**
+     * @return a new {@link Builder}, starting from the {@link #DEFAULT default} rules.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param bits a rule set's {@link #toBits() bits}.
+     * @return the rule set with those bits.
+     * @throws IllegalArgumentException if the bits are not a rule set's.
+     */
+    public static BlackjackRuleSet fromBits(final int bits) {
+        final int surrender = (bits >>> SURRENDER_SHIFT) & FIELD_MASK;
+        final int blackjackPayout = (bits >>> BLACKJACK_PAYOUT_SHIFT) & FIELD_MASK;
+        if (((bits >>> (BLACKJACK_PAYOUT_SHIFT + 2)) != 0) || (surrender >= SURRENDERS.length) ||
+                (blackjackPayout >= BLACKJACK_PAYOUTS.length)) {
+            throw new IllegalArgumentException("Not the bits of a blackjack rule set: " + bits + "!");
+        }
+
+        return new BlackjackRuleSet((bits & DEALER_HITS_SOFT_17_BIT) != 0, (bits & DOUBLE_AFTER_SPLIT_BIT) != 0,
+                (bits & RESPLIT_ACES_BIT) != 0, SURRENDERS[surrender], BLACKJACK_PAYOUTS[blackjackPayout]);
+    }
+
+    /**
+     * @return the rule set packed into the low bits of an {@code int}, such as for storing it with a game.
+     */
+    public int toBits() {
+        return (dealerHitsSoft17 ? DEALER_HITS_SOFT_17_BIT : 0) | (doubleAfterSplit ? DOUBLE_AFTER_SPLIT_BIT : 0) |
+                (resplitAces ? RESPLIT_ACES_BIT : 0) | (surrender.ordinal() << SURRENDER_SHIFT) |
+                (blackjackPayout.ordinal() << BLACKJACK_PAYOUT_SHIFT);
+    }
+
+    /**
+     * @param hand the dealer's {@link BlackjackHand}.
+     * @return {@code true} if the dealer must hit the hand.
+     */
+    public boolean dealerHits(final BlackjackHand hand) {
+        return dealerHits[(hand.isSoft() ? SOFT : 0) + hand.getValue()];
+    }
+
+    /**
+     * @param hand a player's {@link BlackjackHand}.
+     * @param split {@code true} if the hand came from splitting a pair.
+     * @return {@code true} if the hand may double down.
+     */
+    public boolean canDoubleDown(final BlackjackHand hand, final boolean split) {
+        return (hand.getCards().size() == INITIAL_HAND_SIZE) && doubleDownAllowed[split ? 1 : 0];
+    }
+
+    /**
+     * @param hand a player's {@link BlackjackHand}.
+     * @param split {@code true} if the player has already split a pair this round.
+     * @return {@code true} if the hand may be split.
+     */
+    public boolean canSplit(final BlackjackHand hand, final boolean split) {
+        return hand.isPair() && splitAllowed[(hand.getCards().get(0).getRank().ordinal() * 2) + (split ? 1 : 0)];
+    }
+
+    /**
+     * @param hands the player's {@link BlackjackHand hands}.
+     * @param dealerHand the dealer's {@link BlackjackHand}.
+     * @return {@code true} if the player may surrender, which is only ever on their two opening cards.
+     */
+    public boolean canSurrender(final List<BlackjackHand> hands, final BlackjackHand dealerHand) {
+        final boolean dealerBlackjack = BlackjackHand.State.BLACKJACK.equals(dealerHand.getState());
+        return (hands.size() == 1) && (hands.get(0).getCards().size() == INITIAL_HAND_SIZE) &&
+                surrenderAllowed[(surrender.ordinal() * 2) + (dealerBlackjack ? 1 : 0)];
+    }
+
+    /**
+     * @param outcome how a hand fared against the dealer's.
+     * @return what the hand wins, in units of its wager, or loses if negative.
+     */
+    public double getPayout(final BlackjackGame.Outcome outcome) {
+        return payouts[outcome.ordinal()];
+    }
+
+    /**
+     * @return what a surrendered hand loses, in units of its wager.
+     */
+    public double getSurrenderPayout() {
+        return SURRENDER_PAYOUT;
+    }
+
+    /**
+     * @param wager the hand's wager, including any double down.
+     * @param outcome how the hand fared against the dealer's.
+     * @return the chips the hand wins, or loses if negative, rounded toward zero.
+     */
+    public long getWinnings(final int wager, final BlackjackGame.Outcome outcome) {
+        return ((long) wager * winningsNumerators[outcome.ordinal()]) / winningsDenominators[outcome.ordinal()];
+    }
+
+    /**
+     * @param wager the surrendered hand's wager.
+     * @return the chips a surrendered hand loses, as a negative number, with the player keeping any odd chip.
+     */
+    public long getSurrenderWinnings(final int wager) {
+        return -((long) wager / 2);
+    }
+
+    /**
+     * @return {@code true} if the dealer hits a soft 17, {@code false} if they stand on it.
+     */
+    public boolean isDealerHitsSoft17() {
+        return dealerHitsSoft17;
+    }
+
+    /**
+     * @return {@code true} if a hand that came from splitting a pair may double down.
+     */
+    public boolean isDoubleAfterSplit() {
+        return doubleAfterSplit;
+    }
+
+    /**
+     * @return {@code true} if a pair of aces may be split again after splitting aces.
+     */
+    public boolean isResplitAces() {
+        return resplitAces;
+    }
+
+    /**
+     * @return the kind of {@link Surrender} offered.
+     */
+    public Surrender getSurrender() {
+        return surrender;
+    }
+
+    /**
+     * @return what a natural blackjack pays, as a {@link BlackjackPayout}.
+     */
+    public BlackjackPayout getBlackjackPayout() {
+        return blackjackPayout;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if ((other == null) || (getClass() != other.getClass())) {
+            return false;
+        }
+        return toBits() == ((BlackjackRuleSet) other).toBits();
+    }
+
+    @Override
+    public int hashCode() {
+        return toBits();
+    }
+
+    @Override
+    public String toString() {
+        return (dealerHitsSoft17 ? "H17" : "S17") + (doubleAfterSplit ? ", DAS" : "") + (resplitAces ? ", RSA" : "") +
+                ", " + surrender + " surrender, blackjack pays " + blackjackPayout;
+    }
+
+    /**
+     * Which hands may be surrendered, giving up half the wager.
+     */
+    public enum Surrender
+    {
+        /**
+         * No hand may be surrendered.
+         */
+        NONE,
+        /**
+         * Only once the dealer has checked for blackjack, so never against a dealer blackjack.
+         */
+        LATE,
+        /**
+         * Before the dealer checks for blackjack, so even against a dealer blackjack.
+         */
+        EARLY
+    }
+
+    /**
+     * What a natural blackjack pays.
+     */
+    public enum BlackjackPayout
+    {
+        /**
+         * A blackjack wins one and a half times its wager.
+         */
+        THREE_TO_TWO(3, 2),
+        /**
+         * A blackjack wins six fifths of its wager.
+         */
+        SIX_TO_FIVE(6, 5);
+
+        private final int numerator;
+        private final int denominator;
+
+        BlackjackPayout(final int numerator, final int denominator) {
+            this.numerator = numerator;
+            this.denominator = denominator;
+        }
+
+        /**
+         * @return what a blackjack wins, in units of its wager.
+         */
+        public double getPayout() {
+            return (double) numerator / denominator;
+        }
+    }
+
+    /**
+     * Builder class for {@link BlackjackRuleSet}.
+     */
+    public static final class Builder
+    {
+        private boolean dealerHitsSoft17 = false;
+        private boolean doubleAfterSplit = true;
+        private boolean resplitAces = false;
+        private Surrender surrender = Surrender.LATE;
+        private BlackjackPayout blackjackPayout = BlackjackPayout.THREE_TO_TWO;
+
+        private Builder() {}
+
+        /**
+         * @param dealerHitsSoft17 {@code true} if the dealer hits a soft 17, {@code false} if they stand on it.
+         * @return this {@link Builder}.
+         */
+        public Builder dealerHitsSoft17(final boolean dealerHitsSoft17) {
+            this.dealerHitsSoft17 = dealerHitsSoft17;
+            return this;
+        }
+
+        /**
+         * @param doubleAfterSplit {@code true} if a hand that came from splitting a pair may double down.
+         * @return this {@link Builder}.
+         */
+        public Builder doubleAfterSplit(final boolean doubleAfterSplit) {
+            this.doubleAfterSplit = doubleAfterSplit;
+            return this;
+        }
+
+        /**
+         * @param resplitAces {@code true} if a pair of aces may be split again after splitting aces.
+         * @return this {@link Builder}.
+         */
+        public Builder resplitAces(final boolean resplitAces) {
+            this.resplitAces = resplitAces;
+            return this;
+        }
+
+        /**
+         * @param surrender the kind of {@link Surrender} offered.
+         * @return this {@link Builder}.
+         */
+        public Builder surrender(final Surrender surrender) {
+            this.surrender = surrender;
+            return this;
+        }
+
+        /**
+         * @param blackjackPayout what a natural blackjack pays.
+         * @return this {@link Builder}.
+         */
+        public Builder blackjackPayout(final BlackjackPayout blackjackPayout) {
+            this.blackjackPayout = blackjackPayout;
+            return this;
+        }
+
+        /**
+         * @return the {@link BlackjackRuleSet}, compiled into its lookup tables.
+         * @throws IllegalArgumentException if the surrender or blackjack payout is {@code null}.
+         */
+        public BlackjackRuleSet build() {
+            if ((surrender == null) || (blackjackPayout == null)) {
+                throw new IllegalArgumentException("A rule set needs a surrender and a blackjack payout!");
+            }
+            return new BlackjackRuleSet(dealerHitsSoft17, doubleAfterSplit, resplitAces, surrender, blackjackPayout);
+        }
+    }
+}
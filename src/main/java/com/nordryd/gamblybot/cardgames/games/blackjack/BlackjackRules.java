@@ -0,0 +1,196 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import java.util.function.Supplier;
+
+import com.nordryd.gamblybot.cardgames.engine.GameRules;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+
+/**
+ * <p>
+ * The {@link GameRules} of a {@link BlackjackGame}. Players join with a wager, then take their turns in seating order,
+ * a seat being a player's index in {@link BlackjackGame#getPlayers()}. Once every player has finished, the dealer
+ * plays out their hand and the round is over.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackRules implements GameRules<BlackjackGame, BlackjackRules.Move>
+{
+    private final Supplier<Deck> decks;
+    private final BlackjackRuleSet ruleSet;
+
+    /**
+     * Constructor for games played by the {@link BlackjackRuleSet#DEFAULT default} house rules.
+     *
+     * @param decks supplies the {@link Deck} for each new game.
+     */
+    public BlackjackRules(final Supplier<Deck> decks) {
+        this(decks, BlackjackRuleSet.DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param decks supplies the {@link Deck} for each new game.
+     * @param ruleSet the {@link BlackjackRuleSet house rules} of each new game.
+     */
+    public BlackjackRules(final Supplier<Deck> decks, final BlackjackRuleSet ruleSet) {
+        this.decks = decks;
+        this.ruleSet = ruleSet;
+    }
+
+    @Override
+    public BlackjackGame newGame() {
+        return new BlackjackGame(decks.get(), ruleSet);
+    }
+
+    @Override
+    public boolean apply(final BlackjackGame game, final int seat, final Move move) {
+        if (Move.Type.JOIN.equals(move.type)) {
+            game.addPlayer(move.wager);
+            return false;
+        }
+
+        final BlackjackPlayer current = game.getCurrentPlayer();
+        if ((current == null) || (seat >= game.getPlayers().size()) || (game.getPlayers().get(seat) != current)) {
+            throw new IllegalStateException("It is not seat " + seat + "'s turn!");
+        }
+
+        current.play();
+        switch (move.type) {
+            case HIT:
+                current.hit();
+                break;
+            case SPLIT:
+                checkSplitAllowed(game.getRuleSet(), current);
+                current.split();
+                break;
+            case DOUBLE_DOWN:
+                checkDoubleDownAllowed(game.getRuleSet(), current);
+                current.doubleDown();
+                break;
+            case SURRENDER:
+                if (!game.getRuleSet().canSurrender(current.getHands(), game.getDealer().getHands().get(0))) {
+                    throw new IllegalStateException("The house rules do not allow surrendering this hand!");
+                }
+                current.surrender();
+                break;
+            default:
+                // only the hand being played stays, as the player may still have split hands to play after it
+                final BlackjackHand hand = current.getCurrentHand();
+                if (hand != null) {
+                    hand.stay();
+                }
+                break;
+        }
+
+        // a player with no hands left to play, such as after a blackjack, has nothing more to do
+        if (current.getCurrentHand() == null) {
+            current.stay();
+        }
+
+        if (game.getCurrentPlayer() == null) {
+            game.playDealer();
+            return true;
+        }
+        return false;
+    }
+
+    private static void checkSplitAllowed(final BlackjackRuleSet ruleSet, final BlackjackPlayer player) {
+        final BlackjackHand hand = player.getCurrentHand();
+        if (hand == null) {
+            return;
+        }
+
+        if (!hand.isPair()) {
+            throw new IllegalStateException("Only a hand of two cards of equal value can be split!");
+        }
+
+        if (!ruleSet.canSplit(hand, player.getHands().size() > 1)) {
+            throw new IllegalStateException("The house rules do not allow splitting this hand again!");
+        }
+    }
+
+    private static void checkDoubleDownAllowed(final BlackjackRuleSet ruleSet, final BlackjackPlayer player) {
+        final BlackjackHand hand = player.getCurrentHand();
+        if ((hand != null) && !ruleSet.canDoubleDown(hand, hand.isSplit())) {
+            throw new IllegalStateException("The house rules do not allow doubling down on this hand!");
+        }
+    }
+
+    /**
+     * A move in a {@link BlackjackGame}.
+     */
+    public static final class Move
+    {
+        private static final Move HIT = new Move(Type.HIT, 0), STAY = new Move(Type.STAY, 0),
+                SPLIT = new Move(Type.SPLIT, 0), DOUBLE_DOWN = new Move(Type.DOUBLE_DOWN, 0),
+                SURRENDER = new Move(Type.SURRENDER, 0);
+
+        private final Type type;
+        private final int wager;
+
+        private Move(final Type type, final int wager) {
+            this.type = type;
+            this.wager = wager;
+        }
+
+        /**
+         * @param wager the new player's wager.
+         * @return the move of a new player joining the table.
+         * @throws IllegalArgumentException if wager &le; 0
+         */
+        public static Move join(final int wager) {
+            if (wager <= 0) {
+                throw new IllegalArgumentException("A wager must be positive!");
+            }
+            return new Move(Type.JOIN, wager);
+        }
+
+        public static Move hit() {
+            return HIT;
+        }
+
+        public static Move stay() {
+            return STAY;
+        }
+
+        public static Move split() {
+            return SPLIT;
+        }
+
+        public static Move doubleDown() {
+            return DOUBLE_DOWN;
+        }
+
+        public static Move surrender() {
+            return SURRENDER;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public int getWager() {
+            return wager;
+        }
+
+        @Override
+        public String toString() {
+            return Type.JOIN.equals(type) ? (type + " " + wager) : type.toString();
+        }
+
+        /**
+         * The kinds of move.
+         */
+        public enum Type
+        {
+            JOIN,
+            HIT,
+            STAY,
+            SPLIT,
+            DOUBLE_DOWN,
+            SURRENDER
+        }
+    }
+}
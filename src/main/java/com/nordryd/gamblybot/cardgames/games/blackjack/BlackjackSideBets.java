@@ -0,0 +1,203 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import java.util.List;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+
+/**
+ * <p>
+ * Settles the two side bets placed on a player's opening {@link BlackjackHand} cards: Perfect Pairs, on whether the two
+ * cards are a pair, and 21+3, on the poker hand the two cards make with the dealer's upcard.
+ * </p>
+ * <p>
+ * Every outcome is worked out once, up front, into tables indexed by {@link Card#getId() card IDs}: 52 &times; 52
+ * entries for Perfect Pairs and 52 &times; 52 &times; 52 for 21+3, a byte each. Settling a bet is then a single
+ * lookup, with nothing to compare or sort per hand.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public final class BlackjackSideBets
+{
+    private static final int CARDS = Card.CARD_COUNT, RANKS = 13, ACE = 12;
+    private static final int THREE_IN_A_ROW = 0b111, ACE_TWO_THREE = (1 << ACE) | 0b11;
+    private static final PerfectPairs[] PERFECT_PAIRS_OUTCOMES = PerfectPairs.values();
+    private static final TwentyOnePlusThree[] TWENTY_ONE_PLUS_THREE_OUTCOMES = TwentyOnePlusThree.values();
+    private static final byte[] PERFECT_PAIRS_TABLE = new byte[CARDS * CARDS];
+    private static final byte[] TWENTY_ONE_PLUS_THREE_TABLE = new byte[CARDS * CARDS * CARDS];
+
+    static {
+        for (int first = 0; first < CARDS; first++) {
+            for (int second = 0; second < CARDS; second++) {
+                PERFECT_PAIRS_TABLE[(first * CARDS) + second] = (byte) perfectPairsOf(first, second).ordinal();
+                for (int third = 0; third < CARDS; third++) {
+                    TWENTY_ONE_PLUS_THREE_TABLE[(((first * CARDS) + second) * CARDS) + third] =
+                            (byte) twentyOnePlusThreeOf(first, second, third).ordinal();
+                }
+            }
+        }
+    }
+
+    private BlackjackSideBets() {}
+
+    /**
+     * @param hand the player's {@link BlackjackHand}.
+     * @return how a Perfect Pairs bet on the hand's two opening cards is settled.
+     * @throws IllegalArgumentException if the hand has fewer than two cards.
+     */
+    public static PerfectPairs perfectPairs(final BlackjackHand hand) {
+        final List<Card> cards = openingCards(hand);
+        return perfectPairs(cards.get(0), cards.get(1));
+    }
+
+    /**
+     * @param first the first {@link Card}.
+     * @param second the second {@link Card}.
+     * @return how a Perfect Pairs bet on the two cards is settled.
+     */
+    public static PerfectPairs perfectPairs(final Card first, final Card second) {
+        return PERFECT_PAIRS_OUTCOMES[PERFECT_PAIRS_TABLE[(first.getId() * CARDS) + second.getId()]];
+    }
+
+    /**
+     * @param hand the player's {@link BlackjackHand}.
+     * @param dealerUpcard the dealer's face-up {@link Card}.
+     * @return how a 21+3 bet on the hand's two opening cards and the dealer's upcard is settled.
+     * @throws IllegalArgumentException if the hand has fewer than two cards.
+     */
+    public static TwentyOnePlusThree twentyOnePlusThree(final BlackjackHand hand, final Card dealerUpcard) {
+        final List<Card> cards = openingCards(hand);
+        return twentyOnePlusThree(cards.get(0), cards.get(1), dealerUpcard);
+    }
+
+    /**
+     * @param first the player's first {@link Card}.
+     * @param second the player's second {@link Card}.
+     * @param dealerUpcard the dealer's face-up {@link Card}.
+     * @return how a 21+3 bet on the three cards is settled.
+     */
+    public static TwentyOnePlusThree twentyOnePlusThree(final Card first, final Card second, final Card dealerUpcard) {
+        final int index = (((first.getId() * CARDS) + second.getId()) * CARDS) + dealerUpcard.getId();
+        return TWENTY_ONE_PLUS_THREE_OUTCOMES[TWENTY_ONE_PLUS_THREE_TABLE[index]];
+    }
+
+    private static List<Card> openingCards(final BlackjackHand hand) {
+        final List<Card> cards = hand.getCards();
+        if (cards.size() < 2) {
+            throw new IllegalArgumentException("A side bet needs a hand's two opening cards!");
+        }
+        return cards;
+    }
+
+    private static PerfectPairs perfectPairsOf(final int first, final int second) {
+        if (rankOf(first) != rankOf(second)) {
+            return PerfectPairs.NONE;
+        }
+
+        if (suitOf(first) == suitOf(second)) {
+            return PerfectPairs.PERFECT_PAIR;
+        }
+        return isRed(first) == isRed(second) ? PerfectPairs.COLORED_PAIR : PerfectPairs.MIXED_PAIR;
+    }
+
+    private static TwentyOnePlusThree twentyOnePlusThreeOf(final int first, final int second, final int third) {
+        final boolean flush = (suitOf(first) == suitOf(second)) && (suitOf(second) == suitOf(third));
+        if ((rankOf(first) == rankOf(second)) && (rankOf(second) == rankOf(third))) {
+            return flush ? TwentyOnePlusThree.SUITED_TRIPS : TwentyOnePlusThree.THREE_OF_A_KIND;
+        }
+
+        final int ranks = (1 << rankOf(first)) | (1 << rankOf(second)) | (1 << rankOf(third));
+        // the ace plays low in ace-two-three, but queen-king-ace is an ordinary run
+        if ((ranks == (THREE_IN_A_ROW << Integer.numberOfTrailingZeros(ranks))) || (ranks == ACE_TWO_THREE)) {
+            return flush ? TwentyOnePlusThree.STRAIGHT_FLUSH : TwentyOnePlusThree.STRAIGHT;
+        }
+        return flush ? TwentyOnePlusThree.FLUSH : TwentyOnePlusThree.NONE;
+    }
+
+    private static int rankOf(final int cardId) {
+        return cardId % RANKS;
+    }
+
+    private static int suitOf(final int cardId) {
+        return cardId / RANKS;
+    }
+
+    private static boolean isRed(final int cardId) {
+        final Card.Suit suit = Card.Suit.values()[suitOf(cardId)];
+        return Card.Suit.DIAMONDS.equals(suit) || Card.Suit.HEARTS.equals(suit);
+    }
+
+    /**
+     * How a Perfect Pairs bet is settled.
+     */
+    public enum PerfectPairs
+    {
+        /**
+         * The cards are not a pair, and the bet loses.
+         */
+        NONE(0),
+        /**
+         * A pair of different colors.
+         */
+        MIXED_PAIR(6),
+        /**
+         * A pair of the same color, but different suits.
+         */
+        COLORED_PAIR(12),
+        /**
+         * A pair of the same suit, which can only be dealt from more than one deck.
+         */
+        PERFECT_PAIR(25);
+
+        private final int payout;
+
+        PerfectPairs(final int payout) {
+            this.payout = payout;
+        }
+
+        /**
+         * @return how many times the bet a winning bet pays, on top of the bet itself, or 0 if the bet loses.
+         */
+        public int getPayout() {
+            return payout;
+        }
+    }
+
+    /**
+     * How a 21+3 bet is settled.
+     */
+    public enum TwentyOnePlusThree
+    {
+        /**
+         * The cards make none of the hands below, and the bet loses.
+         */
+        NONE(0),
+        /**
+         * All three cards are the same suit.
+         */
+        FLUSH(5),
+        /**
+         * Three ranks in a row. An ace may be high or low, but a straight does not wrap around from king to two.
+         */
+        STRAIGHT(10),
+        THREE_OF_A_KIND(30),
+        STRAIGHT_FLUSH(40),
+        /**
+         * Three of the same card, which can only be dealt from more than one deck.
+         */
+        SUITED_TRIPS(100);
+
+        private final int payout;
+
+        TwentyOnePlusThree(final int payout) {
+            this.payout = payout;
+        }
+
+        /**
+         * @return how many times the bet a winning bet pays, on top of the bet itself, or 0 if the bet loses.
+         */
+        public int getPayout() {
+            return payout;
+        }
+    }
+}
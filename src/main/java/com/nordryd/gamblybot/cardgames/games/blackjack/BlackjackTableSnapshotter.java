@@ -0,0 +1,296 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import com.nordryd.gamblybot.cardgames.engine.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Periodically writes every live table to a snapshot file in the background, so the tables can be restored after a
+ * restart.
+ * </p>
+ * <p>
+ * Each table is {@link Table#read(java.util.function.Function) read} on its own thread of execution, in turn with the
+ * moves made at it, so a table is always captured between two commands and play never pauses for the snapshotter. A
+ * table too busy to be read in time keeps its last snapshot until the next one.
+ * </p>
+ * <p>
+ * Snapshots are incremental: the file is a log of records, and each snapshot only appends the tables that changed or
+ * were closed since the last one. Once the log grows to several times the size of the live tables, or on the first
+ * snapshot after a restart, it is compacted by writing every live table to a temporary file and moving it over the
+ * log. A crash part of the way through an append leaves a torn record at the end of the log, which is ignored when
+ * restoring.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackTableSnapshotter
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlackjackTableSnapshotter.class);
+    private static final int MAGIC = 0x47424A4C, VERSION = 1;
+    private static final int PUT = 1, REMOVE = 2, HEADER_BYTES = 8;
+    private static final int COMPACT_RATIO = 4;
+    private static final long READ_TIMEOUT_MILLIS = 1000L;
+
+    private final Supplier<? extends Map<String, ? extends Table<BlackjackGame, ?>>> tables;
+    private final Path snapshotFile;
+    private final ScheduledExecutorService executor;
+    private final Map<String, byte[]> written;
+
+    private long logBytes;
+    private long liveBytes;
+    private boolean compactNext;
+
+    /**
+     * Constructor.
+     *
+     * @param tables supplies the live {@link Table tables}, keyed by channel ID.
+     * @param snapshotFile where to write the snapshot.
+     */
+    public BlackjackTableSnapshotter(final Supplier<? extends Map<String, ? extends Table<BlackjackGame, ?>>> tables,
+            final Path snapshotFile) {
+        this.tables = tables;
+        this.snapshotFile = snapshotFile;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            final Thread thread = new Thread(task, "blackjack-table-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.written = new HashMap<>();
+        this.compactNext = true;
+    }
+
+    /**
+     * Starts writing snapshots in the background.
+     *
+     * @param period how long to wait between snapshots.
+     * @param unit the {@link TimeUnit} of the period.
+     */
+    public void start(final long period, final TimeUnit unit) {
+        executor.scheduleWithFixedDelay(() -> {
+            // anything thrown out of here would cancel the schedule, and the previous snapshot is still intact
+            try {
+                snapshot();
+            }
+            catch (final IOException | RuntimeException exception) {
+                LOGGER.warn("Could not write blackjack table snapshot to {}", snapshotFile, exception);
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops writing snapshots in the background and writes one final snapshot.
+     *
+     * @throws IOException if the final snapshot could not be written.
+     */
+    public void shutdown() throws IOException {
+        executor.shutdownNow();
+        snapshot();
+    }
+
+    /**
+     * Writes a snapshot of every live table now, appending only what changed since the last one.
+     *
+     * @throws IOException if the snapshot could not be written.
+     */
+    public synchronized void snapshot() throws IOException {
+        final Map<String, byte[]> current = readTables();
+        if (compactNext || (logBytes > (COMPACT_RATIO * liveBytes))) {
+            compact(current);
+        }
+        else {
+            append(current);
+        }
+    }
+
+    /**
+     * Restores every table from the last snapshot.
+     *
+     * @param rng the {@link Random random number generator} for the restored tables' decks.
+     * @return the restored tables, keyed by channel ID, or no tables if no snapshot has been written.
+     * @throws IOException if the snapshot could not be read.
+     */
+    public Map<String, BlackjackGame> restore(final Random rng) throws IOException {
+        final Map<String, BlackjackGame> restored = new HashMap<>();
+        if (!Files.exists(snapshotFile)) {
+            return restored;
+        }
+
+        final Map<String, byte[]> records = new HashMap<>();
+        try (final DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if ((input.readInt() != MAGIC) || (input.readInt() != VERSION)) {
+                throw new IOException("Not a blackjack table snapshot: " + snapshotFile);
+            }
+
+            for (int type = input.read(); type >= 0; type = input.read()) {
+                try {
+                    readRecord(type, input, records);
+                }
+                catch (final EOFException exception) {
+                    // the last append was cut short, and everything before it is intact
+                    LOGGER.warn("Ignoring a torn record at the end of blackjack table snapshot {}", snapshotFile);
+                    break;
+                }
+            }
+        }
+
+        for (final Map.Entry<String, byte[]> record : records.entrySet()) {
+            restored.put(record.getKey(),
+                    BlackjackGameSnapshots.read(new DataInputStream(new ByteArrayInputStream(record.getValue())), rng));
+        }
+        return restored;
+    }
+
+    private Map<String, byte[]> readTables() throws IOException {
+        final Map<String, CompletableFuture<byte[]>> pending = new HashMap<>();
+        tables.get().forEach((id, table) -> pending.put(id, table.read(BlackjackTableSnapshotter::serialize)));
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(READ_TIMEOUT_MILLIS);
+        final Map<String, byte[]> current = new HashMap<>();
+        for (final Map.Entry<String, CompletableFuture<byte[]>> table : pending.entrySet()) {
+            byte[] bytes;
+            try {
+                bytes = table.getValue().get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            catch (final ExecutionException | TimeoutException exception) {
+                LOGGER.debug("Keeping the last snapshot of busy blackjack table {}", table.getKey(), exception);
+                bytes = written.get(table.getKey());
+            }
+            catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading blackjack tables to snapshot");
+            }
+
+            if (bytes != null) {
+                current.put(table.getKey(), bytes);
+            }
+        }
+        return current;
+    }
+
+    private void append(final Map<String, byte[]> current) throws IOException {
+        final Map<String, byte[]> appended = new HashMap<>();
+        final int appendedBytes;
+        try (final DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(snapshotFile, APPEND)))) {
+            for (final Map.Entry<String, byte[]> table : current.entrySet()) {
+                if (!Arrays.equals(written.get(table.getKey()), table.getValue())) {
+                    writePut(table.getKey(), table.getValue(), output);
+                    appended.put(table.getKey(), table.getValue());
+                }
+            }
+            for (final String id : written.keySet()) {
+                if (!current.containsKey(id)) {
+                    output.writeByte(REMOVE);
+                    output.writeUTF(id);
+                }
+            }
+            output.flush();
+            appendedBytes = output.size();
+        }
+        catch (final IOException exception) {
+            // the log may now end in a torn record, so start over from a fresh one next time
+            compactNext = true;
+            throw exception;
+        }
+
+        written.keySet().retainAll(current.keySet());
+        written.putAll(appended);
+        logBytes += appendedBytes;
+        liveBytes = 0L;
+        written.forEach((id, bytes) -> liveBytes += recordBytes(id, bytes));
+    }
+
+    private void compact(final Map<String, byte[]> current) throws IOException {
+        final Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        final int compactedBytes;
+        try (final DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            for (final Map.Entry<String, byte[]> table : current.entrySet()) {
+                writePut(table.getKey(), table.getValue(), output);
+            }
+            output.flush();
+            compactedBytes = output.size();
+        }
+        // a crash mid-write leaves the previous log intact
+        Files.move(temporaryFile, snapshotFile, REPLACE_EXISTING, ATOMIC_MOVE);
+
+        written.clear();
+        written.putAll(current);
+        logBytes = compactedBytes;
+        liveBytes = compactedBytes - HEADER_BYTES;
+        compactNext = false;
+    }
+
+    private static void writePut(final String id, final byte[] bytes, final DataOutputStream output)
+            throws IOException {
+        output.writeByte(PUT);
+        output.writeUTF(id);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static void readRecord(final int type, final DataInputStream input, final Map<String, byte[]> records)
+            throws IOException {
+        final String id = input.readUTF();
+        if (type == PUT) {
+            final byte[] bytes = new byte[input.readInt()];
+            input.readFully(bytes);
+            records.put(id, bytes);
+        }
+        else if (type == REMOVE) {
+            records.remove(id);
+        }
+        else {
+            throw new IOException("Unknown record type " + type + " in blackjack table snapshot");
+        }
+    }
+
+    private static long recordBytes(final String id, final byte[] bytes) {
+        // the type, the ID's length and the snapshot's length, around the ID and the snapshot themselves
+        return 1L + 2L + id.length() + 4L + bytes.length;
+    }
+
+    private static byte[] serialize(final BlackjackGame game) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            BlackjackGameSnapshots.write(game, new DataOutputStream(bytes));
+        }
+        catch (final IOException exception) {
+            // a byte array never fails to write
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+}
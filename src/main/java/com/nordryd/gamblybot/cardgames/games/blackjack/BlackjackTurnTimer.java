@@ -0,0 +1,167 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.nordryd.gamblybot.cardgames.engine.Table;
+import com.nordryd.gamblybot.cardgames.engine.TableListener;
+import com.nordryd.gamblybot.timing.HashedWheelTimer;
+import com.nordryd.gamblybot.timing.HashedWheelTimer.Timeout;
+
+/**
+ * <p>
+ * Enforces a time limit on each {@link BlackjackPlayer player's} turn, so a player who walks away cannot hold up the
+ * rest of the table. Every turn is a single {@link Timeout} on a shared {@link HashedWheelTimer}, which is cancelled
+ * when the turn ends normally.
+ * </p>
+ * <p>
+ * As a {@link TableListener}, it times the turns at every blackjack table in a
+ * {@link com.nordryd.gamblybot.cardgames.engine.TableEngine TableEngine} by itself: a turn starts as the turn passes
+ * to a player, ends once they have moved on, and when it runs out a {@link BlackjackRules.Move#stay() stay} is made
+ * for the player through the table, in turn with everything else at it. A stay only finishes the hand being played,
+ * so each split hand a player leaves gets a time limit of its own.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackTurnTimer implements TableListener
+{
+    private final HashedWheelTimer timer;
+    private final long turnTimeout;
+    private final TimeUnit unit;
+    private final Map<BlackjackPlayer, Turn> turns;
+
+    /**
+     * Constructor.
+     *
+     * @param timer the {@link HashedWheelTimer} that tracks every table's turns.
+     * @param turnTimeout how long a player has to finish their turn.
+     * @param unit the {@link TimeUnit} of the turn timeout.
+     */
+    public BlackjackTurnTimer(final HashedWheelTimer timer, final long turnTimeout, final TimeUnit unit) {
+        this.timer = timer;
+        this.turnTimeout = turnTimeout;
+        this.unit = unit;
+        this.turns = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Starts a player's turn (see {@link BlackjackPlayer#play()}) and its time limit.
+     *
+     * @param player the {@link BlackjackPlayer} whose turn it is.
+     * @param onTimeout called with the player if they are still {@link BlackjackPlayer.State#PLAYING playing} when
+     * time runs out. This runs on the timer's thread, so it should hand the player to whichever thread owns the table,
+     * which would normally {@link BlackjackPlayer#stay() stay} them.
+     */
+    public void startTurn(final BlackjackPlayer player, final Consumer<BlackjackPlayer> onTimeout) {
+        player.play();
+        final Turn turn = new Turn(player, onTimeout);
+        final Turn previous = turns.put(player, turn);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        turn.timeout = timer.newTimeout(turn, turnTimeout, unit);
+        if (turns.get(player) != turn) {
+            // the turn was ended or replaced while its timeout was being set, so nothing else will cancel it
+            turn.cancel();
+        }
+    }
+
+    /**
+     * Cancels a player's time limit, because their turn ended before it ran out.
+     *
+     * @param player the {@link BlackjackPlayer} whose turn ended.
+     */
+    public void endTurn(final BlackjackPlayer player) {
+        final Turn turn = turns.remove(player);
+        if (turn != null) {
+            turn.cancel();
+        }
+    }
+
+    @Override
+    public void onOpened(final Table<?, ?> table) {
+        final BlackjackGame game = blackjackGame(table);
+        if (game != null) {
+            // a restored table may open part of the way through a round
+            startCurrentTurn(table, game);
+        }
+    }
+
+    @Override
+    public void onMove(final Table<?, ?> table, final int seat, final Object move, final long queuedNanos,
+            final RuntimeException failure) {
+        final BlackjackGame game = blackjackGame(table);
+        if (game == null) {
+            return;
+        }
+
+        if ((seat >= 0) && (seat < game.getPlayers().size()) &&
+                (game.getPlayers().get(seat) != game.getCurrentPlayer())) {
+            endTurn(game.getPlayers().get(seat));
+        }
+        startCurrentTurn(table, game);
+    }
+
+    @Override
+    public void onClosed(final Table<?, ?> table) {
+        final BlackjackGame game = blackjackGame(table);
+        if (game != null) {
+            game.getPlayers().forEach(this::endTurn);
+        }
+    }
+
+    /**
+     * @return how many turns are currently being timed.
+     */
+    public int getActiveTurnCount() {
+        return turns.size();
+    }
+
+    private void startCurrentTurn(final Table<?, ?> table, final BlackjackGame game) {
+        final BlackjackPlayer current = game.getCurrentPlayer();
+        if ((current != null) && !turns.containsKey(current)) {
+            @SuppressWarnings("unchecked")
+            final Table<BlackjackGame, BlackjackRules.Move> blackjackTable =
+                    (Table<BlackjackGame, BlackjackRules.Move>) table;
+            final int seat = game.getPlayers().indexOf(current);
+            // a stay that arrives after the player has moved on is turned away by the rules, which is harmless
+            startTurn(current, player -> blackjackTable.dispatch(seat, BlackjackRules.Move.stay()));
+        }
+    }
+
+    private static BlackjackGame blackjackGame(final Table<?, ?> table) {
+        return (table.getGame() instanceof BlackjackGame) ? (BlackjackGame) table.getGame() : null;
+    }
+
+    private final class Turn implements Runnable
+    {
+        private final BlackjackPlayer player;
+        private final Consumer<BlackjackPlayer> onTimeout;
+        private volatile Timeout timeout;
+
+        private Turn(final BlackjackPlayer player, final Consumer<BlackjackPlayer> onTimeout) {
+            this.player = player;
+            this.onTimeout = onTimeout;
+        }
+
+        private void cancel() {
+            // a turn ended before startTurn sets its timeout has none yet, and startTurn cancels it once it does
+            final Timeout scheduled = timeout;
+            if (scheduled != null) {
+                scheduled.cancel();
+            }
+        }
+
+        @Override
+        public void run() {
+            // only act if this is still the player's current turn
+            if (turns.remove(player, this) && BlackjackPlayer.State.PLAYING.equals(player.getState())) {
+                onTimeout.accept(player);
+            }
+        }
+    }
+}
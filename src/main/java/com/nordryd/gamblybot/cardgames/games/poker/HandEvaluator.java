@@ -0,0 +1,148 @@
+package com.nordryd.gamblybot.cardgames.games.poker;
+
+import static java.lang.Integer.bitCount;
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Integer.numberOfTrailingZeros;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.CardSet;
+
+/**
+ * <p>
+ * Ranks poker hands of five to seven cards. A hand is a {@link CardSet} bitmask with bit {@link Card#getId()} set for
+ * each card it holds, which splits into one 13-bit rank mask per suit, so flushes, straights and rank counts all come
+ * from a handful of bitwise operations on those masks. Nothing is allocated.
+ * </p>
+ * <p>
+ * The value returned by {@link #evaluate(long)} orders hands directly: a higher value is a better hand, and equal
+ * values tie. The {@link Category} sits in the top bits, followed by the ranks that break ties within it.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public final class HandEvaluator
+{
+    private static final int RANKS = 13, RANK_MASK = (1 << RANKS) - 1, CATEGORY_SHIFT = 21, ACE = 12;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private HandEvaluator() {}
+
+    /**
+     * @param cards the hand's cards, with bit {@link Card#getId()} set for each.
+     * @return the value of the best five-card hand that can be made from the cards.
+     */
+    public static int evaluate(final long cards) {
+        final int clubs = suit(cards, 0), diamonds = suit(cards, 1), hearts = suit(cards, 2), spades = suit(cards, 3);
+        final int ranks = clubs | diamonds | hearts | spades;
+
+        final int flush = (bitCount(clubs) >= 5) ? clubs : (bitCount(diamonds) >= 5) ? diamonds :
+                (bitCount(hearts) >= 5) ? hearts : (bitCount(spades) >= 5) ? spades : 0;
+        if (flush != 0) {
+            final int straightFlush = straightHigh(flush);
+            return (straightFlush >= 0) ? value(Category.STRAIGHT_FLUSH, straightFlush) :
+                    value(Category.FLUSH, keepHighest(flush, 5));
+        }
+
+        // a rank is in "pairs" if at least two suits have it, in "trips" if three do, and in "quads" if all four do
+        final int quads = clubs & diamonds & hearts & spades;
+        final int trips = ((clubs & diamonds) & (hearts | spades)) | ((hearts & spades) & (clubs | diamonds));
+        final int pairs = (clubs & (diamonds | hearts | spades)) | (diamonds & (hearts | spades)) | (hearts & spades);
+
+        if (quads != 0) {
+            final int quad = highestOneBit(quads);
+            return value(Category.FOUR_OF_A_KIND, (rankOf(quad) << RANKS) | highestOneBit(ranks & ~quad));
+        }
+
+        if (trips != 0) {
+            final int trip = highestOneBit(trips);
+            final int pair = pairs & ~trip;
+            if (pair != 0) {
+                return value(Category.FULL_HOUSE, (rankOf(trip) << 4) | rankOf(highestOneBit(pair)));
+            }
+        }
+
+        final int straight = straightHigh(ranks);
+        if (straight >= 0) {
+            return value(Category.STRAIGHT, straight);
+        }
+
+        if (trips != 0) {
+            final int trip = highestOneBit(trips);
+            return value(Category.THREE_OF_A_KIND, (rankOf(trip) << RANKS) | keepHighest(ranks & ~trip, 2));
+        }
+
+        if (bitCount(pairs) >= 2) {
+            final int highPair = highestOneBit(pairs), lowPair = highestOneBit(pairs & ~highPair);
+            return value(Category.TWO_PAIR, (((rankOf(highPair) << 4) | rankOf(lowPair)) << RANKS) |
+                    highestOneBit(ranks & ~(highPair | lowPair)));
+        }
+
+        if (pairs != 0) {
+            return value(Category.ONE_PAIR, (rankOf(pairs) << RANKS) | keepHighest(ranks & ~pairs, 3));
+        }
+
+        return value(Category.HIGH_CARD, keepHighest(ranks, 5));
+    }
+
+    /**
+     * @param cards the hand's {@link CardSet}.
+     * @return the value of the best five-card hand that can be made from the cards.
+     */
+    public static int evaluate(final CardSet cards) {
+        return evaluate(cards.getBits());
+    }
+
+    /**
+     * @param value a value returned by {@link #evaluate(long)}.
+     * @return the {@link Category} of the hand.
+     */
+    public static Category categoryOf(final int value) {
+        return CATEGORIES[value >>> CATEGORY_SHIFT];
+    }
+
+    private static int suit(final long cards, final int suit) {
+        return (int) (cards >>> (suit * RANKS)) & RANK_MASK;
+    }
+
+    private static int value(final Category category, final int tieBreak) {
+        return (category.ordinal() << CATEGORY_SHIFT) | tieBreak;
+    }
+
+    private static int rankOf(final int rankBit) {
+        return numberOfTrailingZeros(rankBit);
+    }
+
+    private static int keepHighest(int ranks, final int count) {
+        while (bitCount(ranks) > count) {
+            ranks &= ranks - 1;
+        }
+        return ranks;
+    }
+
+    /**
+     * @return the rank of the highest card of the best straight in the ranks, or -1 if there is none. A five-high
+     * straight (the wheel) counts its ace as low, and reports a high card of five.
+     */
+    private static int straightHigh(final int ranks) {
+        // shift everything up one and copy the ace into bit 0, so the wheel is five consecutive bits too
+        final int extended = (ranks << 1) | ((ranks >>> ACE) & 1);
+        final int runs = extended & (extended >>> 1) & (extended >>> 2) & (extended >>> 3) & (extended >>> 4);
+        return (runs == 0) ? -1 : (31 - Integer.numberOfLeadingZeros(runs)) + 3;
+    }
+
+    /**
+     * The categories of poker hand, from worst to best.
+     */
+    public enum Category
+    {
+        HIGH_CARD,
+        ONE_PAIR,
+        TWO_PAIR,
+        THREE_OF_A_KIND,
+        STRAIGHT,
+        FLUSH,
+        FULL_HOUSE,
+        FOUR_OF_A_KIND,
+        STRAIGHT_FLUSH;
+    }
+}
@@ -1,11 +1,624 @@
 package com.nordryd.gamblybot.cardgames.games.poker;
 
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+
+import com.nordryd.gamblybot.cardgames.entities.CardSet;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+
 /**
  * <p>
- * A game of Poker.
+ * A game of Poker, played as no-limit Texas Hold'em.
+ * </p>
+ * <p>
+ * A table is meant to be driven by one thread at a time, and shares nothing with other tables, so many tables can be
+ * run concurrently without any locking. All of a table's state lives in arrays indexed by seat that are allocated
+ * once, and cards are held as {@link CardSet} bitmasks, so playing a hand allocates nothing.
+ * </p>
+ * <p>
+ * A table can also defer its showdowns, stopping once the river is played until a {@link ShowdownBatch} ranks the
+ * hands of many tables at once and settles their pots.
  * </p>
  *
  * @author Nordryd
  */
 public class PokerGame
-{}
+{
+    private static final int NO_SEAT = -1, SEAT_BITS = 8, SEAT_MASK = (1 << SEAT_BITS) - 1;
+    private static final Street[] STREETS = Street.values();
+
+    private final Deck deck;
+    private final int smallBlind;
+    private final int bigBlind;
+    private final boolean deferShowdown;
+    private final boolean[] seated;
+    private final int[] stacks;
+    private final long[] holeCards;
+    private final int[] streetBets;
+    private final int[] contributions;
+    private final boolean[] folded;
+    private final boolean[] allIn;
+    private final boolean[] acted;
+    private final int[] winnings;
+    private final int[] handValues;
+    private final long[] contributionOrder;
+
+    private long board;
+    private int button;
+    private int actingSeat;
+    private int currentBet;
+    private int minRaise;
+    private Street street;
+    private boolean handInProgress;
+    private boolean awaitingShowdown;
+
+    /**
+     * Constructor.
+     *
+     * @param deck the {@link Deck} to deal from.
+     * @param seats how many seats the table has.
+     * @param smallBlind the small blind.
+     * @param bigBlind the big blind, which is also the minimum bet.
+     * @throws IllegalArgumentException if there are fewer than two or more than 255 seats, or the blinds are not
+     * positive.
+     */
+    public PokerGame(final Deck deck, final int seats, final int smallBlind, final int bigBlind) {
+        this(deck, seats, smallBlind, bigBlind, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param deck the {@link Deck} to deal from.
+     * @param seats how many seats the table has.
+     * @param smallBlind the small blind.
+     * @param bigBlind the big blind, which is also the minimum bet.
+     * @param deferShowdown {@code true} to leave every showdown {@link #isAwaitingShowdown() waiting} for a
+     * {@link ShowdownBatch}, rather than settling it as soon as the last card is dealt.
+     * @throws IllegalArgumentException if there are fewer than two or more than 255 seats, or the blinds are not
+     * positive.
+     */
+    public PokerGame(final Deck deck, final int seats, final int smallBlind, final int bigBlind,
+            final boolean deferShowdown) {
+        if ((seats < 2) || (seats > SEAT_MASK)) {
+            throw new IllegalArgumentException("A poker table must have between 2 and " + SEAT_MASK + " seats!");
+        }
+
+        if ((smallBlind <= 0) || (bigBlind < smallBlind)) {
+            throw new IllegalArgumentException("The blinds must be positive, and the big blind at least the small!");
+        }
+
+        this.deck = deck;
+        this.smallBlind = smallBlind;
+        this.bigBlind = bigBlind;
+        this.deferShowdown = deferShowdown;
+        this.seated = new boolean[seats];
+        this.stacks = new int[seats];
+        this.holeCards = new long[seats];
+        this.streetBets = new int[seats];
+        this.contributions = new int[seats];
+        this.folded = new boolean[seats];
+        this.allIn = new boolean[seats];
+        this.acted = new boolean[seats];
+        this.winnings = new int[seats];
+        this.handValues = new int[seats];
+        this.contributionOrder = new long[seats];
+        this.button = NO_SEAT;
+        this.actingSeat = NO_SEAT;
+    }
+
+    /**
+     * Seats a player.
+     *
+     * @param seat the seat to take.
+     * @param stack the chips the player brings to the table.
+     * @throws IllegalStateException if a hand is in progress or the seat is taken.
+     */
+    public void sit(final int seat, final int stack) {
+        if (handInProgress) {
+            throw new IllegalStateException("Cannot seat a player while a hand is in progress!");
+        }
+
+        if (seated[seat]) {
+            throw new IllegalStateException("Seat " + seat + " is already taken!");
+        }
+
+        seated[seat] = true;
+        stacks[seat] = stack;
+    }
+
+    /**
+     * Removes a player from the table.
+     *
+     * @param seat the seat to vacate.
+     * @return the chips the player leaves with.
+     * @throws IllegalStateException if a hand is in progress.
+     */
+    public int leave(final int seat) {
+        if (handInProgress) {
+            throw new IllegalStateException("Cannot remove a player while a hand is in progress!");
+        }
+
+        final int stack = stacks[seat];
+        seated[seat] = false;
+        stacks[seat] = 0;
+        return stack;
+    }
+
+    /**
+     * Starts a new hand: moves the button, posts the blinds and deals two cards to every seated player with chips.
+     *
+     * @throws IllegalStateException if a hand is in progress, or fewer than two players have chips.
+     */
+    public void startHand() {
+        if (handInProgress) {
+            throw new IllegalStateException("Cannot start a hand while one is in progress!");
+        }
+
+        int players = 0;
+        for (int seat = 0; seat < seated.length; seat++) {
+            final boolean playing = seated[seat] && (stacks[seat] > 0);
+            folded[seat] = !playing;
+            allIn[seat] = false;
+            acted[seat] = false;
+            holeCards[seat] = 0L;
+            streetBets[seat] = 0;
+            contributions[seat] = 0;
+            winnings[seat] = 0;
+            players += playing ? 1 : 0;
+        }
+
+        if (players < 2) {
+            throw new IllegalStateException("A hand needs at least two players with chips!");
+        }
+
+        handInProgress = true;
+        street = Street.PREFLOP;
+        board = 0L;
+        deck.reset();
+        button = nextInHand(button);
+
+        // heads up, the button posts the small blind
+        final int smallBlindSeat = (players == 2) ? button : nextInHand(button);
+        final int bigBlindSeat = nextInHand(smallBlindSeat);
+        bet(smallBlindSeat, min(smallBlind, stacks[smallBlindSeat]));
+        bet(bigBlindSeat, min(bigBlind, stacks[bigBlindSeat]));
+        currentBet = bigBlind;
+        minRaise = bigBlind;
+
+        for (int card = 0; card < 2; card++) {
+            int seat = button;
+            do {
+                seat = nextInHand(seat);
+                holeCards[seat] |= CardSet.bitOf(deck.draw());
+            }
+            while (seat != button);
+        }
+
+        actingSeat = nextToAct(bigBlindSeat);
+        if (actingSeat == NO_SEAT) {
+            finishStreet();
+        }
+    }
+
+    /**
+     * Takes an action for the seat whose turn it is.
+     *
+     * @param seat the seat acting.
+     * @param action the {@link Action} to take.
+     * @param raiseTo for {@link Action#RAISE}, the total the seat's bet this street is raised to. Ignored otherwise.
+     * @throws IllegalStateException if no hand is in progress, it is not the seat's turn, or the action is not
+     * allowed.
+     * @throws IllegalArgumentException if a raise is too small or more than the seat has.
+     */
+    public void act(final int seat, final Action action, final int raiseTo) {
+        if (!handInProgress) {
+            throw new IllegalStateException("Cannot act when no hand is in progress!");
+        }
+
+        if (seat != actingSeat) {
+            throw new IllegalStateException("It is not seat " + seat + "'s turn!");
+        }
+
+        switch (action) {
+            case FOLD:
+                folded[seat] = true;
+                break;
+            case CHECK:
+                if (streetBets[seat] != currentBet) {
+                    throw new IllegalStateException("Cannot check when facing a bet!");
+                }
+                break;
+            case CALL:
+                bet(seat, min(currentBet - streetBets[seat], stacks[seat]));
+                break;
+            case RAISE:
+                raise(seat, raiseTo);
+                break;
+            case ALL_IN:
+                final int allInTo = streetBets[seat] + stacks[seat];
+                if (allInTo > currentBet) {
+                    raise(seat, allInTo);
+                }
+                else {
+                    bet(seat, stacks[seat]);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown action " + action);
+        }
+        acted[seat] = true;
+
+        final int remaining = countNotFolded();
+        if (remaining == 1) {
+            awardUncontested();
+            return;
+        }
+
+        actingSeat = nextToAct(seat);
+        if (actingSeat == NO_SEAT) {
+            finishStreet();
+        }
+    }
+
+    /**
+     * @return {@code true} if a hand is being played, which includes one waiting for its showdown.
+     */
+    public boolean isHandInProgress() {
+        return handInProgress;
+    }
+
+    /**
+     * @return {@code true} if the table defers its showdowns, and the hand has reached one that has not been settled
+     * yet. Nobody can act, sit or leave until it is.
+     */
+    public boolean isAwaitingShowdown() {
+        return awaitingShowdown;
+    }
+
+    /**
+     * @return how many seats the table has.
+     */
+    public int getSeatCount() {
+        return seated.length;
+    }
+
+    /**
+     * @return the current {@link Street}, or the last one played if no hand is in progress.
+     */
+    public Street getStreet() {
+        return street;
+    }
+
+    /**
+     * @return the seat whose turn it is, or -1 if nobody can act.
+     */
+    public int getActingSeat() {
+        return actingSeat;
+    }
+
+    /**
+     * @return the seat with the dealer button, or -1 before the first hand.
+     */
+    public int getButton() {
+        return button;
+    }
+
+    /**
+     * @return the largest bet made this street.
+     */
+    public int getCurrentBet() {
+        return currentBet;
+    }
+
+    /**
+     * @return every chip bet so far this hand.
+     */
+    public int getPot() {
+        int pot = 0;
+        for (final int contribution : contributions) {
+            pot += contribution;
+        }
+        return pot;
+    }
+
+    /**
+     * @param seat the seat to look up.
+     * @return the chips the seat has behind.
+     */
+    public int getStack(final int seat) {
+        return stacks[seat];
+    }
+
+    /**
+     * @param seat the seat to look up.
+     * @return the chips the seat has bet this street.
+     */
+    public int getStreetBet(final int seat) {
+        return streetBets[seat];
+    }
+
+    /**
+     * @param seat the seat to look up.
+     * @return the {@link CardSet} of the seat's two cards.
+     */
+    public CardSet getHoleCards(final int seat) {
+        return CardSet.fromBits(holeCards[seat]);
+    }
+
+    /**
+     * @return the {@link CardSet} of community cards.
+     */
+    public CardSet getBoard() {
+        return CardSet.fromBits(board);
+    }
+
+    /**
+     * @param seat the seat to look up.
+     * @return {@code true} if the seat has folded or was not dealt in.
+     */
+    public boolean hasFolded(final int seat) {
+        return folded[seat];
+    }
+
+    /**
+     * @param seat the seat to look up.
+     * @return the chips the seat has put into the pot this hand, or in the last hand if none is in progress.
+     */
+    public int getContribution(final int seat) {
+        return contributions[seat];
+    }
+
+    /**
+     * @param seat the seat to look up.
+     * @return the chips the seat won in the last finished hand.
+     */
+    public int getWinnings(final int seat) {
+        return winnings[seat];
+    }
+
+    private void raise(final int seat, final int raiseTo) {
+        if (acted[seat]) {
+            // the seat already acted this street, and has since only faced all-ins too short to be a full raise
+            throw new IllegalStateException("Seat " + seat + " can only call or fold until the betting reopens!");
+        }
+
+        final int allInTo = streetBets[seat] + stacks[seat];
+        if (raiseTo > allInTo) {
+            throw new IllegalArgumentException("Cannot raise to more than the seat has!");
+        }
+
+        if (raiseTo <= currentBet) {
+            throw new IllegalArgumentException("A raise must be more than the current bet of " + currentBet);
+        }
+
+        final int raiseBy = raiseTo - currentBet;
+        if ((raiseBy < minRaise) && (raiseTo != allInTo)) {
+            throw new IllegalArgumentException("A raise must be at least " + minRaise + " more than the current bet!");
+        }
+
+        bet(seat, raiseTo - streetBets[seat]);
+        // an all-in for less than a full raise neither changes the minimum raise nor reopens the betting
+        if (raiseBy >= minRaise) {
+            minRaise = raiseBy;
+            Arrays.fill(acted, false);
+        }
+        currentBet = raiseTo;
+    }
+
+    private void bet(final int seat, final int amount) {
+        stacks[seat] -= amount;
+        streetBets[seat] += amount;
+        contributions[seat] += amount;
+        if (stacks[seat] == 0) {
+            allIn[seat] = true;
+        }
+    }
+
+    private void finishStreet() {
+        for (int seat = 0; seat < streetBets.length; seat++) {
+            streetBets[seat] = 0;
+            acted[seat] = false;
+        }
+        currentBet = 0;
+        minRaise = bigBlind;
+
+        // once at most one player can still bet, the rest of the board is dealt straight to showdown
+        final boolean bettingOver = countCanAct() <= 1;
+        while (street != Street.RIVER) {
+            street = STREETS[street.ordinal() + 1];
+            for (int card = 0; card < street.cardsDealt; card++) {
+                board |= CardSet.bitOf(deck.draw());
+            }
+
+            if (!bettingOver) {
+                actingSeat = nextToAct(button);
+                if (actingSeat != NO_SEAT) {
+                    return;
+                }
+            }
+        }
+
+        actingSeat = NO_SEAT;
+        if (deferShowdown) {
+            awaitingShowdown = true;
+            return;
+        }
+
+        for (int seat = 0; seat < folded.length; seat++) {
+            if (!folded[seat]) {
+                handValues[seat] = HandEvaluator.evaluate(holeCards[seat] | board);
+            }
+        }
+        settleShowdown();
+    }
+
+    /**
+     * @param seat a seat still in the hand.
+     * @return the bits of the seat's two cards and the board, for {@link HandEvaluator#evaluate(long) evaluating}.
+     */
+    long getShowdownCards(final int seat) {
+        return holeCards[seat] | board;
+    }
+
+    /**
+     * @param seat a seat still in the hand.
+     * @param value the seat's {@link HandEvaluator#evaluate(long) hand value}.
+     */
+    void setHandValue(final int seat, final int value) {
+        handValues[seat] = value;
+    }
+
+    /**
+     * Splits the pots between the seats still in the hand, by the hand values already set for them.
+     */
+    void settleShowdown() {
+        int contributors = 0;
+        for (int seat = 0; seat < contributions.length; seat++) {
+            if (contributions[seat] > 0) {
+                // sort by contribution, carrying the seat in the low bits
+                contributionOrder[contributors++] = (((long) contributions[seat]) << SEAT_BITS) | seat;
+            }
+        }
+        Arrays.sort(contributionOrder, 0, contributors);
+
+        // each distinct contribution level closes a pot, shared by every unfolded seat that put in at least that much
+        int previousLevel = 0, carried = 0, best = Integer.MIN_VALUE, winners = 0, winningLevel = 0;
+        for (int index = 0; index < contributors; index++) {
+            final int level = (int) (contributionOrder[index] >>> SEAT_BITS);
+            if (level == previousLevel) {
+                continue;
+            }
+
+            final int pot = ((level - previousLevel) * (contributors - index)) + carried;
+            previousLevel = level;
+            int levelBest = Integer.MIN_VALUE, levelWinners = 0;
+            for (int eligible = index; eligible < contributors; eligible++) {
+                final int seat = (int) (contributionOrder[eligible] & SEAT_MASK);
+                if (!folded[seat]) {
+                    if (handValues[seat] > levelBest) {
+                        levelBest = handValues[seat];
+                        levelWinners = 1;
+                    }
+                    else if (handValues[seat] == levelBest) {
+                        levelWinners++;
+                    }
+                }
+            }
+
+            if (levelWinners == 0) {
+                // only folded seats reached this level, so it goes to the winners of the last contested pot
+                carried = pot;
+                continue;
+            }
+            carried = 0;
+            best = levelBest;
+            winners = levelWinners;
+            winningLevel = level;
+            awardPot(pot, best, winners, winningLevel);
+        }
+
+        if (carried > 0) {
+            awardPot(carried, best, winners, winningLevel);
+        }
+        awaitingShowdown = false;
+        handInProgress = false;
+    }
+
+    private void awardPot(final int pot, final int best, final int winners, final int level) {
+        // the odd chips go to the winners closest to the left of the button
+        int oddChips = pot % winners, seat = button;
+        for (int seatsChecked = 0; seatsChecked < folded.length; seatsChecked++) {
+            seat = (seat + 1) % folded.length;
+            if (!folded[seat] && (contributions[seat] >= level) && (handValues[seat] == best)) {
+                final int share = (pot / winners) + ((oddChips-- > 0) ? 1 : 0);
+                stacks[seat] += share;
+                winnings[seat] += share;
+            }
+        }
+    }
+
+    private void awardUncontested() {
+        final int pot = getPot();
+        for (int seat = 0; seat < folded.length; seat++) {
+            if (!folded[seat]) {
+                stacks[seat] += pot;
+                winnings[seat] += pot;
+            }
+        }
+        actingSeat = NO_SEAT;
+        handInProgress = false;
+    }
+
+    private int nextInHand(final int after) {
+        for (int offset = 1; offset <= seated.length; offset++) {
+            final int seat = (after + offset + seated.length) % seated.length;
+            if (!folded[seat]) {
+                return seat;
+            }
+        }
+        return NO_SEAT;
+    }
+
+    private int nextToAct(final int after) {
+        for (int offset = 1; offset <= seated.length; offset++) {
+            final int seat = (after + offset + seated.length) % seated.length;
+            if (!folded[seat] && !allIn[seat] && (!acted[seat] || (streetBets[seat] < currentBet))) {
+                return seat;
+            }
+        }
+        return NO_SEAT;
+    }
+
+    private int countNotFolded() {
+        int count = 0;
+        for (final boolean hasFolded : folded) {
+            count += hasFolded ? 0 : 1;
+        }
+        return count;
+    }
+
+    private int countCanAct() {
+        int count = 0;
+        for (int seat = 0; seat < folded.length; seat++) {
+            count += (!folded[seat] && !allIn[seat]) ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * The betting rounds of a hand, and how many community cards are dealt at the start of each.
+     */
+    public enum Street
+    {
+        PREFLOP(0),
+        FLOP(3),
+        TURN(1),
+        RIVER(1);
+
+        private final int cardsDealt;
+
+        Street(final int cardsDealt) {
+            this.cardsDealt = cardsDealt;
+        }
+    }
+
+    /**
+     * The actions a player can take on their turn.
+     */
+    public enum Action
+    {
+        FOLD,
+        CHECK,
+        CALL,
+        /**
+         * Raise the bet to a given total for the street. The first bet of a street is a raise from zero.
+         */
+        RAISE,
+        /**
+         * Bet every chip the player has, whether that is a raise or a call for less.
+         */
+        ALL_IN;
+    }
+}
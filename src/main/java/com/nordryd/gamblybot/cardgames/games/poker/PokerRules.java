@@ -0,0 +1,182 @@
+package com.nordryd.gamblybot.cardgames.games.poker;
+
+import java.util.function.Supplier;
+
+import com.nordryd.gamblybot.cardgames.engine.GameRules;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+
+/**
+ * <p>
+ * The {@link GameRules} of a {@link PokerGame}. A round is one hand, which is over once it has been won, whether at
+ * showdown or by everyone else folding. A table that defers its showdowns is not over until its
+ * {@link ShowdownBatch} settles it with a {@link Move#settle(ShowdownBatch, int) settle} move.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class PokerRules implements GameRules<PokerGame, PokerRules.Move>
+{
+    private final Supplier<Deck> decks;
+    private final int seats, smallBlind, bigBlind;
+    private final boolean deferShowdown;
+
+    /**
+     * Constructor.
+     *
+     * @param decks supplies the {@link Deck} for each new game.
+     * @param seats how many seats each table has.
+     * @param smallBlind the small blind.
+     * @param bigBlind the big blind.
+     */
+    public PokerRules(final Supplier<Deck> decks, final int seats, final int smallBlind, final int bigBlind) {
+        this(decks, seats, smallBlind, bigBlind, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param decks supplies the {@link Deck} for each new game.
+     * @param seats how many seats each table has.
+     * @param smallBlind the small blind.
+     * @param bigBlind the big blind.
+     * @param deferShowdown {@code true} if each new game leaves its showdowns for a {@link ShowdownBatch}.
+     */
+    public PokerRules(final Supplier<Deck> decks, final int seats, final int smallBlind, final int bigBlind,
+            final boolean deferShowdown) {
+        this.decks = decks;
+        this.seats = seats;
+        this.smallBlind = smallBlind;
+        this.bigBlind = bigBlind;
+        this.deferShowdown = deferShowdown;
+    }
+
+    @Override
+    public PokerGame newGame() {
+        return new PokerGame(decks.get(), seats, smallBlind, bigBlind, deferShowdown);
+    }
+
+    @Override
+    public boolean apply(final PokerGame game, final int seat, final Move move) {
+        switch (move.type) {
+            case SIT:
+                game.sit(seat, move.amount);
+                return false;
+            case LEAVE:
+                game.leave(seat);
+                return false;
+            case DEAL:
+                // the hand can be over as soon as it is dealt, if the blinds put everyone all in
+                game.startHand();
+                return !game.isHandInProgress();
+            case SETTLE:
+                // settling another table's slot would play that table's game on this table's thread
+                if (move.batch.getGame(move.amount) != game) {
+                    throw new IllegalStateException(
+                            "Table " + move.amount + " of the showdown batch is not this table!");
+                }
+                move.batch.settle(move.amount);
+                return true;
+            default:
+                game.act(seat, move.action, move.amount);
+                return !game.isHandInProgress();
+        }
+    }
+
+    /**
+     * A move in a {@link PokerGame}.
+     */
+    public static final class Move
+    {
+        private final Type type;
+        private final PokerGame.Action action;
+        private final int amount;
+        private final ShowdownBatch batch;
+
+        private Move(final Type type, final PokerGame.Action action, final int amount) {
+            this(type, action, amount, null);
+        }
+
+        private Move(final Type type, final PokerGame.Action action, final int amount, final ShowdownBatch batch) {
+            this.type = type;
+            this.action = action;
+            this.amount = amount;
+            this.batch = batch;
+        }
+
+        /**
+         * @param stack the chips the player sits down with.
+         * @return the move of a player sitting down.
+         */
+        public static Move sit(final int stack) {
+            return new Move(Type.SIT, null, stack);
+        }
+
+        /**
+         * @return the move of a player leaving the table.
+         */
+        public static Move leave() {
+            return new Move(Type.LEAVE, null, 0);
+        }
+
+        /**
+         * @return the move that deals the next hand.
+         */
+        public static Move deal() {
+            return new Move(Type.DEAL, null, 0);
+        }
+
+        /**
+         * @param action the {@link PokerGame.Action} to take.
+         * @return the move of a player taking an action other than a raise.
+         */
+        public static Move act(final PokerGame.Action action) {
+            return new Move(Type.ACT, action, 0);
+        }
+
+        /**
+         * @param raiseTo the street bet to raise to.
+         * @return the move of a player raising.
+         */
+        public static Move raiseTo(final int raiseTo) {
+            return new Move(Type.ACT, PokerGame.Action.RAISE, raiseTo);
+        }
+
+        /**
+         * @param batch the evaluated {@link ShowdownBatch} the table's showdown is in.
+         * @param table the table's index in the batch.
+         * @return the move that settles the table's deferred showdown from the batch, which finishes the hand.
+         */
+        public static Move settle(final ShowdownBatch batch, final int table) {
+            return new Move(Type.SETTLE, null, table, batch);
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public PokerGame.Action getAction() {
+            return action;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        @Override
+        public String toString() {
+            return Type.ACT.equals(type) ? (action + ((amount > 0) ? (" " + amount) : "")) : (type + " " + amount);
+        }
+
+        /**
+         * The kinds of move.
+         */
+        public enum Type
+        {
+            SIT,
+            LEAVE,
+            DEAL,
+            ACT,
+            SETTLE
+        }
+    }
+}
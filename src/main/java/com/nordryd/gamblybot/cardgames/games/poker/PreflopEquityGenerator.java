@@ -0,0 +1,176 @@
+package com.nordryd.gamblybot.cardgames.games.poker;
+
+import static com.nordryd.gamblybot.cardgames.games.poker.PreflopHandClasses.CLASS_COUNT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+
+/**
+ * <p>
+ * Builds the file loaded by {@link PreflopEquityTable} by Monte Carlo simulation, dealing random boards (and random
+ * opponents) to every starting-hand class and ranking them with the {@link HandEvaluator}. Classes are simulated in
+ * parallel. This is meant to run offline, through {@code gradle generatePreflopTables}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public final class PreflopEquityGenerator
+{
+    private static final int RANKS = 13, SUITS = 4, BOARD_CARDS = 5;
+    private static final int DEFAULT_MAX_OPPONENTS = 9, DEFAULT_TRIALS = 50_000, DEFAULT_HEADS_UP_TRIALS = 2_000;
+    private static final long SEED = 0x47424250L;
+
+    private PreflopEquityGenerator() {}
+
+    /**
+     * Generates a table.
+     *
+     * @param args the output file, then optionally the trials per multiway equity and per head-to-head matchup.
+     * @throws IOException if the table could not be written.
+     */
+    public static void main(final String... args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: PreflopEquityGenerator <output file> [trials] [heads-up trials]");
+        }
+
+        final Path output = Paths.get(args[0]);
+        final int trials = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_TRIALS;
+        final int headsUpTrials = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_HEADS_UP_TRIALS;
+        final long start = System.nanoTime();
+        generate(output, DEFAULT_MAX_OPPONENTS, trials, headsUpTrials, SEED);
+        System.out.printf("Wrote %s in %d ms%n", output, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Generates a table.
+     *
+     * @param output the file to write.
+     * @param maxOpponents the most random opponents to compute equity against.
+     * @param trials how many hands to deal per class and number of opponents.
+     * @param headsUpTrials how many hands to deal per head-to-head matchup.
+     * @param seed the seed for the simulation.
+     * @throws IOException if the table could not be written.
+     */
+    public static void generate(final Path output, final int maxOpponents, final int trials, final int headsUpTrials,
+            final long seed) throws IOException {
+        final float[] multiway = new float[CLASS_COUNT * maxOpponents];
+        final float[] headsUp = new float[CLASS_COUNT * CLASS_COUNT];
+        final SplittableRandom root = new SplittableRandom(seed);
+        final SplittableRandom[] rngs = new SplittableRandom[CLASS_COUNT];
+        for (int handClass = 0; handClass < CLASS_COUNT; handClass++) {
+            rngs[handClass] = root.split();
+        }
+
+        IntStream.range(0, CLASS_COUNT).parallel().forEach(handClass -> {
+            final SplittableRandom rng = rngs[handClass];
+            final int[] deck = new int[Card.CARD_COUNT];
+            for (int opponents = 1; opponents <= maxOpponents; opponents++) {
+                multiway[(handClass * maxOpponents) + opponents - 1] =
+                        simulate(handClass, -1, opponents, trials, rng, deck);
+            }
+            for (int opponentClass = 0; opponentClass < CLASS_COUNT; opponentClass++) {
+                headsUp[(handClass * CLASS_COUNT) + opponentClass] =
+                        simulate(handClass, opponentClass, 1, headsUpTrials, rng, deck);
+            }
+        });
+
+        final ByteBuffer buffer =
+                ByteBuffer.allocate(PreflopEquityTable.bytesFor(maxOpponents)).order(PreflopEquityTable.BYTE_ORDER);
+        buffer.putInt(PreflopEquityTable.MAGIC).putInt(PreflopEquityTable.VERSION).putInt(maxOpponents);
+        buffer.asFloatBuffer().put(multiway).put(headsUp);
+        buffer.rewind();
+
+        final Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (final FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * @param opponentClass the class of the single opponent, or -1 for random opponents.
+     * @return the hand's average share of the pot.
+     */
+    private static float simulate(final int handClass, final int opponentClass, final int opponents,
+            final int trials, final SplittableRandom rng, final int[] deck) {
+        double share = 0;
+        for (int trial = 0; trial < trials; trial++) {
+            for (int card = 0; card < deck.length; card++) {
+                deck[card] = card;
+            }
+
+            long used = dealClass(handClass, rng, 0L);
+            final long hand = used;
+            int dealt = removeFrom(deck, deck.length, used);
+            long opponentHand = 0L;
+            if (opponentClass >= 0) {
+                opponentHand = dealClass(opponentClass, rng, used);
+                dealt = removeFrom(deck, dealt, opponentHand);
+            }
+
+            long board = 0L;
+            for (int card = 0; card < BOARD_CARDS; card++) {
+                board |= 1L << draw(deck, dealt--, rng);
+            }
+
+            final int value = HandEvaluator.evaluate(hand | board);
+            int better = 0, tied = 1;
+            for (int opponent = 0; opponent < opponents; opponent++) {
+                final long holeCards = (opponentClass >= 0) ? opponentHand :
+                        ((1L << draw(deck, dealt--, rng)) | (1L << draw(deck, dealt--, rng)));
+                final int opponentValue = HandEvaluator.evaluate(holeCards | board);
+                better += (opponentValue > value) ? 1 : 0;
+                tied += (opponentValue == value) ? 1 : 0;
+            }
+            share += (better == 0) ? (1.0 / tied) : 0.0;
+        }
+        return (float) (share / trials);
+    }
+
+    private static long dealClass(final int handClass, final SplittableRandom rng, final long used) {
+        final int high = PreflopHandClasses.highRankOf(handClass), low = PreflopHandClasses.lowRankOf(handClass);
+        final boolean suited = PreflopHandClasses.isSuited(handClass);
+        while (true) {
+            final int highSuit = rng.nextInt(SUITS);
+            final int lowSuit = suited ? highSuit : rng.nextInt(SUITS);
+            if (!suited && (highSuit == lowSuit)) {
+                continue;
+            }
+
+            final long cards = (1L << ((highSuit * RANKS) + high)) | (1L << ((lowSuit * RANKS) + low));
+            if ((cards & used) == 0) {
+                return cards;
+            }
+        }
+    }
+
+    private static int removeFrom(final int[] deck, int size, final long cards) {
+        for (int card = size - 1; card >= 0; card--) {
+            if ((cards & (1L << deck[card])) != 0) {
+                deck[card] = deck[--size];
+            }
+        }
+        return size;
+    }
+
+    private static int draw(final int[] deck, final int size, final SplittableRandom rng) {
+        final int index = rng.nextInt(size), card = deck[index];
+        deck[index] = deck[size - 1];
+        deck[size - 1] = card;
+        return card;
+    }
+}
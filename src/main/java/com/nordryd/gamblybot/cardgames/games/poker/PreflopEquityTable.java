@@ -0,0 +1,102 @@
+package com.nordryd.gamblybot.cardgames.games.poker;
+
+import static com.nordryd.gamblybot.cardgames.games.poker.PreflopHandClasses.CLASS_COUNT;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ * Precomputed preflop equities for every {@link PreflopHandClasses starting-hand class}: against one to nine random
+ * opponents, and head to head against every other class. The table is generated offline by
+ * {@link PreflopEquityGenerator} (run with {@code gradle generatePreflopTables}) and memory-mapped when it is loaded,
+ * so loading costs one system call rather than rebuilding the table, and every lookup is a single read from the
+ * mapped file.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class PreflopEquityTable
+{
+    static final int MAGIC = 0x47425046;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 12;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final ByteBuffer table;
+    private final int maxOpponents;
+    private final int headsUpOffset;
+
+    private PreflopEquityTable(final ByteBuffer table, final int maxOpponents) {
+        this.table = table;
+        this.maxOpponents = maxOpponents;
+        this.headsUpOffset = HEADER_BYTES + (CLASS_COUNT * maxOpponents * Float.BYTES);
+    }
+
+    /**
+     * Memory-maps a table file.
+     *
+     * @param file the file written by {@link PreflopEquityGenerator}.
+     * @return the loaded {@link PreflopEquityTable}.
+     * @throws IOException if the file could not be mapped, or is not a table this version can read.
+     */
+    public static PreflopEquityTable load(final Path file) throws IOException {
+        final ByteBuffer table;
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            table = channel.map(READ_ONLY, 0, channel.size()).order(BYTE_ORDER);
+        }
+
+        if ((table.capacity() < HEADER_BYTES) || (table.getInt(0) != MAGIC)) {
+            throw new IOException("Not a preflop equity table: " + file);
+        }
+
+        if (table.getInt(4) != VERSION) {
+            throw new IOException("Unsupported preflop equity table version " + table.getInt(4));
+        }
+
+        final int maxOpponents = table.getInt(8);
+        if (table.capacity() != bytesFor(maxOpponents)) {
+            throw new IOException("Truncated preflop equity table: " + file);
+        }
+        return new PreflopEquityTable(table, maxOpponents);
+    }
+
+    /**
+     * @param handClass the index of a {@link PreflopHandClasses starting-hand class}.
+     * @param opponents how many random opponents the hand is up against.
+     * @return the hand's share of the pot on average, from 0 to 1.
+     * @throws IllegalArgumentException if opponents is not between 1 and {@link #getMaxOpponents()}.
+     */
+    public float equity(final int handClass, final int opponents) {
+        if ((opponents < 1) || (opponents > maxOpponents)) {
+            throw new IllegalArgumentException("Equity is only known against 1 to " + maxOpponents + " opponents!");
+        }
+        return table.getFloat(HEADER_BYTES + ((((handClass * maxOpponents) + opponents) - 1) * Float.BYTES));
+    }
+
+    /**
+     * @param handClass the index of a {@link PreflopHandClasses starting-hand class}.
+     * @param opponentClass the index of the opponent's starting-hand class.
+     * @return the hand's share of the pot on average against that one opponent, from 0 to 1.
+     */
+    public float headsUp(final int handClass, final int opponentClass) {
+        return table.getFloat(headsUpOffset + (((handClass * CLASS_COUNT) + opponentClass) * Float.BYTES));
+    }
+
+    /**
+     * @return the most random opponents an equity is known for.
+     */
+    public int getMaxOpponents() {
+        return maxOpponents;
+    }
+
+    static int bytesFor(final int maxOpponents) {
+        return HEADER_BYTES + (CLASS_COUNT * maxOpponents * Float.BYTES) + (CLASS_COUNT * CLASS_COUNT * Float.BYTES);
+    }
+}
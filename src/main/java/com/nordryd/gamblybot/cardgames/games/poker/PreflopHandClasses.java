@@ -0,0 +1,82 @@
+package com.nordryd.gamblybot.cardgames.games.poker;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Long.numberOfTrailingZeros;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+
+/**
+ * <p>
+ * The 169 classes of Texas Hold'em starting hand: 13 pairs, 78 suited and 78 offsuit hands. Classes are laid out as a
+ * 13 by 13 grid of {@link Card.Rank ranks}, with pairs on the diagonal, suited hands above it and offsuit hands below
+ * it, so the class of any two cards is a few arithmetic operations away.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public final class PreflopHandClasses
+{
+    /**
+     * How many starting-hand classes there are.
+     */
+    public static final int CLASS_COUNT = 169;
+
+    private static final int RANKS = 13;
+    private static final String RANK_SYMBOLS = "23456789TJQKA";
+
+    private PreflopHandClasses() {}
+
+    /**
+     * @param holeCards two cards, with bit {@link Card#getId()} set for each.
+     * @return the index of the cards' class, from 0 (inclusive) to {@link #CLASS_COUNT} (exclusive).
+     */
+    public static int classOf(final long holeCards) {
+        final int low = numberOfTrailingZeros(holeCards), high = 63 - numberOfLeadingZeros(holeCards);
+        return classOf(high % RANKS, low % RANKS, (high / RANKS) == (low / RANKS));
+    }
+
+    /**
+     * @param firstRank the {@link Card.Rank#ordinal() ordinal} of one card's rank.
+     * @param secondRank the {@link Card.Rank#ordinal() ordinal} of the other card's rank.
+     * @param suited {@code true} if both cards have the same suit.
+     * @return the index of the class, from 0 (inclusive) to {@link #CLASS_COUNT} (exclusive).
+     */
+    public static int classOf(final int firstRank, final int secondRank, final boolean suited) {
+        final int high = Math.max(firstRank, secondRank), low = Math.min(firstRank, secondRank);
+        return suited ? ((low * RANKS) + high) : ((high * RANKS) + low);
+    }
+
+    /**
+     * @param handClass the index of a class.
+     * @return the {@link Card.Rank#ordinal() ordinal} of the class's higher rank.
+     */
+    public static int highRankOf(final int handClass) {
+        return Math.max(handClass / RANKS, handClass % RANKS);
+    }
+
+    /**
+     * @param handClass the index of a class.
+     * @return the {@link Card.Rank#ordinal() ordinal} of the class's lower rank.
+     */
+    public static int lowRankOf(final int handClass) {
+        return Math.min(handClass / RANKS, handClass % RANKS);
+    }
+
+    /**
+     * @param handClass the index of a class.
+     * @return {@code true} if the class is a suited hand.
+     */
+    public static boolean isSuited(final int handClass) {
+        return (handClass / RANKS) < (handClass % RANKS);
+    }
+
+    /**
+     * @param handClass the index of a class.
+     * @return the class's usual name, such as {@code AA}, {@code AKs} or {@code 72o}.
+     */
+    public static String nameOf(final int handClass) {
+        final int high = highRankOf(handClass), low = lowRankOf(handClass);
+        final String ranks = "" + RANK_SYMBOLS.charAt(high) + RANK_SYMBOLS.charAt(low);
+        return (high == low) ? ranks : (ranks + (isSuited(handClass) ? 's' : 'o'));
+    }
+}
@@ -0,0 +1,286 @@
+package com.nordryd.gamblybot.cardgames.games.poker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.nordryd.gamblybot.cardgames.engine.Table;
+
+/**
+ * <p>
+ * Ranks the showdowns of many {@link PokerGame} tables at once, such as when a tournament level ends at hundreds of
+ * tables in the same moment. Tables that {@link PokerGame#isAwaitingShowdown() wait for their showdowns} are
+ * {@link #add(PokerGame) added} one by one, then every hand in the batch is {@link #evaluate() evaluated} in a single
+ * pass, and each table's pots are {@link #settle(int) settled} from the results.
+ * </p>
+ * <p>
+ * The batch keeps its hands as parallel arrays rather than as an object per hand: one of cards, one of seats and one
+ * of hand values, with each table's hands side by side. Evaluating is a straight sweep from the first array into the
+ * last, split across a {@link ForkJoinPool} once the batch is big enough to be worth it. The arrays only ever grow, so
+ * a batch that is {@link #clear() cleared} and filled again at every level allocates nothing once it has seen its
+ * largest showdown.
+ * </p>
+ * <p>
+ * A batch is filled, evaluated and cleared by one thread at a time. The tables in it cannot be played until they are
+ * settled, so each table can be settled by whichever thread drives it.
+ * </p>
+ * <p>
+ * Tables run by a {@link com.nordryd.gamblybot.cardgames.engine.TableEngine TableEngine} are
+ * {@link #addAll(List) added} by reading each one's hands on its own thread of execution, and settled by
+ * {@link Table#dispatch(int, Object) dispatching} a {@link PokerRules.Move#settle(ShowdownBatch, int) settle} move to
+ * it, so the hand ends through its {@link PokerRules rules} like any other and the engine's listeners hear the round
+ * end. The batch must not be cleared until every settle move has run.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class ShowdownBatch
+{
+    private static final int HANDS_PER_SHARD = 2048;
+    private static final int INITIAL_TABLES = 16, INITIAL_HANDS = 64;
+
+    private final ForkJoinPool pool;
+    private PokerGame[] games;
+    private int[] firstHands;
+    private long[] cards;
+    private int[] seats;
+    private int[] values;
+    private int tableCount;
+    private int handCount;
+    private boolean evaluated;
+
+    /**
+     * Constructor.
+     *
+     * @param pool the {@link ForkJoinPool} to evaluate large batches on.
+     */
+    public ShowdownBatch(final ForkJoinPool pool) {
+        this.pool = pool;
+        this.games = new PokerGame[INITIAL_TABLES];
+        this.firstHands = new int[INITIAL_TABLES + 1];
+        this.cards = new long[INITIAL_HANDS];
+        this.seats = new int[INITIAL_HANDS];
+        this.values = new int[INITIAL_HANDS];
+    }
+
+    /**
+     * Adds a table's showdown to the batch.
+     *
+     * @param game the {@link PokerGame} to add.
+     * @return the table's index in the batch.
+     * @throws IllegalStateException if the table is not waiting for its showdown, or the batch is already evaluated.
+     */
+    public int add(final PokerGame game) {
+        return add(game, readShowdown(game));
+    }
+
+    /**
+     * Adds the showdowns of tables run by a {@link com.nordryd.gamblybot.cardgames.engine.TableEngine TableEngine}.
+     * Each table's hands are read on its own thread of execution, in turn with the moves made at it, and all of them
+     * are read at once before the batch is filled.
+     *
+     * @param tables the {@link Table tables} to add.
+     * @return each table's index in the batch, in the same order as the tables.
+     * @throws IllegalStateException if a table is not waiting for its showdown, or the batch is already evaluated.
+     */
+    public int[] addAll(final List<? extends Table<PokerGame, PokerRules.Move>> tables) {
+        final List<CompletableFuture<long[]>> showdowns = new ArrayList<>(tables.size());
+        for (final Table<PokerGame, PokerRules.Move> table : tables) {
+            showdowns.add(table.read(ShowdownBatch::readShowdown));
+        }
+
+        final int[] indices = new int[tables.size()];
+        for (int table = 0; table < indices.length; table++) {
+            indices[table] = add(tables.get(table).getGame(), join(showdowns.get(table)));
+        }
+        return indices;
+    }
+
+    private int add(final PokerGame game, final long[] showdown) {
+        if (evaluated) {
+            throw new IllegalStateException("Cannot add a table to a showdown batch that is already evaluated!");
+        }
+
+        if (tableCount == games.length) {
+            games = Arrays.copyOf(games, games.length * 2);
+            firstHands = Arrays.copyOf(firstHands, games.length + 1);
+        }
+        if ((handCount + game.getSeatCount()) > cards.length) {
+            final int handCapacity = Math.max(cards.length * 2, handCount + game.getSeatCount());
+            cards = Arrays.copyOf(cards, handCapacity);
+            seats = Arrays.copyOf(seats, handCapacity);
+            values = Arrays.copyOf(values, handCapacity);
+        }
+
+        for (int seat = 0; seat < showdown.length; seat++) {
+            if (showdown[seat] != 0L) {
+                cards[handCount] = showdown[seat];
+                seats[handCount] = seat;
+                handCount++;
+            }
+        }
+        games[tableCount] = game;
+        firstHands[tableCount + 1] = handCount;
+        return tableCount++;
+    }
+
+    /**
+     * Evaluates every hand in the batch.
+     */
+    public void evaluate() {
+        if (handCount > HANDS_PER_SHARD) {
+            pool.invoke(new Shard(0, handCount));
+        }
+        else {
+            evaluate(0, handCount);
+        }
+        evaluated = true;
+    }
+
+    /**
+     * @param table a table's index in the batch.
+     * @return the rank of each seat's hand at the table, indexed by seat: 1 for the best hand, with tied hands sharing
+     * a rank and the next rank skipping past them, or 0 for a seat that was not in the showdown.
+     * @throws IllegalStateException if the batch has not been evaluated yet.
+     */
+    public int[] getRanks(final int table) {
+        checkEvaluated();
+        final int[] ranks = new int[games[table].getSeatCount()];
+        final int first = firstHands[table], last = firstHands[table + 1];
+        for (int hand = first; hand < last; hand++) {
+            int rank = 1;
+            for (int other = first; other < last; other++) {
+                rank += (values[other] > values[hand]) ? 1 : 0;
+            }
+            ranks[seats[hand]] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Settles a table's pots from its evaluated hands, which finishes its hand.
+     *
+     * @param table a table's index in the batch.
+     * @throws IllegalStateException if the batch has not been evaluated yet, or the table is already settled.
+     */
+    public void settle(final int table) {
+        checkEvaluated();
+        final PokerGame game = games[table];
+        if (!game.isAwaitingShowdown()) {
+            throw new IllegalStateException("Table " + table + " of the showdown batch is already settled!");
+        }
+
+        for (int hand = firstHands[table]; hand < firstHands[table + 1]; hand++) {
+            game.setHandValue(seats[hand], values[hand]);
+        }
+        game.settleShowdown();
+    }
+
+    /**
+     * Settles every table in the batch.
+     *
+     * @throws IllegalStateException if the batch has not been evaluated yet, or a table is already settled.
+     */
+    public void settleAll() {
+        for (int table = 0; table < tableCount; table++) {
+            settle(table);
+        }
+    }
+
+    /**
+     * Empties the batch for the next round of showdowns, keeping its arrays.
+     */
+    public void clear() {
+        Arrays.fill(games, 0, tableCount, null);
+        tableCount = 0;
+        handCount = 0;
+        evaluated = false;
+    }
+
+    /**
+     * @param table a table's index in the batch.
+     * @return the table's {@link PokerGame}.
+     */
+    public PokerGame getGame(final int table) {
+        return games[table];
+    }
+
+    /**
+     * @return how many tables are in the batch.
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * @return how many hands are in the batch, across every table.
+     */
+    public int getHandCount() {
+        return handCount;
+    }
+
+    private static long[] readShowdown(final PokerGame game) {
+        if (!game.isAwaitingShowdown()) {
+            throw new IllegalStateException("Only a table waiting for its showdown can join a showdown batch!");
+        }
+
+        // a seat out of the showdown has no cards, as every seat in it holds at least its two hole cards
+        final long[] showdown = new long[game.getSeatCount()];
+        for (int seat = 0; seat < showdown.length; seat++) {
+            if (!game.hasFolded(seat)) {
+                showdown[seat] = game.getShowdownCards(seat);
+            }
+        }
+        return showdown;
+    }
+
+    private static long[] join(final CompletableFuture<long[]> showdown) {
+        try {
+            return showdown.join();
+        }
+        catch (final CompletionException exception) {
+            // throw whatever the table threw, just as adding the table's game directly would have
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    private void checkEvaluated() {
+        if (!evaluated) {
+            throw new IllegalStateException("The showdown batch has not been evaluated yet!");
+        }
+    }
+
+    private void evaluate(final int fromHand, final int toHand) {
+        for (int hand = fromHand; hand < toHand; hand++) {
+            values[hand] = HandEvaluator.evaluate(cards[hand]);
+        }
+    }
+
+    private final class Shard extends RecursiveAction
+    {
+        private final int fromHand;
+        private final int toHand;
+
+        private Shard(final int fromHand, final int toHand) {
+            this.fromHand = fromHand;
+            this.toHand = toHand;
+        }
+
+        @Override
+        protected void compute() {
+            if ((toHand - fromHand) > HANDS_PER_SHARD) {
+                final int middle = (fromHand + toHand) >>> 1;
+                invokeAll(new Shard(fromHand, middle), new Shard(middle, toHand));
+                return;
+            }
+            evaluate(fromHand, toHand);
+        }
+    }
+}
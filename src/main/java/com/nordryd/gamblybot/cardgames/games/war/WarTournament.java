@@ -0,0 +1,179 @@
+package com.nordryd.gamblybot.cardgames.games.war;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.BattleResult;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+
+/**
+ * <p>
+ * A single-elimination tournament of War, where every match is one {@link Card#battle(Card) card battle}. Each round
+ * is split into shards that run in parallel on a {@link ForkJoinPool}. Every shard deals from its own {@link Deck},
+ * seeded from the tournament seed, the round and the shard's position, so a tournament's outcome depends only on its
+ * seed and not on how the pool schedules the shards.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class WarTournament
+{
+    private static final int MATCHES_PER_SHARD = 4096;
+
+    private final ForkJoinPool pool;
+    private final long seed;
+
+    /**
+     * Constructor.
+     *
+     * @param pool the {@link ForkJoinPool} to run the rounds on.
+     * @param seed the seed from which every shard's {@link Deck} is shuffled.
+     */
+    public WarTournament(final ForkJoinPool pool, final long seed) {
+        this.pool = pool;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs a tournament to completion. Entrants are numbered from 0, and the last entrant of a round with an odd
+     * number of entrants gets a bye.
+     *
+     * @param entrants how many players are entered.
+     * @param roundListener receives each {@link RoundResult} as soon as its round is finished.
+     * @return the number of the winning entrant.
+     * @throws IllegalArgumentException if entrants &le; 0
+     */
+    public int run(final int entrants, final Consumer<RoundResult> roundListener) {
+        if (entrants <= 0) {
+            throw new IllegalArgumentException("A tournament needs at least one entrant!");
+        }
+
+        int[] remaining = new int[entrants];
+        for (int entrant = 0; entrant < entrants; entrant++) {
+            remaining[entrant] = entrant;
+        }
+
+        for (int round = 1; remaining.length > 1; round++) {
+            final long start = System.nanoTime();
+            final int[] advancing = new int[(remaining.length + 1) / 2];
+            final LongAdder redraws = new LongAdder();
+            pool.invoke(new Shard(round, remaining, advancing, 0, remaining.length / 2, redraws));
+            if ((remaining.length % 2) != 0) {
+                advancing[advancing.length - 1] = remaining[remaining.length - 1];
+            }
+            roundListener.accept(
+                    new RoundResult(round, remaining.length, advancing.length, redraws.sum(), System.nanoTime() - start));
+            remaining = advancing;
+        }
+        return remaining[0];
+    }
+
+    private long shardSeed(final int round, final int firstMatch) {
+        // SplitMix64 finalizer, so neighbouring shards and rounds get unrelated decks
+        long mixed = seed + (0x9E3779B97F4A7C15L * ((((long) round) << 32) | firstMatch));
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+    private final class Shard extends RecursiveAction
+    {
+        private final int round;
+        private final int[] remaining;
+        private final int[] advancing;
+        private final int fromMatch;
+        private final int toMatch;
+        private final LongAdder redraws;
+
+        private Shard(final int round, final int[] remaining, final int[] advancing, final int fromMatch,
+                final int toMatch, final LongAdder redraws) {
+            this.round = round;
+            this.remaining = remaining;
+            this.advancing = advancing;
+            this.fromMatch = fromMatch;
+            this.toMatch = toMatch;
+            this.redraws = redraws;
+        }
+
+        @Override
+        protected void compute() {
+            if ((toMatch - fromMatch) > MATCHES_PER_SHARD) {
+                final int middle = (fromMatch + toMatch) >>> 1;
+                invokeAll(new Shard(round, remaining, advancing, fromMatch, middle, redraws),
+                        new Shard(round, remaining, advancing, middle, toMatch, redraws));
+                return;
+            }
+
+            final Deck deck = new Deck(new Random(shardSeed(round, fromMatch)));
+            int shardRedraws = 0;
+            for (int match = fromMatch; match < toMatch; match++) {
+                BattleResult result;
+                while ((result = deck.draw().battle(deck.draw())) == BattleResult.TIE) {
+                    shardRedraws++;
+                }
+                advancing[match] = remaining[(2 * match) + ((result == BattleResult.WIN) ? 0 : 1)];
+            }
+            redraws.add(shardRedraws);
+        }
+    }
+
+    /**
+     * A summary of one finished round of a {@link WarTournament}.
+     */
+    public static class RoundResult
+    {
+        private final int round;
+        private final int entrants;
+        private final int advancing;
+        private final long redraws;
+        private final long elapsedNanos;
+
+        private RoundResult(final int round, final int entrants, final int advancing, final long redraws,
+                final long elapsedNanos) {
+            this.round = round;
+            this.entrants = entrants;
+            this.advancing = advancing;
+            this.redraws = redraws;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return the round number, starting from 1.
+         */
+        public int getRound() {
+            return round;
+        }
+
+        /**
+         * @return how many entrants played in this round.
+         */
+        public int getEntrants() {
+            return entrants;
+        }
+
+        /**
+         * @return how many entrants advance to the next round.
+         */
+        public int getAdvancing() {
+            return advancing;
+        }
+
+        /**
+         * @return how many times a tied battle had to be drawn again.
+         */
+        public long getRedraws() {
+            return redraws;
+        }
+
+        /**
+         * @return how long the round took to play, in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
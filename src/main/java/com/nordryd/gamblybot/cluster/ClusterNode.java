@@ -0,0 +1,110 @@
+package com.nordryd.gamblybot.cluster;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+
+/**
+ * <p>
+ * One bot instance in a cluster. Each channel's {@link BlackjackGame} lives on exactly one node, chosen by a
+ * {@link ConsistentHashRing}, and {@link #rebalance()} hands off every table this node no longer owns after the ring's
+ * membership changes.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class ClusterNode
+{
+    private final String id;
+    private final ConsistentHashRing ring;
+    private final TableTransport transport;
+    private final Supplier<BlackjackGame> tableFactory;
+    private final Map<String, BlackjackGame> tables;
+
+    /**
+     * Constructor.
+     *
+     * @param id this node's ID on the ring.
+     * @param ring the {@link ConsistentHashRing} shared by the cluster.
+     * @param transport the {@link TableTransport} used to hand tables to other nodes.
+     * @param tableFactory creates a new {@link BlackjackGame} for a channel that has no table yet.
+     */
+    public ClusterNode(final String id, final ConsistentHashRing ring, final TableTransport transport,
+            final Supplier<BlackjackGame> tableFactory) {
+        this.id = id;
+        this.ring = ring;
+        this.transport = transport;
+        this.tableFactory = tableFactory;
+        this.tables = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param channelId the channel to look up.
+     * @return {@code true} if this node owns the channel's table.
+     */
+    public boolean owns(final String channelId) {
+        return id.equals(ring.ownerOf(channelId));
+    }
+
+    /**
+     * Gets the table for a channel this node owns, creating it if the channel has none yet.
+     *
+     * @param channelId the channel the table is played in.
+     * @return the channel's {@link BlackjackGame}.
+     * @throws IllegalStateException if another node owns the channel.
+     */
+    public BlackjackGame tableFor(final String channelId) {
+        final String owner = ring.ownerOf(channelId);
+        if (!id.equals(owner)) {
+            throw new IllegalStateException("Channel " + channelId + " is owned by node " + owner + ", not " + id);
+        }
+        return tables.computeIfAbsent(channelId, newChannel -> tableFactory.get());
+    }
+
+    /**
+     * Receives a table handed off by another node.
+     *
+     * @param channelId the channel the table is played in.
+     * @param game the table's {@link BlackjackGame}.
+     */
+    public void acceptTable(final String channelId, final BlackjackGame game) {
+        tables.put(channelId, game);
+    }
+
+    /**
+     * Hands off every table whose channel is now owned by another node.
+     *
+     * @return how many tables were handed off.
+     */
+    public int rebalance() {
+        int handedOff = 0;
+        final Iterator<Map.Entry<String, BlackjackGame>> iterator = tables.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, BlackjackGame> table = iterator.next();
+            final String owner = ring.ownerOf(table.getKey());
+            if (!id.equals(owner)) {
+                transport.handOff(owner, table.getKey(), table.getValue());
+                iterator.remove();
+                handedOff++;
+            }
+        }
+        return handedOff;
+    }
+
+    /**
+     * @return this node's ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return how many tables this node currently holds.
+     */
+    public int getTableCount() {
+        return tables.size();
+    }
+}
@@ -0,0 +1,130 @@
+package com.nordryd.gamblybot.cluster;
+
+import static java.util.Arrays.binarySearch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * <p>
+ * Maps keys to the nodes that own them. Each node is placed on a 64-bit hash ring at many virtual points, so keys
+ * spread evenly and adding or removing one node only moves the keys that node gains or loses. Lookups read an
+ * immutable snapshot of the ring and never lock, while membership changes rebuild the snapshot.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class ConsistentHashRing
+{
+    private final int virtualNodes;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructor.
+     *
+     * @param virtualNodes how many points each node occupies on the ring.
+     * @throws IllegalArgumentException if virtualNodes &le; 0
+     */
+    public ConsistentHashRing(final int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("A node must have at least one virtual node!");
+        }
+
+        this.virtualNodes = virtualNodes;
+        this.snapshot = new Snapshot(new long[0], new String[0], new TreeSet<>());
+    }
+
+    /**
+     * Adds a node to the ring. Adding a node that is already present does nothing.
+     *
+     * @param nodeId the node's ID.
+     */
+    public synchronized void addNode(final String nodeId) {
+        final Set<String> nodes = new TreeSet<>(snapshot.nodes);
+        if (nodes.add(nodeId)) {
+            snapshot = build(nodes);
+        }
+    }
+
+    /**
+     * Removes a node from the ring. Removing a node that is not present does nothing.
+     *
+     * @param nodeId the node's ID.
+     */
+    public synchronized void removeNode(final String nodeId) {
+        final Set<String> nodes = new TreeSet<>(snapshot.nodes);
+        if (nodes.remove(nodeId)) {
+            snapshot = build(nodes);
+        }
+    }
+
+    /**
+     * @param key the key to look up, such as a channel ID.
+     * @return the ID of the node that owns the key.
+     * @throws IllegalStateException if the ring has no nodes.
+     */
+    public String ownerOf(final String key) {
+        final Snapshot current = snapshot;
+        if (current.points.length == 0) {
+            throw new IllegalStateException("Cannot find an owner on a ring with no nodes!");
+        }
+
+        final int search = binarySearch(current.points, hash(key));
+        final int index = (search >= 0) ? search : -(search + 1);
+        return current.owners[(index == current.points.length) ? 0 : index];
+    }
+
+    /**
+     * @return the IDs of every node on the ring.
+     */
+    public Set<String> getNodes() {
+        return snapshot.nodes;
+    }
+
+    private Snapshot build(final Set<String> nodes) {
+        final TreeMap<Long, String> ring = new TreeMap<>();
+        for (final String node : nodes) {
+            for (int virtualNode = 0; virtualNode < virtualNodes; virtualNode++) {
+                // nodes are sorted, so on the rare collision the lower node ID keeps the point on every ring built
+                ring.putIfAbsent(hash(node + '#' + virtualNode), node);
+            }
+        }
+
+        final long[] points = new long[ring.size()];
+        final String[] owners = new String[ring.size()];
+        int index = 0;
+        for (final Map.Entry<Long, String> point : ring.entrySet()) {
+            points[index] = point.getKey();
+            owners[index++] = point.getValue();
+        }
+        return new Snapshot(points, owners, nodes);
+    }
+
+    private static long hash(final String key) {
+        // FNV-1a, finished with the SplitMix64 mixer to spread the bits of short, similar keys
+        long hash = 0xCBF29CE484222325L;
+        for (final byte value : key.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (value & 0xFF)) * 0x100000001B3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static final class Snapshot
+    {
+        private final long[] points;
+        private final String[] owners;
+        private final Set<String> nodes;
+
+        private Snapshot(final long[] points, final String[] owners, final Set<String> nodes) {
+            this.points = points;
+            this.owners = owners;
+            this.nodes = nodes;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.nordryd.gamblybot.cluster;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+
+/**
+ * <p>
+ * A {@link TableTransport} between nodes running in the same process, which hands the table over directly.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class LoopbackTableTransport implements TableTransport
+{
+    private final Map<String, ClusterNode> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * Makes a node reachable through this transport.
+     *
+     * @param node the {@link ClusterNode} to register.
+     */
+    public void register(final ClusterNode node) {
+        nodes.put(node.getId(), node);
+    }
+
+    /**
+     * Makes a node unreachable through this transport.
+     *
+     * @param node the {@link ClusterNode} to unregister.
+     */
+    public void unregister(final ClusterNode node) {
+        nodes.remove(node.getId());
+    }
+
+    @Override
+    public void handOff(final String toNodeId, final String channelId, final BlackjackGame game) {
+        final ClusterNode node = nodes.get(toNodeId);
+        if (node == null) {
+            throw new IllegalStateException("Cannot hand a table off to unknown node " + toNodeId);
+        }
+        node.acceptTable(channelId, game);
+    }
+}
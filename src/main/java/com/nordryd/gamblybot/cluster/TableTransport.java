@@ -0,0 +1,22 @@
+package com.nordryd.gamblybot.cluster;
+
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+
+/**
+ * <p>
+ * Moves a table from the node that holds it to the node that now owns it.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public interface TableTransport
+{
+    /**
+     * Delivers a table to another node.
+     *
+     * @param toNodeId the ID of the node receiving the table.
+     * @param channelId the channel the table is played in.
+     * @param game the table's {@link BlackjackGame}.
+     */
+    void handOff(String toNodeId, String channelId, BlackjackGame game);
+}
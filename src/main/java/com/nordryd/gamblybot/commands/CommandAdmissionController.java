@@ -0,0 +1,120 @@
+package com.nordryd.gamblybot.commands;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * Decides whether a game command may run before it reaches any game state. Every user and every channel gets its own
+ * {@link TokenBucket}, and all commands are shed while the command executor's queue is above a threshold. Rejections
+ * cost a map lookup and a compare-and-set at most, so abusive traffic cannot slow down the tables behind it.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class CommandAdmissionController
+{
+    private final ConcurrentMap<String, TokenBucket> userBuckets;
+    private final ConcurrentMap<String, TokenBucket> channelBuckets;
+    private final RateLimit userLimit;
+    private final RateLimit channelLimit;
+    private final IntSupplier queueDepth;
+    private final int shedThreshold;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Constructor.
+     *
+     * @param userLimit the {@link RateLimit} for each user.
+     * @param channelLimit the {@link RateLimit} for each channel.
+     * @param queueDepth the current number of commands waiting on the command executor.
+     * @param shedThreshold the queue depth at which all commands are rejected.
+     * @param nanoClock a monotonic clock in nanoseconds, such as {@link System#nanoTime()}.
+     */
+    public CommandAdmissionController(final RateLimit userLimit, final RateLimit channelLimit,
+            final IntSupplier queueDepth, final int shedThreshold, final LongSupplier nanoClock) {
+        this.userBuckets = new ConcurrentHashMap<>();
+        this.channelBuckets = new ConcurrentHashMap<>();
+        this.userLimit = userLimit;
+        this.channelLimit = channelLimit;
+        this.queueDepth = queueDepth;
+        this.shedThreshold = shedThreshold;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Decides whether a command may run. The global queue is checked first, then the user, then the channel, so a
+     * command rejected at one stage does not take a token from the later ones. A command the channel rejects gives the
+     * user back the token it took.
+     *
+     * @param userId the user issuing the command.
+     * @param channelId the channel the command was issued in.
+     * @return the {@link Admission} decision.
+     */
+    public Admission admit(final String userId, final String channelId) {
+        if (queueDepth.getAsInt() >= shedThreshold) {
+            return Admission.SHED;
+        }
+
+        final TokenBucket userBucket = bucketFor(userBuckets, userId, userLimit);
+        if (!userBucket.tryAcquire()) {
+            return Admission.USER_LIMITED;
+        }
+
+        if (!bucketFor(channelBuckets, channelId, channelLimit).tryAcquire()) {
+            // the command never runs, so it should not count against the user either
+            userBucket.release();
+            return Admission.CHANNEL_LIMITED;
+        }
+
+        return Admission.ADMITTED;
+    }
+
+    /**
+     * Drops every bucket that has completely refilled. A full bucket behaves exactly like a new one, so this only
+     * reclaims memory from users and channels that have gone quiet.
+     */
+    public void evictIdle() {
+        userBuckets.values().removeIf(TokenBucket::isFull);
+        channelBuckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    /**
+     * @return how many user and channel buckets are currently being tracked.
+     */
+    public int getTrackedBucketCount() {
+        return userBuckets.size() + channelBuckets.size();
+    }
+
+    private TokenBucket bucketFor(final ConcurrentMap<String, TokenBucket> buckets, final String key,
+            final RateLimit limit) {
+        // get() first, since computeIfAbsent() locks the bin even when the key is already present
+        final TokenBucket bucket = buckets.get(key);
+        return (bucket != null) ? bucket : buckets.computeIfAbsent(key, newKey -> new TokenBucket(limit, nanoClock));
+    }
+
+    /**
+     * The possible outcomes of {@link #admit(String, String)}.
+     */
+    public enum Admission
+    {
+        /**
+         * The command may run.
+         */
+        ADMITTED,
+        /**
+         * The user has issued too many commands.
+         */
+        USER_LIMITED,
+        /**
+         * The channel has received too many commands.
+         */
+        CHANNEL_LIMITED,
+        /**
+         * The bot is overloaded and is rejecting all commands.
+         */
+        SHED;
+    }
+}
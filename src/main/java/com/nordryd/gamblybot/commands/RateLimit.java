@@ -0,0 +1,48 @@
+package com.nordryd.gamblybot.commands;
+
+/**
+ * <p>
+ * The burst capacity and sustained rate of a {@link TokenBucket}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class RateLimit
+{
+    private final int capacity;
+    private final int refillPerSecond;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity how many tokens may be taken in a single burst.
+     * @param refillPerSecond how many tokens are returned to the bucket every second.
+     * @throws IllegalArgumentException if either value is &le; 0
+     */
+    public RateLimit(final int capacity, final int refillPerSecond) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("A rate limit's capacity must be positive!");
+        }
+
+        if (refillPerSecond <= 0) {
+            throw new IllegalArgumentException("A rate limit's refill rate must be positive!");
+        }
+
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+    }
+
+    /**
+     * @return how many tokens may be taken in a single burst.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return how many tokens are returned to the bucket every second.
+     */
+    public int getRefillPerSecond() {
+        return refillPerSecond;
+    }
+}
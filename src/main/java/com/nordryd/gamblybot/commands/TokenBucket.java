@@ -0,0 +1,72 @@
+package com.nordryd.gamblybot.commands;
+
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * A lock-free token bucket. Rather than storing a token count that has to be refilled, the bucket tracks the
+ * theoretical time at which it will next be empty (the generic cell rate algorithm), so the entire state is a single
+ * {@code long} that is updated with one compare-and-set per acquired token.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class TokenBucket
+{
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * Constructor.
+     *
+     * @param limit the {@link RateLimit} to enforce.
+     * @param nanoClock a monotonic clock in nanoseconds, such as {@link System#nanoTime()}.
+     */
+    public TokenBucket(final RateLimit limit, final LongSupplier nanoClock) {
+        this.emissionIntervalNanos = SECONDS.toNanos(1) / limit.getRefillPerSecond();
+        this.burstToleranceNanos = emissionIntervalNanos * (limit.getCapacity() - 1);
+        this.nanoClock = nanoClock;
+        this.theoreticalArrival = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Takes a token from the bucket if one is available.
+     *
+     * @return {@code true} if a token was taken, {@code false} if the bucket is empty.
+     */
+    public boolean tryAcquire() {
+        final long now = nanoClock.getAsLong();
+        long current, next;
+        do {
+            current = theoreticalArrival.get();
+            final long base = max(current, now);
+            if ((base - now) > burstToleranceNanos) {
+                return false;
+            }
+            next = base + emissionIntervalNanos;
+        }
+        while (!theoreticalArrival.compareAndSet(current, next));
+        return true;
+    }
+
+    /**
+     * Puts back a token {@link #tryAcquire() taken} from the bucket that ended up going unused, such as when another
+     * limit turned away the work it was taken for.
+     */
+    public void release() {
+        theoreticalArrival.addAndGet(-emissionIntervalNanos);
+    }
+
+    /**
+     * @return {@code true} if the bucket has refilled completely, meaning it is indistinguishable from a new one.
+     */
+    public boolean isFull() {
+        return theoreticalArrival.get() <= nanoClock.getAsLong();
+    }
+}
@@ -0,0 +1,83 @@
+package com.nordryd.gamblybot.history;
+
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Action;
+
+/**
+ * <p>
+ * Packs the actions taken on a blackjack hand into a {@code long}, one byte per action: the low three bits hold the
+ * {@link Action} and the high five bits hold the hand's value when it was taken. A zero byte ends the sequence, so
+ * {@link #EMPTY} is zero and a sequence holds at most {@link #MAX_ACTIONS} actions.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public final class ActionSequence
+{
+    /**
+     * The sequence with no actions.
+     */
+    public static final long EMPTY = 0L;
+
+    /**
+     * The most actions a sequence can hold.
+     */
+    public static final int MAX_ACTIONS = Long.BYTES;
+
+    private static final int ACTION_BITS = 3, MAX_VALUE = 31;
+    private static final Action[] ACTIONS = Action.values();
+
+    private ActionSequence() {}
+
+    /**
+     * @param sequence the sequence so far.
+     * @param action the {@link Action} taken.
+     * @param handValue the hand's value when the action was taken.
+     * @return the sequence with the action added to the end.
+     * @throws IllegalArgumentException if handValue is not between 0 and 31.
+     * @throws IllegalStateException if the sequence is already full.
+     */
+    public static long append(final long sequence, final Action action, final int handValue) {
+        if ((handValue < 0) || (handValue > MAX_VALUE)) {
+            throw new IllegalArgumentException("A hand's value must be between 0 and " + MAX_VALUE + "!");
+        }
+
+        final int length = length(sequence);
+        if (length == MAX_ACTIONS) {
+            throw new IllegalStateException("An action sequence can hold at most " + MAX_ACTIONS + " actions!");
+        }
+        return sequence | (((long) encode(action, handValue)) << (length * Byte.SIZE));
+    }
+
+    /**
+     * @param sequence a sequence.
+     * @return how many actions it holds.
+     */
+    public static int length(final long sequence) {
+        return (Long.SIZE - Long.numberOfLeadingZeros(sequence) + Byte.SIZE - 1) / Byte.SIZE;
+    }
+
+    /**
+     * @param sequence a sequence.
+     * @param index the index of an action in it.
+     * @return the {@link Action} at that index.
+     */
+    public static Action actionAt(final long sequence, final int index) {
+        return ACTIONS[(int) ((sequence >>> (index * Byte.SIZE)) & ((1 << ACTION_BITS) - 1)) - 1];
+    }
+
+    /**
+     * @param sequence a sequence.
+     * @param index the index of an action in it.
+     * @return the hand's value when the action at that index was taken.
+     */
+    public static int handValueAt(final long sequence, final int index) {
+        return (int) ((sequence >>> ((index * Byte.SIZE) + ACTION_BITS)) & MAX_VALUE);
+    }
+
+    /**
+     * @return the byte an action is stored as, which is never zero.
+     */
+    static int encode(final Action action, final int handValue) {
+        return (handValue << ACTION_BITS) | (action.ordinal() + 1);
+    }
+}
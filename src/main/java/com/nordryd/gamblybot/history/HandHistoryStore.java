@@ -0,0 +1,309 @@
+package com.nordryd.gamblybot.history;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Action;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackHand;
+
+/**
+ * <p>
+ * Settled blackjack hands, stored on disk one column per file: the player, the dealer's upcard, the
+ * {@link ActionSequence actions} taken, the hand's final {@link BlackjackHand.State state} and its payout. Player IDs
+ * are stored once in a dictionary file, and as their index in it everywhere else.
+ * </p>
+ * <p>
+ * Hands are buffered as they are appended, and written out on {@link #flush()}. Queries memory-map the columns they
+ * need and scan them in tight loops over primitive buffers, so they only see hands that have been flushed. If the
+ * bot stopped part of the way through a flush, the store is cut back to the last hand every column holds when it is
+ * next opened.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class HandHistoryStore implements Closeable
+{
+    private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final int BUFFERED_HANDS = 4096;
+    private static final long ONES = 0x0101010101010101L, HIGHS = 0x8080808080808080L;
+    private static final byte BUSTED = (byte) BlackjackHand.State.BUSTED.ordinal();
+    private static final Rank[] RANKS = Rank.values();
+
+    private final Path directory;
+    private final FileChannel players, upcards, actions, states, payouts, dictionary;
+    private final ByteBuffer playerBuffer, upcardBuffer, actionBuffer, stateBuffer, payoutBuffer;
+    private final Map<String, Integer> playerIndexes;
+    private final List<String> newPlayers;
+
+    private volatile long rowCount;
+    private int bufferedRows;
+
+    private HandHistoryStore(final Path directory, final long rowCount, final Map<String, Integer> playerIndexes)
+            throws IOException {
+        this.directory = directory;
+        this.players = open(Column.PLAYER);
+        this.upcards = open(Column.UPCARD);
+        this.actions = open(Column.ACTIONS);
+        this.states = open(Column.STATE);
+        this.payouts = open(Column.PAYOUT);
+        this.dictionary = FileChannel.open(directory.resolve("players.dict"), CREATE, WRITE, APPEND);
+        this.playerBuffer = buffer(Column.PLAYER);
+        this.upcardBuffer = buffer(Column.UPCARD);
+        this.actionBuffer = buffer(Column.ACTIONS);
+        this.stateBuffer = buffer(Column.STATE);
+        this.payoutBuffer = buffer(Column.PAYOUT);
+        this.playerIndexes = playerIndexes;
+        this.newPlayers = new ArrayList<>();
+        this.rowCount = rowCount;
+        this.bufferedRows = 0;
+    }
+
+    /**
+     * Opens a store, creating it if it does not exist.
+     *
+     * @param directory the directory holding the store's files.
+     * @return the opened {@link HandHistoryStore}.
+     * @throws IOException if the store could not be opened.
+     */
+    public static HandHistoryStore open(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        long rowCount = Long.MAX_VALUE;
+        for (final Column column : Column.values()) {
+            final Path file = column.fileIn(directory);
+            rowCount = Math.min(rowCount, Files.exists(file) ? (Files.size(file) / column.width) : 0L);
+        }
+
+        // cut every column back to the rows they all hold
+        for (final Column column : Column.values()) {
+            try (final FileChannel channel = FileChannel.open(column.fileIn(directory), CREATE, WRITE)) {
+                channel.truncate(rowCount * column.width);
+            }
+        }
+
+        final Map<String, Integer> playerIndexes = new HashMap<>();
+        final Path dictionary = directory.resolve("players.dict");
+        if (Files.exists(dictionary)) {
+            for (final String playerId : Files.readAllLines(dictionary, UTF_8)) {
+                playerIndexes.putIfAbsent(playerId, playerIndexes.size());
+            }
+        }
+        return new HandHistoryStore(directory, rowCount, playerIndexes);
+    }
+
+    /**
+     * Adds a settled hand to the store. It is written out on the next {@link #flush()}.
+     *
+     * @param playerId the player who played the hand.
+     * @param upcard the dealer's upcard.
+     * @param actionSequence the {@link ActionSequence actions} taken on the hand.
+     * @param state the hand's final {@link BlackjackHand.State state}.
+     * @param payout the chips the hand won, or lost if negative.
+     * @throws IOException if the buffered hands had to be flushed and could not be.
+     */
+    public synchronized void append(final String playerId, final Card upcard, final long actionSequence,
+            final BlackjackHand.State state, final int payout) throws IOException {
+        Integer playerIndex = playerIndexes.get(playerId);
+        if (playerIndex == null) {
+            playerIndex = playerIndexes.size();
+            playerIndexes.put(playerId, playerIndex);
+            newPlayers.add(playerId);
+        }
+
+        playerBuffer.putInt(playerIndex);
+        upcardBuffer.put((byte) upcard.getId());
+        actionBuffer.putLong(actionSequence);
+        stateBuffer.put((byte) state.ordinal());
+        payoutBuffer.putInt(payout);
+        if (++bufferedRows == BUFFERED_HANDS) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes every buffered hand to disk, making them visible to queries.
+     *
+     * @throws IOException if the hands could not be written.
+     */
+    public synchronized void flush() throws IOException {
+        if (!newPlayers.isEmpty()) {
+            final StringBuilder lines = new StringBuilder();
+            newPlayers.forEach(playerId -> lines.append(playerId).append('\n'));
+            final ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(UTF_8));
+            while (bytes.hasRemaining()) {
+                dictionary.write(bytes);
+            }
+            newPlayers.clear();
+        }
+
+        write(players, playerBuffer);
+        write(upcards, upcardBuffer);
+        write(actions, actionBuffer);
+        write(states, stateBuffer);
+        write(payouts, payoutBuffer);
+        rowCount += bufferedRows;
+        bufferedRows = 0;
+    }
+
+    /**
+     * @return how many hands have been flushed.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the share of flushed hands that won chips, by the {@link Rank} of the dealer's upcard. Ranks with no
+     * hands are left out.
+     * @throws IOException if the columns could not be read.
+     */
+    public Map<Rank, Double> winRateByUpcard() throws IOException {
+        final int rows = (int) rowCount;
+        final ByteBuffer upcardColumn = map(Column.UPCARD, rows);
+        final IntBuffer payoutColumn = map(Column.PAYOUT, rows).asIntBuffer();
+        final int[] hands = new int[Card.CARD_COUNT], wins = new int[Card.CARD_COUNT];
+        for (int row = 0; row < rows; row++) {
+            final int upcard = upcardColumn.get(row);
+            hands[upcard]++;
+            // 1 if the payout is positive, without branching
+            wins[upcard] += (-payoutColumn.get(row)) >>> (Integer.SIZE - 1);
+        }
+
+        final int[] handsByRank = new int[RANKS.length], winsByRank = new int[RANKS.length];
+        for (int card = 0; card < Card.CARD_COUNT; card++) {
+            handsByRank[card % RANKS.length] += hands[card];
+            winsByRank[card % RANKS.length] += wins[card];
+        }
+
+        final Map<Rank, Double> winRates = new EnumMap<>(Rank.class);
+        for (final Rank rank : RANKS) {
+            if (handsByRank[rank.ordinal()] > 0) {
+                winRates.put(rank, (double) winsByRank[rank.ordinal()] / handsByRank[rank.ordinal()]);
+            }
+        }
+        return winRates;
+    }
+
+    /**
+     * @param handValue a hand value.
+     * @return the share of flushed hands that hit at that value and went on to bust, or {@link Double#NaN} if no
+     * hands hit at that value.
+     * @throws IOException if the columns could not be read.
+     */
+    public double bustRateAfterHitting(final int handValue) throws IOException {
+        final int rows = (int) rowCount;
+        final LongBuffer actionColumn = map(Column.ACTIONS, rows).asLongBuffer();
+        final ByteBuffer stateColumn = map(Column.STATE, rows);
+        final long pattern = ONES * ActionSequence.encode(Action.HIT, handValue);
+        int hits = 0, busts = 0;
+        for (int row = 0; row < rows; row++) {
+            // a zero byte in the difference means the hit appears somewhere in the sequence
+            final long difference = actionColumn.get(row) ^ pattern;
+            final int hit = (((difference - ONES) & ~difference & HIGHS) != 0) ? 1 : 0;
+            hits += hit;
+            busts += hit & ((stateColumn.get(row) == BUSTED) ? 1 : 0);
+        }
+        return (hits == 0) ? Double.NaN : ((double) busts / hits);
+    }
+
+    /**
+     * @param playerId a player.
+     * @return the share of the player's flushed hands that won chips, or {@link Double#NaN} if they have none.
+     * @throws IOException if the columns could not be read.
+     */
+    public double winRateOf(final String playerId) throws IOException {
+        final Integer playerIndex;
+        synchronized (this) {
+            playerIndex = playerIndexes.get(playerId);
+        }
+
+        if (playerIndex == null) {
+            return Double.NaN;
+        }
+
+        final int rows = (int) rowCount, player = playerIndex;
+        final IntBuffer playerColumn = map(Column.PLAYER, rows).asIntBuffer();
+        final IntBuffer payoutColumn = map(Column.PAYOUT, rows).asIntBuffer();
+        int hands = 0, wins = 0;
+        for (int row = 0; row < rows; row++) {
+            final int match = (playerColumn.get(row) == player) ? 1 : 0;
+            hands += match;
+            wins += match & ((-payoutColumn.get(row)) >>> (Integer.SIZE - 1));
+        }
+        return (hands == 0) ? Double.NaN : ((double) wins / hands);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        players.close();
+        upcards.close();
+        actions.close();
+        states.close();
+        payouts.close();
+        dictionary.close();
+    }
+
+    private ByteBuffer map(final Column column, final int rows) throws IOException {
+        try (final FileChannel channel = FileChannel.open(column.fileIn(directory), READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) rows * column.width).order(BYTE_ORDER);
+        }
+    }
+
+    private FileChannel open(final Column column) throws IOException {
+        return FileChannel.open(column.fileIn(directory), CREATE, WRITE, APPEND);
+    }
+
+    private static ByteBuffer buffer(final Column column) {
+        return ByteBuffer.allocate(BUFFERED_HANDS * column.width).order(BYTE_ORDER);
+    }
+
+    private static void write(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * The store's columns, and how many bytes each takes per hand.
+     */
+    private enum Column
+    {
+        PLAYER(Integer.BYTES),
+        UPCARD(Byte.BYTES),
+        ACTIONS(Long.BYTES),
+        STATE(Byte.BYTES),
+        PAYOUT(Integer.BYTES);
+
+        private final int width;
+
+        Column(final int width) {
+            this.width = width;
+        }
+
+        private Path fileIn(final Path directory) {
+            return directory.resolve(name().toLowerCase() + ".col");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.nordryd.gamblybot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * A flight recorder event for a deck running out of cards and every card being returned to it.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@Name("com.nordryd.gamblybot.DeckReshuffle")
+@Label("Deck Reshuffle")
+@Category({ "GamblyBot", "Decks" })
+@Description("Every card was returned to a deck")
+@StackTrace(false)
+public class DeckReshuffleEvent extends Event
+{
+    @Label("Pooled")
+    @Description("Whether the new order was taken from a deck pool, rather than drawn at random")
+    boolean pooled;
+
+    /**
+     * Records a deck being reshuffled, if the event is enabled.
+     *
+     * @param pooled {@code true} if the new order was taken from a deck pool.
+     */
+    public static void emit(final boolean pooled) {
+        final DeckReshuffleEvent event = new DeckReshuffleEvent();
+        if (event.isEnabled()) {
+            event.pooled = pooled;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.nordryd.gamblybot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * A flight recorder event for the dealer's cards of a new round being dealt.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@Name("com.nordryd.gamblybot.RoundDealt")
+@Label("Round Dealt")
+@Category({ "GamblyBot", "Rounds" })
+@Description("The dealer's cards of a new round were dealt")
+@StackTrace(false)
+public class RoundDealtEvent extends Event
+{
+    @Label("Game")
+    String game;
+
+    @Label("Round")
+    @Description("Identifies the round, and matches the Round Settled event for the same round")
+    int round;
+
+    @Label("Cards Left In Deck")
+    int cardsRemaining;
+
+    /**
+     * Records a round being dealt, if the event is enabled.
+     *
+     * @param game the name of the game being played.
+     * @param round identifies the round.
+     * @param cardsRemaining how many cards are left in the deck after the deal.
+     */
+    public static void emit(final String game, final int round, final int cardsRemaining) {
+        final RoundDealtEvent event = new RoundDealtEvent();
+        if (event.isEnabled()) {
+            event.game = game;
+            event.round = round;
+            event.cardsRemaining = cardsRemaining;
+            event.commit();
+        }
+    }
+}
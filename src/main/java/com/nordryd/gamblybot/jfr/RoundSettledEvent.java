@@ -0,0 +1,61 @@
+package com.nordryd.gamblybot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * A flight recorder event for the dealer finishing a round, once every player has taken their turn.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@Name("com.nordryd.gamblybot.RoundSettled")
+@Label("Round Settled")
+@Category({ "GamblyBot", "Rounds" })
+@Description("The dealer played out their hand, finishing the round")
+@StackTrace(false)
+public class RoundSettledEvent extends Event
+{
+    @Label("Game")
+    String game;
+
+    @Label("Round")
+    @Description("Identifies the round, and matches the Round Dealt event for the same round")
+    int round;
+
+    @Label("Players")
+    int players;
+
+    @Label("Dealer Value")
+    int dealerValue;
+
+    @Label("Dealer Busted")
+    boolean dealerBusted;
+
+    /**
+     * Records a round being settled, if the event is enabled.
+     *
+     * @param game the name of the game being played.
+     * @param round identifies the round.
+     * @param players how many players took part.
+     * @param dealerValue the value of the dealer's final hand.
+     * @param dealerBusted {@code true} if the dealer busted.
+     */
+    public static void emit(final String game, final int round, final int players, final int dealerValue,
+            final boolean dealerBusted) {
+        final RoundSettledEvent event = new RoundSettledEvent();
+        if (event.isEnabled()) {
+            event.game = game;
+            event.round = round;
+            event.players = players;
+            event.dealerValue = dealerValue;
+            event.dealerBusted = dealerBusted;
+            event.commit();
+        }
+    }
+}
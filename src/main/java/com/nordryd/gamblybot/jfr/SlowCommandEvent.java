@@ -0,0 +1,79 @@
+package com.nordryd.gamblybot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * <p>
+ * A flight recorder event for a move that took longer than its threshold to apply at a table. The event times only
+ * the move itself; how long it waited beforehand is recorded alongside it.
+ * </p>
+ * <p>
+ * Start one with {@link #start()} before applying a move, and {@link #finish(String, int, Object, long, boolean)
+ * finish} it afterwards. Nothing but the start time is recorded unless the move turns out to be slow.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@Name("com.nordryd.gamblybot.SlowCommand")
+@Label("Slow Command")
+@Category({ "GamblyBot", "Tables" })
+@Description("A move took longer than the threshold to apply at a table")
+@StackTrace(false)
+@Threshold("20 ms")
+public class SlowCommandEvent extends Event
+{
+    @Label("Table ID")
+    String tableId;
+
+    @Label("Seat")
+    int seat;
+
+    @Label("Move")
+    String move;
+
+    @Label("Queued")
+    @Timespan(Timespan.NANOSECONDS)
+    long queuedNanos;
+
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * @return a started event, to {@link #finish(String, int, Object, long, boolean) finish} once the move has been
+     * applied.
+     */
+    public static SlowCommandEvent start() {
+        final SlowCommandEvent event = new SlowCommandEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stops timing the move, and records it if it was slow and the event is enabled.
+     *
+     * @param tableId the ID of the table the move was made at.
+     * @param seat the seat that made the move.
+     * @param move the move.
+     * @param queuedNanos how long the move waited before it was applied.
+     * @param failed {@code true} if the move was rejected.
+     */
+    public void finish(final String tableId, final int seat, final Object move, final long queuedNanos,
+            final boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.tableId = tableId;
+            this.seat = seat;
+            this.move = String.valueOf(move);
+            this.queuedNanos = queuedNanos;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.nordryd.gamblybot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * A flight recorder event for a player splitting a hand.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@Name("com.nordryd.gamblybot.Split")
+@Label("Split")
+@Category({ "GamblyBot", "Rounds" })
+@Description("A player split a hand in two")
+@StackTrace(false)
+public class SplitEvent extends Event
+{
+    @Label("Rank")
+    String rank;
+
+    @Label("Hands")
+    @Description("How many hands the player holds after the split")
+    int hands;
+
+    /**
+     * Records a split, if the event is enabled.
+     *
+     * @param rank the rank of the card that was split.
+     * @param hands how many hands the player holds after the split.
+     */
+    public static void emit(final String rank, final int hands) {
+        final SplitEvent event = new SplitEvent();
+        if (event.isEnabled()) {
+            event.rank = rank;
+            event.hands = hands;
+            event.commit();
+        }
+    }
+}
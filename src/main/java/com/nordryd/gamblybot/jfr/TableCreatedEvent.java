@@ -0,0 +1,44 @@
+package com.nordryd.gamblybot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * A flight recorder event for a table being opened.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@Name("com.nordryd.gamblybot.TableCreated")
+@Label("Table Created")
+@Category({ "GamblyBot", "Tables" })
+@Description("A table was opened")
+@StackTrace(false)
+public class TableCreatedEvent extends Event
+{
+    @Label("Table ID")
+    String tableId;
+
+    @Label("Open Tables")
+    int tableCount;
+
+    /**
+     * Records a table being opened, if the event is enabled.
+     *
+     * @param tableId the table's ID.
+     * @param tableCount how many tables are open, including this one.
+     */
+    public static void emit(final String tableId, final int tableCount) {
+        final TableCreatedEvent event = new TableCreatedEvent();
+        if (event.isEnabled()) {
+            event.tableId = tableId;
+            event.tableCount = tableCount;
+            event.commit();
+        }
+    }
+}
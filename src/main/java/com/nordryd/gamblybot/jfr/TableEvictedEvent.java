@@ -0,0 +1,44 @@
+package com.nordryd.gamblybot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * A flight recorder event for a table being closed and dropped from memory.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@Name("com.nordryd.gamblybot.TableEvicted")
+@Label("Table Evicted")
+@Category({ "GamblyBot", "Tables" })
+@Description("A table was closed and dropped from memory")
+@StackTrace(false)
+public class TableEvictedEvent extends Event
+{
+    @Label("Table ID")
+    String tableId;
+
+    @Label("Open Tables")
+    int tableCount;
+
+    /**
+     * Records a table being evicted, if the event is enabled.
+     *
+     * @param tableId the table's ID.
+     * @param tableCount how many tables are still open.
+     */
+    public static void emit(final String tableId, final int tableCount) {
+        final TableEvictedEvent event = new TableEvictedEvent();
+        if (event.isEnabled()) {
+            event.tableId = tableId;
+            event.tableCount = tableCount;
+            event.commit();
+        }
+    }
+}
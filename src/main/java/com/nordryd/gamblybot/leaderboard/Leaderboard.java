@@ -0,0 +1,154 @@
+package com.nordryd.gamblybot.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * <p>
+ * Players ranked by their total winnings, kept sorted as winnings are recorded so reading the top of the board never
+ * means sorting every player. Each player's {@link Standing} is replaced atomically with respect to other updates for
+ * the same player, while updates for different players and reads proceed concurrently.
+ * </p>
+ * <p>
+ * A new standing is ranked before the one it replaces is removed, so a read that starts while a player's winnings
+ * change still finds the player, and {@link #top(int)} skips the brief second entry this leaves. Reads are otherwise
+ * weakly consistent: one that races an update may see the standing from either side of it, and a player whose
+ * standing rises past the point a read has already reached is missed by that read.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class Leaderboard
+{
+    private static final Comparator<Standing> BY_WINNINGS =
+            Comparator.comparingLong(Standing::getWinnings).reversed().thenComparing(Standing::getPlayerId);
+
+    private final ConcurrentMap<String, Standing> standings;
+    private final ConcurrentSkipListSet<Standing> ranking;
+
+    public Leaderboard() {
+        this.standings = new ConcurrentHashMap<>();
+        this.ranking = new ConcurrentSkipListSet<>(BY_WINNINGS);
+    }
+
+    /**
+     * Adds to a player's winnings.
+     *
+     * @param playerId the player.
+     * @param winnings how much the player won, or lost if negative.
+     */
+    public void record(final String playerId, final long winnings) {
+        standings.compute(playerId, (id, previous) -> {
+            if (previous == null) {
+                final Standing standing = new Standing(id, winnings);
+                ranking.add(standing);
+                return standing;
+            }
+
+            if (winnings == 0) {
+                // the new standing would rank equal to the old one, so the set would keep only one of them
+                return previous;
+            }
+
+            final Standing standing = new Standing(id, previous.getWinnings() + winnings);
+            ranking.add(standing);
+            ranking.remove(previous);
+            return standing;
+        });
+    }
+
+    /**
+     * @param count how many standings to return.
+     * @return the standings of up to count players with the highest winnings, best first.
+     * @throws IllegalArgumentException if count &lt; 1
+     */
+    public List<Standing> top(final int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Must ask for at least one standing!");
+        }
+
+        final List<Standing> top = new ArrayList<>(Math.min(count, standings.size()));
+        final Set<String> playerIds = new HashSet<>();
+        final Iterator<Standing> iterator = ranking.iterator();
+        while ((top.size() < count) && iterator.hasNext()) {
+            final Standing standing = iterator.next();
+            // a player being updated is briefly ranked twice, and only the higher of the two is kept
+            if (playerIds.add(standing.getPlayerId())) {
+                top.add(standing);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Finds a player's rank by counting the players ahead of them, so players near the top are found fastest. Another
+     * player whose winnings change at the same time may briefly be counted twice.
+     *
+     * @param playerId the player.
+     * @return the player's rank, starting from 1, or 0 if they have no winnings recorded.
+     */
+    public int rankOf(final String playerId) {
+        final Standing standing = standings.get(playerId);
+        if (standing == null) {
+            return 0;
+        }
+
+        int ahead = 0;
+        for (final Standing other : ranking.headSet(standing)) {
+            // skips the player's own old standing, should it not have been removed yet
+            if (!playerId.equals(other.getPlayerId())) {
+                ahead++;
+            }
+        }
+        return ahead + 1;
+    }
+
+    /**
+     * @param playerId the player.
+     * @return the player's {@link Standing}, or {@code null} if they have no winnings recorded.
+     */
+    public Standing standingOf(final String playerId) {
+        return standings.get(playerId);
+    }
+
+    /**
+     * @return how many players are on the board.
+     */
+    public int getSize() {
+        return standings.size();
+    }
+
+    /**
+     * A player's total winnings at the time they were recorded.
+     */
+    public static final class Standing
+    {
+        private final String playerId;
+        private final long winnings;
+
+        private Standing(final String playerId, final long winnings) {
+            this.playerId = playerId;
+            this.winnings = winnings;
+        }
+
+        public String getPlayerId() {
+            return playerId;
+        }
+
+        public long getWinnings() {
+            return winnings;
+        }
+
+        @Override
+        public String toString() {
+            return playerId + ": " + winnings;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.nordryd.gamblybot.leaderboard;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackPlayer;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRuleSet;
+import com.nordryd.gamblybot.cardgames.games.poker.PokerGame;
+
+/**
+ * <p>
+ * Keeps the all-time, daily and weekly {@link Leaderboard leaderboards} up to date as rounds are settled. Daily and
+ * weekly boards start over at midnight and on Mondays, in the time zone of the service's {@link Clock}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class LeaderboardService
+{
+    private final Clock clock;
+    private final BlackjackRuleSet ruleSet;
+    private final Map<Window, AtomicReference<Period>> periods;
+
+    /**
+     * Constructor for blackjack played by the {@link BlackjackRuleSet#DEFAULT default} house rules.
+     *
+     * @param clock the {@link Clock} that decides which day and week it is.
+     */
+    public LeaderboardService(final Clock clock) {
+        this(clock, BlackjackRuleSet.DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param clock the {@link Clock} that decides which day and week it is.
+     * @param ruleSet the {@link BlackjackRuleSet house rules} blackjack hands are paid by.
+     */
+    public LeaderboardService(final Clock clock, final BlackjackRuleSet ruleSet) {
+        this.clock = clock;
+        this.ruleSet = ruleSet;
+        this.periods = new EnumMap<>(Window.class);
+        final long today = today();
+        for (final Window window : Window.values()) {
+            periods.put(window, new AtomicReference<>(new Period(window.periodOf(today))));
+        }
+    }
+
+    /**
+     * Adds to a player's winnings on every board.
+     *
+     * @param playerId the player.
+     * @param winnings how much the player won, or lost if negative.
+     */
+    public void record(final String playerId, final long winnings) {
+        final long today = today();
+        for (final Window window : Window.values()) {
+            current(window, today).record(playerId, winnings);
+        }
+    }
+
+    /**
+     * Records a settled blackjack hand, paid by the service's {@link BlackjackRuleSet house rules}.
+     *
+     * @param playerId the player.
+     * @param wager the hand's wager.
+     * @param outcome how the hand fared.
+     */
+    public void recordBlackjack(final String playerId, final int wager, final BlackjackGame.Outcome outcome) {
+        if (!BlackjackGame.Outcome.PUSH.equals(outcome)) {
+            record(playerId, ruleSet.getWinnings(wager, outcome));
+        }
+    }
+
+    /**
+     * Records a player's result from a finished blackjack round, paid by the game's own house rules, including any
+     * double downs, splits and surrender.
+     *
+     * @param playerId the player.
+     * @param game the {@link BlackjackGame}.
+     * @param player the {@link BlackjackPlayer}.
+     */
+    public void recordBlackjack(final String playerId, final BlackjackGame game, final BlackjackPlayer player) {
+        record(playerId, game.getWinnings(player));
+    }
+
+    /**
+     * Records a seat's result from a finished poker hand: what it won, less what it put in.
+     *
+     * @param playerId the player in the seat.
+     * @param game the {@link PokerGame}.
+     * @param seat the seat.
+     */
+    public void recordPoker(final String playerId, final PokerGame game, final int seat) {
+        record(playerId, game.getWinnings(seat) - game.getContribution(seat));
+    }
+
+    /**
+     * @param window the {@link Window} to look at.
+     * @param count how many standings to return.
+     * @return the standings of up to count players with the highest winnings in the window, best first.
+     */
+    public List<Leaderboard.Standing> top(final Window window, final int count) {
+        return get(window).top(count);
+    }
+
+    /**
+     * @param window the {@link Window} to look at.
+     * @param playerId the player.
+     * @return the player's rank in the window, starting from 1, or 0 if they have no winnings recorded in it.
+     */
+    public int rankOf(final Window window, final String playerId) {
+        return get(window).rankOf(playerId);
+    }
+
+    /**
+     * @param window the {@link Window} to look at.
+     * @return the {@link Leaderboard} for the current period of the window.
+     */
+    public Leaderboard get(final Window window) {
+        return current(window, today());
+    }
+
+    private Leaderboard current(final Window window, final long today) {
+        final AtomicReference<Period> reference = periods.get(window);
+        final long index = window.periodOf(today);
+        Period period = reference.get();
+        while (period.index < index) {
+            // only the first caller to see the new period replaces the board; everyone else uses theirs
+            reference.compareAndSet(period, new Period(index));
+            period = reference.get();
+        }
+        // a caller that read the date just before midnight lands on the new board rather than bringing back the old
+        return period.board;
+    }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    /**
+     * One period of a {@link Window}, and its board.
+     */
+    private static final class Period
+    {
+        private final long index;
+        private final Leaderboard board;
+
+        private Period(final long index) {
+            this.index = index;
+            this.board = new Leaderboard();
+        }
+    }
+
+    /**
+     * The stretches of time a leaderboard can cover.
+     */
+    public enum Window
+    {
+        ALL_TIME,
+        DAILY,
+        WEEKLY;
+
+        // 1970-01-01 was a Thursday, so shifting by three days starts every week on a Monday
+        private static final int DAYS_PER_WEEK = 7, DAYS_FROM_MONDAY_TO_EPOCH = 3;
+
+        private long periodOf(final long epochDay) {
+            switch (this) {
+                case DAILY:
+                    return epochDay;
+                case WEEKLY:
+                    return Math.floorDiv(epochDay + DAYS_FROM_MONDAY_TO_EPOCH, DAYS_PER_WEEK);
+                default:
+                    return 0L;
+            }
+        }
+    }
+}
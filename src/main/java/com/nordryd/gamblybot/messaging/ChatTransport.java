@@ -0,0 +1,30 @@
+package com.nordryd.gamblybot.messaging;
+
+/**
+ * <p>
+ * Sends and edits messages on a chat platform. Every call counts against the platform's rate limits, so messages
+ * should go through an {@link OutboundDispatcher} rather than straight to a transport.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public interface ChatTransport
+{
+    /**
+     * Posts a new message.
+     *
+     * @param channelId the channel to post in.
+     * @param content the message's text.
+     * @return the ID of the new message, for {@link #edit(String, String, String) editing} it later.
+     */
+    String send(String channelId, String content);
+
+    /**
+     * Replaces the text of a message that was already posted.
+     *
+     * @param channelId the channel the message was posted in.
+     * @param messageId the ID of the message, as returned by {@link #send(String, String)}.
+     * @param content the message's new text.
+     */
+    void edit(String channelId, String messageId, String content);
+}
@@ -0,0 +1,63 @@
+package com.nordryd.gamblybot.messaging;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A {@link ChatTransport} that keeps every message in memory and logs it, instead of reaching a chat platform. It is
+ * meant for running the bot locally and for tests.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class LoopbackChatTransport implements ChatTransport
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoopbackChatTransport.class);
+
+    private final Map<String, Map<String, String>> channels = new LinkedHashMap<>();
+    private final AtomicLong nextMessageId = new AtomicLong();
+    private final AtomicLong calls = new AtomicLong();
+
+    @Override
+    public synchronized String send(final String channelId, final String content) {
+        calls.incrementAndGet();
+        final String messageId = Long.toString(nextMessageId.incrementAndGet());
+        channels.computeIfAbsent(channelId, channel -> new LinkedHashMap<>()).put(messageId, content);
+        LOGGER.info("[{}] #{}: {}", channelId, messageId, content);
+        return messageId;
+    }
+
+    @Override
+    public synchronized void edit(final String channelId, final String messageId, final String content) {
+        calls.incrementAndGet();
+        final Map<String, String> messages = channels.get(channelId);
+        if ((messages == null) || !messages.containsKey(messageId)) {
+            throw new IllegalStateException("Cannot edit unknown message " + messageId + " in " + channelId + "!");
+        }
+        messages.put(messageId, content);
+        LOGGER.info("[{}] #{} (edited): {}", channelId, messageId, content);
+    }
+
+    /**
+     * @param channelId the channel to look up.
+     * @return the current text of every message posted in the channel, oldest first.
+     */
+    public synchronized List<String> getMessages(final String channelId) {
+        final Map<String, String> messages = channels.get(channelId);
+        return (messages == null) ? new ArrayList<>() : new ArrayList<>(messages.values());
+    }
+
+    /**
+     * @return how many times a message was sent or edited.
+     */
+    public long getCallCount() {
+        return calls.get();
+    }
+}
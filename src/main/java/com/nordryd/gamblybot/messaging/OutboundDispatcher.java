@@ -0,0 +1,290 @@
+package com.nordryd.gamblybot.messaging;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.nordryd.gamblybot.commands.RateLimit;
+import com.nordryd.gamblybot.commands.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Sends the bot's messages through a {@link ChatTransport} without tripping the platform's rate limits. Messages to a
+ * channel are held for a short window before anything is sent, and everything that arrives in the meantime is
+ * coalesced:
+ * </p>
+ * <ul>
+ * <li>{@link #update(String, String, String) Updates} replace the text of a live message, such as a table being
+ * played, so only the latest text for each message is sent, as a single edit.</li>
+ * <li>{@link #announce(String, String) Announcements} are combined into as few new messages as will fit them.</li>
+ * </ul>
+ * <p>
+ * Each channel is its own rate-limit route with its own {@link TokenBucket}, and every route also draws from one
+ * global bucket. A channel that is out of tokens keeps coalescing until it has one again, so a busy table sends fewer,
+ * fuller messages instead of falling behind.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class OutboundDispatcher
+{
+    /**
+     * The longest message the dispatcher will send.
+     */
+    public static final int MAX_MESSAGE_LENGTH = 2000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboundDispatcher.class);
+    private static final int LIVE_MESSAGES_PER_CHANNEL = 16;
+
+    private final ChatTransport transport;
+    private final RateLimit routeLimit;
+    private final TokenBucket globalBucket;
+    private final long windowNanos;
+    private final ScheduledExecutorService scheduler;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, Channel> channels;
+    private final AtomicLong sent, edited, coalesced, throttled, failed;
+
+    /**
+     * Constructor.
+     *
+     * @param transport the {@link ChatTransport} to send messages through.
+     * @param routeLimit the {@link RateLimit} for each channel.
+     * @param globalLimit the {@link RateLimit} for all channels together.
+     * @param window how long to hold a channel's messages before sending them.
+     * @param unit the {@link TimeUnit} of the window.
+     * @param scheduler the {@link ScheduledExecutorService} that sends messages once their window has passed.
+     * @param nanoClock a monotonic clock in nanoseconds, such as {@link System#nanoTime()}.
+     * @throws IllegalArgumentException if the window &lt; 0
+     */
+    public OutboundDispatcher(final ChatTransport transport, final RateLimit routeLimit, final RateLimit globalLimit,
+            final long window, final TimeUnit unit, final ScheduledExecutorService scheduler,
+            final LongSupplier nanoClock) {
+        if (window < 0) {
+            throw new IllegalArgumentException("A coalescing window cannot be negative!");
+        }
+
+        this.transport = transport;
+        this.routeLimit = routeLimit;
+        this.globalBucket = new TokenBucket(globalLimit, nanoClock);
+        this.windowNanos = unit.toNanos(window);
+        this.scheduler = scheduler;
+        this.nanoClock = nanoClock;
+        this.channels = new ConcurrentHashMap<>();
+        this.sent = new AtomicLong();
+        this.edited = new AtomicLong();
+        this.coalesced = new AtomicLong();
+        this.throttled = new AtomicLong();
+        this.failed = new AtomicLong();
+    }
+
+    /**
+     * Sets the text of a live message. The first update for a message posts it, and later ones edit it; any update
+     * still waiting to be sent is replaced.
+     *
+     * @param channelId the channel the message is in.
+     * @param messageKey what the message is about, such as a table, so updates to it can be told apart from others.
+     * @param content the message's text.
+     */
+    public void update(final String channelId, final String messageKey, final String content) {
+        final Channel channel = channelFor(channelId);
+        synchronized (channel) {
+            if (channel.updates.put(messageKey, content) != null) {
+                coalesced.incrementAndGet();
+            }
+            scheduleIfIdle(channel);
+        }
+    }
+
+    /**
+     * Posts a line in a new message, along with any other lines announced in the channel within the window.
+     *
+     * @param channelId the channel to post in.
+     * @param line the text to post.
+     * @throws IllegalArgumentException if the line is longer than {@value #MAX_MESSAGE_LENGTH} characters.
+     */
+    public void announce(final String channelId, final String line) {
+        if (line.length() > MAX_MESSAGE_LENGTH) {
+            throw new IllegalArgumentException(
+                    "An announcement cannot be longer than " + MAX_MESSAGE_LENGTH + " characters!");
+        }
+
+        final Channel channel = channelFor(channelId);
+        synchronized (channel) {
+            final StringBuilder last = channel.announcements.peekLast();
+            if ((last != null) && ((last.length() + 1 + line.length()) <= MAX_MESSAGE_LENGTH)) {
+                last.append('\n').append(line);
+                coalesced.incrementAndGet();
+            }
+            else {
+                channel.announcements.add(new StringBuilder(line));
+            }
+            scheduleIfIdle(channel);
+        }
+    }
+
+    /**
+     * Stops sending messages. Anything still waiting to be sent is dropped.
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * @return how many new messages have been posted.
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * @return how many messages have been edited.
+     */
+    public long getEditedCount() {
+        return edited.get();
+    }
+
+    /**
+     * @return how many updates and announcements were folded into another instead of being sent on their own.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return how many times a channel had to wait for its rate limit.
+     */
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    /**
+     * @return how many messages the transport failed to deliver.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    private Channel channelFor(final String channelId) {
+        return channels.computeIfAbsent(channelId, id -> new Channel(id, new TokenBucket(routeLimit, nanoClock)));
+    }
+
+    private void scheduleIfIdle(final Channel channel) {
+        if (!channel.scheduled) {
+            channel.scheduled = true;
+            scheduler.schedule(() -> flush(channel), windowNanos, NANOSECONDS);
+        }
+    }
+
+    /**
+     * Sends one message for a channel, then schedules itself again if the channel has more waiting. Only one flush
+     * runs for a channel at a time, so the transport sees a channel's messages in order.
+     */
+    private void flush(final Channel channel) {
+        final String messageKey, content, messageId;
+        synchronized (channel) {
+            final boolean channelAcquired = channel.bucket.tryAcquire();
+            if (!channelAcquired || !globalBucket.tryAcquire()) {
+                if (channelAcquired) {
+                    // only the global limit turned the message away, so the channel keeps its token for the retry
+                    channel.bucket.release();
+                }
+                throttled.incrementAndGet();
+                scheduler.schedule(() -> flush(channel), windowNanos, NANOSECONDS);
+                return;
+            }
+
+            // live messages show the current state of play, so they go out ahead of announcements
+            final Iterator<Map.Entry<String, String>> updates = channel.updates.entrySet().iterator();
+            if (updates.hasNext()) {
+                final Map.Entry<String, String> update = updates.next();
+                updates.remove();
+                messageKey = update.getKey();
+                content = update.getValue();
+                messageId = channel.liveMessages.get(messageKey);
+            }
+            else {
+                messageKey = null;
+                content = channel.announcements.poll().toString();
+                messageId = null;
+            }
+        }
+
+        String deliveredId = null;
+        try {
+            if (messageId == null) {
+                deliveredId = transport.send(channel.id, content);
+                sent.incrementAndGet();
+            }
+            else {
+                transport.edit(channel.id, messageId, content);
+                deliveredId = messageId;
+                edited.incrementAndGet();
+            }
+        }
+        catch (final RuntimeException exception) {
+            // rethrowing would strand the channel's other messages, and the next update is sent fresh anyway
+            failed.incrementAndGet();
+            LOGGER.warn("Could not deliver a message to channel {}", channel.id, exception);
+        }
+
+        synchronized (channel) {
+            if (messageKey != null) {
+                // a failed edit usually means the message was deleted, so the next update posts a new one
+                if (deliveredId == null) {
+                    channel.liveMessages.remove(messageKey);
+                }
+                else {
+                    channel.liveMessages.put(messageKey, deliveredId);
+                }
+            }
+
+            if (channel.updates.isEmpty() && channel.announcements.isEmpty()) {
+                channel.scheduled = false;
+            }
+            else {
+                // whatever is left has already waited out its window
+                scheduler.schedule(() -> flush(channel), 0L, NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * A channel's rate-limit route, along with everything waiting to be sent to it. Guarded by its own monitor.
+     */
+    private static final class Channel
+    {
+        private final String id;
+        private final TokenBucket bucket;
+        private final Map<String, String> updates = new LinkedHashMap<>();
+        private final Deque<StringBuilder> announcements = new ArrayDeque<>();
+        private final Map<String, String> liveMessages =
+                new LinkedHashMap<String, String>(LIVE_MESSAGES_PER_CHANNEL, 0.75f, true)
+                {
+                    @Override
+                    protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                        // messages this far back have scrolled out of view, so an update is better posted anew
+                        return size() > LIVE_MESSAGES_PER_CHANNEL;
+                    }
+                };
+
+        private boolean scheduled;
+
+        private Channel(final String id, final TokenBucket bucket) {
+            this.id = id;
+            this.bucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.nordryd.gamblybot.rendering;
+
+import java.util.List;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackHand;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackPlayer;
+
+/**
+ * <p>
+ * Renders hands and tables into chat messages. Every card's text is computed once, and each thread assembles its
+ * messages in a {@link StringBuilder} that is reused between calls, so rendering a table allocates little more than
+ * the final {@link String}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class MessageRenderer
+{
+    private static final String[] RANK_SYMBOLS = { "2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A" };
+    private static final String[] SUIT_EMOJI = { "\u2663\uFE0F", "\u2666\uFE0F", "\u2665\uFE0F", "\u2660\uFE0F" };
+    private static final String HIDDEN_CARD = "\uD83C\uDCA0";
+    private static final String[] CARD_EMOJI = new String[Card.CARD_COUNT];
+    private static final int INITIAL_BUFFER_CAPACITY = 1024;
+    private static final ThreadLocal<StringBuilder> BUFFERS =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    /**
+     * @param card the {@link Card} to render.
+     * @return the card's rank symbol followed by its suit emoji.
+     */
+    public String renderCard(final Card card) {
+        return CARD_EMOJI[card.getId()];
+    }
+
+    /**
+     * @param hand the {@link BlackjackHand} to render.
+     * @return every card in the hand, followed by its value and state.
+     */
+    public String renderHand(final BlackjackHand hand) {
+        final StringBuilder buffer = buffer();
+        appendHand(buffer, hand);
+        return buffer.toString();
+    }
+
+    /**
+     * Renders a table while it is being played, so the dealer's hole card is hidden.
+     *
+     * @param game the {@link BlackjackGame} to render.
+     * @return the dealer's up card, followed by every player's hands.
+     */
+    public String renderTable(final BlackjackGame game) {
+        final StringBuilder buffer = buffer();
+        buffer.append("Dealer: ").append(CARD_EMOJI[game.getDealer().getHands().get(0).getCards().get(0).getId()])
+                .append(' ').append(HIDDEN_CARD).append('\n');
+        final List<BlackjackPlayer> players = game.getPlayers();
+        for (int seat = 0; seat < players.size(); seat++) {
+            final List<BlackjackHand> hands = players.get(seat).getHands();
+            for (int hand = 0; hand < hands.size(); hand++) {
+                appendSeat(buffer, seat, hand, hands.size());
+                appendHand(buffer, hands.get(hand));
+                buffer.append('\n');
+            }
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Renders a table once the round is over, revealing the dealer's hand and the {@link BlackjackGame.Outcome
+     * outcome} of every player's hand.
+     *
+     * @param game the {@link BlackjackGame} to render.
+     * @return the dealer's hand, followed by every player's hands and their outcomes.
+     */
+    public String renderSettlement(final BlackjackGame game) {
+        final StringBuilder buffer = buffer();
+        final BlackjackHand dealerHand = game.getDealer().getHands().get(0);
+        appendHand(buffer.append("Dealer: "), dealerHand);
+        buffer.append('\n');
+        final List<BlackjackPlayer> players = game.getPlayers();
+        for (int seat = 0; seat < players.size(); seat++) {
+            final List<BlackjackHand> hands = players.get(seat).getHands();
+            for (int hand = 0; hand < hands.size(); hand++) {
+                final BlackjackHand playerHand = hands.get(hand);
+                appendSeat(buffer, seat, hand, hands.size());
+                appendHand(buffer, playerHand);
+                buffer.append(" - ").append(BlackjackGame.settle(playerHand, dealerHand).name()).append('\n');
+            }
+        }
+        return buffer.toString();
+    }
+
+    private static void appendHand(final StringBuilder buffer, final BlackjackHand hand) {
+        final List<Card> cards = hand.getCards();
+        for (int card = 0; card < cards.size(); card++) {
+            buffer.append(CARD_EMOJI[cards.get(card).getId()]).append(' ');
+        }
+        buffer.append('(').append(hand.getValue()).append(", ").append(hand.getState().name()).append(')');
+    }
+
+    private static void appendSeat(final StringBuilder buffer, final int seat, final int hand, final int handCount) {
+        buffer.append("Player ").append(seat + 1);
+        if (handCount > 1) {
+            buffer.append(" (hand ").append(hand + 1).append(')');
+        }
+        buffer.append(": ");
+    }
+
+    private static StringBuilder buffer() {
+        final StringBuilder buffer = BUFFERS.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    static {
+        for (final Rank rank : Rank.values()) {
+            for (final Suit suit : Suit.values()) {
+                final Card card = Card.get(rank).of(suit);
+                CARD_EMOJI[card.getId()] = RANK_SYMBOLS[rank.ordinal()] + SUIT_EMOJI[suit.ordinal()];
+            }
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.nordryd.gamblybot.simulation;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Action;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackHand;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackPlayer;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRuleSet;
+
+/**
+ * <p>
+ * Plays long runs of blackjack sessions for several {@link BlackjackStrategy strategies} side by side, and keeps
+ * {@link StrategyStats} for each. A session starts with a fixed bankroll, bets one unit a round for a fixed number of
+ * rounds, and is ruined if it runs out of bankroll before then.
+ * </p>
+ * <p>
+ * Sessions are split into shards that run in parallel on a {@link ForkJoinPool}. Each shard keeps its own stats, which
+ * are merged as the shards are joined, so workers never share anything. Every session deals from its own
+ * {@link Deck}, seeded from the simulation seed and the session's number, and every strategy plays the same session
+ * from the same seed, so strategies are compared on the same cards and a run's results depend only on its seed.
+ * </p>
+ * <p>
+ * Nothing is kept per round, so a run's memory does not grow with its length. A run with a checkpoint file writes its
+ * stats to it after each batch of sessions, and picks up from it when started again.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackSimulation
+{
+    /**
+     * How many sessions are played between checkpoints.
+     */
+    public static final int SESSIONS_PER_BATCH = 16_384;
+
+    private static final int MAGIC = 0x47424253, VERSION = 2;
+    private static final int SESSIONS_PER_SHARD = 64;
+
+    private final ForkJoinPool pool;
+    private final long seed;
+    private final BlackjackRuleSet ruleSet;
+    private final List<String> names;
+    private final BlackjackStrategy[] strategies;
+    private final int bankroll;
+    private final int roundsPerSession;
+    private final int trajectoryInterval;
+
+    /**
+     * Constructor for a simulation under the {@link BlackjackRuleSet#DEFAULT default} house rules.
+     *
+     * @param pool the {@link ForkJoinPool} to play sessions on.
+     * @param seed the seed from which every session's {@link Deck} is shuffled.
+     * @param strategies the {@link BlackjackStrategy strategies} to play, by name.
+     * @param bankroll how many units each session starts with.
+     * @param roundsPerSession how many rounds each session plays.
+     * @param trajectoryInterval every how many rounds a session's bankroll is recorded.
+     * @throws IllegalArgumentException if there are no strategies, or any of the numbers is &le; 0
+     */
+    public BlackjackSimulation(final ForkJoinPool pool, final long seed, final Map<String, BlackjackStrategy> strategies,
+            final int bankroll, final int roundsPerSession, final int trajectoryInterval) {
+        this(pool, seed, BlackjackRuleSet.DEFAULT, strategies, bankroll, roundsPerSession, trajectoryInterval);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pool the {@link ForkJoinPool} to play sessions on.
+     * @param seed the seed from which every session's {@link Deck} is shuffled.
+     * @param ruleSet the {@link BlackjackRuleSet house rules} every round is played under.
+     * @param strategies the {@link BlackjackStrategy strategies} to play, by name.
+     * @param bankroll how many units each session starts with.
+     * @param roundsPerSession how many rounds each session plays.
+     * @param trajectoryInterval every how many rounds a session's bankroll is recorded.
+     * @throws IllegalArgumentException if there are no strategies, or any of the numbers is &le; 0
+     */
+    public BlackjackSimulation(final ForkJoinPool pool, final long seed, final BlackjackRuleSet ruleSet,
+            final Map<String, BlackjackStrategy> strategies, final int bankroll, final int roundsPerSession,
+            final int trajectoryInterval) {
+        if (strategies.isEmpty()) {
+            throw new IllegalArgumentException("A simulation needs at least one strategy!");
+        }
+
+        if (bankroll <= 0) {
+            throw new IllegalArgumentException("A session's bankroll must be positive!");
+        }
+
+        if (roundsPerSession <= 0) {
+            throw new IllegalArgumentException("A session must play at least one round!");
+        }
+
+        if (trajectoryInterval <= 0) {
+            throw new IllegalArgumentException("A trajectory interval must be positive!");
+        }
+
+        this.pool = pool;
+        this.seed = seed;
+        this.ruleSet = ruleSet;
+        this.names = new ArrayList<>(strategies.keySet());
+        this.strategies = strategies.values().toArray(new BlackjackStrategy[0]);
+        this.bankroll = bankroll;
+        this.roundsPerSession = roundsPerSession;
+        this.trajectoryInterval = trajectoryInterval;
+    }
+
+    /**
+     * Plays sessions without checkpointing.
+     *
+     * @param sessions how many sessions to play.
+     * @return the {@link StrategyStats} of each strategy, by name.
+     */
+    public Map<String, StrategyStats> run(final long sessions) {
+        final StrategyStats[] totals = newStats();
+        for (long played = 0; played < sessions; played = nextBatchEnd(played, sessions)) {
+            merge(totals, pool.invoke(new Shard(played, nextBatchEnd(played, sessions))));
+        }
+        return byName(totals);
+    }
+
+    /**
+     * Plays sessions, writing a checkpoint after every {@value #SESSIONS_PER_BATCH} of them. If the checkpoint file
+     * already exists, the run resumes from it, and gives the same results as if it had never stopped. A run may also
+     * be resumed with more sessions than it was first started with, which only changes its results by rounding.
+     *
+     * @param sessions how many sessions to play in total, including any already played before the checkpoint.
+     * @param checkpointFile where to keep the checkpoint.
+     * @return the {@link StrategyStats} of each strategy, by name.
+     * @throws IOException if the checkpoint could not be read or written.
+     * @throws IllegalArgumentException if the checkpoint was written by a differently configured simulation.
+     */
+    public Map<String, StrategyStats> run(final long sessions, final Path checkpointFile) throws IOException {
+        StrategyStats[] totals = newStats();
+        long played = 0;
+        if (Files.exists(checkpointFile)) {
+            try (final DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+                played = readCheckpointHeader(input, checkpointFile);
+                for (int strategy = 0; strategy < strategies.length; strategy++) {
+                    totals[strategy] = StrategyStats.read(input);
+                }
+            }
+        }
+
+        while (played < sessions) {
+            final long batchEnd = nextBatchEnd(played, sessions);
+            merge(totals, pool.invoke(new Shard(played, batchEnd)));
+            played = batchEnd;
+            writeCheckpoint(checkpointFile, played, totals);
+        }
+        return byName(totals);
+    }
+
+    private long readCheckpointHeader(final DataInputStream input, final Path checkpointFile) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a blackjack simulation checkpoint: " + checkpointFile);
+        }
+
+        final int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported blackjack simulation checkpoint version " + version);
+        }
+
+        boolean matches = (input.readLong() == seed) & (input.readInt() == ruleSet.toBits()) &
+                (input.readInt() == bankroll) & (input.readInt() == roundsPerSession) &
+                (input.readInt() == trajectoryInterval);
+        final int strategyCount = input.readInt();
+        matches &= strategyCount == strategies.length;
+        for (int strategy = 0; matches && (strategy < strategyCount); strategy++) {
+            matches = input.readUTF().equals(names.get(strategy));
+        }
+
+        if (!matches) {
+            throw new IllegalArgumentException(
+                    "Checkpoint " + checkpointFile + " was written by a differently configured simulation!");
+        }
+        return input.readLong();
+    }
+
+    private void writeCheckpoint(final Path checkpointFile, final long played, final StrategyStats[] totals)
+            throws IOException {
+        final Path temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (final DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(seed);
+            output.writeInt(ruleSet.toBits());
+            output.writeInt(bankroll);
+            output.writeInt(roundsPerSession);
+            output.writeInt(trajectoryInterval);
+            output.writeInt(strategies.length);
+            for (final String name : names) {
+                output.writeUTF(name);
+            }
+            output.writeLong(played);
+            for (final StrategyStats stats : totals) {
+                stats.write(output);
+            }
+        }
+        // a crash mid-write leaves the previous checkpoint intact
+        Files.move(temporaryFile, checkpointFile, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    private static long nextBatchEnd(final long played, final long sessions) {
+        // batches always end on a multiple of the batch size, so a resumed run merges in the same order as before
+        return Math.min(sessions, ((played / SESSIONS_PER_BATCH) + 1) * SESSIONS_PER_BATCH);
+    }
+
+    private StrategyStats[] newStats() {
+        final StrategyStats[] stats = new StrategyStats[strategies.length];
+        for (int strategy = 0; strategy < stats.length; strategy++) {
+            stats[strategy] = new StrategyStats(roundsPerSession / trajectoryInterval);
+        }
+        return stats;
+    }
+
+    private static void merge(final StrategyStats[] into, final StrategyStats[] from) {
+        for (int strategy = 0; strategy < into.length; strategy++) {
+            into[strategy].merge(from[strategy]);
+        }
+    }
+
+    private Map<String, StrategyStats> byName(final StrategyStats[] stats) {
+        final Map<String, StrategyStats> named = new LinkedHashMap<>();
+        for (int strategy = 0; strategy < stats.length; strategy++) {
+            named.put(names.get(strategy), stats[strategy]);
+        }
+        return named;
+    }
+
+    private void playSession(final long session, final BlackjackStrategy strategy, final StrategyStats stats) {
+        final Deck deck = new Deck(new Random(sessionSeed(session)));
+        double sessionBankroll = bankroll;
+        boolean ruined = false;
+        for (int round = 1; round <= roundsPerSession; round++) {
+            if (!ruined) {
+                final double result = playRound(deck, ruleSet, strategy);
+                stats.recordRound(result);
+                sessionBankroll += result;
+                ruined = sessionBankroll <= 0.0;
+            }
+
+            if ((round % trajectoryInterval) == 0) {
+                stats.recordBankroll((round / trajectoryInterval) - 1, Math.max(sessionBankroll, 0.0));
+            }
+        }
+        stats.recordSession(Math.max(sessionBankroll, 0.0), ruined);
+    }
+
+    /**
+     * @return the units won, or lost if negative, by betting one unit on a round played with the strategy under the
+     *         house rules.
+     */
+    static double playRound(final Deck deck, final BlackjackRuleSet ruleSet, final BlackjackStrategy strategy) {
+        final BlackjackGame game = new BlackjackGame(deck, ruleSet);
+        final BlackjackPlayer player = game.addPlayer(1);
+        final BlackjackHand dealerHand = game.getDealer().getHands().get(0);
+        final Card upcard = dealerHand.getCards().get(0);
+        player.play();
+
+        // the dealer checks for blackjack before anyone plays, so a dealer blackjack ends the round at once, unless
+        // the house offers early surrender and the player takes it first
+        final boolean dealerBlackjack = BlackjackHand.State.BLACKJACK.equals(dealerHand.getState());
+        for (BlackjackHand hand = player.getCurrentHand(); hand != null; hand = player.getCurrentHand()) {
+            final Action action = strategy.decide(hand, upcard);
+            if (Action.SURRENDER.equals(action) && ruleSet.canSurrender(player.getHands(), dealerHand)) {
+                player.surrender();
+                return ruleSet.getSurrenderPayout();
+            }
+            if (dealerBlackjack) {
+                break;
+            }
+
+            final boolean split = player.getHands().size() > 1;
+            switch (action) {
+                case STAY:
+                    hand.stay();
+                    break;
+                case SPLIT:
+                    if (ruleSet.canSplit(hand, split)) {
+                        player.split();
+                    }
+                    else {
+                        hand.hit();
+                    }
+                    break;
+                case DOUBLE_DOWN:
+                    if (ruleSet.canDoubleDown(hand, hand.isSplit())) {
+                        hand.doubleDown();
+                    }
+                    else {
+                        hand.hit();
+                    }
+                    break;
+                default:
+                    hand.hit();
+                    break;
+            }
+        }
+
+        if (!dealerBlackjack &&
+                player.getHands().stream().anyMatch(hand -> !BlackjackHand.State.BUSTED.equals(hand.getState()))) {
+            game.playDealer();
+        }
+
+        double result = 0.0;
+        for (final BlackjackHand hand : player.getHands()) {
+            final int stake = hand.isDoubled() ? 2 : 1;
+            result += stake * ruleSet.getPayout(BlackjackGame.settle(hand, dealerHand));
+        }
+        return result;
+    }
+
+    private long sessionSeed(final long session) {
+        // SplitMix64 finalizer, so neighbouring sessions get unrelated decks
+        long mixed = seed + (0x9E3779B97F4A7C15L * (session + 1));
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+    private final class Shard extends RecursiveTask<StrategyStats[]>
+    {
+        private final long fromSession;
+        private final long toSession;
+
+        private Shard(final long fromSession, final long toSession) {
+            this.fromSession = fromSession;
+            this.toSession = toSession;
+        }
+
+        @Override
+        protected StrategyStats[] compute() {
+            if ((toSession - fromSession) > SESSIONS_PER_SHARD) {
+                final long middle = (fromSession + toSession) >>> 1;
+                final Shard right = new Shard(middle, toSession);
+                right.fork();
+                final StrategyStats[] stats = new Shard(fromSession, middle).compute();
+                merge(stats, right.join());
+                return stats;
+            }
+
+            final StrategyStats[] stats = newStats();
+            for (long session = fromSession; session < toSession; session++) {
+                for (int strategy = 0; strategy < strategies.length; strategy++) {
+                    playSession(session, strategies[strategy], stats[strategy]);
+                }
+            }
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.nordryd.gamblybot.simulation;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Action;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackHand;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackHintCache;
+
+/**
+ * <p>
+ * Decides how to play a blackjack hand in a {@link BlackjackSimulation}. A {@link BlackjackHintCache} plays the best
+ * strategy through {@code hintCache::hint}. Strategies are called from many workers at once, so must be thread-safe.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public interface BlackjackStrategy
+{
+    /**
+     * @param hand the {@link BlackjackHand} being played.
+     * @param dealerUpcard the dealer's face-up card.
+     * @return the {@link Action} to take. A {@link Action#DOUBLE_DOWN double down}, {@link Action#SPLIT split} or
+     * {@link Action#SURRENDER surrender} that is not allowed is played as a hit instead.
+     */
+    Action decide(BlackjackHand hand, Card dealerUpcard);
+}
@@ -0,0 +1,133 @@
+package com.nordryd.gamblybot.simulation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * <p>
+ * The count, mean, variance and range of a stream of values, kept in constant space with Welford's algorithm, so it
+ * stays accurate over billions of values where summing squares would not.
+ * </p>
+ * <p>
+ * Instances are not thread-safe. Each worker keeps its own and {@link #merge(RunningStats) merges} it into the others
+ * once it is done, which gives the same result as if every value had been added to one instance.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class RunningStats
+{
+    private long count;
+    private double mean;
+    private double squaredDeviations;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param value the next value.
+     */
+    public void add(final double value) {
+        count++;
+        final double delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds every value of another instance to this one. The other instance is left as it was.
+     *
+     * @param other the {@link RunningStats} to merge in.
+     */
+    public void merge(final RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+
+        final long merged = count + other.count;
+        final double delta = other.mean - mean;
+        mean += delta * ((double) other.count / merged);
+        squaredDeviations += other.squaredDeviations + (delta * delta * ((double) count * other.count / merged));
+        count = merged;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return how many values have been added.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean of the values, or 0 if there are none.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return the sample variance of the values, or 0 if there are fewer than two.
+     */
+    public double getVariance() {
+        return (count < 2) ? 0.0 : (squaredDeviations / (count - 1));
+    }
+
+    /**
+     * @return the sample standard deviation of the values.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return the standard error of the mean.
+     */
+    public double getStandardError() {
+        return (count == 0) ? 0.0 : Math.sqrt(getVariance() / count);
+    }
+
+    /**
+     * @return the smallest value, or positive infinity if there are none.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return the largest value, or negative infinity if there are none.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @param output where to write the statistics.
+     * @throws IOException if the statistics could not be written.
+     */
+    public void write(final DataOutput output) throws IOException {
+        output.writeLong(count);
+        output.writeDouble(mean);
+        output.writeDouble(squaredDeviations);
+        output.writeDouble(min);
+        output.writeDouble(max);
+    }
+
+    /**
+     * @param input where to read statistics {@link #write(DataOutput) written} earlier from.
+     * @return the statistics that were read.
+     * @throws IOException if the statistics could not be read.
+     */
+    public static RunningStats read(final DataInput input) throws IOException {
+        final RunningStats stats = new RunningStats();
+        stats.count = input.readLong();
+        stats.mean = input.readDouble();
+        stats.squaredDeviations = input.readDouble();
+        stats.min = input.readDouble();
+        stats.max = input.readDouble();
+        return stats;
+    }
+}
@@ -0,0 +1,177 @@
+package com.nordryd.gamblybot.simulation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * <p>
+ * Everything a {@link BlackjackSimulation} learns about one strategy: the result of every round, the bankroll of every
+ * session at regular points along the way, how each session ended, and how many sessions were ruined. Like
+ * {@link RunningStats}, instances are kept per worker and {@link #merge(StrategyStats) merged} afterwards.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class StrategyStats
+{
+    private final RunningStats rounds;
+    private final RunningStats finalBankrolls;
+    private final RunningStats[] trajectory;
+
+    private long sessions;
+    private long ruinedSessions;
+
+    /**
+     * Constructor.
+     *
+     * @param trajectoryPoints at how many points along each session the bankroll is recorded.
+     */
+    public StrategyStats(final int trajectoryPoints) {
+        this(new RunningStats(), new RunningStats(), new RunningStats[trajectoryPoints], 0L, 0L);
+        for (int point = 0; point < trajectoryPoints; point++) {
+            trajectory[point] = new RunningStats();
+        }
+    }
+
+    private StrategyStats(final RunningStats rounds, final RunningStats finalBankrolls,
+            final RunningStats[] trajectory, final long sessions, final long ruinedSessions) {
+        this.rounds = rounds;
+        this.finalBankrolls = finalBankrolls;
+        this.trajectory = trajectory;
+        this.sessions = sessions;
+        this.ruinedSessions = ruinedSessions;
+    }
+
+    /**
+     * @param result the units won, or lost if negative, in a round.
+     */
+    public void recordRound(final double result) {
+        rounds.add(result);
+    }
+
+    /**
+     * @param point the point along the session.
+     * @param bankroll the session's bankroll at that point.
+     */
+    public void recordBankroll(final int point, final double bankroll) {
+        trajectory[point].add(bankroll);
+    }
+
+    /**
+     * @param finalBankroll the session's bankroll when it ended.
+     * @param ruined {@code true} if the session ran out of bankroll before it ended.
+     */
+    public void recordSession(final double finalBankroll, final boolean ruined) {
+        finalBankrolls.add(finalBankroll);
+        sessions++;
+        ruinedSessions += ruined ? 1 : 0;
+    }
+
+    /**
+     * Adds everything recorded by another instance to this one.
+     *
+     * @param other the {@link StrategyStats} to merge in.
+     * @throws IllegalArgumentException if the other instance records a different number of trajectory points.
+     */
+    public void merge(final StrategyStats other) {
+        if (other.trajectory.length != trajectory.length) {
+            throw new IllegalArgumentException("Cannot merge strategy stats with different trajectories!");
+        }
+
+        rounds.merge(other.rounds);
+        finalBankrolls.merge(other.finalBankrolls);
+        for (int point = 0; point < trajectory.length; point++) {
+            trajectory[point].merge(other.trajectory[point]);
+        }
+        sessions += other.sessions;
+        ruinedSessions += other.ruinedSessions;
+    }
+
+    /**
+     * @return the {@link RunningStats} of the units won in each round.
+     */
+    public RunningStats getRounds() {
+        return rounds;
+    }
+
+    /**
+     * @return the {@link RunningStats} of each session's bankroll when it ended.
+     */
+    public RunningStats getFinalBankrolls() {
+        return finalBankrolls;
+    }
+
+    /**
+     * @param point a point along each session.
+     * @return the {@link RunningStats} of the sessions' bankrolls at that point.
+     */
+    public RunningStats getTrajectory(final int point) {
+        return trajectory[point];
+    }
+
+    /**
+     * @return at how many points along each session the bankroll is recorded.
+     */
+    public int getTrajectoryPoints() {
+        return trajectory.length;
+    }
+
+    /**
+     * @return how many sessions were played.
+     */
+    public long getSessions() {
+        return sessions;
+    }
+
+    /**
+     * @return the fraction of sessions that ran out of bankroll before they ended.
+     */
+    public double getRiskOfRuin() {
+        return (sessions == 0) ? 0.0 : ((double) ruinedSessions / sessions);
+    }
+
+    /**
+     * Estimates the risk of ever running out of a bankroll when playing indefinitely, from the mean and variance of a
+     * round alone, by treating the bankroll as a random walk with drift: {@code exp(-2 * mean * bankroll / variance)}.
+     *
+     * @param bankroll the starting bankroll, in units.
+     * @return the estimated risk of ruin, which is 1 for a strategy that does not win on average.
+     */
+    public double estimateRiskOfRuin(final double bankroll) {
+        final double mean = rounds.getMean(), variance = rounds.getVariance();
+        if (variance == 0.0) {
+            return (mean < 0.0) ? 1.0 : 0.0;
+        }
+        return (mean <= 0.0) ? 1.0 : Math.exp((-2.0 * mean * bankroll) / variance);
+    }
+
+    /**
+     * @param output where to write the stats.
+     * @throws IOException if the stats could not be written.
+     */
+    public void write(final DataOutput output) throws IOException {
+        rounds.write(output);
+        finalBankrolls.write(output);
+        output.writeInt(trajectory.length);
+        for (final RunningStats point : trajectory) {
+            point.write(output);
+        }
+        output.writeLong(sessions);
+        output.writeLong(ruinedSessions);
+    }
+
+    /**
+     * @param input where to read stats {@link #write(DataOutput) written} earlier from.
+     * @return the stats that were read.
+     * @throws IOException if the stats could not be read.
+     */
+    public static StrategyStats read(final DataInput input) throws IOException {
+        final RunningStats rounds = RunningStats.read(input), finalBankrolls = RunningStats.read(input);
+        final RunningStats[] trajectory = new RunningStats[input.readInt()];
+        for (int point = 0; point < trajectory.length; point++) {
+            trajectory[point] = RunningStats.read(input);
+        }
+        return new StrategyStats(rounds, finalBankrolls, trajectory, input.readLong(), input.readLong());
+    }
+}
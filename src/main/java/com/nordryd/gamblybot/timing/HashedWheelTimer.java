@@ -0,0 +1,301 @@
+package com.nordryd.gamblybot.timing;
+
+import static java.lang.Math.max;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * A timer for large numbers of short, mostly-cancelled deadlines such as player turn timeouts. Timeouts are hashed
+ * into a fixed ring of buckets by their deadline tick, so scheduling and cancelling are both O(1), and a single worker
+ * thread advances the ring one tick at a time. Deadlines are only as precise as the tick duration.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class HashedWheelTimer
+{
+    private static final int WORKER_INIT = 0, WORKER_STARTED = 1, WORKER_SHUTDOWN = 2;
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts;
+    private final Queue<Timeout> cancelledTimeouts;
+    private final AtomicInteger workerState;
+    private final CountDownLatch workerStarted;
+    private final Thread worker;
+
+    private volatile long startNanos;
+    private long tick;
+
+    /**
+     * Constructor.
+     *
+     * @param tickDuration how long each tick of the wheel lasts.
+     * @param unit the {@link TimeUnit} of the tick duration.
+     * @param ticksPerWheel how many buckets the wheel has. This is rounded up to a power of two.
+     * @throws IllegalArgumentException if the tick duration or ticks per wheel &le; 0
+     */
+    public HashedWheelTimer(final long tickDuration, final TimeUnit unit, final int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("A timer's tick duration must be positive!");
+        }
+
+        if (ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("A timer must have at least one tick per wheel!");
+        }
+
+        this.tickNanos = unit.toNanos(tickDuration);
+        int wheelSize = 1;
+        while (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+        this.wheel = new Bucket[wheelSize];
+        for (int bucket = 0; bucket < wheel.length; bucket++) {
+            wheel[bucket] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.pendingTimeouts = new ConcurrentLinkedQueue<>();
+        this.cancelledTimeouts = new ConcurrentLinkedQueue<>();
+        this.workerState = new AtomicInteger(WORKER_INIT);
+        this.workerStarted = new CountDownLatch(1);
+        this.worker = new Thread(this::runWorker, "hashed-wheel-timer");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Schedules a task to run once after a delay. The task runs on the timer's thread, so it should be short and
+     * should hand any real work to whichever thread owns the affected state.
+     *
+     * @param task the task to run.
+     * @param delay how long to wait before running the task.
+     * @param unit the {@link TimeUnit} of the delay.
+     * @return a {@link Timeout} that can be used to cancel the task.
+     * @throws IllegalStateException if the timer has been shut down.
+     */
+    public Timeout newTimeout(final Runnable task, final long delay, final TimeUnit unit) {
+        start();
+        final Timeout timeout = new Timeout(this, task, (System.nanoTime() + unit.toNanos(delay)) - startNanos);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the timer. Tasks that have not run yet never will.
+     */
+    public void shutdown() {
+        if (workerState.getAndSet(WORKER_SHUTDOWN) == WORKER_STARTED) {
+            worker.interrupt();
+            try {
+                worker.join();
+            }
+            catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void start() {
+        switch (workerState.get()) {
+            case WORKER_INIT:
+                if (workerState.compareAndSet(WORKER_INIT, WORKER_STARTED)) {
+                    worker.start();
+                }
+                break;
+            case WORKER_STARTED:
+                break;
+            default:
+                throw new IllegalStateException("Cannot schedule a timeout on a timer that has been shut down!");
+        }
+
+        try {
+            workerStarted.await();
+        }
+        catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWorker() {
+        startNanos = System.nanoTime();
+        workerStarted.countDown();
+
+        while (workerState.get() == WORKER_STARTED) {
+            if (waitForNextTick()) {
+                removeCancelledTimeouts();
+                transferPendingTimeouts();
+                wheel[(int) (tick & mask)].expireTimeouts();
+                tick++;
+            }
+        }
+    }
+
+    private boolean waitForNextTick() {
+        final long deadline = tickNanos * (tick + 1);
+        while (true) {
+            final long sleepMillis = ((deadline - (System.nanoTime() - startNanos)) + 999_999) / 1_000_000;
+            if (sleepMillis <= 0) {
+                return true;
+            }
+
+            try {
+                Thread.sleep(sleepMillis);
+            }
+            catch (final InterruptedException exception) {
+                if (workerState.get() == WORKER_SHUTDOWN) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        for (int transferred = 0; transferred < MAX_TRANSFERS_PER_TICK; transferred++) {
+            final Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+
+            if (!timeout.isCancelled()) {
+                final long deadlineTick = timeout.deadlineNanos / tickNanos;
+                timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+                // a deadline that has already passed goes into the current bucket, so it expires on this tick
+                wheel[(int) (max(deadlineTick, tick) & mask)].add(timeout);
+            }
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * A handle to a task scheduled with {@link #newTimeout(Runnable, long, TimeUnit)}.
+     */
+    public static final class Timeout
+    {
+        private static final int INIT = 0, CANCELLED = 1, EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state;
+
+        // only touched by the worker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(final HashedWheelTimer timer, final Runnable task, final long deadlineNanos) {
+            this.timer = timer;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+            this.state = new AtomicInteger(INIT);
+        }
+
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return {@code true} if the task was cancelled, {@code false} if it had already run or been cancelled.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            timer.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        /**
+         * @return {@code true} if the task was cancelled before it could run.
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * @return {@code true} if the task has run.
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(INIT, EXPIRED)) {
+                try {
+                    task.run();
+                }
+                catch (final RuntimeException exception) {
+                    // one failing task must not stop the timer for everyone else
+                    final Thread worker = Thread.currentThread();
+                    worker.getUncaughtExceptionHandler().uncaughtException(worker, exception);
+                }
+            }
+        }
+    }
+
+    private static final class Bucket
+    {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(final Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            }
+            else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expireTimeouts() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                }
+                else if (timeout.isCancelled()) {
+                    remove(timeout);
+                }
+                else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(final Timeout timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.previous;
+            }
+            timeout.previous = timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.nordryd.gamblybot;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nordryd.gamblybot.cardgames.engine.Table;
+import com.nordryd.gamblybot.cardgames.engine.TableEngine;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackHand;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackPlayer;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRuleSet;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRules;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRules.Move;
+import com.nordryd.gamblybot.commands.CommandAdmissionController;
+import com.nordryd.gamblybot.commands.CommandAdmissionController.Admission;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Load test for <i>gamblybot</i>. Thousands of simulated players sit at tables and play blackjack the way the bot
+ * runs it: every command is first put to the bot's {@link CommandAdmissionController}, then dispatched as a
+ * {@link Move} to the player's {@link Table} in a {@link TableEngine} on the bot's own command executor. Each player
+ * issues their next command as soon as the last one completes, and the latency of every dispatched command (including
+ * the time it spent queued) is recorded per command type. Commands that are shed, rate limited or turned away by a
+ * full table are counted separately and retried shortly after. Run it with {@code gradle loadTest}; the
+ * {@code gamblybot.load.*} system properties change its size, duration and latency budget.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@Tag("load")
+public class GamblyBotLoadTest
+{
+    private static final int PLAYERS = Integer.getInteger("gamblybot.load.players", 5000);
+    private static final int SEATS_PER_TABLE = Integer.getInteger("gamblybot.load.seatsPerTable", 5);
+    private static final long DURATION_MILLIS = Long.getLong("gamblybot.load.durationMillis", 10_000L);
+    private static final long MAX_P99_MICROS = Long.getLong("gamblybot.load.maxP99Micros", 250_000L);
+    private static final long RETRY_MILLIS = Long.getLong("gamblybot.load.retryMillis", 100L);
+    private static final int STAYS_ON = 17, SPLIT_PERCENT = 50, MAX_WAGER = 100;
+
+    private final Map<Command, Histogram> latencies = new EnumMap<>(Command.class);
+    private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+    private final BlackjackRules rules = new BlackjackRules(() -> new Deck(new Random()), BlackjackRuleSet.DEFAULT);
+
+    private TableEngine engine;
+    private CommandAdmissionController admission;
+    private ScheduledExecutorService retries;
+    private CountDownLatch finished;
+    private long deadline;
+
+    @Test
+    public void testBlackjackCommandLoad() throws InterruptedException {
+        for (final Command command : Command.values()) {
+            latencies.put(command, new ConcurrentHistogram(3));
+        }
+        for (final Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+
+        final ThreadPoolExecutor executor = new GamblyBot.Config().commandExecutor();
+        engine = new TableEngine(executor, GamblyBot.Config.TABLE_MAILBOX_CAPACITY);
+        admission = new CommandAdmissionController(GamblyBot.Config.USER_COMMAND_LIMIT,
+                GamblyBot.Config.CHANNEL_COMMAND_LIMIT, () -> executor.getQueue().size(),
+                GamblyBot.Config.COMMAND_QUEUE_SHED_THRESHOLD, System::nanoTime);
+        retries = Executors.newSingleThreadScheduledExecutor();
+
+        final int tables = (PLAYERS + SEATS_PER_TABLE - 1) / SEATS_PER_TABLE;
+        finished = new CountDownLatch(tables);
+        final long start = System.nanoTime();
+        deadline = start + MILLISECONDS.toNanos(DURATION_MILLIS);
+        for (int table = 0; table < tables; table++) {
+            new SimulatedTable(table, Math.min(SEATS_PER_TABLE, PLAYERS - (table * SEATS_PER_TABLE))).startRound();
+        }
+
+        finished.await();
+        final long elapsedNanos = System.nanoTime() - start;
+        retries.shutdownNow();
+        executor.shutdown();
+        report(elapsedNanos);
+
+        assertThat(outcomes.get(Outcome.FAILED).sum()).isZero();
+        assertThat(engine.getTableCount()).isZero();
+        latencies.forEach((command, histogram) -> {
+            assertThat(histogram.getTotalCount()).as("%s commands", command).isPositive();
+            assertThat(histogram.getValueAtPercentile(99.0)).as("%s p99 (us)", command).isLessThan(MAX_P99_MICROS);
+        });
+    }
+
+    private void report(final long elapsedNanos) {
+        final double seconds = elapsedNanos / 1e9;
+        long total = 0L;
+        System.out.printf("%d players over %.1f s%n", PLAYERS, seconds);
+        System.out.printf("%-11s %10s %10s %10s %10s %10s %10s%n", "", "count", "ops/s", "p50 us", "p99 us",
+                "p999 us", "max us");
+        for (final Map.Entry<Command, Histogram> entry : latencies.entrySet()) {
+            final Histogram histogram = entry.getValue();
+            total += histogram.getTotalCount();
+            System.out.printf("%-11s %10d %10.0f %10d %10d %10d %10d%n", entry.getKey(), histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds, histogram.getValueAtPercentile(50.0),
+                    histogram.getValueAtPercentile(99.0), histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue());
+        }
+        System.out.printf("%-11s %10d %10.0f%n", "total", total, total / seconds);
+        outcomes.forEach((outcome, count) -> System.out.printf("%-15s %10d%n", outcome, count.sum()));
+    }
+
+    /**
+     * A table of a few simulated players, who play a simple strategy: double down on a hard 10 or 11, split pairs
+     * half the time, hit below 17 and stay otherwise. Blackjack players take their turns in order, so only one of
+     * them has a command in flight at a time. Each round is played at a newly opened table in the same channel, as
+     * the engine keeps a table's game for as long as the table is open.
+     */
+    private final class SimulatedTable
+    {
+        private final String channelId;
+        private final String[] userIds;
+
+        private Table<BlackjackGame, Move> table;
+        private int round;
+
+        private SimulatedTable(final int index, final int seats) {
+            this.channelId = "channel-" + index;
+            this.userIds = new String[seats];
+            for (int seat = 0; seat < seats; seat++) {
+                userIds[seat] = "player-" + ((index * SEATS_PER_TABLE) + seat);
+            }
+        }
+
+        private void startRound() {
+            if (table != null) {
+                engine.close(table.getId());
+                table = null;
+            }
+
+            if (System.nanoTime() >= deadline) {
+                finished.countDown();
+                return;
+            }
+
+            table = engine.open(channelId + "-round-" + round++, rules);
+            submit(0, Command.JOIN);
+        }
+
+        private void submit(final int seat, final Command command) {
+            if (System.nanoTime() >= deadline) {
+                startRound();
+                return;
+            }
+
+            final Admission admitted = admission.admit(userIds[seat], channelId);
+            if (!Admission.ADMITTED.equals(admitted)) {
+                outcomes.get(Outcome.valueOf(admitted.name())).increment();
+                retry(seat, command);
+                return;
+            }
+
+            final long submittedAt = System.nanoTime();
+            table.dispatch(seat, command.toMove()).whenComplete((roundOver, failure) -> {
+                if (failure instanceof RejectedExecutionException) {
+                    outcomes.get(Outcome.TABLE_FULL).increment();
+                    retry(seat, command);
+                    return;
+                }
+
+                latencies.get(command).recordValue(NANOSECONDS.toMicros(System.nanoTime() - submittedAt));
+                if (failure != null) {
+                    outcomes.get(Outcome.FAILED).increment();
+                    startRound();
+                }
+                else if (roundOver) {
+                    outcomes.get(Outcome.COMPLETED).increment();
+                    startRound();
+                }
+                else {
+                    outcomes.get(Outcome.COMPLETED).increment();
+                    next(seat, command);
+                }
+            });
+        }
+
+        private void next(final int seat, final Command command) {
+            if (Command.JOIN.equals(command) && ((seat + 1) < userIds.length)) {
+                submit(seat + 1, Command.JOIN);
+                return;
+            }
+
+            table.read(this::decide).whenComplete((decision, failure) -> {
+                if (failure != null) {
+                    outcomes.get(Outcome.TABLE_FULL).increment();
+                    retries.schedule(() -> next(seat, command), RETRY_MILLIS, MILLISECONDS);
+                    return;
+                }
+                decision.run();
+            });
+        }
+
+        private void retry(final int seat, final Command command) {
+            retries.schedule(() -> submit(seat, command), RETRY_MILLIS, MILLISECONDS);
+        }
+
+        private Runnable decide(final BlackjackGame game) {
+            final BlackjackPlayer player = game.getCurrentPlayer();
+            final int seat = game.getPlayers().indexOf(player);
+            BlackjackHand hand = null;
+            for (final BlackjackHand playerHand : player.getHands()) {
+                if (BlackjackHand.State.PLAYING.equals(playerHand.getState())) {
+                    hand = playerHand;
+                    break;
+                }
+            }
+
+            final Command command;
+            if (hand == null) {
+                command = Command.STAY;
+            }
+            else if (game.getRuleSet().canSplit(hand, player.getHands().size() > 1) &&
+                    (ThreadLocalRandom.current().nextInt(100) < SPLIT_PERCENT)) {
+                command = Command.SPLIT;
+            }
+            else if (!hand.isSoft() && ((hand.getValue() == 10) || (hand.getValue() == 11)) &&
+                    game.getRuleSet().canDoubleDown(hand, hand.isSplit())) {
+                command = Command.DOUBLE_DOWN;
+            }
+            else {
+                command = (hand.getValue() < STAYS_ON) ? Command.HIT : Command.STAY;
+            }
+            return () -> submit(seat, command);
+        }
+    }
+
+    /**
+     * The commands a simulated player issues. A player bets by joining with a wager, or by doubling down.
+     */
+    private enum Command
+    {
+        JOIN,
+        HIT,
+        STAY,
+        SPLIT,
+        DOUBLE_DOWN;
+
+        private Move toMove() {
+            switch (this) {
+                case JOIN:
+                    return Move.join(1 + ThreadLocalRandom.current().nextInt(MAX_WAGER));
+                case HIT:
+                    return Move.hit();
+                case SPLIT:
+                    return Move.split();
+                case DOUBLE_DOWN:
+                    return Move.doubleDown();
+                default:
+                    return Move.stay();
+            }
+        }
+    }
+
+    /**
+     * What became of each command a simulated player issued.
+     */
+    private enum Outcome
+    {
+        COMPLETED,
+        SHED,
+        USER_LIMITED,
+        CHANNEL_LIMITED,
+        TABLE_FULL,
+        FAILED
+    }
+}
@@ -0,0 +1,214 @@
+package com.nordryd.gamblybot.cardgames.engine;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link TableEngine} and {@link Table}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class TableEngineTest
+{
+    private static final int ROUND_LENGTH = 3;
+
+    /**
+     * Records every move, and finishes a round every third move. Negative moves are rejected.
+     */
+    private static final GameRules<List<Integer>, Integer> RECORDING_RULES = new GameRules<List<Integer>, Integer>()
+    {
+        @Override
+        public List<Integer> newGame() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public boolean apply(final List<Integer> game, final int seat, final Integer move) {
+            if (move < 0) {
+                throw new IllegalArgumentException("Moves must not be negative!");
+            }
+            game.add(move);
+            return (game.size() % ROUND_LENGTH) == 0;
+        }
+    };
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final TableEngine engine = new TableEngine(executor);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testMovesAreAppliedInOrder() throws InterruptedException, ExecutionException, TimeoutException {
+        final Table<List<Integer>, Integer> table = engine.open("table", RECORDING_RULES);
+        final List<Integer> expected = new ArrayList<>();
+        for (int move = 0; move < 1000; move++) {
+            table.dispatch(0, move);
+            expected.add(move);
+        }
+        assertThat(table.read(ArrayList::new).get(5, SECONDS)).isEqualTo(expected);
+    }
+
+    @Test
+    public void testOpenWithGame() throws InterruptedException, ExecutionException, TimeoutException {
+        final List<Integer> game = new ArrayList<>();
+        game.add(1);
+        final Table<List<Integer>, Integer> table = engine.open("table", RECORDING_RULES, game);
+        engine.open("other", new GameRules<String, Integer>()
+        {
+            @Override
+            public String newGame() {
+                return "";
+            }
+
+            @Override
+            public boolean apply(final String text, final int seat, final Integer move) {
+                return false;
+            }
+        });
+
+        assertThat(table.dispatch(0, 2).get(5, SECONDS)).isFalse();
+        assertThat(table.read(ArrayList::new).get(5, SECONDS)).containsExactly(1, 2);
+        assertThat(engine.getTables(List.class)).containsOnlyKeys("table");
+        assertThat(engine.getTables(String.class)).containsOnlyKeys("other");
+    }
+
+    @Test
+    public void testTablesAreSingleWriters() throws InterruptedException, ExecutionException, TimeoutException {
+        final List<Table<List<Integer>, Integer>> tables = new ArrayList<>();
+        for (int table = 0; table < 8; table++) {
+            tables.add(engine.open("table" + table, RECORDING_RULES));
+        }
+
+        final ExecutorService players = Executors.newFixedThreadPool(4);
+        for (int player = 0; player < 4; player++) {
+            players.execute(() -> {
+                for (int move = 0; move < 8000; move++) {
+                    tables.get(move % 8).dispatch(0, move);
+                }
+            });
+        }
+        players.shutdown();
+        assertThat(players.awaitTermination(5, SECONDS)).isTrue();
+
+        for (final Table<List<Integer>, Integer> table : tables) {
+            assertThat(table.read(List::size).get(5, SECONDS)).isEqualTo(4000);
+        }
+    }
+
+    @Test
+    public void testListenersHearMovesAndRounds() throws InterruptedException, ExecutionException, TimeoutException {
+        final AtomicInteger moves = new AtomicInteger(), failures = new AtomicInteger(), rounds = new AtomicInteger();
+        engine.addListener(new TableListener()
+        {
+            @Override
+            public void onMove(final Table<?, ?> table, final int seat, final Object move, final long queuedNanos,
+                    final RuntimeException failure) {
+                (failure == null ? moves : failures).incrementAndGet();
+            }
+
+            @Override
+            public void onRoundOver(final Table<?, ?> table) {
+                rounds.incrementAndGet();
+            }
+        });
+
+        final Table<List<Integer>, Integer> table = engine.open("table", RECORDING_RULES);
+        assertThat(table.dispatch(0, 1).get(5, SECONDS)).isFalse();
+        assertThat(table.dispatch(0, 2).get(5, SECONDS)).isFalse();
+        assertThatThrownBy(() -> table.dispatch(0, -1).get(5, SECONDS)).hasCauseInstanceOf(
+                IllegalArgumentException.class);
+        assertThat(table.dispatch(0, 3).get(5, SECONDS)).isTrue();
+        assertThat(moves.get()).isEqualTo(3);
+        assertThat(failures.get()).isEqualTo(1);
+        assertThat(rounds.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFullTableRejectsWork() {
+        final List<Runnable> drains = new ArrayList<>();
+        final Table<List<Integer>, Integer> table = new TableEngine(drains::add, 4).open("table", RECORDING_RULES);
+        final List<CompletableFuture<Boolean>> accepted = new ArrayList<>();
+        for (int move = 0; move < 3; move++) {
+            accepted.add(table.dispatch(0, move));
+        }
+        assertThat(table.getQueuedCount()).isEqualTo(table.getMailboxCapacity());
+        assertThatThrownBy(() -> table.dispatch(0, 3).get(5, SECONDS)).hasCauseInstanceOf(
+                RejectedExecutionException.class).hasMessageContaining("Table table is full!");
+
+        runAll(drains);
+        assertThat(accepted).allMatch(move -> move.isDone() && !move.isCompletedExceptionally());
+        assertThat(table.getQueuedCount()).isZero();
+
+        final CompletableFuture<Boolean> retried = table.dispatch(0, 3);
+        runAll(drains);
+        assertThat(retried).isCompletedWithValue(false);
+    }
+
+    @Test
+    public void testClosingFullTableRunsWaitingWorkFirst() {
+        final List<Runnable> drains = new ArrayList<>();
+        final TableEngine heldEngine = new TableEngine(drains::add, 2);
+        final List<String> heard = new ArrayList<>();
+        heldEngine.addListener(new TableListener()
+        {
+            @Override
+            public void onMove(final Table<?, ?> table, final int seat, final Object move, final long queuedNanos,
+                    final RuntimeException failure) {
+                heard.add("move " + move);
+            }
+
+            @Override
+            public void onClosed(final Table<?, ?> table) {
+                heard.add("closed");
+            }
+        });
+
+        final Table<List<Integer>, Integer> table = heldEngine.open("table", RECORDING_RULES);
+        table.dispatch(0, 1);
+        assertThat(heldEngine.close("table")).isTrue();
+
+        runAll(drains);
+        assertThat(heard).containsExactly("move 1", "closed");
+    }
+
+    @Test
+    public void testLifecycle() {
+        final Table<List<Integer>, Integer> table = engine.open("table", RECORDING_RULES);
+        assertThat(engine.get("table")).isSameAs(table);
+        assertThatIllegalStateException().isThrownBy(() -> engine.open("table", RECORDING_RULES));
+        assertThat(engine.getTableCount()).isEqualTo(1);
+
+        assertThat(engine.close("table")).isTrue();
+        assertThat(engine.close("table")).isFalse();
+        assertThat(table.isClosed()).isTrue();
+        assertThat(engine.get("table")).isNull();
+        assertThatThrownBy(() -> table.dispatch(0, 1).get(5, SECONDS)).hasCauseInstanceOf(
+                IllegalStateException.class).hasMessageContaining("Table table is closed!");
+    }
+
+    private static void runAll(final List<Runnable> drains) {
+        while (!drains.isEmpty()) {
+            drains.remove(0).run();
+        }
+    }
+}
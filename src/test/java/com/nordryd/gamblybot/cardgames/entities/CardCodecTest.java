@@ -0,0 +1,71 @@
+package com.nordryd.gamblybot.cardgames.entities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link CardCodec}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class CardCodecTest
+{
+    @Test
+    public void testFormat() {
+        assertThat(CardCodec.format(Card.get(Rank.ACE).of(Suit.SPADES))).isEqualTo("AS");
+        assertThat(CardCodec.format(Card.get(Rank.TEN).of(Suit.DIAMONDS))).isEqualTo("TD");
+        assertThat(CardCodec.format(Card.get(Rank.SEVEN).of(Suit.HEARTS).getId())).isEqualTo("7H");
+        assertThat(CardCodec.format(Card.get(Rank.TWO).of(Suit.CLUBS))).isEqualTo("2C");
+    }
+
+    @Test
+    public void testParse() {
+        assertThat(CardCodec.parse("AS")).isEqualTo(Card.get(Rank.ACE).of(Suit.SPADES));
+        assertThat(CardCodec.parse("td")).isEqualTo(Card.get(Rank.TEN).of(Suit.DIAMONDS));
+        assertThat(CardCodec.parse("7h")).isEqualTo(Card.get(Rank.SEVEN).of(Suit.HEARTS));
+        assertThat(CardCodec.parseId("play KC now", 5)).isEqualTo(Card.get(Rank.KING).of(Suit.CLUBS).getId());
+    }
+
+    @Test
+    public void testEveryCardRoundTrips() {
+        final byte[] bytes = new byte[Card.CARD_COUNT * CardCodec.CODE_LENGTH];
+        int offset = 0;
+        for (int cardId = 0; cardId < Card.CARD_COUNT; cardId++) {
+            assertThat(CardCodec.parse(CardCodec.format(cardId)).getId()).isEqualTo(cardId);
+            offset = CardCodec.encode(cardId, bytes, offset);
+        }
+
+        for (int cardId = 0; cardId < Card.CARD_COUNT; cardId++) {
+            assertThat(CardCodec.decode(bytes, cardId * CardCodec.CODE_LENGTH)).isEqualTo(cardId);
+        }
+    }
+
+    @Test
+    public void testNotACard() {
+        assertThat(CardCodec.parseId("1S", 0)).isEqualTo(-1);
+        assertThat(CardCodec.parseId("AX", 0)).isEqualTo(-1);
+        assertThat(CardCodec.parseId("A", 0)).isEqualTo(-1);
+        assertThat(CardCodec.parseId("A\u2660", 0)).isEqualTo(-1);
+        assertThat(CardCodec.decode(new byte[] { 'Z', 'S' }, 0)).isEqualTo(-1);
+        assertThat(assertThrows(IllegalArgumentException.class, () -> CardCodec.parse("10S")).getMessage())
+                .isEqualTo("\"10S\" is not a card!");
+    }
+
+    @Test
+    public void testParseAll() {
+        final CardSet cards = CardCodec.parseAll("AS, kd 7h");
+        assertThat(cards).isEqualTo(CardSet.of(Card.get(Rank.ACE).of(Suit.SPADES),
+                Card.get(Rank.KING).of(Suit.DIAMONDS), Card.get(Rank.SEVEN).of(Suit.HEARTS)));
+        assertThat(CardCodec.parseAll("")).isEqualTo(CardSet.EMPTY);
+        assertThat(cards.toString()).isEqualTo("[KD 7H AS]");
+        assertThrows(IllegalArgumentException.class, () -> CardCodec.parseAll("AS KDX"));
+        assertThrows(IllegalArgumentException.class, () -> CardCodec.parseAll("AS K"));
+        assertThrows(IllegalArgumentException.class, () -> CardCodec.parseAll("AS as"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.nordryd.gamblybot.cardgames.entities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link CardSet}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class CardSetTest
+{
+    private static final Card TWO_OF_CLUBS = Card.get(Rank.TWO).of(Suit.CLUBS);
+    private static final Card ACE_OF_HEARTS = Card.get(Rank.ACE).of(Suit.HEARTS);
+    private static final Card ACE_OF_SPADES = Card.get(Rank.ACE).of(Suit.SPADES);
+    private static final Card KING_OF_HEARTS = Card.get(Rank.KING).of(Suit.HEARTS);
+
+    @Test
+    public void testWithAndWithout() {
+        final CardSet set = CardSet.EMPTY.with(ACE_OF_HEARTS).with(TWO_OF_CLUBS).with(ACE_OF_HEARTS);
+        assertThat(set.size()).isEqualTo(2);
+        assertThat(set.contains(ACE_OF_HEARTS)).isTrue();
+        assertThat(set.contains(ACE_OF_SPADES)).isFalse();
+        assertThat(set.without(ACE_OF_HEARTS)).isEqualTo(CardSet.of(TWO_OF_CLUBS));
+        assertThat(set.without(ACE_OF_HEARTS).without(TWO_OF_CLUBS)).isSameAs(CardSet.EMPTY);
+    }
+
+    @Test
+    public void testSetOperations() {
+        final CardSet aces = CardSet.of(ACE_OF_HEARTS, ACE_OF_SPADES);
+        final CardSet hearts = CardSet.of(ACE_OF_HEARTS, KING_OF_HEARTS);
+        assertThat(aces.union(hearts).size()).isEqualTo(3);
+        assertThat(aces.intersection(hearts)).isEqualTo(CardSet.of(ACE_OF_HEARTS));
+        assertThat(aces.minus(hearts)).isEqualTo(CardSet.of(ACE_OF_SPADES));
+        assertThat(CardSet.ALL.containsAll(aces)).isTrue();
+        assertThat(aces.containsAll(hearts)).isFalse();
+    }
+
+    @Test
+    public void testProjections() {
+        final CardSet set = CardSet.of(ACE_OF_HEARTS, ACE_OF_SPADES, KING_OF_HEARTS, TWO_OF_CLUBS);
+        assertThat(set.countOf(Rank.ACE)).isEqualTo(2);
+        assertThat(set.countOf(Suit.HEARTS)).isEqualTo(2);
+        assertThat(set.countOf(Suit.DIAMONDS)).isZero();
+        assertThat(set.ranksOf(Suit.HEARTS)).isEqualTo((1 << Rank.ACE.ordinal()) | (1 << Rank.KING.ordinal()));
+        assertThat(set.ranks()).isEqualTo(
+                (1 << Rank.ACE.ordinal()) | (1 << Rank.KING.ordinal()) | (1 << Rank.TWO.ordinal()));
+        assertThat(CardSet.ofRanks(Rank.TEN, Rank.JACK).size()).isEqualTo(8);
+        assertThat(CardSet.ofRanks(Rank.TEN).countOf(Rank.TEN)).isEqualTo(4);
+    }
+
+    @Test
+    public void testIteration() {
+        final CardSet set = CardSet.of(ACE_OF_SPADES, TWO_OF_CLUBS, KING_OF_HEARTS);
+        final List<Card> cards = new ArrayList<>();
+        for (int id = set.nextId(0); id >= 0; id = set.nextId(id + 1)) {
+            cards.add(Card.fromId(id));
+        }
+        assertThat(cards).containsExactly(TWO_OF_CLUBS, KING_OF_HEARTS, ACE_OF_SPADES);
+        assertThat(set.toList()).isEqualTo(cards);
+        assertThat(CardSet.ALL.toList()).doesNotHaveDuplicates().hasSize(Card.CARD_COUNT);
+    }
+
+    @Test
+    public void testIdAt() {
+        final CardSet set = CardSet.of(ACE_OF_SPADES, TWO_OF_CLUBS, KING_OF_HEARTS);
+        assertThat(set.idAt(0)).isEqualTo(TWO_OF_CLUBS.getId());
+        assertThat(set.idAt(1)).isEqualTo(KING_OF_HEARTS.getId());
+        assertThat(set.idAt(2)).isEqualTo(ACE_OF_SPADES.getId());
+        for (int index = 0; index < Card.CARD_COUNT; index++) {
+            assertThat(CardSet.ALL.idAt(index)).isEqualTo(index);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> set.idAt(3));
+    }
+
+    @Test
+    public void testFromBits() {
+        assertThat(CardSet.fromBits(CardSet.ALL.getBits())).isSameAs(CardSet.ALL);
+        assertThat(CardSet.fromBits(CardSet.bitOf(ACE_OF_SPADES))).isEqualTo(CardSet.of(ACE_OF_SPADES));
+        assertThat(assertThrows(IllegalArgumentException.class, () -> CardSet.fromBits(1L << Card.CARD_COUNT))
+                .getMessage()).isEqualTo("A card set can only have bits 0 to 51 set!");
+    }
+}
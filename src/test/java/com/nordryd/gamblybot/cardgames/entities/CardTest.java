@@ -183,6 +183,28 @@ public class CardTest
                 .isEqualByComparingTo(BattleResult.TIE);
     }
 
+    @Test
+    public void testBuilderReturnsSameInstance() {
+        assertThat(Card.get(Rank.NINE).of(Suit.SPADES)).isSameAs(Card.get(Rank.NINE).of(Suit.SPADES));
+    }
+
+    @Test
+    public void testIds() {
+        for (int id = 0; id < Card.CARD_COUNT; id++) {
+            assertThat(Card.fromId(id).getId()).isEqualTo(id);
+        }
+        assertThat(Card.get(Rank.TWO).of(Suit.CLUBS).getId()).isZero();
+        assertThat(Card.get(Rank.ACE).of(Suit.SPADES).getId()).isEqualTo(Card.CARD_COUNT - 1);
+    }
+
+    @Test
+    public void testFromIdOutOfRange() {
+        assertThat(assertThrows(IllegalArgumentException.class, () -> Card.fromId(Card.CARD_COUNT)).getMessage())
+                .isEqualTo("A card's ID must be between 0 and 51");
+        assertThat(assertThrows(IllegalArgumentException.class, () -> Card.fromId(-1)).getMessage())
+                .isEqualTo("A card's ID must be between 0 and 51");
+    }
+
     @Test
     public void testToString() {
         assertThat(Card.get(Rank.JACK).of(Suit.HEARTS).toString()).isEqualTo("JACK of HEARTS");
@@ -0,0 +1,82 @@
+package com.nordryd.gamblybot.cardgames.entities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link DeckPool}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class DeckPoolTest
+{
+    private static final int[] ALL_CARD_IDS = IntStream.range(0, Card.CARD_COUNT).toArray();
+
+    @Test
+    public void testTakeWithoutFillerShufflesOnTheSpot() {
+        final DeckPool pool = new DeckPool(new Random(3), 2, 8);
+        assertIsPermutation(pool.take());
+        assertIsPermutation(pool.take());
+        assertThat(pool.getMissCount()).isEqualTo(2);
+        assertThat(pool.getSize()).isZero();
+    }
+
+    @Test
+    public void testFillerKeepsPoolFilled() throws InterruptedException {
+        final DeckPool pool = new DeckPool(new Random(3), 4, 8);
+        pool.start();
+        try {
+            waitForSize(pool, 4);
+            for (int take = 0; take < 4; take++) {
+                assertIsPermutation(pool.take());
+            }
+            assertThat(pool.getMissCount()).isZero();
+            waitForSize(pool, 4);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPooledDeckDealsEveryCardBeforeSwapping() {
+        final DeckPool pool = new DeckPool(new Random(5), 1, 1);
+        final Deck deck = new Deck(pool);
+        final boolean[] seen = new boolean[Card.CARD_COUNT];
+        for (int draw = 0; draw < Card.CARD_COUNT; draw++) {
+            final int id = deck.draw().getId();
+            assertThat(seen[id]).isFalse();
+            seen[id] = true;
+        }
+        assertThat(deck.getRemainingCardIds()).hasSize(Card.CARD_COUNT);
+        assertThat(pool.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInvalidSizes() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new DeckPool(new Random(), 0, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> new DeckPool(new Random(), 4, 2));
+    }
+
+    private static void assertIsPermutation(final int[] order) {
+        final int[] sorted = order.clone();
+        Arrays.sort(sorted);
+        assertThat(sorted).isEqualTo(ALL_CARD_IDS);
+    }
+
+    private static void waitForSize(final DeckPool pool, final int size) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while ((pool.getSize() < size) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(5);
+        }
+        assertThat(pool.getSize()).isEqualTo(size);
+    }
+}
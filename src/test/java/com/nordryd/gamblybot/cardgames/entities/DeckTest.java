@@ -8,6 +8,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.intThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -67,8 +69,10 @@ public class DeckTest
     public void testDrawEntireDeckThenDrawOne() {
         when(rng.nextInt(intThat(integer -> integer > 0))).thenReturn(SOME_DECK_INDEX);
         when(rng.nextInt(intThat(integer -> integer <= SOME_DECK_INDEX))).thenCallRealMethod();
-        assertThat(deck.draw(52)).containsAll(ALL_POSSIBLE_CARDS);
+        final List<Card> drawn = deck.draw(52);
+        assertThat(CardSet.of(drawn)).isEqualTo(CardSet.ALL);
         assertThat(deck.draw()).isEqualTo(DRAWN_1ST);
+        assertThat(deck.getRemaining()).isEqualTo(CardSet.ALL.without(DRAWN_1ST));
         verify(rng, times(53)).nextInt(anyInt());
     }
 
@@ -82,6 +86,29 @@ public class DeckTest
         verify(rng, times(53)).nextInt(anyInt());
     }
 
+    @Test
+    public void testRestore() {
+        final Deck restored = Deck.restore(rng, new int[] {DRAWN_1ST.getId(), DRAWN_2ND.getId()});
+        assertThat(restored.getRemainingCardIds()).containsExactly(DRAWN_1ST.getId(), DRAWN_2ND.getId());
+        assertThat(assertThrows(IllegalArgumentException.class, () -> Deck.restore(rng, new int[0])).getMessage())
+                .isEqualTo("A restored deck must have at least one card remaining!");
+        assertThat(assertThrows(IllegalArgumentException.class,
+                () -> Deck.restore(rng, new int[] {DRAWN_1ST.getId(), DRAWN_1ST.getId()})).getMessage())
+                .isEqualTo("A restored deck cannot hold the same card twice!");
+    }
+
+    @Test
+    public void testPooledDeckSwapsInNextOrder() {
+        final DeckPool pool = mock(DeckPool.class);
+        final int[] order = new int[] {DRAWN_2ND.getId(), DRAWN_1ST.getId()};
+        when(pool.take()).thenReturn(order).thenReturn(order.clone());
+        final Deck pooled = new Deck(pool);
+        assertThat(pooled.draw(2)).containsExactly(DRAWN_1ST, DRAWN_2ND);
+        assertThat(pooled.getRemainingCardIds()).hasSize(2);
+        verify(pool, times(2)).take();
+        verify(rng, never()).nextInt(anyInt());
+    }
+
     @Test
     public void testDrawMultipleZero() {
         assertThat(assertThrows(IllegalArgumentException.class, () -> deck.draw(0)).getMessage())
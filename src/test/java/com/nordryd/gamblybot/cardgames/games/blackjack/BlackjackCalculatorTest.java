@@ -0,0 +1,121 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Collections;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Action;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Expectation;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link BlackjackCalculator}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackCalculatorTest
+{
+    private static final Card KING_OF_HEARTS = Card.get(Rank.KING).of(Suit.HEARTS);
+    private static final Card TEN_OF_CLUBS = Card.get(Rank.TEN).of(Suit.CLUBS);
+    private static final Card SIX_OF_DIAMONDS = Card.get(Rank.SIX).of(Suit.DIAMONDS);
+    private static final Card FIVE_OF_SPADES = Card.get(Rank.FIVE).of(Suit.SPADES);
+    private static final Card EIGHT_OF_CLUBS = Card.get(Rank.EIGHT).of(Suit.CLUBS);
+    private static final Card EIGHT_OF_HEARTS = Card.get(Rank.EIGHT).of(Suit.HEARTS);
+    private static final Card ACE_OF_SPADES = Card.get(Rank.ACE).of(Suit.SPADES);
+
+    private final BlackjackCalculator calculator = new BlackjackCalculator(1 << 16);
+
+    @Test
+    public void testOnlyTensLeft() {
+        final int[] shoe = BlackjackCalculator.shoeOf(Collections.nCopies(20, TEN_OF_CLUBS));
+
+        final Expectation twenty = calculator.analyze(shoe, asList(KING_OF_HEARTS, TEN_OF_CLUBS), KING_OF_HEARTS);
+        assertThat(twenty.of(Action.STAY)).isCloseTo(0.0, within(1e-9));
+        assertThat(twenty.of(Action.HIT)).isCloseTo(-1.0, within(1e-9));
+        assertThat(twenty.of(Action.DOUBLE_DOWN)).isCloseTo(-2.0, within(1e-9));
+        assertThat(twenty.of(Action.SPLIT)).isCloseTo(0.0, within(1e-9));
+
+        final Expectation sixteen = calculator.analyze(shoe, asList(TEN_OF_CLUBS, SIX_OF_DIAMONDS), SIX_OF_DIAMONDS);
+        assertThat(sixteen.of(Action.STAY)).isCloseTo(1.0, within(1e-9));
+        assertThat(sixteen.best()).isEqualTo(Action.STAY);
+    }
+
+    @Test
+    public void testBasicStrategyDecisions() {
+        assertThat(analyzeFreshDeck(SIX_OF_DIAMONDS, FIVE_OF_SPADES, SIX_OF_DIAMONDS).best())
+                .isEqualTo(Action.DOUBLE_DOWN);
+        assertThat(analyzeFreshDeck(EIGHT_OF_CLUBS, EIGHT_OF_HEARTS, TEN_OF_CLUBS).best()).isEqualTo(Action.SPLIT);
+        assertThat(analyzeFreshDeck(TEN_OF_CLUBS, SIX_OF_DIAMONDS, KING_OF_HEARTS).best())
+                .isEqualTo(Action.SURRENDER);
+        assertThat(analyzeFreshDeck(TEN_OF_CLUBS, EIGHT_OF_CLUBS, SIX_OF_DIAMONDS).best()).isEqualTo(Action.STAY);
+    }
+
+    @Test
+    public void testBlackjackPaysThreeToTwo() {
+        final Expectation blackjack = analyzeFreshDeck(ACE_OF_SPADES, KING_OF_HEARTS, SIX_OF_DIAMONDS);
+        assertThat(blackjack.of(Action.STAY)).isEqualTo(1.5);
+        assertThat(blackjack.of(Action.HIT)).isNaN();
+        assertThat(blackjack.best()).isEqualTo(Action.STAY);
+    }
+
+    @Test
+    public void testHouseRules() {
+        final Card sevenOfSpades = Card.get(Rank.SEVEN).of(Suit.SPADES);
+        final BlackjackCalculator hitsSoft17 =
+                new BlackjackCalculator(1 << 16, BlackjackRuleSet.builder().dealerHitsSoft17(true).build());
+        assertThat(analyzeFreshDeck(calculator, TEN_OF_CLUBS, sevenOfSpades, ACE_OF_SPADES).best())
+                .isEqualTo(Action.STAY);
+        assertThat(analyzeFreshDeck(hitsSoft17, TEN_OF_CLUBS, sevenOfSpades, ACE_OF_SPADES).best())
+                .isEqualTo(Action.SURRENDER);
+
+        final BlackjackCalculator sixToFiveNoSurrender = new BlackjackCalculator(1 << 16,
+                BlackjackRuleSet.builder().surrender(BlackjackRuleSet.Surrender.NONE)
+                        .blackjackPayout(BlackjackRuleSet.BlackjackPayout.SIX_TO_FIVE).build());
+        assertThat(analyzeFreshDeck(sixToFiveNoSurrender, ACE_OF_SPADES, KING_OF_HEARTS, SIX_OF_DIAMONDS)
+                .of(Action.STAY)).isEqualTo(1.2);
+        final Expectation sixteen = analyzeFreshDeck(sixToFiveNoSurrender, TEN_OF_CLUBS, SIX_OF_DIAMONDS,
+                KING_OF_HEARTS);
+        assertThat(sixteen.of(Action.SURRENDER)).isNaN();
+        assertThat(sixteen.best()).isEqualTo(Action.HIT);
+    }
+
+    @Test
+    public void testAnswersAreCached() {
+        analyzeFreshDeck(TEN_OF_CLUBS, SIX_OF_DIAMONDS, KING_OF_HEARTS);
+        final int cached = calculator.getCachedCount();
+        assertThat(cached).isPositive();
+        analyzeFreshDeck(TEN_OF_CLUBS, SIX_OF_DIAMONDS, KING_OF_HEARTS);
+        assertThat(calculator.getCachedCount()).isEqualTo(cached);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new BlackjackCalculator(0));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> calculator.analyze(BlackjackCalculator.shoe(1), asList(TEN_OF_CLUBS), SIX_OF_DIAMONDS));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> calculator.analyze(BlackjackCalculator.shoe(16), asList(TEN_OF_CLUBS, SIX_OF_DIAMONDS),
+                        SIX_OF_DIAMONDS));
+    }
+
+    private Expectation analyzeFreshDeck(final Card first, final Card second, final Card upcard) {
+        return analyzeFreshDeck(calculator, first, second, upcard);
+    }
+
+    private static Expectation analyzeFreshDeck(final BlackjackCalculator calculator, final Card first,
+            final Card second, final Card upcard) {
+        final int[] shoe = BlackjackCalculator.shoe(1), seen = BlackjackCalculator.shoeOf(asList(first, second, upcard));
+        for (int value = 0; value < BlackjackCalculator.VALUES; value++) {
+            shoe[value] -= seen[value];
+        }
+        return calculator.analyze(shoe, asList(first, second), upcard);
+    }
+}
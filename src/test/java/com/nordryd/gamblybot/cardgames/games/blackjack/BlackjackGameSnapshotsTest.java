@@ -0,0 +1,92 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link BlackjackGameSnapshots}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackGameSnapshotsTest
+{
+    @Test
+    public void testRoundTrip() throws IOException {
+        final BlackjackGame game = new BlackjackGame(new Deck(new Random(7)));
+        for (int seat = 0; seat < 7; seat++) {
+            game.addPlayer(10 * (seat + 1));
+        }
+        game.getPlayers().get(0).getHands().get(0).hit();
+        game.getPlayers().get(1).getHands().get(0).stay();
+        game.getPlayers().get(2).play();
+        game.getPlayers().get(3).getHands().get(0).doubleDown();
+
+        final BlackjackGame restored = roundTrip(game);
+        assertThat(restored.getDeck().getRemainingCardIds()).isEqualTo(game.getDeck().getRemainingCardIds());
+        assertPlayer(restored.getDealer(), game.getDealer());
+        assertThat(restored.getPlayers()).hasSameSizeAs(game.getPlayers());
+        for (int seat = 0; seat < game.getPlayers().size(); seat++) {
+            assertPlayer(restored.getPlayers().get(seat), game.getPlayers().get(seat));
+        }
+    }
+
+    @Test
+    public void testRoundTripKeepsHouseRules() throws IOException {
+        final BlackjackRuleSet ruleSet = BlackjackRuleSet.builder().dealerHitsSoft17(true).resplitAces(true)
+                .blackjackPayout(BlackjackRuleSet.BlackjackPayout.SIX_TO_FIVE).build();
+        final BlackjackGame game = new BlackjackGame(new Deck(new Random(7)), ruleSet);
+        game.addPlayer(10);
+        assertThat(roundTrip(game).getRuleSet()).isEqualTo(ruleSet);
+    }
+
+    @Test
+    public void testRestoredGameKeepsPlaying() throws IOException {
+        final BlackjackGame game = new BlackjackGame(new Deck(new Random(7)));
+        game.addPlayer(10);
+        final BlackjackGame restored = roundTrip(game);
+        final BlackjackHand hand = restored.getPlayers().get(0).getHands().get(0);
+        final int remaining = restored.getDeck().getRemainingCardIds().length;
+        hand.hit();
+        assertThat(restored.getDeck().getRemainingCardIds()).hasSize(remaining - 1);
+        assertThat(hand.getCards()).hasSize(3);
+    }
+
+    @Test
+    public void testNotASnapshot() {
+        assertThat(assertThrows(IOException.class, () -> BlackjackGameSnapshots
+                .read(new DataInputStream(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4 })), new Random()))
+                .getMessage()).isEqualTo("Not a blackjack game snapshot");
+    }
+
+    private static BlackjackGame roundTrip(final BlackjackGame game) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BlackjackGameSnapshots.write(game, new DataOutputStream(bytes));
+        return BlackjackGameSnapshots.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                new Random());
+    }
+
+    private static void assertPlayer(final BlackjackPlayer restored, final BlackjackPlayer original) {
+        assertThat(restored.getState()).isEqualByComparingTo(original.getState());
+        assertThat(restored.getWager()).isEqualTo(original.getWager());
+        assertThat(restored.getHands()).hasSameSizeAs(original.getHands());
+        for (int hand = 0; hand < original.getHands().size(); hand++) {
+            final BlackjackHand restoredHand = restored.getHands().get(hand), originalHand = original.getHands().get(hand);
+            assertThat(restoredHand.getCards()).isEqualTo(originalHand.getCards());
+            assertThat(restoredHand.getValue()).isEqualTo(originalHand.getValue());
+            assertThat(restoredHand.getState()).isEqualByComparingTo(originalHand.getState());
+            assertThat(restoredHand.isDoubled()).isEqualTo(originalHand.isDoubled());
+        }
+    }
+}
@@ -1,5 +1,20 @@
 package com.nordryd.gamblybot.cardgames.games.blackjack;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame.Outcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+
 /**
  * <p>
  * Unit tests for {@link BlackjackGame}.
@@ -7,7 +22,81 @@ package com.nordryd.gamblybot.cardgames.games.blackjack;
  *
  * @author Nordryd
  */
+@ExtendWith(MockitoExtension.class)
 public class BlackjackGameTest
 {
+    private static final Card KING_OF_HEARTS = Card.get(Rank.KING).of(Suit.HEARTS);
+    private static final Card ACE_OF_SPADES = Card.get(Rank.ACE).of(Suit.SPADES);
+    private static final Card SEVEN_OF_DIAMONDS = Card.get(Rank.SEVEN).of(Suit.DIAMONDS);
+    private static final Card EIGHT_OF_CLUBS = Card.get(Rank.EIGHT).of(Suit.CLUBS);
+    private static final Card NINE_OF_CLUBS = Card.get(Rank.NINE).of(Suit.CLUBS);
+
+    @Mock
+    private Deck deck;
+
+    @Test
+    public void testAddPlayer() {
+        when(deck.draw()).thenReturn(KING_OF_HEARTS).thenReturn(SEVEN_OF_DIAMONDS).thenReturn(NINE_OF_CLUBS)
+                .thenReturn(EIGHT_OF_CLUBS);
+        final BlackjackGame game = new BlackjackGame(deck);
+        final BlackjackPlayer player = game.addPlayer(25);
+        assertThat(game.getPlayers()).containsExactly(player);
+        assertThat(player.getWager()).isEqualTo(25);
+        assertThat(game.getDealer().getHands().get(0).getValue()).isEqualTo(17);
+    }
+
+    @Test
+    public void testSettleHigherValueWins() {
+        assertThat(BlackjackGame.settle(hand(KING_OF_HEARTS, NINE_OF_CLUBS), hand(KING_OF_HEARTS, SEVEN_OF_DIAMONDS)))
+                .isEqualByComparingTo(Outcome.WIN);
+        assertThat(BlackjackGame.settle(hand(KING_OF_HEARTS, SEVEN_OF_DIAMONDS), hand(KING_OF_HEARTS, NINE_OF_CLUBS)))
+                .isEqualByComparingTo(Outcome.LOSE);
+    }
+
+    @Test
+    public void testSettleEqualValuePushes() {
+        assertThat(BlackjackGame.settle(hand(KING_OF_HEARTS, NINE_OF_CLUBS), hand(KING_OF_HEARTS, NINE_OF_CLUBS)))
+                .isEqualByComparingTo(Outcome.PUSH);
+    }
+
+    @Test
+    public void testSettleBlackjack() {
+        assertThat(BlackjackGame.settle(hand(KING_OF_HEARTS, ACE_OF_SPADES), hand(KING_OF_HEARTS, NINE_OF_CLUBS)))
+                .isEqualByComparingTo(Outcome.BLACKJACK);
+        assertThat(BlackjackGame.settle(hand(KING_OF_HEARTS, ACE_OF_SPADES), hand(ACE_OF_SPADES, KING_OF_HEARTS)))
+                .isEqualByComparingTo(Outcome.PUSH);
+        assertThat(BlackjackGame.settle(hand(KING_OF_HEARTS, NINE_OF_CLUBS), hand(ACE_OF_SPADES, KING_OF_HEARTS)))
+                .isEqualByComparingTo(Outcome.LOSE);
+    }
+
+    @Test
+    public void testSettleBlackjackBeatsHitTo21() {
+        final BlackjackHand hitTo21 = hand(SEVEN_OF_DIAMONDS, SEVEN_OF_DIAMONDS, SEVEN_OF_DIAMONDS);
+        assertThat(BlackjackGame.settle(hitTo21, hand(KING_OF_HEARTS, ACE_OF_SPADES)))
+                .isEqualByComparingTo(Outcome.LOSE);
+    }
+
+    @Test
+    public void testSettleBust() {
+        final BlackjackHand busted = hand(KING_OF_HEARTS, SEVEN_OF_DIAMONDS, NINE_OF_CLUBS);
+        assertThat(BlackjackGame.settle(busted, hand(KING_OF_HEARTS, SEVEN_OF_DIAMONDS)))
+                .isEqualByComparingTo(Outcome.LOSE);
+        assertThat(BlackjackGame.settle(busted, hand(KING_OF_HEARTS, EIGHT_OF_CLUBS, NINE_OF_CLUBS)))
+                .isEqualByComparingTo(Outcome.LOSE);
+        assertThat(BlackjackGame.settle(hand(KING_OF_HEARTS, SEVEN_OF_DIAMONDS),
+                hand(KING_OF_HEARTS, EIGHT_OF_CLUBS, NINE_OF_CLUBS))).isEqualByComparingTo(Outcome.WIN);
+    }
 
+    private BlackjackHand hand(final Card first, final Card second, final Card... hits) {
+        final Deck handDeck = mock(Deck.class);
+        OngoingStubbing<Card> stubbing = when(handDeck.draw()).thenReturn(first).thenReturn(second);
+        for (final Card hit : hits) {
+            stubbing = stubbing.thenReturn(hit);
+        }
+        final BlackjackHand hand = new BlackjackHand(handDeck);
+        for (int hit = 0; hit < hits.length; hit++) {
+            hand.hit();
+        }
+        return hand;
+    }
 }
@@ -34,6 +34,7 @@ public class BlackjackHandTest
     private static final Card KING_OF_HEARTS = Card.get(Rank.KING).of(Suit.HEARTS);
     private static final Card THREE_OF_CLUBS = Card.get(Rank.THREE).of(Suit.CLUBS);
     private static final Card TWO_OF_CLUBS = Card.get(Rank.TWO).of(Suit.CLUBS);
+    private static final Card TWO_OF_HEARTS = Card.get(Rank.TWO).of(Suit.HEARTS);
     private static final Card ACE_OF_SPADES = Card.get(Rank.ACE).of(Suit.SPADES);
     private static final Card SEVEN_OF_DIAMONDS = Card.get(Rank.SEVEN).of(Suit.DIAMONDS);
 
@@ -154,6 +155,40 @@ public class BlackjackHandTest
         verify(deck, times(2)).draw();
     }
 
+    @Test
+    public void testDoubleDown() {
+        final int expectedValue = 20;
+        when(deck.draw()).thenReturn(THREE_OF_CLUBS).thenReturn(TEN_OF_DIAMONDS).thenReturn(SEVEN_OF_DIAMONDS);
+        final BlackjackHand hand = new BlackjackHand(deck);
+        hand.doubleDown();
+        assertThat(hand.isDoubled()).isTrue();
+        assertHand(hand, BlackjackHand.State.STAYING, expectedValue, THREE_OF_CLUBS, TEN_OF_DIAMONDS,
+                SEVEN_OF_DIAMONDS);
+        verify(deck, times(3)).draw();
+    }
+
+    @Test
+    public void testDoubleDownBusts() {
+        final int expectedValue = 27;
+        when(deck.draw()).thenReturn(QUEEN_OF_HEARTS).thenReturn(SEVEN_OF_DIAMONDS).thenReturn(TEN_OF_DIAMONDS);
+        final BlackjackHand hand = new BlackjackHand(deck);
+        hand.doubleDown();
+        assertThat(hand.isDoubled()).isTrue();
+        assertHand(hand, BlackjackHand.State.BUSTED, expectedValue, QUEEN_OF_HEARTS, SEVEN_OF_DIAMONDS,
+                TEN_OF_DIAMONDS);
+    }
+
+    @Test
+    public void testDoubleDownAfterHit() {
+        when(deck.draw()).thenReturn(TWO_OF_HEARTS).thenReturn(THREE_OF_CLUBS).thenReturn(TWO_OF_CLUBS);
+        final BlackjackHand hand = new BlackjackHand(deck);
+        hand.hit();
+        assertThat(assertThrows(IllegalStateException.class, hand::doubleDown).getMessage())
+                .isEqualTo("Only a hand still on its two initial cards can double down!");
+        assertThat(hand.isDoubled()).isFalse();
+        verify(deck, times(3)).draw();
+    }
+
     @Test
     public void testSplit() {
         final int expectedSplits = 2, expectedValue1stSplit = 9, expectedValue2ndSplit = 17;
@@ -195,14 +230,25 @@ public class BlackjackHandTest
     }
 
     @Test
-    public void testSplit1stSplitIsBlackjack() {
+    public void testSplitKeepsBothCards() {
+        when(deck.draw()).thenReturn(TWO_OF_HEARTS).thenReturn(TWO_OF_CLUBS).thenReturn(THREE_OF_CLUBS)
+                .thenReturn(SEVEN_OF_DIAMONDS);
+        final List<BlackjackHand> splits = new BlackjackHand(deck).split();
+        assertThat(splits.get(0).getCards()).containsExactly(TWO_OF_HEARTS, THREE_OF_CLUBS);
+        assertThat(splits.get(1).getCards()).containsExactly(TWO_OF_CLUBS, SEVEN_OF_DIAMONDS);
+        assertThat(splits.get(0).isSplit()).isTrue();
+        assertThat(splits.get(1).isSplit()).isTrue();
+    }
+
+    @Test
+    public void testSplit1stSplitIs21NotBlackjack() {
         final int expectedSplits = 2, expectedValue1stSplit = 21, expectedValue2ndSplit = 13;
         when(deck.draw()).thenReturn(QUEEN_OF_HEARTS).thenReturn(KING_OF_HEARTS).thenReturn(ACE_OF_SPADES)
                 .thenReturn(THREE_OF_CLUBS);
         final BlackjackHand hand = new BlackjackHand(deck);
         final List<BlackjackHand> splits = hand.split();
         assertEquals(expectedSplits, splits.size());
-        assertHand(splits.get(0), BlackjackHand.State.BLACKJACK, expectedValue1stSplit, QUEEN_OF_HEARTS, ACE_OF_SPADES);
+        assertHand(splits.get(0), BlackjackHand.State.STAYING, expectedValue1stSplit, QUEEN_OF_HEARTS, ACE_OF_SPADES);
         assertHand(splits.get(1), BlackjackHand.State.PLAYING, expectedValue2ndSplit, KING_OF_HEARTS, THREE_OF_CLUBS);
         verify(deck, times(4)).draw();
     }
@@ -219,6 +265,16 @@ public class BlackjackHandTest
         verify(deck, times(2)).draw();
     }
 
+    @Test
+    public void testSplitAfterHit() {
+        when(deck.draw()).thenReturn(TWO_OF_HEARTS).thenReturn(TWO_OF_CLUBS).thenReturn(TEN_OF_DIAMONDS);
+        final BlackjackHand hand = new BlackjackHand(deck);
+        hand.hit();
+        assertThat(assertThrows(IllegalStateException.class, hand::split).getMessage())
+                .isEqualTo("split() was called on a hand that has already been hit!");
+        assertThat(hand.getCards()).containsExactly(TWO_OF_HEARTS, TWO_OF_CLUBS, TEN_OF_DIAMONDS);
+    }
+
     @Test
     public void testHitOnBlackjackState() {
         final int expectedValue = 21;
@@ -272,6 +328,28 @@ public class BlackjackHandTest
         verify(deck, times(3)).draw();
     }
 
+    @Test
+    public void testSoftAces() {
+        when(deck.draw()).thenReturn(ACE_OF_SPADES);
+        final BlackjackHand hand = new BlackjackHand(deck);
+        assertThat(hand.isSoft()).isTrue();
+        assertThat(hand.isPair()).isTrue();
+        hand.hit();
+        assertHand(hand, BlackjackHand.State.PLAYING, 13, ACE_OF_SPADES, ACE_OF_SPADES, ACE_OF_SPADES);
+        assertThat(hand.isSoft()).isTrue();
+        assertThat(hand.isPair()).isFalse();
+    }
+
+    @Test
+    public void testSoftAceTurnsHard() {
+        when(deck.draw()).thenReturn(ACE_OF_SPADES).thenReturn(SEVEN_OF_DIAMONDS).thenReturn(KING_OF_HEARTS);
+        final BlackjackHand hand = new BlackjackHand(deck);
+        assertThat(hand.isSoft()).isTrue();
+        hand.hit();
+        assertHand(hand, BlackjackHand.State.PLAYING, 18, ACE_OF_SPADES, SEVEN_OF_DIAMONDS, KING_OF_HEARTS);
+        assertThat(hand.isSoft()).isFalse();
+    }
+
     private void assertHand(final BlackjackHand hand, final BlackjackHand.State expectedState, final int expectedValue,
             final Card... expectedCards) {
         assertThat(hand.getState()).isEqualByComparingTo(expectedState);
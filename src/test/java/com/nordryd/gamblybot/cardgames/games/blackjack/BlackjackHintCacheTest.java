@@ -0,0 +1,123 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Action;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * <p>
+ * Unit tests for {@link BlackjackHintCache}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@ExtendWith(MockitoExtension.class)
+public class BlackjackHintCacheTest
+{
+    private static final Card TEN_OF_DIAMONDS = Card.get(Rank.TEN).of(Suit.DIAMONDS);
+    private static final Card KING_OF_CLUBS = Card.get(Rank.KING).of(Suit.CLUBS);
+    private static final Card SIX_OF_HEARTS = Card.get(Rank.SIX).of(Suit.HEARTS);
+    private static final Card FIVE_OF_SPADES = Card.get(Rank.FIVE).of(Suit.SPADES);
+    private static final Card EIGHT_OF_HEARTS = Card.get(Rank.EIGHT).of(Suit.HEARTS);
+    private static final Card EIGHT_OF_SPADES = Card.get(Rank.EIGHT).of(Suit.SPADES);
+    private static final Card ACE_OF_SPADES = Card.get(Rank.ACE).of(Suit.SPADES);
+    private static final Card ACE_OF_HEARTS = Card.get(Rank.ACE).of(Suit.HEARTS);
+
+    @Mock
+    private Deck deck;
+
+    private BlackjackHintCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new BlackjackHintCache(new BlackjackCalculator(1 << 16), 1);
+    }
+
+    @Test
+    public void testSurrenderSixteenAgainstTen() {
+        when(deck.draw()).thenReturn(TEN_OF_DIAMONDS).thenReturn(SIX_OF_HEARTS);
+        assertThat(cache.hint(new BlackjackHand(deck), KING_OF_CLUBS)).isEqualByComparingTo(Action.SURRENDER);
+    }
+
+    @Test
+    public void testSplitEightsAgainstTen() {
+        when(deck.draw()).thenReturn(EIGHT_OF_HEARTS).thenReturn(EIGHT_OF_SPADES);
+        assertThat(cache.hint(new BlackjackHand(deck), KING_OF_CLUBS)).isEqualByComparingTo(Action.SPLIT);
+    }
+
+    @Test
+    public void testDoubleDownElevenAgainstSix() {
+        when(deck.draw()).thenReturn(FIVE_OF_SPADES).thenReturn(SIX_OF_HEARTS);
+        assertThat(cache.hint(new BlackjackHand(deck), SIX_OF_HEARTS)).isEqualByComparingTo(Action.DOUBLE_DOWN);
+    }
+
+    @Test
+    public void testSplitHandWithoutDoubleAfterSplit() {
+        final BlackjackHintCache noDoubleAfterSplit = new BlackjackHintCache(
+                new BlackjackCalculator(1 << 16, BlackjackRuleSet.builder().doubleAfterSplit(false).build()), 1);
+        assertThat(noDoubleAfterSplit.hint(splitHand(FIVE_OF_SPADES, SIX_OF_HEARTS), SIX_OF_HEARTS))
+                .isEqualByComparingTo(Action.HIT);
+        assertThat(noDoubleAfterSplit.hint(hand(FIVE_OF_SPADES, SIX_OF_HEARTS), SIX_OF_HEARTS))
+                .isEqualByComparingTo(Action.DOUBLE_DOWN);
+        assertThat(cache.hint(splitHand(FIVE_OF_SPADES, SIX_OF_HEARTS), SIX_OF_HEARTS))
+                .isEqualByComparingTo(Action.DOUBLE_DOWN);
+    }
+
+    @Test
+    public void testSplitHandWithLateSurrender() {
+        assertThat(cache.hint(splitHand(TEN_OF_DIAMONDS, SIX_OF_HEARTS), KING_OF_CLUBS))
+                .isEqualByComparingTo(Action.HIT);
+        assertThat(cache.hint(hand(TEN_OF_DIAMONDS, SIX_OF_HEARTS), KING_OF_CLUBS))
+                .isEqualByComparingTo(Action.SURRENDER);
+    }
+
+    @Test
+    public void testSplitAcesWithoutResplitting() {
+        assertThat(cache.hint(splitHand(ACE_OF_SPADES, ACE_OF_HEARTS), SIX_OF_HEARTS))
+                .isEqualByComparingTo(Action.HIT);
+        assertThat(cache.hint(hand(ACE_OF_SPADES, ACE_OF_HEARTS), SIX_OF_HEARTS))
+                .isEqualByComparingTo(Action.SPLIT);
+    }
+
+    @Test
+    public void testHintIsCachedOncePerKey() {
+        when(deck.draw()).thenReturn(TEN_OF_DIAMONDS).thenReturn(SIX_OF_HEARTS);
+        final BlackjackHand hand = new BlackjackHand(deck);
+        assertThat(cache.getCachedCount()).isZero();
+        final Action hint = cache.hint(hand, KING_OF_CLUBS);
+        assertThat(cache.hint(hand, TEN_OF_DIAMONDS)).isEqualByComparingTo(hint);
+        assertThat(cache.getCachedCount()).isEqualTo(1);
+        cache.hint(hand, KING_OF_CLUBS, BlackjackHintCache.MAX_TRUE_COUNT + 10);
+        cache.hint(hand, KING_OF_CLUBS, BlackjackHintCache.MAX_TRUE_COUNT);
+        assertThat(cache.getCachedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testHintForFinishedHand() {
+        when(deck.draw()).thenReturn(TEN_OF_DIAMONDS).thenReturn(SIX_OF_HEARTS);
+        final BlackjackHand hand = new BlackjackHand(deck);
+        hand.stay();
+        assertThat(assertThrows(IllegalStateException.class, () -> cache.hint(hand, KING_OF_CLUBS)).getMessage())
+                .isEqualTo("Cannot give a hint for a hand that is not being played!");
+    }
+
+    private static BlackjackHand hand(final Card first, final Card second) {
+        return new BlackjackHand(null, asList(first, second), BlackjackHand.State.PLAYING);
+    }
+
+    private static BlackjackHand splitHand(final Card first, final Card second) {
+        return new BlackjackHand(null, asList(first, second), BlackjackHand.State.PLAYING, true);
+    }
+}
@@ -0,0 +1,113 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link BlackjackIdleTableStore}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackIdleTableStoreTest
+{
+    private static final int IDLE_TABLES = 100_000;
+    private static final int MAX_PACKED_BYTES_PER_TABLE = 40, MAX_RETAINED_BYTES_PER_TABLE = 192;
+    private static final int GC_PASSES = 3;
+
+    private final Random rng = new Random(7);
+    private final BlackjackIdleTableStore store = new BlackjackIdleTableStore(rng);
+
+    @Test
+    public void testInflatedTableMatchesParkedTable() {
+        final BlackjackGame game = new BlackjackGame(new Deck(rng));
+        for (int seat = 0; seat < 3; seat++) {
+            game.addPlayer(10 * (seat + 1));
+        }
+        game.getPlayers().get(0).getHands().get(0).hit();
+        game.getPlayers().get(1).play();
+
+        store.park("table", game);
+        assertThat(store.contains("table")).isTrue();
+        final BlackjackGame inflated = store.inflate("table");
+
+        assertThat(store.contains("table")).isFalse();
+        assertThat(inflated.getDeck().getRemaining()).isEqualTo(game.getDeck().getRemaining());
+        assertThat(inflated.getDealer().getHands().get(0).getCards()).isEqualTo(
+                game.getDealer().getHands().get(0).getCards());
+        assertThat(inflated.getPlayers()).hasSameSizeAs(game.getPlayers());
+        for (int seat = 0; seat < game.getPlayers().size(); seat++) {
+            final BlackjackPlayer inflatedPlayer = inflated.getPlayers().get(seat);
+            final BlackjackPlayer player = game.getPlayers().get(seat);
+            assertThat(inflatedPlayer.getState()).isEqualByComparingTo(player.getState());
+            assertThat(inflatedPlayer.getWager()).isEqualTo(player.getWager());
+            assertThat(inflatedPlayer.getHands().get(0).getCards()).isEqualTo(player.getHands().get(0).getCards());
+            assertThat(inflatedPlayer.getHands().get(0).getState()).isEqualByComparingTo(
+                    player.getHands().get(0).getState());
+        }
+    }
+
+    @Test
+    public void testInflatedTableKeepsPlaying() {
+        final BlackjackGame game = new BlackjackGame(new Deck(rng));
+        game.addPlayer(10);
+        store.park("table", game);
+
+        final BlackjackGame inflated = store.inflate("table");
+        final int remaining = inflated.getDeck().getRemainingCount();
+        inflated.getPlayers().get(0).getHands().get(0).hit();
+        assertThat(inflated.getDeck().getRemainingCount()).isEqualTo(remaining - 1);
+    }
+
+    @Test
+    public void testBytesPerIdleTable() {
+        final long heapBefore = usedHeap();
+        for (int table = 0; table < IDLE_TABLES; table++) {
+            final BlackjackGame game = new BlackjackGame(new Deck(rng));
+            game.addPlayer(10);
+            store.park("channel" + table, game);
+        }
+
+        // everything the store holds on to: the packed arrays and their headers, the map's entries and table, and IDs
+        final long retainedBytesPerTable = (usedHeap() - heapBefore) / IDLE_TABLES;
+        final long packedBytesPerTable = store.getPackedBytes() / store.getTableCount();
+        System.out.printf("Idle one-player table: %d bytes of heap retained, %d bytes packed%n", retainedBytesPerTable,
+                packedBytesPerTable);
+        assertThat(store.getTableCount()).isEqualTo(IDLE_TABLES);
+        assertThat(packedBytesPerTable).describedAs("packed bytes per idle one-player table")
+                .isLessThanOrEqualTo(MAX_PACKED_BYTES_PER_TABLE);
+        assertThat(retainedBytesPerTable).describedAs("bytes of heap retained per idle one-player table")
+                .isLessThanOrEqualTo(MAX_RETAINED_BYTES_PER_TABLE);
+    }
+
+    @Test
+    public void testReparkingAndRemovingKeepsByteCount() {
+        final BlackjackGame game = new BlackjackGame(new Deck(rng));
+        store.park("table", game);
+        final long packedBytes = store.getPackedBytes();
+
+        game.addPlayer(10);
+        store.park("table", game);
+        assertThat(store.getTableCount()).isEqualTo(1);
+        assertThat(store.getPackedBytes()).isGreaterThan(packedBytes);
+
+        assertThat(store.remove("table")).isTrue();
+        assertThat(store.remove("table")).isFalse();
+        assertThat(store.getPackedBytes()).isZero();
+        assertThat(store.inflate("table")).isNull();
+    }
+
+    private static long usedHeap() {
+        // a few passes let the collector settle, so only live objects are left counted
+        for (int pass = 0; pass < GC_PASSES; pass++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
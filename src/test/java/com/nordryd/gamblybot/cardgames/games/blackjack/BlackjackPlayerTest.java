@@ -1,6 +1,15 @@
 package com.nordryd.gamblybot.cardgames.games.blackjack;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.Mockito.when;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
 import com.nordryd.gamblybot.cardgames.entities.Deck;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,6 +24,119 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 public class BlackjackPlayerTest
 {
+    private static final Card TEN_OF_DIAMONDS = Card.get(Rank.TEN).of(Suit.DIAMONDS);
+    private static final Card THREE_OF_CLUBS = Card.get(Rank.THREE).of(Suit.CLUBS);
+    private static final Card EIGHT_OF_HEARTS = Card.get(Rank.EIGHT).of(Suit.HEARTS);
+    private static final Card EIGHT_OF_SPADES = Card.get(Rank.EIGHT).of(Suit.SPADES);
+
     @Mock
     private Deck deck;
+
+    @Test
+    public void testConstructor() {
+        when(deck.draw()).thenReturn(TEN_OF_DIAMONDS).thenReturn(THREE_OF_CLUBS);
+        final BlackjackPlayer player = new BlackjackPlayer(deck, 10);
+        assertThat(player.getState()).isEqualByComparingTo(BlackjackPlayer.State.WAITING);
+        assertThat(player.getWager()).isEqualTo(10);
+        assertThat(player.getHands()).hasSize(1);
+    }
+
+    @Test
+    public void testPlay() {
+        when(deck.draw()).thenReturn(TEN_OF_DIAMONDS).thenReturn(THREE_OF_CLUBS);
+        final BlackjackPlayer player = new BlackjackPlayer(deck, 10);
+        player.play();
+        assertThat(player.getState()).isEqualByComparingTo(BlackjackPlayer.State.PLAYING);
+    }
+
+    @Test
+    public void testStay() {
+        when(deck.draw()).thenReturn(TEN_OF_DIAMONDS).thenReturn(THREE_OF_CLUBS);
+        final BlackjackPlayer player = new BlackjackPlayer(deck, 10);
+        player.play();
+        player.stay();
+        assertThat(player.getState()).isEqualByComparingTo(BlackjackPlayer.State.FINISHED);
+        assertThat(player.getHands().get(0).getState()).isEqualByComparingTo(BlackjackHand.State.STAYING);
+    }
+
+    @Test
+    public void testStayWhileWaiting() {
+        when(deck.draw()).thenReturn(TEN_OF_DIAMONDS).thenReturn(THREE_OF_CLUBS);
+        final BlackjackPlayer player = new BlackjackPlayer(deck, 10);
+        player.stay();
+        assertThat(player.getState()).isEqualByComparingTo(BlackjackPlayer.State.WAITING);
+        assertThat(player.getHands().get(0).getState()).isEqualByComparingTo(BlackjackHand.State.PLAYING);
+    }
+
+    @Test
+    public void testBet() {
+        when(deck.draw()).thenReturn(TEN_OF_DIAMONDS).thenReturn(THREE_OF_CLUBS);
+        final BlackjackPlayer player = new BlackjackPlayer(deck, 10);
+        player.bet(25);
+        assertThat(player.getWager()).isEqualTo(25);
+        assertThatIllegalArgumentException().isThrownBy(() -> player.bet(0));
+        player.play();
+        assertThatIllegalStateException().isThrownBy(() -> player.bet(50));
+    }
+
+    @Test
+    public void testHitUntilBusted() {
+        when(deck.draw()).thenReturn(TEN_OF_DIAMONDS).thenReturn(THREE_OF_CLUBS).thenReturn(TEN_OF_DIAMONDS);
+        final BlackjackPlayer player = new BlackjackPlayer(deck, 10);
+        player.play();
+        player.hit();
+        assertThat(player.getHands().get(0).getState()).isEqualByComparingTo(BlackjackHand.State.BUSTED);
+        assertThat(player.getState()).isEqualByComparingTo(BlackjackPlayer.State.FINISHED);
+        assertThat(player.getCurrentHand()).isNull();
+    }
+
+    @Test
+    public void testSplit() {
+        when(deck.draw()).thenReturn(EIGHT_OF_HEARTS).thenReturn(EIGHT_OF_SPADES).thenReturn(THREE_OF_CLUBS)
+                .thenReturn(TEN_OF_DIAMONDS);
+        final BlackjackPlayer player = new BlackjackPlayer(deck, 10);
+        player.play();
+        player.split();
+        assertThat(player.getHands()).hasSize(2);
+        assertThat(player.getHands().get(0).getValue()).isEqualTo(11);
+        assertThat(player.getHands().get(1).getValue()).isEqualTo(18);
+        assertThat(player.getCurrentHand()).isSameAs(player.getHands().get(0));
+    }
+
+    @Test
+    public void testDoubleDownOnSplitHand() {
+        when(deck.draw()).thenReturn(EIGHT_OF_HEARTS).thenReturn(EIGHT_OF_SPADES).thenReturn(THREE_OF_CLUBS)
+                .thenReturn(TEN_OF_DIAMONDS).thenReturn(TEN_OF_DIAMONDS);
+        final BlackjackPlayer player = new BlackjackPlayer(deck, 10);
+        player.play();
+        player.split();
+        player.doubleDown();
+        assertThat(player.getHands().get(0).isDoubled()).isTrue();
+        assertThat(player.getHands().get(0).getValue()).isEqualTo(21);
+        assertThat(player.getHands().get(1).isDoubled()).isFalse();
+        assertThat(player.getCurrentHand()).isSameAs(player.getHands().get(1));
+        assertThat(player.getState()).isEqualByComparingTo(BlackjackPlayer.State.PLAYING);
+    }
+
+    @Test
+    public void testSurrender() {
+        when(deck.draw()).thenReturn(TEN_OF_DIAMONDS).thenReturn(EIGHT_OF_SPADES);
+        final BlackjackPlayer player = new BlackjackPlayer(deck, 10);
+        player.play();
+        player.surrender();
+        assertThat(player.getState()).isEqualByComparingTo(BlackjackPlayer.State.SURRENDERED);
+        assertThat(player.getHands().get(0).getState()).isEqualByComparingTo(BlackjackHand.State.STAYING);
+        assertThat(player.getCurrentHand()).isNull();
+    }
+
+    @Test
+    public void testSurrenderAfterHit() {
+        when(deck.draw()).thenReturn(TEN_OF_DIAMONDS).thenReturn(THREE_OF_CLUBS).thenReturn(THREE_OF_CLUBS);
+        final BlackjackPlayer player = new BlackjackPlayer(deck, 10);
+        player.play();
+        player.hit();
+        assertThatIllegalStateException().isThrownBy(player::surrender)
+                .withMessage("Only a player's two opening cards can be surrendered!");
+        assertThat(player.getState()).isEqualByComparingTo(BlackjackPlayer.State.PLAYING);
+    }
 }
@@ -0,0 +1,135 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRuleSet.BlackjackPayout;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRuleSet.Surrender;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link BlackjackRuleSet}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackRuleSetTest
+{
+    private static final BlackjackHand SOFT_17 = hand(Rank.ACE, Rank.SIX);
+    private static final BlackjackHand HARD_17 = hand(Rank.TEN, Rank.SEVEN);
+    private static final BlackjackHand HARD_16 = hand(Rank.TEN, Rank.SIX);
+    private static final BlackjackHand PAIR_OF_ACES = hand(Rank.ACE, Rank.ACE);
+    private static final BlackjackHand PAIR_OF_EIGHTS = hand(Rank.EIGHT, Rank.EIGHT);
+    private static final BlackjackHand DEALER_BLACKJACK =
+            new BlackjackHand(null, asList(card(Rank.ACE), card(Rank.KING)), BlackjackHand.State.BLACKJACK);
+
+    @Test
+    public void testDealerSoft17() {
+        final BlackjackRuleSet hitsSoft17 = BlackjackRuleSet.builder().dealerHitsSoft17(true).build();
+        assertThat(BlackjackRuleSet.DEFAULT.dealerHits(SOFT_17)).isFalse();
+        assertThat(hitsSoft17.dealerHits(SOFT_17)).isTrue();
+        assertThat(hitsSoft17.dealerHits(HARD_17)).isFalse();
+        assertThat(BlackjackRuleSet.DEFAULT.dealerHits(HARD_16)).isTrue();
+    }
+
+    @Test
+    public void testDoubleAfterSplit() {
+        final BlackjackRuleSet noDoubleAfterSplit = BlackjackRuleSet.builder().doubleAfterSplit(false).build();
+        assertThat(BlackjackRuleSet.DEFAULT.canDoubleDown(HARD_16, true)).isTrue();
+        assertThat(noDoubleAfterSplit.canDoubleDown(HARD_16, false)).isTrue();
+        assertThat(noDoubleAfterSplit.canDoubleDown(HARD_16, true)).isFalse();
+        assertThat(BlackjackRuleSet.DEFAULT.canDoubleDown(hand(Rank.TWO, Rank.THREE, Rank.FOUR), false)).isFalse();
+    }
+
+    @Test
+    public void testResplitAces() {
+        final BlackjackRuleSet resplitAces = BlackjackRuleSet.builder().resplitAces(true).build();
+        assertThat(BlackjackRuleSet.DEFAULT.canSplit(PAIR_OF_ACES, false)).isTrue();
+        assertThat(BlackjackRuleSet.DEFAULT.canSplit(PAIR_OF_ACES, true)).isFalse();
+        assertThat(BlackjackRuleSet.DEFAULT.canSplit(PAIR_OF_EIGHTS, true)).isTrue();
+        assertThat(resplitAces.canSplit(PAIR_OF_ACES, true)).isTrue();
+        assertThat(resplitAces.canSplit(HARD_16, false)).isFalse();
+    }
+
+    @Test
+    public void testSurrender() {
+        final BlackjackRuleSet early = BlackjackRuleSet.builder().surrender(Surrender.EARLY).build();
+        final BlackjackRuleSet none = BlackjackRuleSet.builder().surrender(Surrender.NONE).build();
+        assertThat(BlackjackRuleSet.DEFAULT.canSurrender(singletonList(HARD_16), HARD_17)).isTrue();
+        assertThat(BlackjackRuleSet.DEFAULT.canSurrender(singletonList(HARD_16), DEALER_BLACKJACK)).isFalse();
+        assertThat(BlackjackRuleSet.DEFAULT.canSurrender(asList(PAIR_OF_EIGHTS, HARD_16), HARD_17)).isFalse();
+        assertThat(early.canSurrender(singletonList(HARD_16), DEALER_BLACKJACK)).isTrue();
+        assertThat(none.canSurrender(singletonList(HARD_16), HARD_17)).isFalse();
+    }
+
+    @Test
+    public void testPayouts() {
+        final BlackjackRuleSet sixToFive =
+                BlackjackRuleSet.builder().blackjackPayout(BlackjackPayout.SIX_TO_FIVE).build();
+        assertThat(BlackjackRuleSet.DEFAULT.getPayout(BlackjackGame.Outcome.BLACKJACK)).isEqualTo(1.5);
+        assertThat(sixToFive.getPayout(BlackjackGame.Outcome.BLACKJACK)).isEqualTo(1.2);
+        assertThat(sixToFive.getPayout(BlackjackGame.Outcome.WIN)).isEqualTo(1.0);
+        assertThat(sixToFive.getPayout(BlackjackGame.Outcome.PUSH)).isEqualTo(0.0);
+        assertThat(sixToFive.getPayout(BlackjackGame.Outcome.LOSE)).isEqualTo(-1.0);
+        assertThat(sixToFive.getSurrenderPayout()).isEqualTo(-0.5);
+    }
+
+    @Test
+    public void testWinnings() {
+        final BlackjackRuleSet sixToFive =
+                BlackjackRuleSet.builder().blackjackPayout(BlackjackPayout.SIX_TO_FIVE).build();
+        assertThat(BlackjackRuleSet.DEFAULT.getWinnings(10, BlackjackGame.Outcome.BLACKJACK)).isEqualTo(15);
+        assertThat(BlackjackRuleSet.DEFAULT.getWinnings(5, BlackjackGame.Outcome.BLACKJACK)).isEqualTo(7);
+        assertThat(sixToFive.getWinnings(10, BlackjackGame.Outcome.BLACKJACK)).isEqualTo(12);
+        assertThat(sixToFive.getWinnings(10, BlackjackGame.Outcome.WIN)).isEqualTo(10);
+        assertThat(sixToFive.getWinnings(10, BlackjackGame.Outcome.PUSH)).isZero();
+        assertThat(sixToFive.getWinnings(10, BlackjackGame.Outcome.LOSE)).isEqualTo(-10);
+        assertThat(sixToFive.getSurrenderWinnings(5)).isEqualTo(-2);
+    }
+
+    @Test
+    public void testBitsRoundTrip() {
+        for (final Surrender surrender : Surrender.values()) {
+            for (final BlackjackPayout payout : BlackjackPayout.values()) {
+                for (int flags = 0; flags < 8; flags++) {
+                    final BlackjackRuleSet ruleSet = BlackjackRuleSet.builder().dealerHitsSoft17((flags & 1) != 0)
+                            .doubleAfterSplit((flags & 2) != 0).resplitAces((flags & 4) != 0).surrender(surrender)
+                            .blackjackPayout(payout).build();
+                    final BlackjackRuleSet restored = BlackjackRuleSet.fromBits(ruleSet.toBits());
+                    assertThat(restored).isEqualTo(ruleSet);
+                    assertThat(restored.getSurrender()).isEqualByComparingTo(surrender);
+                    assertThat(restored.getBlackjackPayout()).isEqualByComparingTo(payout);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNotTheBitsOfARuleSet() {
+        assertThat(assertThrows(IllegalArgumentException.class, () -> BlackjackRuleSet.fromBits(0xFF)).getMessage())
+                .isEqualTo("Not the bits of a blackjack rule set: 255!");
+    }
+
+    @Test
+    public void testRuleSetNeedsSurrender() {
+        assertThrows(IllegalArgumentException.class, () -> BlackjackRuleSet.builder().surrender(null).build());
+    }
+
+    private static BlackjackHand hand(final Rank... ranks) {
+        final Card[] cards = new Card[ranks.length];
+        for (int card = 0; card < ranks.length; card++) {
+            cards[card] = card(ranks[card]);
+        }
+        return new BlackjackHand(null, asList(cards), BlackjackHand.State.PLAYING);
+    }
+
+    private static Card card(final Rank rank) {
+        return Card.get(rank).of(Suit.SPADES);
+    }
+}
@@ -0,0 +1,162 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.Mockito.when;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRules.Move;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * <p>
+ * Unit tests for {@link BlackjackRules}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@ExtendWith(MockitoExtension.class)
+public class BlackjackRulesTest
+{
+    private static final Card TEN_OF_HEARTS = Card.get(Rank.TEN).of(Suit.HEARTS);
+    private static final Card SIX_OF_CLUBS = Card.get(Rank.SIX).of(Suit.CLUBS);
+    private static final Card FIVE_OF_SPADES = Card.get(Rank.FIVE).of(Suit.SPADES);
+    private static final Card SEVEN_OF_DIAMONDS = Card.get(Rank.SEVEN).of(Suit.DIAMONDS);
+    private static final Card EIGHT_OF_CLUBS = Card.get(Rank.EIGHT).of(Suit.CLUBS);
+
+    @Mock
+    private Deck deck;
+
+    @Test
+    public void testRound() {
+        // dealer: 10, 6; first player: 10, 7; second player: 10, 5, then hits a 5; dealer then draws a 5
+        when(deck.draw()).thenReturn(TEN_OF_HEARTS, SIX_OF_CLUBS, TEN_OF_HEARTS, SEVEN_OF_DIAMONDS, TEN_OF_HEARTS,
+                FIVE_OF_SPADES, FIVE_OF_SPADES, FIVE_OF_SPADES);
+        final BlackjackRules rules = new BlackjackRules(() -> deck);
+        final BlackjackGame game = rules.newGame();
+
+        assertThat(rules.apply(game, 0, Move.join(10))).isFalse();
+        assertThat(rules.apply(game, 0, Move.join(20))).isFalse();
+        assertThatIllegalStateException().isThrownBy(() -> rules.apply(game, 1, Move.stay()))
+                .withMessage("It is not seat 1's turn!");
+
+        assertThat(rules.apply(game, 0, Move.stay())).isFalse();
+        assertThat(game.getCurrentPlayer()).isSameAs(game.getPlayers().get(1));
+        assertThat(rules.apply(game, 1, Move.hit())).isFalse();
+        assertThat(rules.apply(game, 1, Move.stay())).isTrue();
+
+        assertThat(game.getCurrentPlayer()).isNull();
+        assertThat(game.getDealer().getHands().get(0).getValue()).isEqualTo(21);
+    }
+
+    @Test
+    public void testHitHandCannotBeSplit() {
+        // dealer: 10, 6; player: 5, 5, then hits a 7
+        when(deck.draw()).thenReturn(TEN_OF_HEARTS, SIX_OF_CLUBS, FIVE_OF_SPADES, FIVE_OF_SPADES, SEVEN_OF_DIAMONDS);
+        final BlackjackRules rules = new BlackjackRules(() -> deck);
+        final BlackjackGame game = rules.newGame();
+        rules.apply(game, 0, Move.join(10));
+        assertThat(rules.apply(game, 0, Move.hit())).isFalse();
+
+        assertThatIllegalStateException().isThrownBy(() -> rules.apply(game, 0, Move.split()))
+                .withMessage("Only a hand of two cards of equal value can be split!");
+        assertThat(game.getPlayers().get(0).getHands()).hasSize(1);
+        assertThat(game.getPlayers().get(0).getHands().get(0).getCards())
+                .containsExactly(FIVE_OF_SPADES, FIVE_OF_SPADES, SEVEN_OF_DIAMONDS);
+    }
+
+    @Test
+    public void testStayPlaysNextSplitHand() {
+        // dealer: 10, 6; first player: 8, 8, split into 8, 5 and 8, 6, then hits the second hand with a 5; second
+        // player: 10, 7
+        when(deck.draw()).thenReturn(TEN_OF_HEARTS, SIX_OF_CLUBS, EIGHT_OF_CLUBS, EIGHT_OF_CLUBS, TEN_OF_HEARTS,
+                SEVEN_OF_DIAMONDS, FIVE_OF_SPADES, SIX_OF_CLUBS, FIVE_OF_SPADES);
+        final BlackjackRules rules = new BlackjackRules(() -> deck);
+        final BlackjackGame game = rules.newGame();
+        rules.apply(game, 0, Move.join(10));
+        rules.apply(game, 0, Move.join(10));
+        final BlackjackPlayer player = game.getPlayers().get(0);
+        assertThat(rules.apply(game, 0, Move.split())).isFalse();
+
+        assertThat(rules.apply(game, 0, Move.stay())).isFalse();
+        assertThat(game.getCurrentPlayer()).isSameAs(player);
+        assertThat(player.getCurrentHand()).isSameAs(player.getHands().get(1));
+        assertThat(player.getHands().get(1).getState()).isEqualByComparingTo(BlackjackHand.State.PLAYING);
+
+        assertThat(rules.apply(game, 0, Move.hit())).isFalse();
+        assertThat(player.getHands().get(1).getValue()).isEqualTo(19);
+        assertThat(game.getCurrentPlayer()).isSameAs(player);
+
+        assertThat(rules.apply(game, 0, Move.stay())).isFalse();
+        assertThat(player.getState()).isEqualByComparingTo(BlackjackPlayer.State.FINISHED);
+        assertThat(game.getCurrentPlayer()).isSameAs(game.getPlayers().get(1));
+    }
+
+    @Test
+    public void testDoubleDown() {
+        // dealer: 10, 6; player: 5, 6, then doubles down on a 10; dealer then busts on a 10
+        when(deck.draw()).thenReturn(TEN_OF_HEARTS, SIX_OF_CLUBS, FIVE_OF_SPADES, SIX_OF_CLUBS, TEN_OF_HEARTS,
+                TEN_OF_HEARTS);
+        final BlackjackRules rules = new BlackjackRules(() -> deck);
+        final BlackjackGame game = rules.newGame();
+        rules.apply(game, 0, Move.join(10));
+
+        assertThat(rules.apply(game, 0, Move.doubleDown())).isTrue();
+        assertThat(game.getPlayers().get(0).getHands().get(0).isDoubled()).isTrue();
+        assertThat(game.getWinnings(game.getPlayers().get(0))).isEqualTo(20);
+    }
+
+    @Test
+    public void testNoDoubleDownAfterSplit() {
+        // dealer: 10, 6; player: 5, 5, split into 5, 6 and 5, 7
+        when(deck.draw()).thenReturn(TEN_OF_HEARTS, SIX_OF_CLUBS, FIVE_OF_SPADES, FIVE_OF_SPADES, SIX_OF_CLUBS,
+                SEVEN_OF_DIAMONDS);
+        final BlackjackRules rules =
+                new BlackjackRules(() -> deck, BlackjackRuleSet.builder().doubleAfterSplit(false).build());
+        final BlackjackGame game = rules.newGame();
+        rules.apply(game, 0, Move.join(10));
+        rules.apply(game, 0, Move.split());
+
+        assertThatIllegalStateException().isThrownBy(() -> rules.apply(game, 0, Move.doubleDown()))
+                .withMessage("The house rules do not allow doubling down on this hand!");
+        assertThat(game.getPlayers().get(0).getHands().get(0).getCards()).hasSize(2);
+    }
+
+    @Test
+    public void testSurrender() {
+        // dealer: 10, 6; player: 10, 6, then surrenders; dealer then busts on a 7
+        when(deck.draw()).thenReturn(TEN_OF_HEARTS, SIX_OF_CLUBS, TEN_OF_HEARTS, SIX_OF_CLUBS, SEVEN_OF_DIAMONDS);
+        final BlackjackRules rules = new BlackjackRules(() -> deck);
+        final BlackjackGame game = rules.newGame();
+        rules.apply(game, 0, Move.join(10));
+
+        assertThat(rules.apply(game, 0, Move.surrender())).isTrue();
+        assertThat(game.getPlayers().get(0).getState()).isEqualByComparingTo(BlackjackPlayer.State.SURRENDERED);
+        assertThat(game.getWinnings(game.getPlayers().get(0))).isEqualTo(-5);
+    }
+
+    @Test
+    public void testSurrenderNotOffered() {
+        when(deck.draw()).thenReturn(TEN_OF_HEARTS, SIX_OF_CLUBS, TEN_OF_HEARTS, SIX_OF_CLUBS);
+        final BlackjackRules rules = new BlackjackRules(() -> deck,
+                BlackjackRuleSet.builder().surrender(BlackjackRuleSet.Surrender.NONE).build());
+        final BlackjackGame game = rules.newGame();
+        rules.apply(game, 0, Move.join(10));
+
+        assertThatIllegalStateException().isThrownBy(() -> rules.apply(game, 0, Move.surrender()))
+                .withMessage("The house rules do not allow surrendering this hand!");
+        assertThat(game.getPlayers().get(0).getState()).isEqualByComparingTo(BlackjackPlayer.State.PLAYING);
+    }
+
+    @Test
+    public void testJoinNeedsPositiveWager() {
+        assertThatIllegalArgumentException().isThrownBy(() -> Move.join(0));
+    }
+}
@@ -0,0 +1,118 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackSideBets.PerfectPairs;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackSideBets.TwentyOnePlusThree;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * <p>
+ * Unit tests for {@link BlackjackSideBets}, including a Monte Carlo check of the single-deck odds of every outcome.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@ExtendWith(MockitoExtension.class)
+public class BlackjackSideBetsTest
+{
+    private static final int TRIALS = 500_000;
+    private static final double STANDARD_ERRORS = 5.0;
+    private static final double THREE_CARD_HANDS = 22_100.0, TWO_CARD_HANDS = 1_326.0;
+
+    @Mock
+    private Deck deck;
+
+    @Test
+    public void testPerfectPairs() {
+        assertThat(BlackjackSideBets.perfectPairs(card(Rank.EIGHT, Suit.HEARTS), card(Rank.EIGHT, Suit.SPADES)))
+                .isEqualByComparingTo(PerfectPairs.MIXED_PAIR);
+        assertThat(BlackjackSideBets.perfectPairs(card(Rank.EIGHT, Suit.HEARTS), card(Rank.EIGHT, Suit.DIAMONDS)))
+                .isEqualByComparingTo(PerfectPairs.COLORED_PAIR);
+        assertThat(BlackjackSideBets.perfectPairs(card(Rank.EIGHT, Suit.CLUBS), card(Rank.EIGHT, Suit.CLUBS)))
+                .isEqualByComparingTo(PerfectPairs.PERFECT_PAIR);
+        assertThat(BlackjackSideBets.perfectPairs(card(Rank.KING, Suit.CLUBS), card(Rank.QUEEN, Suit.CLUBS)))
+                .isEqualByComparingTo(PerfectPairs.NONE);
+    }
+
+    @Test
+    public void testTwentyOnePlusThree() {
+        assertThat(BlackjackSideBets.twentyOnePlusThree(card(Rank.TWO, Suit.CLUBS), card(Rank.NINE, Suit.CLUBS),
+                card(Rank.KING, Suit.CLUBS))).isEqualByComparingTo(TwentyOnePlusThree.FLUSH);
+        assertThat(BlackjackSideBets.twentyOnePlusThree(card(Rank.ACE, Suit.CLUBS), card(Rank.TWO, Suit.HEARTS),
+                card(Rank.THREE, Suit.CLUBS))).isEqualByComparingTo(TwentyOnePlusThree.STRAIGHT);
+        assertThat(BlackjackSideBets.twentyOnePlusThree(card(Rank.KING, Suit.CLUBS), card(Rank.ACE, Suit.HEARTS),
+                card(Rank.QUEEN, Suit.CLUBS))).isEqualByComparingTo(TwentyOnePlusThree.STRAIGHT);
+        assertThat(BlackjackSideBets.twentyOnePlusThree(card(Rank.KING, Suit.CLUBS), card(Rank.ACE, Suit.HEARTS),
+                card(Rank.TWO, Suit.CLUBS))).isEqualByComparingTo(TwentyOnePlusThree.NONE);
+        assertThat(BlackjackSideBets.twentyOnePlusThree(card(Rank.SEVEN, Suit.CLUBS), card(Rank.SEVEN, Suit.HEARTS),
+                card(Rank.SEVEN, Suit.SPADES))).isEqualByComparingTo(TwentyOnePlusThree.THREE_OF_A_KIND);
+        assertThat(BlackjackSideBets.twentyOnePlusThree(card(Rank.NINE, Suit.SPADES), card(Rank.JACK, Suit.SPADES),
+                card(Rank.TEN, Suit.SPADES))).isEqualByComparingTo(TwentyOnePlusThree.STRAIGHT_FLUSH);
+        assertThat(BlackjackSideBets.twentyOnePlusThree(card(Rank.SEVEN, Suit.CLUBS), card(Rank.SEVEN, Suit.CLUBS),
+                card(Rank.SEVEN, Suit.CLUBS))).isEqualByComparingTo(TwentyOnePlusThree.SUITED_TRIPS);
+    }
+
+    @Test
+    public void testSideBetsOnHand() {
+        when(deck.draw()).thenReturn(card(Rank.FOUR, Suit.DIAMONDS), card(Rank.FOUR, Suit.HEARTS));
+        final BlackjackHand hand = new BlackjackHand(deck);
+        assertThat(BlackjackSideBets.perfectPairs(hand)).isEqualByComparingTo(PerfectPairs.COLORED_PAIR);
+        assertThat(BlackjackSideBets.twentyOnePlusThree(hand, card(Rank.FOUR, Suit.SPADES)))
+                .isEqualByComparingTo(TwentyOnePlusThree.THREE_OF_A_KIND);
+    }
+
+    @Test
+    public void testSideBetsNeedTwoCards() {
+        final BlackjackHand hand = new BlackjackHand(deck, singletonList(card(Rank.ACE, Suit.SPADES)),
+                BlackjackHand.State.PLAYING);
+        assertThrows(IllegalArgumentException.class, () -> BlackjackSideBets.perfectPairs(hand));
+    }
+
+    @Test
+    public void testMonteCarloMatchesPublishedOdds() {
+        final Map<PerfectPairs, Integer> pairs = new EnumMap<>(PerfectPairs.class);
+        final Map<TwentyOnePlusThree, Integer> threes = new EnumMap<>(TwentyOnePlusThree.class);
+        final Deck shuffled = new Deck(new Random(21));
+        for (int trial = 0; trial < TRIALS; trial++) {
+            shuffled.reset();
+            final Card first = shuffled.draw(), second = shuffled.draw(), upcard = shuffled.draw();
+            pairs.merge(BlackjackSideBets.perfectPairs(first, second), 1, Integer::sum);
+            threes.merge(BlackjackSideBets.twentyOnePlusThree(first, second, upcard), 1, Integer::sum);
+        }
+
+        // a single deck holds one of each card, so it never deals a perfect pair or suited trips
+        assertOdds(pairs.get(PerfectPairs.MIXED_PAIR), 52 / TWO_CARD_HANDS);
+        assertOdds(pairs.get(PerfectPairs.COLORED_PAIR), 26 / TWO_CARD_HANDS);
+        assertThat(pairs).doesNotContainKey(PerfectPairs.PERFECT_PAIR);
+        assertOdds(threes.get(TwentyOnePlusThree.FLUSH), 1_096 / THREE_CARD_HANDS);
+        assertOdds(threes.get(TwentyOnePlusThree.STRAIGHT), 720 / THREE_CARD_HANDS);
+        assertOdds(threes.get(TwentyOnePlusThree.THREE_OF_A_KIND), 52 / THREE_CARD_HANDS);
+        assertOdds(threes.get(TwentyOnePlusThree.STRAIGHT_FLUSH), 48 / THREE_CARD_HANDS);
+        assertThat(threes).doesNotContainKey(TwentyOnePlusThree.SUITED_TRIPS);
+    }
+
+    private static void assertOdds(final int hits, final double probability) {
+        final double standardError = Math.sqrt((probability * (1.0 - probability)) / TRIALS);
+        assertThat((double) hits / TRIALS).isCloseTo(probability, within(STANDARD_ERRORS * standardError));
+    }
+
+    private static Card card(final Rank rank, final Suit suit) {
+        return Card.get(rank).of(suit);
+    }
+}
@@ -0,0 +1,160 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.nordryd.gamblybot.cardgames.engine.Table;
+import com.nordryd.gamblybot.cardgames.engine.TableEngine;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRules.Move;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * <p>
+ * Unit tests for {@link BlackjackTableSnapshotter}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class BlackjackTableSnapshotterTest
+{
+    private static final int TABLES = 10;
+
+    private final Random rng = new Random(3);
+    private final TableEngine engine = new TableEngine(Runnable::run);
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void testRestoreWithoutSnapshot() throws IOException {
+        assertThat(new BlackjackTableSnapshotter(ConcurrentHashMap::new, directory.resolve("tables.bin"))
+                .restore(new Random())).isEmpty();
+    }
+
+    @Test
+    public void testSnapshotAndRestore() throws IOException {
+        final Map<String, Table<BlackjackGame, Move>> tables = openTables();
+        final BlackjackTableSnapshotter snapshotter =
+                new BlackjackTableSnapshotter(() -> tables, directory.resolve("tables.bin"));
+        snapshotter.snapshot();
+        assertRestored(snapshotter.restore(new Random()), tables);
+    }
+
+    @Test
+    public void testRestoreIntoEngineAndKeepPlaying() throws IOException {
+        final Map<String, Table<BlackjackGame, Move>> tables = openTables();
+        final BlackjackTableSnapshotter snapshotter =
+                new BlackjackTableSnapshotter(() -> tables, directory.resolve("tables.bin"));
+        snapshotter.snapshot();
+
+        final TableEngine restoredEngine = new TableEngine(Runnable::run);
+        final BlackjackRules rules = new BlackjackRules(() -> new Deck(rng));
+        snapshotter.restore(new Random()).forEach((channel, game) -> restoredEngine.open(channel, rules, game));
+        final Map<String, Table<BlackjackGame, ?>> restored = restoredEngine.getTables(BlackjackGame.class);
+        assertThat(restored).containsOnlyKeys(tables.keySet());
+
+        // each table's only player picks up where they left off, and staying finishes the round
+        restored.forEach((channel, table) -> {
+            @SuppressWarnings("unchecked")
+            final Table<BlackjackGame, Move> blackjackTable = (Table<BlackjackGame, Move>) table;
+            assertThat(blackjackTable.getGame().getPlayers().get(0).getWager()).isEqualTo(
+                    tables.get(channel).getGame().getPlayers().get(0).getWager());
+            assertThat(blackjackTable.dispatch(0, Move.stay())).isCompletedWithValue(true);
+            assertThat(blackjackTable.getGame().getCurrentPlayer()).isNull();
+        });
+    }
+
+    @Test
+    public void testSnapshotsAppendOnlyChangedTables() throws IOException {
+        final Map<String, Table<BlackjackGame, Move>> tables = openTables();
+        final Path snapshotFile = directory.resolve("tables.bin");
+        final BlackjackTableSnapshotter snapshotter = new BlackjackTableSnapshotter(() -> tables, snapshotFile);
+        snapshotter.snapshot();
+        final long compactedSize = Files.size(snapshotFile);
+
+        snapshotter.snapshot();
+        assertThat(snapshotFile).hasSize(compactedSize);
+
+        tables.get("channel-0").dispatch(0, Move.hit());
+        tables.remove("channel-1");
+        snapshotter.snapshot();
+        assertThat(Files.size(snapshotFile)).isGreaterThan(compactedSize).isLessThan(compactedSize * 2);
+        assertRestored(snapshotter.restore(new Random()), tables);
+    }
+
+    @Test
+    public void testTornAppendIsIgnored() throws IOException {
+        final Map<String, Table<BlackjackGame, Move>> tables = openTables();
+        final Path snapshotFile = directory.resolve("tables.bin");
+        final BlackjackTableSnapshotter snapshotter = new BlackjackTableSnapshotter(() -> tables, snapshotFile);
+        snapshotter.snapshot();
+
+        // the start of a record for a new table, cut off part of the way through its ID
+        Files.write(snapshotFile, new byte[] { 1, 0, 9, 'c', 'h' }, APPEND);
+        assertRestored(snapshotter.restore(new Random()), tables);
+    }
+
+    @Test
+    public void testBackgroundSnapshots() throws IOException, InterruptedException {
+        final Path snapshotFile = directory.resolve("tables.bin");
+        final BlackjackTableSnapshotter snapshotter = new BlackjackTableSnapshotter(ConcurrentHashMap::new,
+                snapshotFile);
+        snapshotter.start(10, MILLISECONDS);
+        awaitSnapshot(snapshotFile);
+        snapshotter.shutdown();
+        assertThat(snapshotFile).exists();
+        assertThat(directory.resolve("tables.bin.tmp")).doesNotExist();
+    }
+
+    @Test
+    public void testBackgroundSnapshotsOutliveAFailedSnapshot() throws IOException, InterruptedException {
+        final AtomicBoolean failed = new AtomicBoolean();
+        final Path snapshotFile = directory.resolve("tables.bin");
+        final BlackjackTableSnapshotter snapshotter = new BlackjackTableSnapshotter(() -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("The tables changed while they were being listed!");
+            }
+            return new ConcurrentHashMap<>();
+        }, snapshotFile);
+        snapshotter.start(10, MILLISECONDS);
+        awaitSnapshot(snapshotFile);
+        snapshotter.shutdown();
+        assertThat(failed).isTrue();
+        assertThat(snapshotFile).exists();
+    }
+
+    private Map<String, Table<BlackjackGame, Move>> openTables() {
+        final Map<String, Table<BlackjackGame, Move>> tables = new ConcurrentHashMap<>();
+        for (int channel = 0; channel < TABLES; channel++) {
+            final Table<BlackjackGame, Move> table =
+                    engine.open("channel-" + channel, new BlackjackRules(() -> new Deck(rng)));
+            table.dispatch(0, Move.join(channel + 1));
+            tables.put(table.getId(), table);
+        }
+        return tables;
+    }
+
+    private static void assertRestored(final Map<String, BlackjackGame> restored,
+            final Map<String, Table<BlackjackGame, Move>> tables) {
+        assertThat(restored).containsOnlyKeys(tables.keySet());
+        tables.forEach((channel, table) -> assertThat(restored.get(channel).getPlayers().get(0).getHands().get(0)
+                .getCards()).isEqualTo(table.getGame().getPlayers().get(0).getHands().get(0).getCards()));
+    }
+
+    private static void awaitSnapshot(final Path snapshotFile) throws InterruptedException {
+        for (int wait = 0; (wait < 500) && !Files.exists(snapshotFile); wait++) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.nordryd.gamblybot.cardgames.games.blackjack;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.nordryd.gamblybot.cardgames.engine.Table;
+import com.nordryd.gamblybot.cardgames.engine.TableEngine;
+import com.nordryd.gamblybot.cardgames.engine.TableListener;
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.timing.HashedWheelTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * <p>
+ * Unit tests for {@link BlackjackTurnTimer}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@ExtendWith(MockitoExtension.class)
+public class BlackjackTurnTimerTest
+{
+    private static final int TURNS = 100_000;
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(5, MILLISECONDS, 8);
+
+    @Mock
+    private Deck deck;
+
+    private BlackjackPlayer player;
+
+    @BeforeEach
+    public void setUp() {
+        when(deck.draw()).thenReturn(Card.get(Rank.TWO).of(Suit.CLUBS)).thenReturn(Card.get(Rank.THREE).of(Suit.CLUBS));
+        player = new BlackjackPlayer(deck, 0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        timer.shutdown();
+    }
+
+    @Test
+    public void testTurnTimesOut() throws InterruptedException {
+        final CountDownLatch timedOut = new CountDownLatch(1);
+        final BlackjackTurnTimer turnTimer = new BlackjackTurnTimer(timer, 20, MILLISECONDS);
+        turnTimer.startTurn(player, timedOutPlayer -> {
+            timedOutPlayer.stay();
+            timedOut.countDown();
+        });
+        assertThat(player.getState()).isEqualByComparingTo(BlackjackPlayer.State.PLAYING);
+        assertThat(timedOut.await(5, SECONDS)).isTrue();
+        assertThat(player.getState()).isEqualByComparingTo(BlackjackPlayer.State.FINISHED);
+        assertThat(turnTimer.getActiveTurnCount()).isZero();
+    }
+
+    @Test
+    public void testEndTurnCancelsTimeout() throws InterruptedException {
+        final AtomicInteger timeouts = new AtomicInteger();
+        final BlackjackTurnTimer turnTimer = new BlackjackTurnTimer(timer, 20, MILLISECONDS);
+        turnTimer.startTurn(player, timedOutPlayer -> timeouts.incrementAndGet());
+        player.stay();
+        turnTimer.endTurn(player);
+        assertThat(turnTimer.getActiveTurnCount()).isZero();
+
+        final CountDownLatch later = new CountDownLatch(1);
+        timer.newTimeout(later::countDown, 60, MILLISECONDS);
+        assertThat(later.await(5, SECONDS)).isTrue();
+        assertThat(timeouts.get()).isZero();
+    }
+
+    @Test
+    public void testEndTurnWhileTurnStarts() throws InterruptedException {
+        final BlackjackTurnTimer turnTimer = new BlackjackTurnTimer(timer, 1, SECONDS);
+        final AtomicBoolean starting = new AtomicBoolean(true);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread ender = new Thread(() -> {
+            try {
+                while (starting.get()) {
+                    turnTimer.endTurn(player);
+                }
+            }
+            catch (final Throwable throwable) {
+                failure.set(throwable);
+            }
+        });
+
+        ender.start();
+        try {
+            for (int turn = 0; turn < TURNS; turn++) {
+                turnTimer.startTurn(player, timedOutPlayer -> {});
+            }
+        }
+        finally {
+            starting.set(false);
+            ender.join();
+        }
+        turnTimer.endTurn(player);
+        assertThat(failure.get()).isNull();
+        assertThat(turnTimer.getActiveTurnCount()).isZero();
+    }
+
+    @Test
+    public void testTimedOutTurnsStayThroughTable() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final BlackjackTurnTimer turnTimer = new BlackjackTurnTimer(timer, 20, MILLISECONDS);
+            final TableEngine engine = new TableEngine(executor);
+            final CountDownLatch roundOver = new CountDownLatch(1);
+            engine.addListener(turnTimer);
+            engine.addListener(new TableListener()
+            {
+                @Override
+                public void onRoundOver(final Table<?, ?> table) {
+                    roundOver.countDown();
+                }
+            });
+
+            final Table<BlackjackGame, BlackjackRules.Move> table =
+                    engine.open("table", new BlackjackRules(() -> deck));
+            table.dispatch(0, BlackjackRules.Move.join(10));
+            table.dispatch(1, BlackjackRules.Move.join(10));
+
+            // neither player moves, so each is stayed in turn and the dealer finishes the round
+            assertThat(roundOver.await(5, SECONDS)).isTrue();
+            assertThat(table.read(game -> game.getPlayers().stream()
+                    .allMatch(tablePlayer -> BlackjackPlayer.State.FINISHED.equals(tablePlayer.getState())))
+                    .get(5, SECONDS)).isTrue();
+            assertThat(turnTimer.getActiveTurnCount()).isZero();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
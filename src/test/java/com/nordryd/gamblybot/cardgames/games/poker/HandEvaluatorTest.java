@@ -0,0 +1,79 @@
+package com.nordryd.gamblybot.cardgames.games.poker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.games.poker.HandEvaluator.Category;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link HandEvaluator}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class HandEvaluatorTest
+{
+    @Test
+    public void testCategories() {
+        assertCategory(Category.HIGH_CARD, "AS", "KD", "9H", "7C", "2S", "3D", "5H");
+        assertCategory(Category.ONE_PAIR, "AS", "AD", "9H", "7C", "2S", "3D", "JH");
+        assertCategory(Category.TWO_PAIR, "AS", "AD", "9H", "9C", "2S", "3D", "JH");
+        assertCategory(Category.THREE_OF_A_KIND, "AS", "AD", "AH", "9C", "2S", "3D", "JH");
+        assertCategory(Category.STRAIGHT, "5S", "6D", "7H", "8C", "9S", "KD", "KH");
+        assertCategory(Category.FLUSH, "2H", "6H", "9H", "JH", "KH", "KD", "KC");
+        assertCategory(Category.FULL_HOUSE, "AS", "AD", "AH", "9C", "9S", "3D", "JH");
+        assertCategory(Category.FOUR_OF_A_KIND, "AS", "AD", "AH", "AC", "9S", "9D", "9H");
+        assertCategory(Category.STRAIGHT_FLUSH, "5S", "6S", "7S", "8S", "9S", "9D", "9H");
+    }
+
+    @Test
+    public void testWheelIsLowestStraight() {
+        final int wheel = evaluate("AS", "2D", "3H", "4C", "5S");
+        final int sixHigh = evaluate("6S", "2D", "3H", "4C", "5S");
+        assertThat(HandEvaluator.categoryOf(wheel)).isEqualByComparingTo(Category.STRAIGHT);
+        assertThat(sixHigh).isGreaterThan(wheel);
+        assertThat(evaluate("AS", "2S", "3S", "4S", "5S")).isLessThan(evaluate("6S", "2S", "3S", "4S", "5S"));
+    }
+
+    @Test
+    public void testKickers() {
+        assertThat(evaluate("AS", "AD", "KH", "7C", "2S")).isGreaterThan(evaluate("AC", "AH", "QH", "JC", "TS"));
+        assertThat(evaluate("KS", "KD", "7H", "7C", "AS")).isGreaterThan(evaluate("KC", "KH", "7S", "7D", "QS"));
+        assertThat(evaluate("AS", "KD", "9H", "7C", "3S")).isGreaterThan(evaluate("AC", "KH", "9S", "7D", "2S"));
+        assertThat(evaluate("AS", "KD", "9H", "7C", "3S")).isEqualTo(evaluate("AC", "KH", "9S", "7D", "3H"));
+    }
+
+    @Test
+    public void testFullHouseUsesBestTripsAndPair() {
+        assertThat(evaluate("9S", "9D", "9H", "KC", "KS", "KD", "2H"))
+                .isEqualTo(evaluate("KC", "KS", "KD", "9S", "9D"));
+    }
+
+    @Test
+    public void testCategoryOrderBeatsRanks() {
+        assertThat(evaluate("2S", "2D", "3H", "3C", "4S")).isGreaterThan(evaluate("AS", "AD", "KH", "QC", "JS"));
+        assertThat(evaluate("2H", "4H", "6H", "8H", "TH")).isGreaterThan(evaluate("AS", "KD", "QH", "JC", "TS"));
+    }
+
+    private static void assertCategory(final Category expected, final String... cards) {
+        assertThat(HandEvaluator.categoryOf(evaluate(cards))).isEqualByComparingTo(expected);
+    }
+
+    private static int evaluate(final String... cards) {
+        long mask = 0L;
+        for (final String card : cards) {
+            mask |= 1L << card(card).getId();
+        }
+        return HandEvaluator.evaluate(mask);
+    }
+
+    private static Card card(final String card) {
+        final Rank rank = Rank.values()["23456789TJQKA".indexOf(card.charAt(0))];
+        final Suit suit = Suit.values()["CDHS".indexOf(card.charAt(1))];
+        return Card.get(rank).of(suit);
+    }
+}
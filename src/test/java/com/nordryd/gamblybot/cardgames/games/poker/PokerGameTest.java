@@ -1,5 +1,21 @@
 package com.nordryd.gamblybot.cardgames.games.poker;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.poker.PokerGame.Action;
+import com.nordryd.gamblybot.cardgames.games.poker.PokerGame.Street;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+
 /**
  * <p>
  * Unit tests for {@link PokerGame}.
@@ -7,7 +23,180 @@ package com.nordryd.gamblybot.cardgames.games.poker;
  *
  * @author Nordryd
  */
+@ExtendWith(MockitoExtension.class)
 public class PokerGameTest
 {
+    private static final int SMALL_BLIND = 5, BIG_BLIND = 10;
+
+    @Mock
+    private Deck deck;
+
+    @Test
+    public void testHeadsUpBlinds() {
+        deal(Card.get(Rank.TWO).of(Suit.CLUBS));
+        final PokerGame game = headsUp();
+        assertThat(game.getButton()).isZero();
+        assertThat(game.getStack(0)).isEqualTo(100 - SMALL_BLIND);
+        assertThat(game.getStack(1)).isEqualTo(100 - BIG_BLIND);
+        assertThat(game.getActingSeat()).isZero();
+        assertThat(game.getPot()).isEqualTo(SMALL_BLIND + BIG_BLIND);
+        assertThat(game.getStreet()).isEqualByComparingTo(Street.PREFLOP);
+    }
+
+    @Test
+    public void testFoldAwardsPot() {
+        deal(Card.get(Rank.TWO).of(Suit.CLUBS));
+        final PokerGame game = headsUp();
+        game.act(0, Action.FOLD, 0);
+        assertThat(game.isHandInProgress()).isFalse();
+        assertThat(game.getStack(0)).isEqualTo(100 - SMALL_BLIND);
+        assertThat(game.getStack(1)).isEqualTo(100 + SMALL_BLIND);
+        assertThat(game.getWinnings(1)).isEqualTo(SMALL_BLIND + BIG_BLIND);
+        assertThat(game.getContribution(0)).isEqualTo(SMALL_BLIND);
+        assertThat(game.getContribution(1)).isEqualTo(BIG_BLIND);
+    }
+
+    @Test
+    public void testBigBlindGetsOptionThenFlop() {
+        deal(Card.get(Rank.TWO).of(Suit.CLUBS));
+        final PokerGame game = headsUp();
+        game.act(0, Action.CALL, 0);
+        assertThat(game.getActingSeat()).isEqualTo(1);
+        game.act(1, Action.CHECK, 0);
+        assertThat(game.getStreet()).isEqualByComparingTo(Street.FLOP);
+        assertThat(game.getBoard().size()).isEqualTo(3);
+        assertThat(game.getActingSeat()).isEqualTo(1);
+        assertThat(game.getCurrentBet()).isZero();
+    }
+
+    @Test
+    public void testSidePots() {
+        // hole cards go to seats 1, 2, 0, then 1, 2, 0 again, followed by the board
+        deal(card(Rank.KING, Suit.SPADES), card(Rank.QUEEN, Suit.SPADES), card(Rank.ACE, Suit.SPADES),
+                card(Rank.KING, Suit.HEARTS), card(Rank.QUEEN, Suit.HEARTS), card(Rank.ACE, Suit.HEARTS),
+                card(Rank.TWO, Suit.CLUBS), card(Rank.SEVEN, Suit.DIAMONDS), card(Rank.NINE, Suit.HEARTS),
+                card(Rank.THREE, Suit.SPADES), card(Rank.JACK, Suit.CLUBS));
+        final PokerGame game = new PokerGame(deck, 3, SMALL_BLIND, BIG_BLIND);
+        game.sit(0, 50);
+        game.sit(1, 100);
+        game.sit(2, 200);
+        game.startHand();
+
+        game.act(0, Action.ALL_IN, 0);
+        game.act(1, Action.ALL_IN, 0);
+        game.act(2, Action.CALL, 0);
+
+        assertThat(game.isHandInProgress()).isFalse();
+        assertThat(game.getBoard().size()).isEqualTo(5);
+        assertThat(game.getWinnings(0)).isEqualTo(150);
+        assertThat(game.getWinnings(1)).isEqualTo(100);
+        assertThat(game.getWinnings(2)).isZero();
+        assertThat(game.getStack(0) + game.getStack(1) + game.getStack(2)).isEqualTo(350);
+        assertThat(game.getStack(2)).isEqualTo(100);
+    }
+
+    @Test
+    public void testSplitPot() {
+        deal(card(Rank.TWO, Suit.SPADES), card(Rank.THREE, Suit.SPADES), card(Rank.TWO, Suit.HEARTS),
+                card(Rank.THREE, Suit.HEARTS), card(Rank.TEN, Suit.CLUBS), card(Rank.JACK, Suit.DIAMONDS),
+                card(Rank.QUEEN, Suit.HEARTS), card(Rank.KING, Suit.SPADES), card(Rank.ACE, Suit.CLUBS));
+        final PokerGame game = headsUp();
+        game.act(0, Action.ALL_IN, 0);
+        game.act(1, Action.CALL, 0);
+        assertThat(game.getStack(0)).isEqualTo(100);
+        assertThat(game.getStack(1)).isEqualTo(100);
+    }
+
+    @Test
+    public void testActOutOfTurn() {
+        deal(Card.get(Rank.TWO).of(Suit.CLUBS));
+        final PokerGame game = headsUp();
+        assertThat(assertThrows(IllegalStateException.class, () -> game.act(1, Action.CHECK, 0)).getMessage())
+                .isEqualTo("It is not seat 1's turn!");
+    }
+
+    @Test
+    public void testCheckFacingBet() {
+        deal(Card.get(Rank.TWO).of(Suit.CLUBS));
+        final PokerGame game = headsUp();
+        assertThat(assertThrows(IllegalStateException.class, () -> game.act(0, Action.CHECK, 0)).getMessage())
+                .isEqualTo("Cannot check when facing a bet!");
+    }
+
+    @Test
+    public void testRaiseTooSmall() {
+        deal(Card.get(Rank.TWO).of(Suit.CLUBS));
+        final PokerGame game = headsUp();
+        assertThat(assertThrows(IllegalArgumentException.class, () -> game.act(0, Action.RAISE, 15)).getMessage())
+                .isEqualTo("A raise must be at least 10 more than the current bet!");
+    }
+
+    @Test
+    public void testShortAllInDoesNotReopenBetting() {
+        deal(Card.get(Rank.TWO).of(Suit.CLUBS));
+        final PokerGame game = threeHanded(25);
+        game.act(0, Action.RAISE, 20);
+        // an all-in for 5 more is short of the minimum raise of 10
+        game.act(1, Action.ALL_IN, 0);
+        assertThat(game.getCurrentBet()).isEqualTo(25);
+        game.act(2, Action.CALL, 0);
+
+        assertThat(game.getActingSeat()).isZero();
+        assertThat(assertThrows(IllegalStateException.class, () -> game.act(0, Action.RAISE, 40)).getMessage())
+                .isEqualTo("Seat 0 can only call or fold until the betting reopens!");
+        assertThat(assertThrows(IllegalStateException.class, () -> game.act(0, Action.ALL_IN, 0)).getMessage())
+                .isEqualTo("Seat 0 can only call or fold until the betting reopens!");
+        game.act(0, Action.CALL, 0);
+        assertThat(game.getStreet()).isEqualByComparingTo(Street.FLOP);
+        assertThat(game.getPot()).isEqualTo(75);
+    }
+
+    @Test
+    public void testFullRaiseReopensBetting() {
+        deal(Card.get(Rank.TWO).of(Suit.CLUBS));
+        final PokerGame game = threeHanded(100);
+        game.act(0, Action.RAISE, 20);
+        game.act(1, Action.CALL, 0);
+        game.act(2, Action.RAISE, 40);
+        game.act(0, Action.RAISE, 60);
+        assertThat(game.getCurrentBet()).isEqualTo(60);
+        assertThat(game.getActingSeat()).isEqualTo(1);
+    }
+
+    @Test
+    public void testStartHandWithoutEnoughPlayers() {
+        final PokerGame game = new PokerGame(deck, 6, SMALL_BLIND, BIG_BLIND);
+        game.sit(0, 100);
+        assertThat(assertThrows(IllegalStateException.class, game::startHand).getMessage())
+                .isEqualTo("A hand needs at least two players with chips!");
+    }
+
+    private PokerGame headsUp() {
+        final PokerGame game = new PokerGame(deck, 2, SMALL_BLIND, BIG_BLIND);
+        game.sit(0, 100);
+        game.sit(1, 100);
+        game.startHand();
+        return game;
+    }
+
+    private PokerGame threeHanded(final int smallBlindStack) {
+        // the button is seat 0, with the small blind in seat 1 and the big blind in seat 2
+        final PokerGame game = new PokerGame(deck, 3, SMALL_BLIND, BIG_BLIND);
+        game.sit(0, 100);
+        game.sit(1, smallBlindStack);
+        game.sit(2, 100);
+        game.startHand();
+        return game;
+    }
+
+    private void deal(final Card first, final Card... rest) {
+        OngoingStubbing<Card> stubbing = when(deck.draw()).thenReturn(first);
+        for (final Card card : rest) {
+            stubbing = stubbing.thenReturn(card);
+        }
+    }
 
+    private static Card card(final Rank rank, final Suit suit) {
+        return Card.get(rank).of(suit);
+    }
 }
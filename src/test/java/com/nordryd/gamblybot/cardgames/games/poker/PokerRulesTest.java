@@ -0,0 +1,79 @@
+package com.nordryd.gamblybot.cardgames.games.poker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.poker.PokerGame.Action;
+import com.nordryd.gamblybot.cardgames.games.poker.PokerRules.Move;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * <p>
+ * Unit tests for {@link PokerRules}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@ExtendWith(MockitoExtension.class)
+public class PokerRulesTest
+{
+    @Mock
+    private Deck deck;
+
+    @Test
+    public void testFoldFinishesRound() {
+        when(deck.draw()).thenReturn(Card.get(Rank.TWO).of(Suit.CLUBS), Card.get(Rank.THREE).of(Suit.CLUBS),
+                Card.get(Rank.FOUR).of(Suit.CLUBS), Card.get(Rank.FIVE).of(Suit.CLUBS));
+        final PokerRules rules = new PokerRules(() -> deck, 2, 1, 2);
+        final PokerGame game = rules.newGame();
+
+        assertThat(rules.apply(game, 0, Move.sit(100))).isFalse();
+        assertThat(rules.apply(game, 1, Move.sit(100))).isFalse();
+        assertThat(rules.apply(game, 0, Move.deal())).isFalse();
+        assertThat(game.isHandInProgress()).isTrue();
+
+        final int acting = game.getActingSeat();
+        assertThat(rules.apply(game, acting, Move.raiseTo(6))).isFalse();
+        assertThat(rules.apply(game, game.getActingSeat(), Move.act(Action.FOLD))).isTrue();
+        assertThat(game.getWinnings(acting)).isEqualTo(8);
+    }
+
+    @Test
+    public void testSettleAnotherTable() {
+        final PokerRules rules = new PokerRules(() -> new Deck(new Random(1)), 2, 1, 2, true);
+        final PokerGame game = allIn(rules), otherGame = allIn(rules);
+        final ShowdownBatch batch = new ShowdownBatch(ForkJoinPool.commonPool());
+        batch.add(game);
+        final int otherTable = batch.add(otherGame);
+        batch.evaluate();
+
+        assertThat(assertThrows(IllegalStateException.class,
+                () -> rules.apply(game, 0, Move.settle(batch, otherTable))).getMessage())
+                .isEqualTo("Table 1 of the showdown batch is not this table!");
+        assertThat(otherGame.isAwaitingShowdown()).isTrue();
+        assertThat(rules.apply(otherGame, 0, Move.settle(batch, otherTable))).isTrue();
+        assertThat(otherGame.isAwaitingShowdown()).isFalse();
+    }
+
+    private static PokerGame allIn(final PokerRules rules) {
+        final PokerGame game = rules.newGame();
+        rules.apply(game, 0, Move.sit(100));
+        rules.apply(game, 1, Move.sit(100));
+        rules.apply(game, 0, Move.deal());
+        while (game.getActingSeat() >= 0) {
+            rules.apply(game, game.getActingSeat(), Move.act(Action.ALL_IN));
+        }
+        return game;
+    }
+}
@@ -0,0 +1,84 @@
+package com.nordryd.gamblybot.cardgames.games.poker;
+
+import static com.nordryd.gamblybot.cardgames.games.poker.PreflopHandClasses.CLASS_COUNT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+
+/**
+ * <p>
+ * Unit tests for {@link PreflopEquityTable}, {@link PreflopEquityGenerator} and {@link PreflopHandClasses}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class PreflopEquityTableTest
+{
+    private static final int ACES = PreflopHandClasses.classOf(Rank.ACE.ordinal(), Rank.ACE.ordinal(), false);
+    private static final int SEVEN_TWO = PreflopHandClasses.classOf(Rank.SEVEN.ordinal(), Rank.TWO.ordinal(), false);
+    private static final int KINGS = PreflopHandClasses.classOf(Rank.KING.ordinal(), Rank.KING.ordinal(), false);
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void testHandClasses() {
+        final Set<String> names = new HashSet<>();
+        for (int handClass = 0; handClass < CLASS_COUNT; handClass++) {
+            names.add(PreflopHandClasses.nameOf(handClass));
+        }
+        assertThat(names).hasSize(CLASS_COUNT).contains("AA", "AKs", "AKo", "72o", "32s");
+
+        assertThat(PreflopHandClasses.nameOf(PreflopHandClasses.classOf(
+                bits(Card.get(Rank.ACE).of(Suit.SPADES), Card.get(Rank.KING).of(Suit.SPADES))))).isEqualTo("AKs");
+        assertThat(PreflopHandClasses.nameOf(PreflopHandClasses.classOf(
+                bits(Card.get(Rank.TWO).of(Suit.HEARTS), Card.get(Rank.SEVEN).of(Suit.CLUBS))))).isEqualTo("72o");
+        assertThat(PreflopHandClasses.nameOf(PreflopHandClasses.classOf(
+                bits(Card.get(Rank.TEN).of(Suit.HEARTS), Card.get(Rank.TEN).of(Suit.DIAMONDS))))).isEqualTo("TT");
+    }
+
+    @Test
+    public void testGeneratedTable() throws IOException {
+        final Path file = directory.resolve("preflop-equity.bin");
+        PreflopEquityGenerator.generate(file, 3, 2000, 200, 42L);
+        final PreflopEquityTable table = PreflopEquityTable.load(file);
+
+        assertThat(table.getMaxOpponents()).isEqualTo(3);
+        assertThat(table.equity(ACES, 1)).isCloseTo(0.85f, within(0.03f));
+        assertThat(table.equity(SEVEN_TWO, 1)).isCloseTo(0.35f, within(0.03f));
+        assertThat(table.equity(ACES, 3)).isLessThan(table.equity(ACES, 1));
+        assertThat(table.headsUp(ACES, KINGS)).isCloseTo(0.82f, within(0.06f));
+        assertThat(table.headsUp(ACES, KINGS) + table.headsUp(KINGS, ACES)).isCloseTo(1.0f, within(0.08f));
+        assertThatIllegalArgumentException().isThrownBy(() -> table.equity(ACES, 4));
+    }
+
+    @Test
+    public void testLoadRejectsOtherFiles() throws IOException {
+        final Path file = directory.resolve("not-a-table.bin");
+        Files.write(file, new byte[64]);
+        assertThatThrownBy(() -> PreflopEquityTable.load(file)).isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Not a preflop equity table");
+    }
+
+    private static long bits(final Card... cards) {
+        long bits = 0L;
+        for (final Card card : cards) {
+            bits |= 1L << card.getId();
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,244 @@
+package com.nordryd.gamblybot.cardgames.games.poker;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeoutException;
+
+import com.nordryd.gamblybot.cardgames.engine.Table;
+import com.nordryd.gamblybot.cardgames.engine.TableEngine;
+import com.nordryd.gamblybot.cardgames.engine.TableListener;
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.poker.PokerGame.Action;
+import com.nordryd.gamblybot.cardgames.games.poker.PokerRules.Move;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+
+/**
+ * <p>
+ * Unit tests for {@link ShowdownBatch}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@ExtendWith(MockitoExtension.class)
+public class ShowdownBatchTest
+{
+    private static final int SMALL_BLIND = 5, BIG_BLIND = 10, SEATS = 3, TABLES = 1500;
+
+    @Mock
+    private Deck deck;
+
+    @Test
+    public void testSidePots() {
+        // hole cards go to seats 1, 2, 0, then 1, 2, 0 again, followed by the board
+        deal(card(Rank.KING, Suit.SPADES), card(Rank.QUEEN, Suit.SPADES), card(Rank.ACE, Suit.SPADES),
+                card(Rank.KING, Suit.HEARTS), card(Rank.QUEEN, Suit.HEARTS), card(Rank.ACE, Suit.HEARTS),
+                card(Rank.TWO, Suit.CLUBS), card(Rank.SEVEN, Suit.DIAMONDS), card(Rank.NINE, Suit.HEARTS),
+                card(Rank.THREE, Suit.SPADES), card(Rank.JACK, Suit.CLUBS));
+        final PokerGame game = new PokerGame(deck, SEATS, SMALL_BLIND, BIG_BLIND, true);
+        game.sit(0, 50);
+        game.sit(1, 100);
+        game.sit(2, 200);
+        game.startHand();
+        game.act(0, Action.ALL_IN, 0);
+        game.act(1, Action.ALL_IN, 0);
+        game.act(2, Action.CALL, 0);
+        assertThat(game.isAwaitingShowdown()).isTrue();
+        assertThat(game.isHandInProgress()).isTrue();
+        assertThat(game.getWinnings(0)).isZero();
+
+        final ShowdownBatch batch = new ShowdownBatch(ForkJoinPool.commonPool());
+        final int table = batch.add(game);
+        batch.evaluate();
+        assertThat(batch.getRanks(table)).containsExactly(1, 2, 3);
+
+        batch.settle(table);
+        assertThat(game.isAwaitingShowdown()).isFalse();
+        assertThat(game.isHandInProgress()).isFalse();
+        assertThat(game.getWinnings(0)).isEqualTo(150);
+        assertThat(game.getWinnings(1)).isEqualTo(100);
+        assertThat(game.getWinnings(2)).isZero();
+        assertThat(game.getStack(2)).isEqualTo(100);
+    }
+
+    @Test
+    public void testTiedHandsShareRank() {
+        deal(card(Rank.TWO, Suit.SPADES), card(Rank.THREE, Suit.SPADES), card(Rank.TWO, Suit.HEARTS),
+                card(Rank.THREE, Suit.HEARTS), card(Rank.TEN, Suit.CLUBS), card(Rank.JACK, Suit.DIAMONDS),
+                card(Rank.QUEEN, Suit.HEARTS), card(Rank.KING, Suit.SPADES), card(Rank.ACE, Suit.CLUBS));
+        final PokerGame game = new PokerGame(deck, 2, SMALL_BLIND, BIG_BLIND, true);
+        game.sit(0, 100);
+        game.sit(1, 100);
+        game.startHand();
+        game.act(0, Action.ALL_IN, 0);
+        game.act(1, Action.CALL, 0);
+
+        final ShowdownBatch batch = new ShowdownBatch(ForkJoinPool.commonPool());
+        batch.add(game);
+        batch.evaluate();
+        assertThat(batch.getRanks(0)).containsExactly(1, 1);
+        batch.settleAll();
+        assertThat(game.getStack(0)).isEqualTo(100);
+        assertThat(game.getStack(1)).isEqualTo(100);
+    }
+
+    @Test
+    public void testBatchMatchesImmediateShowdowns() {
+        final ShowdownBatch batch = new ShowdownBatch(ForkJoinPool.commonPool());
+        final PokerGame[] immediate = new PokerGame[TABLES];
+        for (int table = 0; table < TABLES; table++) {
+            immediate[table] = allIn(new PokerGame(new Deck(new Random(table)), SEATS, SMALL_BLIND, BIG_BLIND));
+            assertThat(batch.add(allIn(new PokerGame(new Deck(new Random(table)), SEATS, SMALL_BLIND, BIG_BLIND,
+                    true)))).isEqualTo(table);
+        }
+        assertThat(batch.getHandCount()).isEqualTo(TABLES * SEATS);
+
+        batch.evaluate();
+        batch.settleAll();
+        for (int table = 0; table < TABLES; table++) {
+            for (int seat = 0; seat < SEATS; seat++) {
+                assertThat(batch.getGame(table).getStack(seat)).isEqualTo(immediate[table].getStack(seat));
+            }
+        }
+    }
+
+    @Test
+    public void testTablesInAnEngine() throws InterruptedException, ExecutionException, TimeoutException {
+        final Set<String> roundsOver = ConcurrentHashMap.newKeySet();
+        final TableEngine engine = new TableEngine(ForkJoinPool.commonPool());
+        engine.addListener(new TableListener()
+        {
+            @Override
+            public void onRoundOver(final Table<?, ?> table) {
+                roundsOver.add(table.getId());
+            }
+        });
+
+        final List<Table<PokerGame, Move>> tables = new ArrayList<>();
+        for (int table = 0; table < SEATS; table++) {
+            final int seed = table;
+            tables.add(engine.open("table-" + table,
+                    new PokerRules(() -> new Deck(new Random(seed)), SEATS, SMALL_BLIND, BIG_BLIND, true)));
+            allIn(tables.get(table));
+        }
+        assertThat(roundsOver).isEmpty();
+
+        final ShowdownBatch batch = new ShowdownBatch(ForkJoinPool.commonPool());
+        final int[] indices = batch.addAll(tables);
+        assertThat(indices).containsExactly(0, 1, 2);
+        batch.evaluate();
+        for (int table = 0; table < SEATS; table++) {
+            assertThat(tables.get(table).dispatch(0, Move.settle(batch, indices[table])).get(5, SECONDS)).isTrue();
+        }
+        assertThat(roundsOver).containsExactlyInAnyOrder("table-0", "table-1", "table-2");
+
+        for (int table = 0; table < SEATS; table++) {
+            final PokerGame immediate = allIn(new PokerGame(new Deck(new Random(table)), SEATS, SMALL_BLIND,
+                    BIG_BLIND));
+            for (int seat = 0; seat < SEATS; seat++) {
+                final int stackSeat = seat;
+                assertThat(tables.get(table).read(game -> game.getStack(stackSeat)).get(5, SECONDS))
+                        .isEqualTo(immediate.getStack(seat));
+            }
+        }
+    }
+
+    @Test
+    public void testEngineTableNotAtShowdown() throws InterruptedException, ExecutionException, TimeoutException {
+        final Table<PokerGame, Move> table = new TableEngine(ForkJoinPool.commonPool()).open("table",
+                new PokerRules(() -> new Deck(new Random(1)), SEATS, SMALL_BLIND, BIG_BLIND, true));
+        table.dispatch(0, Move.sit(100)).get(5, SECONDS);
+        final List<Table<PokerGame, Move>> tables = new ArrayList<>();
+        tables.add(table);
+        assertThat(assertThrows(IllegalStateException.class,
+                () -> new ShowdownBatch(ForkJoinPool.commonPool()).addAll(tables)).getMessage())
+                .isEqualTo("Only a table waiting for its showdown can join a showdown batch!");
+    }
+
+    @Test
+    public void testClearedBatchIsReused() {
+        final ShowdownBatch batch = new ShowdownBatch(ForkJoinPool.commonPool());
+        batch.add(allIn(new PokerGame(new Deck(new Random(1)), SEATS, SMALL_BLIND, BIG_BLIND, true)));
+        batch.evaluate();
+        batch.clear();
+        assertThat(batch.getTableCount()).isZero();
+        assertThat(batch.getHandCount()).isZero();
+
+        final PokerGame game = allIn(new PokerGame(new Deck(new Random(2)), SEATS, SMALL_BLIND, BIG_BLIND, true));
+        assertThat(batch.add(game)).isZero();
+        batch.evaluate();
+        batch.settle(0);
+        assertThat(game.isHandInProgress()).isFalse();
+        assertThat(assertThrows(IllegalStateException.class, () -> batch.settle(0)).getMessage())
+                .isEqualTo("Table 0 of the showdown batch is already settled!");
+    }
+
+    @Test
+    public void testTableNotAtShowdown() {
+        final PokerGame game = new PokerGame(new Deck(new Random(1)), SEATS, SMALL_BLIND, BIG_BLIND, true);
+        game.sit(0, 100);
+        game.sit(1, 100);
+        game.startHand();
+        assertThat(assertThrows(IllegalStateException.class,
+                () -> new ShowdownBatch(ForkJoinPool.commonPool()).add(game)).getMessage())
+                .isEqualTo("Only a table waiting for its showdown can join a showdown batch!");
+    }
+
+    @Test
+    public void testRanksBeforeEvaluating() {
+        final ShowdownBatch batch = new ShowdownBatch(ForkJoinPool.commonPool());
+        batch.add(allIn(new PokerGame(new Deck(new Random(1)), SEATS, SMALL_BLIND, BIG_BLIND, true)));
+        assertThat(assertThrows(IllegalStateException.class, () -> batch.getRanks(0)).getMessage())
+                .isEqualTo("The showdown batch has not been evaluated yet!");
+    }
+
+    private static PokerGame allIn(final PokerGame game) {
+        for (int seat = 0; seat < game.getSeatCount(); seat++) {
+            game.sit(seat, 100);
+        }
+        game.startHand();
+        while (game.getActingSeat() >= 0) {
+            game.act(game.getActingSeat(), Action.ALL_IN, 0);
+        }
+        return game;
+    }
+
+    private static void allIn(final Table<PokerGame, Move> table)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        for (int seat = 0; seat < SEATS; seat++) {
+            table.dispatch(seat, Move.sit(100));
+        }
+        table.dispatch(0, Move.deal());
+        for (int seat = table.read(PokerGame::getActingSeat).get(5, SECONDS); seat >= 0;
+                seat = table.read(PokerGame::getActingSeat).get(5, SECONDS)) {
+            table.dispatch(seat, Move.act(Action.ALL_IN)).get(5, SECONDS);
+        }
+    }
+
+    private void deal(final Card first, final Card... rest) {
+        OngoingStubbing<Card> stubbing = when(deck.draw()).thenReturn(first);
+        for (final Card card : rest) {
+            stubbing = stubbing.thenReturn(card);
+        }
+    }
+
+    private static Card card(final Rank rank, final Suit suit) {
+        return Card.get(rank).of(suit);
+    }
+}
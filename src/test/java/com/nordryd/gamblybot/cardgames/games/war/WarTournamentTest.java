@@ -0,0 +1,76 @@
+package com.nordryd.gamblybot.cardgames.games.war;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import com.nordryd.gamblybot.cardgames.games.war.WarTournament.RoundResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link WarTournament}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class WarTournamentTest
+{
+    private static final long SEED = 1234L;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testSingleEntrant() {
+        final List<RoundResult> rounds = new ArrayList<>();
+        assertThat(new WarTournament(pool, SEED).run(1, rounds::add)).isZero();
+        assertThat(rounds).isEmpty();
+    }
+
+    @Test
+    public void testRoundsHalveEntrants() {
+        final int entrants = 100_001;
+        final List<RoundResult> rounds = new ArrayList<>();
+        final int winner = new WarTournament(pool, SEED).run(entrants, rounds::add);
+        assertThat(winner).isBetween(0, entrants - 1);
+        assertThat(rounds).hasSize(17);
+        int expectedEntrants = entrants;
+        for (int round = 0; round < rounds.size(); round++) {
+            final RoundResult result = rounds.get(round);
+            assertThat(result.getRound()).isEqualTo(round + 1);
+            assertThat(result.getEntrants()).isEqualTo(expectedEntrants);
+            assertThat(result.getAdvancing()).isEqualTo((expectedEntrants + 1) / 2);
+            expectedEntrants = result.getAdvancing();
+        }
+        assertThat(expectedEntrants).isEqualTo(1);
+    }
+
+    @Test
+    public void testSameSeedSameWinnerRegardlessOfParallelism() {
+        final int entrants = 50_000;
+        final ForkJoinPool singleThreaded = new ForkJoinPool(1);
+        try {
+            assertThat(new WarTournament(pool, SEED).run(entrants, round -> {}))
+                    .isEqualTo(new WarTournament(singleThreaded, SEED).run(entrants, round -> {}));
+        }
+        finally {
+            singleThreaded.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNoEntrants() {
+        assertThat(assertThrows(IllegalArgumentException.class,
+                () -> new WarTournament(pool, SEED).run(0, round -> {})).getMessage())
+                .isEqualTo("A tournament needs at least one entrant!");
+    }
+}
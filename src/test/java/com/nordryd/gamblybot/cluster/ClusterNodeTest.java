@@ -0,0 +1,98 @@
+package com.nordryd.gamblybot.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link ClusterNode}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class ClusterNodeTest
+{
+    private static final int CHANNELS = 2_000;
+
+    private final ConsistentHashRing ring = new ConsistentHashRing(160);
+    private final LoopbackTableTransport transport = new LoopbackTableTransport();
+    private final List<ClusterNode> nodes = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        join("a");
+        join("b");
+        join("c");
+    }
+
+    @Test
+    public void testTableForChannelOwnedElsewhere() {
+        final ClusterNode owner = ownerOf("channel");
+        final ClusterNode other = nodes.stream().filter(node -> node != owner).findFirst().get();
+        assertThat(assertThrows(IllegalStateException.class, () -> other.tableFor("channel")).getMessage())
+                .isEqualTo("Channel channel is owned by node " + owner.getId() + ", not " + other.getId());
+    }
+
+    @Test
+    public void testJoinHandsOffTablesToNewNode() {
+        final Map<String, BlackjackGame> tables = createTables();
+        final ClusterNode joined = join("d");
+        final int handedOff = nodes.stream().mapToInt(ClusterNode::rebalance).sum();
+
+        assertThat(joined.getTableCount()).isEqualTo(handedOff);
+        assertThat(handedOff).isBetween(CHANNELS / 8, CHANNELS * 3 / 8);
+        assertTablesKept(tables);
+    }
+
+    @Test
+    public void testLeaveHandsOffAllTables() {
+        final Map<String, BlackjackGame> tables = createTables();
+        final ClusterNode leaving = nodes.remove(0);
+        final int held = leaving.getTableCount();
+        ring.removeNode(leaving.getId());
+
+        assertThat(leaving.rebalance()).isEqualTo(held);
+        assertThat(leaving.getTableCount()).isZero();
+        assertThat(nodes.stream().mapToInt(ClusterNode::rebalance).sum()).isZero();
+        transport.unregister(leaving);
+        assertTablesKept(tables);
+    }
+
+    private ClusterNode join(final String id) {
+        final Random rng = new Random(id.hashCode());
+        final ClusterNode node = new ClusterNode(id, ring, transport, () -> new BlackjackGame(new Deck(rng)));
+        transport.register(node);
+        ring.addNode(id);
+        nodes.add(node);
+        return node;
+    }
+
+    private Map<String, BlackjackGame> createTables() {
+        final Map<String, BlackjackGame> tables = new HashMap<>();
+        for (int channel = 0; channel < CHANNELS; channel++) {
+            final String channelId = "channel-" + channel;
+            tables.put(channelId, ownerOf(channelId).tableFor(channelId));
+        }
+        return tables;
+    }
+
+    private void assertTablesKept(final Map<String, BlackjackGame> tables) {
+        assertThat(nodes.stream().mapToInt(ClusterNode::getTableCount).sum()).isEqualTo(CHANNELS);
+        tables.forEach((channelId, game) -> assertThat(ownerOf(channelId).tableFor(channelId)).isSameAs(game));
+    }
+
+    private ClusterNode ownerOf(final String channelId) {
+        return nodes.stream().filter(node -> node.owns(channelId)).findFirst().get();
+    }
+}
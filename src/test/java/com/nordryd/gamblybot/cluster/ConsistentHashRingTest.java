@@ -0,0 +1,74 @@
+package com.nordryd.gamblybot.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link ConsistentHashRing}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class ConsistentHashRingTest
+{
+    private static final int VIRTUAL_NODES = 160, KEYS = 20_000;
+
+    @Test
+    public void testEmptyRing() {
+        assertThat(assertThrows(IllegalStateException.class, () -> new ConsistentHashRing(VIRTUAL_NODES).ownerOf("key"))
+                .getMessage()).isEqualTo("Cannot find an owner on a ring with no nodes!");
+    }
+
+    @Test
+    public void testKeysSpreadEvenly() {
+        final ConsistentHashRing ring = ringOf("a", "b", "c", "d");
+        final Map<String, Integer> counts = new HashMap<>();
+        for (int key = 0; key < KEYS; key++) {
+            counts.merge(ring.ownerOf("channel-" + key), 1, Integer::sum);
+        }
+        assertThat(counts).hasSize(4);
+        counts.values().forEach(count -> assertThat(count).isBetween(KEYS / 4 * 3 / 4, KEYS / 4 * 5 / 4));
+    }
+
+    @Test
+    public void testAddingNodeOnlyMovesKeysToIt() {
+        final ConsistentHashRing ring = ringOf("a", "b", "c");
+        final Map<String, String> before = new HashMap<>();
+        for (int key = 0; key < KEYS; key++) {
+            before.put("channel-" + key, ring.ownerOf("channel-" + key));
+        }
+
+        ring.addNode("d");
+        int moved = 0;
+        for (final Map.Entry<String, String> key : before.entrySet()) {
+            final String owner = ring.ownerOf(key.getKey());
+            if (!owner.equals(key.getValue())) {
+                assertThat(owner).isEqualTo("d");
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(KEYS / 4 * 3 / 4, KEYS / 4 * 5 / 4);
+    }
+
+    @Test
+    public void testRemoveNode() {
+        final ConsistentHashRing ring = ringOf("a", "b");
+        ring.removeNode("a");
+        assertThat(ring.getNodes()).containsExactly("b");
+        assertThat(ring.ownerOf("channel")).isEqualTo("b");
+    }
+
+    private static ConsistentHashRing ringOf(final String... nodes) {
+        final ConsistentHashRing ring = new ConsistentHashRing(VIRTUAL_NODES);
+        for (final String node : nodes) {
+            ring.addNode(node);
+        }
+        return ring;
+    }
+}
@@ -0,0 +1,87 @@
+package com.nordryd.gamblybot.commands;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.nordryd.gamblybot.commands.CommandAdmissionController.Admission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link CommandAdmissionController}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class CommandAdmissionControllerTest
+{
+    private static final int SHED_THRESHOLD = 10;
+    private static final String USER = "user", OTHER_USER = "otherUser", CHANNEL = "channel",
+            OTHER_CHANNEL = "otherChannel";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    private CommandAdmissionController controller;
+
+    @BeforeEach
+    public void setUp() {
+        controller = new CommandAdmissionController(new RateLimit(2, 1), new RateLimit(3, 1), queueDepth::get,
+                SHED_THRESHOLD, clock::get);
+    }
+
+    @Test
+    public void testAdmit() {
+        assertThat(controller.admit(USER, CHANNEL)).isEqualByComparingTo(Admission.ADMITTED);
+    }
+
+    @Test
+    public void testUserLimited() {
+        controller.admit(USER, CHANNEL);
+        controller.admit(USER, CHANNEL);
+        assertThat(controller.admit(USER, CHANNEL)).isEqualByComparingTo(Admission.USER_LIMITED);
+    }
+
+    @Test
+    public void testChannelLimited() {
+        controller.admit(USER, CHANNEL);
+        controller.admit(USER, CHANNEL);
+        controller.admit(OTHER_USER, CHANNEL);
+        assertThat(controller.admit(OTHER_USER, CHANNEL)).isEqualByComparingTo(Admission.CHANNEL_LIMITED);
+    }
+
+    @Test
+    public void testChannelLimitedDoesNotConsumeUserTokens() {
+        controller.admit(OTHER_USER, CHANNEL);
+        controller.admit(OTHER_USER, CHANNEL);
+        controller.admit(USER, CHANNEL);
+        assertThat(controller.admit(USER, CHANNEL)).isEqualByComparingTo(Admission.CHANNEL_LIMITED);
+        assertThat(controller.admit(USER, OTHER_CHANNEL)).isEqualByComparingTo(Admission.ADMITTED);
+        assertThat(controller.admit(USER, OTHER_CHANNEL)).isEqualByComparingTo(Admission.USER_LIMITED);
+    }
+
+    @Test
+    public void testShedDoesNotConsumeTokens() {
+        queueDepth.set(SHED_THRESHOLD);
+        assertThat(controller.admit(USER, CHANNEL)).isEqualByComparingTo(Admission.SHED);
+        assertThat(controller.admit(USER, CHANNEL)).isEqualByComparingTo(Admission.SHED);
+        queueDepth.set(0);
+        assertThat(controller.admit(USER, CHANNEL)).isEqualByComparingTo(Admission.ADMITTED);
+        assertThat(controller.admit(USER, CHANNEL)).isEqualByComparingTo(Admission.ADMITTED);
+    }
+
+    @Test
+    public void testEvictIdle() {
+        controller.admit(USER, CHANNEL);
+        assertThat(controller.getTrackedBucketCount()).isEqualTo(2);
+        controller.evictIdle();
+        assertThat(controller.getTrackedBucketCount()).isEqualTo(2);
+        clock.addAndGet(SECONDS.toNanos(10));
+        controller.evictIdle();
+        assertThat(controller.getTrackedBucketCount()).isZero();
+    }
+}
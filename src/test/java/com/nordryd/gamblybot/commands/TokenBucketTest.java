@@ -0,0 +1,85 @@
+package com.nordryd.gamblybot.commands;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link TokenBucket}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class TokenBucketTest
+{
+    private final AtomicLong clock = new AtomicLong(42L);
+
+    @Test
+    public void testBurstUpToCapacity() {
+        final TokenBucket bucket = new TokenBucket(new RateLimit(3, 1), clock::get);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void testRefill() {
+        final TokenBucket bucket = new TokenBucket(new RateLimit(1, 10), clock::get);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        clock.addAndGet(MILLISECONDS.toNanos(50));
+        assertThat(bucket.tryAcquire()).isFalse();
+        clock.addAndGet(MILLISECONDS.toNanos(50));
+        assertThat(bucket.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void testRefillDoesNotExceedCapacity() {
+        final TokenBucket bucket = new TokenBucket(new RateLimit(2, 10), clock::get);
+        clock.addAndGet(MILLISECONDS.toNanos(10_000));
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void testIsFull() {
+        final TokenBucket bucket = new TokenBucket(new RateLimit(2, 10), clock::get);
+        assertThat(bucket.isFull()).isTrue();
+        bucket.tryAcquire();
+        assertThat(bucket.isFull()).isFalse();
+        clock.addAndGet(MILLISECONDS.toNanos(100));
+        assertThat(bucket.isFull()).isTrue();
+    }
+
+    @Test
+    public void testRelease() {
+        final TokenBucket bucket = new TokenBucket(new RateLimit(2, 10), clock::get);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        bucket.release();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        bucket.release();
+        bucket.release();
+        assertThat(bucket.isFull()).isTrue();
+    }
+
+    @Test
+    public void testRateLimitNonPositiveCapacity() {
+        assertThat(assertThrows(IllegalArgumentException.class, () -> new RateLimit(0, 1)).getMessage())
+                .isEqualTo("A rate limit's capacity must be positive!");
+    }
+
+    @Test
+    public void testRateLimitNonPositiveRefill() {
+        assertThat(assertThrows(IllegalArgumentException.class, () -> new RateLimit(1, 0)).getMessage())
+                .isEqualTo("A rate limit's refill rate must be positive!");
+    }
+}
@@ -0,0 +1,51 @@
+package com.nordryd.gamblybot.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Action;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link ActionSequence}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class ActionSequenceTest
+{
+    @Test
+    public void testAppend() {
+        long sequence = ActionSequence.append(ActionSequence.EMPTY, Action.SPLIT, 16);
+        sequence = ActionSequence.append(sequence, Action.HIT, 8);
+        sequence = ActionSequence.append(sequence, Action.STAY, 0);
+        assertThat(ActionSequence.length(ActionSequence.EMPTY)).isZero();
+        assertThat(ActionSequence.length(sequence)).isEqualTo(3);
+        assertThat(ActionSequence.actionAt(sequence, 0)).isEqualByComparingTo(Action.SPLIT);
+        assertThat(ActionSequence.handValueAt(sequence, 0)).isEqualTo(16);
+        assertThat(ActionSequence.actionAt(sequence, 1)).isEqualByComparingTo(Action.HIT);
+        assertThat(ActionSequence.handValueAt(sequence, 1)).isEqualTo(8);
+        assertThat(ActionSequence.actionAt(sequence, 2)).isEqualByComparingTo(Action.STAY);
+        assertThat(ActionSequence.handValueAt(sequence, 2)).isZero();
+    }
+
+    @Test
+    public void testFullSequence() {
+        long sequence = ActionSequence.EMPTY;
+        for (int action = 0; action < ActionSequence.MAX_ACTIONS; action++) {
+            sequence = ActionSequence.append(sequence, Action.SURRENDER, 31);
+        }
+        assertThat(ActionSequence.length(sequence)).isEqualTo(ActionSequence.MAX_ACTIONS);
+        assertThat(ActionSequence.actionAt(sequence, 7)).isEqualByComparingTo(Action.SURRENDER);
+        final long full = sequence;
+        assertThatIllegalStateException().isThrownBy(() -> ActionSequence.append(full, Action.HIT, 12));
+    }
+
+    @Test
+    public void testHandValueOutOfRange() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ActionSequence.append(ActionSequence.EMPTY, Action.HIT, 32));
+    }
+}
@@ -0,0 +1,107 @@
+package com.nordryd.gamblybot.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Action;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackHand.State;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * <p>
+ * Unit tests for {@link HandHistoryStore}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class HandHistoryStoreTest
+{
+    private static final Card SIX_OF_HEARTS = Card.get(Rank.SIX).of(Suit.HEARTS);
+    private static final Card SIX_OF_CLUBS = Card.get(Rank.SIX).of(Suit.CLUBS);
+    private static final Card ACE_OF_SPADES = Card.get(Rank.ACE).of(Suit.SPADES);
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void testQueriesOnlySeeFlushedHands() throws IOException {
+        try (final HandHistoryStore store = HandHistoryStore.open(directory)) {
+            store.append("alice", SIX_OF_HEARTS, ActionSequence.EMPTY, State.STAYING, 10);
+            assertThat(store.getRowCount()).isZero();
+            assertThat(store.winRateByUpcard()).isEmpty();
+            store.flush();
+            assertThat(store.getRowCount()).isEqualTo(1);
+            assertThat(store.winRateByUpcard()).containsEntry(Rank.SIX, 1.0);
+        }
+    }
+
+    @Test
+    public void testWinRateByUpcard() throws IOException {
+        try (final HandHistoryStore store = HandHistoryStore.open(directory)) {
+            store.append("alice", SIX_OF_HEARTS, ActionSequence.EMPTY, State.STAYING, 10);
+            store.append("bob", SIX_OF_CLUBS, ActionSequence.EMPTY, State.STAYING, 0);
+            store.append("alice", ACE_OF_SPADES, ActionSequence.EMPTY, State.STAYING, -10);
+            store.append("bob", SIX_OF_CLUBS, ActionSequence.EMPTY, State.BLACKJACK, 15);
+            store.flush();
+
+            final Map<Rank, Double> winRates = store.winRateByUpcard();
+            assertThat(winRates).hasSize(2);
+            assertThat(winRates.get(Rank.SIX)).isCloseTo(2.0 / 3.0, within(1e-9));
+            assertThat(winRates.get(Rank.ACE)).isZero();
+            assertThat(store.winRateOf("alice")).isEqualTo(0.5);
+            assertThat(store.winRateOf("carol")).isNaN();
+        }
+    }
+
+    @Test
+    public void testBustRateAfterHitting() throws IOException {
+        final long hitOnTwelve = ActionSequence.append(ActionSequence.EMPTY, Action.HIT, 12);
+        final long hitOnTwelveThenSixteen = ActionSequence.append(hitOnTwelve, Action.HIT, 16);
+        try (final HandHistoryStore store = HandHistoryStore.open(directory)) {
+            store.append("alice", SIX_OF_HEARTS, hitOnTwelveThenSixteen, State.BUSTED, -10);
+            store.append("alice", SIX_OF_HEARTS, hitOnTwelveThenSixteen, State.STAYING, 10);
+            store.append("bob", SIX_OF_HEARTS, ActionSequence.append(ActionSequence.EMPTY, Action.HIT, 16),
+                    State.BUSTED, -10);
+            store.append("bob", SIX_OF_HEARTS, hitOnTwelve, State.BUSTED, -10);
+            store.flush();
+
+            assertThat(store.bustRateAfterHitting(16)).isCloseTo(2.0 / 3.0, within(1e-9));
+            assertThat(store.bustRateAfterHitting(12)).isCloseTo(2.0 / 3.0, within(1e-9));
+            assertThat(store.bustRateAfterHitting(15)).isNaN();
+        }
+    }
+
+    @Test
+    public void testReopenKeepsHandsAndCutsOffPartialFlushes() throws IOException {
+        try (final HandHistoryStore store = HandHistoryStore.open(directory)) {
+            store.append("alice", SIX_OF_HEARTS, ActionSequence.EMPTY, State.STAYING, 10);
+            store.append("bob", ACE_OF_SPADES, ActionSequence.EMPTY, State.STAYING, -10);
+        }
+
+        // as if the bot stopped after writing part of a third hand
+        try (final FileChannel payouts = FileChannel.open(directory.resolve("payout.col"),
+                StandardOpenOption.APPEND)) {
+            payouts.write(ByteBuffer.allocate(Integer.BYTES));
+        }
+
+        try (final HandHistoryStore store = HandHistoryStore.open(directory)) {
+            assertThat(store.getRowCount()).isEqualTo(2);
+            assertThat(store.winRateOf("alice")).isEqualTo(1.0);
+            assertThat(store.winRateOf("bob")).isZero();
+            store.append("carol", SIX_OF_CLUBS, ActionSequence.EMPTY, State.STAYING, 10);
+            store.flush();
+            assertThat(store.winRateByUpcard().get(Rank.SIX)).isEqualTo(1.0);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.nordryd.gamblybot.jfr;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+
+import com.nordryd.gamblybot.cardgames.engine.Table;
+import com.nordryd.gamblybot.cardgames.engine.TableEngine;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRules;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * <p>
+ * Unit tests for the flight recorder events in {@link com.nordryd.gamblybot.jfr}, run against a real recording.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class FlightRecorderEventsTest
+{
+    private static final String PREFIX = "com.nordryd.gamblybot.";
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void testGameEventsAreRecorded() throws IOException, ExecutionException, InterruptedException {
+        final List<RecordedEvent> events;
+        try (final Recording recording = new Recording()) {
+            recording.enable(PREFIX + "TableCreated");
+            recording.enable(PREFIX + "TableEvicted");
+            recording.enable(PREFIX + "RoundDealt");
+            recording.enable(PREFIX + "RoundSettled");
+            recording.enable(PREFIX + "DeckReshuffle");
+            recording.enable(PREFIX + "SlowCommand").withThreshold(Duration.ZERO);
+            recording.start();
+
+            final Deck deck = new Deck(new Random());
+            deck.draw(52);
+            final TableEngine engine = new TableEngine(Runnable::run);
+            final Table<BlackjackGame, BlackjackRules.Move> table =
+                    engine.open("table", new BlackjackRules(() -> deck));
+            table.dispatch(0, BlackjackRules.Move.join(10)).get();
+            table.getGame().playDealer();
+            engine.close("table");
+
+            recording.stop();
+            final Path file = directory.resolve("events.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertThat(events.stream().map(event -> event.getEventType().getName()).collect(toList())).contains(
+                PREFIX + "TableCreated", PREFIX + "TableEvicted", PREFIX + "RoundDealt", PREFIX + "RoundSettled",
+                PREFIX + "DeckReshuffle", PREFIX + "SlowCommand");
+        final RecordedEvent slowCommand = events.stream()
+                .filter(event -> event.getEventType().getName().equals(PREFIX + "SlowCommand")).findFirst().get();
+        assertThat(slowCommand.getString("tableId")).isEqualTo("table");
+        assertThat(slowCommand.getBoolean("failed")).isFalse();
+    }
+
+    @Test
+    public void testSlowCommandBelowThresholdIsNotRecorded() throws IOException {
+        final List<RecordedEvent> events;
+        try (final Recording recording = new Recording()) {
+            recording.enable(PREFIX + "SlowCommand").withThreshold(Duration.ofHours(1));
+            recording.start();
+            SlowCommandEvent.start().finish("table", 0, "hit", 0L, false);
+            recording.stop();
+            final Path file = directory.resolve("events.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+        assertThat(events).noneMatch(event -> event.getEventType().getName().equals(PREFIX + "SlowCommand"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.nordryd.gamblybot.leaderboard;
+
+import static com.nordryd.gamblybot.leaderboard.LeaderboardService.Window.ALL_TIME;
+import static com.nordryd.gamblybot.leaderboard.LeaderboardService.Window.DAILY;
+import static com.nordryd.gamblybot.leaderboard.LeaderboardService.Window.WEEKLY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame.Outcome;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRuleSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link LeaderboardService}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class LeaderboardServiceTest
+{
+    // a Monday
+    private static final Instant MONDAY_NOON = Instant.parse("2020-03-02T12:00:00Z");
+
+    private final MutableClock clock = new MutableClock(MONDAY_NOON);
+    private final LeaderboardService service = new LeaderboardService(clock);
+
+    @Test
+    public void testRecordBlackjack() {
+        service.recordBlackjack("alice", 10, Outcome.BLACKJACK);
+        service.recordBlackjack("alice", 10, Outcome.WIN);
+        service.recordBlackjack("alice", 10, Outcome.PUSH);
+        service.recordBlackjack("alice", 10, Outcome.LOSE);
+        assertThat(service.get(ALL_TIME).standingOf("alice").getWinnings()).isEqualTo(15);
+    }
+
+    @Test
+    public void testRecordBlackjackByHouseRules() {
+        final LeaderboardService sixToFive = new LeaderboardService(clock,
+                BlackjackRuleSet.builder().blackjackPayout(BlackjackRuleSet.BlackjackPayout.SIX_TO_FIVE).build());
+        sixToFive.recordBlackjack("alice", 10, Outcome.BLACKJACK);
+        assertThat(sixToFive.get(ALL_TIME).standingOf("alice").getWinnings()).isEqualTo(12);
+    }
+
+    @Test
+    public void testDailyBoardStartsOverAtMidnight() {
+        service.record("alice", 100);
+        clock.advance(Duration.ofDays(1));
+        service.record("bob", 10);
+
+        assertThat(service.rankOf(DAILY, "alice")).isZero();
+        assertThat(service.rankOf(DAILY, "bob")).isEqualTo(1);
+        assertThat(service.rankOf(WEEKLY, "alice")).isEqualTo(1);
+        assertThat(service.rankOf(WEEKLY, "bob")).isEqualTo(2);
+        assertThat(service.top(ALL_TIME, 5)).hasSize(2);
+    }
+
+    @Test
+    public void testLateCallerDoesNotBringBackThePreviousDay() {
+        clock.advance(Duration.ofDays(1));
+        service.record("alice", 100);
+        clock.advance(Duration.ofDays(-1));
+        service.record("bob", 10);
+
+        assertThat(service.rankOf(DAILY, "alice")).isEqualTo(1);
+        assertThat(service.rankOf(DAILY, "bob")).isEqualTo(2);
+        assertThat(service.top(ALL_TIME, 5)).hasSize(2);
+    }
+
+    @Test
+    public void testWeeklyBoardStartsOverOnMonday() {
+        service.record("alice", 100);
+        clock.advance(Duration.ofDays(6));
+        assertThat(service.rankOf(WEEKLY, "alice")).isEqualTo(1);
+        clock.advance(Duration.ofDays(1));
+        assertThat(service.rankOf(WEEKLY, "alice")).isZero();
+        assertThat(service.rankOf(ALL_TIME, "alice")).isEqualTo(1);
+    }
+
+    /**
+     * A {@link Clock} that only moves when told to.
+     */
+    private static final class MutableClock extends Clock
+    {
+        private Instant now;
+
+        private MutableClock(final Instant now) {
+            this.now = now;
+        }
+
+        private void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
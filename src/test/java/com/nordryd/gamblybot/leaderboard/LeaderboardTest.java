@@ -0,0 +1,115 @@
+package com.nordryd.gamblybot.leaderboard;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link Leaderboard}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class LeaderboardTest
+{
+    private final Leaderboard leaderboard = new Leaderboard();
+
+    @Test
+    public void testTop() {
+        leaderboard.record("alice", 50);
+        leaderboard.record("bob", 80);
+        leaderboard.record("carol", 20);
+        leaderboard.record("alice", 40);
+        assertThat(leaderboard.top(2).stream().map(Leaderboard.Standing::getPlayerId).collect(toList()))
+                .containsExactly("alice", "bob");
+        assertThat(leaderboard.top(10)).hasSize(3);
+        assertThat(leaderboard.standingOf("alice").getWinnings()).isEqualTo(90);
+    }
+
+    @Test
+    public void testTiesAreBrokenByPlayerId() {
+        leaderboard.record("bob", 10);
+        leaderboard.record("alice", 10);
+        assertThat(leaderboard.top(2).stream().map(Leaderboard.Standing::getPlayerId).collect(toList()))
+                .containsExactly("alice", "bob");
+    }
+
+    @Test
+    public void testRankOf() {
+        leaderboard.record("alice", 50);
+        leaderboard.record("bob", 80);
+        leaderboard.record("carol", -20);
+        assertThat(leaderboard.rankOf("bob")).isEqualTo(1);
+        assertThat(leaderboard.rankOf("alice")).isEqualTo(2);
+        assertThat(leaderboard.rankOf("carol")).isEqualTo(3);
+        assertThat(leaderboard.rankOf("dave")).isZero();
+        leaderboard.record("carol", 200);
+        assertThat(leaderboard.rankOf("carol")).isEqualTo(1);
+        assertThat(leaderboard.rankOf("alice")).isEqualTo(3);
+    }
+
+    @Test
+    public void testConcurrentRecords() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.execute(() -> {
+                for (int record = 0; record < 10_000; record++) {
+                    leaderboard.record("player" + (record % 100), 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(leaderboard.getSize()).isEqualTo(100);
+        assertThat(leaderboard.top(1000)).hasSize(100).allMatch(standing -> standing.getWinnings() == 400);
+    }
+
+    @Test
+    public void testTopDuringConcurrentRecords() throws InterruptedException {
+        for (int player = 0; player < 100; player++) {
+            leaderboard.record("player" + player, player);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.execute(() -> {
+                for (int record = 0; record < 10_000; record++) {
+                    leaderboard.record("player" + (record % 100), ((record & 1) == 0) ? 7 : -3);
+                }
+            });
+        }
+        executor.shutdown();
+
+        // a player is never listed twice while their winnings change, though a read may miss one that moves up
+        while (!executor.isTerminated()) {
+            assertThat(leaderboard.top(1000).stream().map(Leaderboard.Standing::getPlayerId).collect(toList()))
+                    .doesNotHaveDuplicates().hasSizeLessThanOrEqualTo(100);
+        }
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(leaderboard.top(1000)).hasSize(100);
+        assertThat(leaderboard.standingOf("player0").getWinnings()).isEqualTo(4 * 100 * 7);
+        assertThat(leaderboard.rankOf("player98")).isEqualTo(1);
+    }
+
+    @Test
+    public void testRecordNothing() {
+        leaderboard.record("alice", 50);
+        leaderboard.record("alice", 0);
+        assertThat(leaderboard.top(10)).hasSize(1);
+        assertThat(leaderboard.rankOf("alice")).isEqualTo(1);
+        assertThat(leaderboard.standingOf("alice").getWinnings()).isEqualTo(50);
+    }
+
+    @Test
+    public void testTopNeedsPositiveCount() {
+        assertThatIllegalArgumentException().isThrownBy(() -> leaderboard.top(0));
+    }
+}
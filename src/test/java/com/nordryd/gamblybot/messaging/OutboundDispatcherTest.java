@@ -0,0 +1,151 @@
+package com.nordryd.gamblybot.messaging;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.nordryd.gamblybot.commands.RateLimit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * <p>
+ * Unit tests for {@link OutboundDispatcher}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@ExtendWith(MockitoExtension.class)
+public class OutboundDispatcherTest
+{
+    private static final String CHANNEL = "channel", OTHER_CHANNEL = "other channel", TABLE = "table";
+    private static final long WINDOW_MILLIS = 250L;
+
+    private final Queue<Runnable> scheduled = new ArrayDeque<>();
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    private LoopbackChatTransport transport;
+
+    @BeforeEach
+    public void setUp() {
+        transport = new LoopbackChatTransport();
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            return null;
+        });
+    }
+
+    @Test
+    public void testUpdatesCoalesceIntoOneMessage() {
+        final OutboundDispatcher dispatcher = dispatcher(transport, new RateLimit(5, 1));
+        dispatcher.update(CHANNEL, TABLE, "first");
+        dispatcher.update(CHANNEL, TABLE, "second");
+        dispatcher.update(CHANNEL, TABLE, "third");
+        assertThat(scheduled).hasSize(1);
+        verify(scheduler).schedule(any(Runnable.class), eq(MILLISECONDS.toNanos(WINDOW_MILLIS)),
+                eq(TimeUnit.NANOSECONDS));
+
+        runScheduled();
+        assertThat(transport.getMessages(CHANNEL)).containsExactly("third");
+        assertThat(dispatcher.getSentCount()).isEqualTo(1);
+        assertThat(dispatcher.getCoalescedCount()).isEqualTo(2);
+
+        dispatcher.update(CHANNEL, TABLE, "fourth");
+        runScheduled();
+        assertThat(transport.getMessages(CHANNEL)).containsExactly("fourth");
+        assertThat(dispatcher.getEditedCount()).isEqualTo(1);
+        assertThat(transport.getCallCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testAnnouncementsCombineIntoOneMessage() {
+        final OutboundDispatcher dispatcher = dispatcher(transport, new RateLimit(5, 1));
+        dispatcher.update(CHANNEL, TABLE, "table");
+        dispatcher.announce(CHANNEL, "Alice hits");
+        dispatcher.announce(CHANNEL, "Alice busts");
+        runScheduled();
+        assertThat(transport.getMessages(CHANNEL)).containsExactly("table", "Alice hits\nAlice busts");
+        assertThat(dispatcher.getSentCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testThrottledChannelWaitsForItsRoute() {
+        final OutboundDispatcher dispatcher = dispatcher(transport, new RateLimit(1, 1));
+        dispatcher.update(CHANNEL, TABLE, "table");
+        dispatcher.announce(CHANNEL, "Alice hits");
+        scheduled.poll().run();
+        scheduled.poll().run();
+        assertThat(transport.getMessages(CHANNEL)).containsExactly("table");
+        assertThat(dispatcher.getThrottledCount()).isEqualTo(1);
+
+        dispatcher.announce(CHANNEL, "Alice stays");
+        nanos.addAndGet(SECONDS.toNanos(1));
+        runScheduled();
+        assertThat(transport.getMessages(CHANNEL)).containsExactly("table", "Alice hits\nAlice stays");
+    }
+
+    @Test
+    public void testGloballyThrottledChannelKeepsItsToken() {
+        final OutboundDispatcher dispatcher = new OutboundDispatcher(transport, new RateLimit(1, 1),
+                new RateLimit(1, 10), WINDOW_MILLIS, MILLISECONDS, scheduler, nanos::get);
+        dispatcher.update(CHANNEL, TABLE, "table");
+        dispatcher.update(OTHER_CHANNEL, TABLE, "other table");
+        scheduled.poll().run();
+        scheduled.poll().run();
+        assertThat(transport.getMessages(CHANNEL)).containsExactly("table");
+        assertThat(transport.getMessages(OTHER_CHANNEL)).isEmpty();
+        assertThat(dispatcher.getThrottledCount()).isEqualTo(1);
+
+        // the global limit refills long before the other channel's own would have
+        nanos.addAndGet(MILLISECONDS.toNanos(100));
+        scheduled.poll().run();
+        assertThat(transport.getMessages(OTHER_CHANNEL)).containsExactly("other table");
+        assertThat(scheduled).isEmpty();
+    }
+
+    @Test
+    public void testFailedEditPostsTheNextUpdateAnew(@Mock final ChatTransport failing) {
+        when(failing.send(eq(CHANNEL), anyString())).thenReturn("1", "2");
+        doThrow(new IllegalStateException("Unknown message")).when(failing).edit(CHANNEL, "1", "second");
+        final OutboundDispatcher dispatcher = dispatcher(failing, new RateLimit(5, 1));
+        dispatcher.update(CHANNEL, TABLE, "first");
+        runScheduled();
+        dispatcher.update(CHANNEL, TABLE, "second");
+        runScheduled();
+        dispatcher.update(CHANNEL, TABLE, "third");
+        runScheduled();
+        assertThat(dispatcher.getFailedCount()).isEqualTo(1);
+        verify(failing, times(1)).send(CHANNEL, "third");
+    }
+
+    private OutboundDispatcher dispatcher(final ChatTransport chatTransport, final RateLimit routeLimit) {
+        return new OutboundDispatcher(chatTransport, routeLimit, new RateLimit(50, 50), WINDOW_MILLIS, MILLISECONDS,
+                scheduler, nanos::get);
+    }
+
+    private void runScheduled() {
+        while (!scheduled.isEmpty()) {
+            scheduled.poll().run();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.nordryd.gamblybot.rendering;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackGame;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackHand;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * <p>
+ * Unit tests for {@link MessageRenderer}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@ExtendWith(MockitoExtension.class)
+public class MessageRendererTest
+{
+    private static final Card KING_OF_HEARTS = Card.get(Rank.KING).of(Suit.HEARTS);
+    private static final Card SEVEN_OF_DIAMONDS = Card.get(Rank.SEVEN).of(Suit.DIAMONDS);
+    private static final Card ACE_OF_SPADES = Card.get(Rank.ACE).of(Suit.SPADES);
+    private static final Card TEN_OF_CLUBS = Card.get(Rank.TEN).of(Suit.CLUBS);
+    private static final Card NINE_OF_CLUBS = Card.get(Rank.NINE).of(Suit.CLUBS);
+    private static final String HEARTS = "\u2665\uFE0F", DIAMONDS = "\u2666\uFE0F", SPADES = "\u2660\uFE0F",
+            CLUBS = "\u2663\uFE0F", HIDDEN = "\uD83C\uDCA0";
+
+    private final MessageRenderer renderer = new MessageRenderer();
+
+    @Mock
+    private Deck deck;
+
+    @Test
+    public void testRenderCard() {
+        assertThat(renderer.renderCard(ACE_OF_SPADES)).isEqualTo("A" + SPADES);
+        assertThat(renderer.renderCard(TEN_OF_CLUBS)).isEqualTo("10" + CLUBS);
+    }
+
+    @Test
+    public void testRenderHand() {
+        when(deck.draw()).thenReturn(KING_OF_HEARTS).thenReturn(ACE_OF_SPADES);
+        assertThat(renderer.renderHand(new BlackjackHand(deck)))
+                .isEqualTo("K" + HEARTS + " A" + SPADES + " (21, BLACKJACK)");
+    }
+
+    @Test
+    public void testRenderTable() {
+        when(deck.draw()).thenReturn(KING_OF_HEARTS).thenReturn(SEVEN_OF_DIAMONDS).thenReturn(TEN_OF_CLUBS)
+                .thenReturn(NINE_OF_CLUBS).thenReturn(ACE_OF_SPADES).thenReturn(KING_OF_HEARTS);
+        final BlackjackGame game = new BlackjackGame(deck);
+        game.addPlayer(10);
+        game.addPlayer(10);
+        assertThat(renderer.renderTable(game)).isEqualTo(
+                "Dealer: K" + HEARTS + " " + HIDDEN + "\n" + "Player 1: 10" + CLUBS + " 9" + CLUBS +
+                        " (19, PLAYING)\n" + "Player 2: A" + SPADES + " K" + HEARTS + " (21, BLACKJACK)\n");
+    }
+
+    @Test
+    public void testRenderSettlement() {
+        when(deck.draw()).thenReturn(KING_OF_HEARTS).thenReturn(SEVEN_OF_DIAMONDS).thenReturn(TEN_OF_CLUBS)
+                .thenReturn(NINE_OF_CLUBS);
+        final BlackjackGame game = new BlackjackGame(deck);
+        game.addPlayer(10).getHands().get(0).stay();
+        game.getDealer().getHands().get(0).stay();
+        assertThat(renderer.renderSettlement(game)).isEqualTo(
+                "Dealer: K" + HEARTS + " 7" + DIAMONDS + " (17, STAYING)\n" + "Player 1: 10" + CLUBS + " 9" + CLUBS +
+                        " (19, STAYING) - WIN\n");
+    }
+}
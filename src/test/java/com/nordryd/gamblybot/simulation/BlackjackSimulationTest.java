@@ -0,0 +1,151 @@
+package com.nordryd.gamblybot.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import com.nordryd.gamblybot.cardgames.entities.Card;
+import com.nordryd.gamblybot.cardgames.entities.Card.Rank;
+import com.nordryd.gamblybot.cardgames.entities.Card.Suit;
+import com.nordryd.gamblybot.cardgames.entities.Deck;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackCalculator.Action;
+import com.nordryd.gamblybot.cardgames.games.blackjack.BlackjackRuleSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * <p>
+ * Unit tests for {@link BlackjackSimulation}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+@ExtendWith(MockitoExtension.class)
+public class BlackjackSimulationTest
+{
+    private static final Card TEN_OF_CLUBS = Card.get(Rank.TEN).of(Suit.CLUBS);
+    private static final Card SEVEN_OF_HEARTS = Card.get(Rank.SEVEN).of(Suit.HEARTS);
+    private static final Card FIVE_OF_SPADES = Card.get(Rank.FIVE).of(Suit.SPADES);
+    private static final Card SIX_OF_DIAMONDS = Card.get(Rank.SIX).of(Suit.DIAMONDS);
+    private static final Card KING_OF_SPADES = Card.get(Rank.KING).of(Suit.SPADES);
+
+    private static final BlackjackStrategy ALWAYS_STAY = (hand, dealerUpcard) -> Action.STAY;
+    private static final BlackjackStrategy ALWAYS_HIT = (hand, dealerUpcard) -> Action.HIT;
+    private static final BlackjackStrategy ALWAYS_DOUBLE_DOWN = (hand, dealerUpcard) -> Action.DOUBLE_DOWN;
+    private static final BlackjackStrategy ALWAYS_SURRENDER = (hand, dealerUpcard) -> Action.SURRENDER;
+    private static final BlackjackStrategy MIMIC_THE_DEALER =
+            (hand, dealerUpcard) -> (hand.getValue() < 17) ? Action.HIT : Action.STAY;
+
+    @Mock
+    private Deck deck;
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void testDoubleDownPaysDouble() {
+        when(deck.draw()).thenReturn(TEN_OF_CLUBS, SEVEN_OF_HEARTS, FIVE_OF_SPADES, SIX_OF_DIAMONDS, KING_OF_SPADES);
+        assertThat(BlackjackSimulation.playRound(deck, BlackjackRuleSet.DEFAULT, ALWAYS_DOUBLE_DOWN)).isEqualTo(2.0);
+    }
+
+    @Test
+    public void testSurrenderLosesHalf() {
+        when(deck.draw()).thenReturn(TEN_OF_CLUBS, SEVEN_OF_HEARTS, FIVE_OF_SPADES, SIX_OF_DIAMONDS);
+        assertThat(BlackjackSimulation.playRound(deck, BlackjackRuleSet.DEFAULT, ALWAYS_SURRENDER)).isEqualTo(-0.5);
+    }
+
+    @Test
+    public void testSurrenderIsPlayedAsHitWhereNotOffered() {
+        when(deck.draw()).thenReturn(TEN_OF_CLUBS, SEVEN_OF_HEARTS, FIVE_OF_SPADES, SIX_OF_DIAMONDS, KING_OF_SPADES);
+        final BlackjackRuleSet noSurrender =
+                BlackjackRuleSet.builder().surrender(BlackjackRuleSet.Surrender.NONE).build();
+        assertThat(BlackjackSimulation.playRound(deck, noSurrender, ALWAYS_SURRENDER)).isEqualTo(1.0);
+    }
+
+    @Test
+    public void testResumedRunMatchesUninterruptedRun() throws IOException {
+        final BlackjackSimulation simulation = simulationOf(strategies(), 10, 20);
+        final Path checkpoint = directory.resolve("simulation.checkpoint");
+        final long sessions = 2L * BlackjackSimulation.SESSIONS_PER_BATCH;
+
+        final Map<String, StrategyStats> uninterrupted = simulation.run(sessions);
+        simulation.run(BlackjackSimulation.SESSIONS_PER_BATCH, checkpoint);
+        final Map<String, StrategyStats> resumed = simulation.run(sessions, checkpoint);
+
+        assertThat(resumed.keySet()).containsExactlyElementsOf(uninterrupted.keySet());
+        for (final String name : uninterrupted.keySet()) {
+            final StrategyStats expected = uninterrupted.get(name), actual = resumed.get(name);
+            assertThat(actual.getSessions()).isEqualTo(sessions);
+            assertThat(actual.getRiskOfRuin()).isEqualTo(expected.getRiskOfRuin());
+            assertThat(actual.getRounds().getCount()).isEqualTo(expected.getRounds().getCount());
+            assertThat(actual.getRounds().getMean()).isEqualTo(expected.getRounds().getMean());
+            assertThat(actual.getRounds().getVariance()).isEqualTo(expected.getRounds().getVariance());
+            assertThat(actual.getTrajectory(1).getMean()).isEqualTo(expected.getTrajectory(1).getMean());
+            assertThat(actual.getFinalBankrolls().getMean()).isEqualTo(expected.getFinalBankrolls().getMean());
+        }
+    }
+
+    @Test
+    public void testCheckpointFromAnotherSimulationIsRejected() throws IOException {
+        final Path checkpoint = directory.resolve("simulation.checkpoint");
+        simulationOf(strategies(), 10, 20).run(1, checkpoint);
+        assertThrows(IllegalArgumentException.class, () -> simulationOf(strategies(), 5, 20).run(2, checkpoint));
+    }
+
+    @Test
+    public void testNotACheckpoint() throws IOException {
+        final Path checkpoint = Files.write(directory.resolve("simulation.checkpoint"), new byte[] { 1, 2, 3, 4 });
+        assertThrows(IOException.class, () -> simulationOf(strategies(), 10, 20).run(1, checkpoint));
+    }
+
+    @Test
+    public void testLosingStrategiesAreRuined() {
+        final Map<String, StrategyStats> stats = simulationOf(strategies(), 10, 200).run(2000);
+        final StrategyStats alwaysHit = stats.get("always hit");
+
+        assertThat(alwaysHit.getRounds().getMean()).isLessThan(-0.5);
+        assertThat(alwaysHit.getRiskOfRuin()).isGreaterThan(0.99);
+        assertThat(alwaysHit.estimateRiskOfRuin(10)).isEqualTo(1.0);
+        assertThat(alwaysHit.getFinalBankrolls().getMax()).isZero();
+        assertThat(stats.get("mimic the dealer").getRiskOfRuin()).isLessThan(alwaysHit.getRiskOfRuin());
+        assertThat(stats.get("always stay").getRounds().getMean()).isBetween(-0.25, -0.05);
+    }
+
+    @Test
+    public void testTrajectoryIsRecordedAtEveryInterval() {
+        final StrategyStats stats = simulationOf(Collections.singletonMap("always stay", ALWAYS_STAY), 100, 10)
+                .run(100).get("always stay");
+        assertThat(stats.getTrajectoryPoints()).isEqualTo(2);
+        assertThat(stats.getTrajectory(0).getCount()).isEqualTo(100);
+        assertThat(stats.getTrajectory(1).getMean()).isEqualTo(stats.getFinalBankrolls().getMean());
+    }
+
+    @Test
+    public void testNoStrategies() {
+        assertThrows(IllegalArgumentException.class, () -> simulationOf(Collections.emptyMap(), 10, 20));
+    }
+
+    private static BlackjackSimulation simulationOf(final Map<String, BlackjackStrategy> strategies,
+            final int bankroll, final int rounds) {
+        return new BlackjackSimulation(ForkJoinPool.commonPool(), 7L, strategies, bankroll, rounds, rounds / 2);
+    }
+
+    private static Map<String, BlackjackStrategy> strategies() {
+        final Map<String, BlackjackStrategy> strategies = new LinkedHashMap<>();
+        strategies.put("always stay", ALWAYS_STAY);
+        strategies.put("always hit", ALWAYS_HIT);
+        strategies.put("mimic the dealer", MIMIC_THE_DEALER);
+        return strategies;
+    }
+}
@@ -0,0 +1,82 @@
+package com.nordryd.gamblybot.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link RunningStats}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class RunningStatsTest
+{
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    public void testMeanAndVariance() {
+        final RunningStats stats = new RunningStats();
+        for (final double value : new double[] { 2, 4, 4, 4, 5, 5, 7, 9 }) {
+            stats.add(value);
+        }
+        assertThat(stats.getCount()).isEqualTo(8);
+        assertThat(stats.getMean()).isCloseTo(5.0, within(TOLERANCE));
+        assertThat(stats.getVariance()).isCloseTo(32.0 / 7.0, within(TOLERANCE));
+        assertThat(stats.getMin()).isEqualTo(2.0);
+        assertThat(stats.getMax()).isEqualTo(9.0);
+    }
+
+    @Test
+    public void testEmpty() {
+        final RunningStats stats = new RunningStats();
+        assertThat(stats.getMean()).isZero();
+        assertThat(stats.getVariance()).isZero();
+        assertThat(stats.getStandardError()).isZero();
+    }
+
+    @Test
+    public void testMergeMatchesAddingEveryValue() {
+        final Random random = new Random(1);
+        final RunningStats all = new RunningStats(), left = new RunningStats(), right = new RunningStats();
+        for (int value = 0; value < 1000; value++) {
+            final double next = random.nextGaussian() + 100.0;
+            all.add(next);
+            (value < 300 ? left : right).add(next);
+        }
+        left.merge(right);
+        left.merge(new RunningStats());
+
+        assertThat(left.getCount()).isEqualTo(all.getCount());
+        assertThat(left.getMean()).isCloseTo(all.getMean(), within(TOLERANCE));
+        assertThat(left.getVariance()).isCloseTo(all.getVariance(), within(TOLERANCE));
+        assertThat(left.getMin()).isEqualTo(all.getMin());
+        assertThat(left.getMax()).isEqualTo(all.getMax());
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final RunningStats stats = new RunningStats();
+        stats.add(-1.0);
+        stats.add(1.5);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        stats.write(new DataOutputStream(bytes));
+        final RunningStats read = RunningStats.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.getCount()).isEqualTo(stats.getCount());
+        assertThat(read.getMean()).isEqualTo(stats.getMean());
+        assertThat(read.getVariance()).isEqualTo(stats.getVariance());
+        assertThat(read.getMin()).isEqualTo(stats.getMin());
+        assertThat(read.getMax()).isEqualTo(stats.getMax());
+    }
+}
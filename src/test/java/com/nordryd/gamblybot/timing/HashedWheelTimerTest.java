@@ -0,0 +1,85 @@
+package com.nordryd.gamblybot.timing;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.nordryd.gamblybot.timing.HashedWheelTimer.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link HashedWheelTimer}.
+ * </p>
+ *
+ * @author Nordryd
+ */
+public class HashedWheelTimerTest
+{
+    private final HashedWheelTimer timer = new HashedWheelTimer(5, MILLISECONDS, 8);
+
+    @AfterEach
+    public void tearDown() {
+        timer.shutdown();
+    }
+
+    @Test
+    public void testTimeoutExpires() throws InterruptedException {
+        final CountDownLatch expired = new CountDownLatch(1);
+        final Timeout timeout = timer.newTimeout(expired::countDown, 20, MILLISECONDS);
+        assertThat(expired.await(5, SECONDS)).isTrue();
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+    }
+
+    @Test
+    public void testTimeoutLongerThanOneRotation() throws InterruptedException {
+        final CountDownLatch expired = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        timer.newTimeout(expired::countDown, 100, MILLISECONDS);
+        assertThat(expired.await(5, SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(95));
+    }
+
+    @Test
+    public void testCancelledTimeoutDoesNotRun() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+        final Timeout timeout = timer.newTimeout(runs::incrementAndGet, 50, MILLISECONDS);
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.isCancelled()).isTrue();
+
+        final CountDownLatch later = new CountDownLatch(1);
+        timer.newTimeout(later::countDown, 100, MILLISECONDS);
+        assertThat(later.await(5, SECONDS)).isTrue();
+        assertThat(runs.get()).isZero();
+    }
+
+    @Test
+    public void testFailingTaskDoesNotStopTimer() throws InterruptedException {
+        final CountDownLatch expired = new CountDownLatch(1);
+        timer.newTimeout(() -> {
+            throw new IllegalStateException("expected");
+        }, 10, MILLISECONDS);
+        timer.newTimeout(expired::countDown, 30, MILLISECONDS);
+        assertThat(expired.await(5, SECONDS)).isTrue();
+    }
+
+    @Test
+    public void testNewTimeoutAfterShutdown() {
+        timer.shutdown();
+        assertThat(assertThrows(IllegalStateException.class,
+                () -> timer.newTimeout(() -> {}, 1, MILLISECONDS)).getMessage())
+                .isEqualTo("Cannot schedule a timeout on a timer that has been shut down!");
+    }
+
+    @Test
+    public void testInvalidTickDuration() {
+        assertThat(assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer(0, MILLISECONDS, 8))
+                .getMessage()).isEqualTo("A timer's tick duration must be positive!");
+    }
+}